@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import org.openbaton.catalogue.mano.record.NetworkServiceRecord;
+import org.openbaton.catalogue.nfvo.viminstances.BaseVimInstance;
+import org.openbaton.sdk.api.util.RestSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Decoding of the json arrays returned by findAll. decodeArray does what requestGetAll does, it
+ * maps the whole array at once into an array of the entity class; decodeElements reads the elements
+ * one at a time like the JsonArrayIterator behind the stream methods of the agents.
+ */
+@State(Scope.Benchmark)
+public class GetAllDecodeBenchmark {
+
+  // number of elements of the array
+  @Param({"10", "100", "1000"})
+  public int size;
+
+  private RestSession session;
+  private Gson mapper;
+  private byte[] networkServiceRecords;
+  private byte[] vimInstances;
+
+  @Setup
+  public void setUp() {
+    session = new RestSession("admin", "openbaton", false, "localhost", "8080", "1");
+    mapper = session.getMapper();
+    networkServiceRecords =
+        Payloads.networkServiceRecords(size, 2).toString().getBytes(StandardCharsets.UTF_8);
+    vimInstances = Payloads.vimInstances(size).toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    session.close();
+  }
+
+  @Benchmark
+  public Object[] decodeArray() throws IOException {
+    return decodeArray(networkServiceRecords, NetworkServiceRecord.class);
+  }
+
+  @Benchmark
+  public void decodeElements(Blackhole blackhole) throws IOException {
+    try (JsonReader reader = reader(networkServiceRecords)) {
+      reader.beginArray();
+      while (reader.hasNext()) {
+        blackhole.consume(
+            mapper.<NetworkServiceRecord>fromJson(reader, NetworkServiceRecord.class));
+      }
+      reader.endArray();
+    }
+  }
+
+  /** Every element goes through NfvoGsonDeserializerVimInstance. */
+  @Benchmark
+  public Object[] decodeVimInstanceArray() throws IOException {
+    return decodeArray(vimInstances, BaseVimInstance.class);
+  }
+
+  private Object[] decodeArray(byte[] json, Class<?> type) throws IOException {
+    // the array class is created the same way as in requestGetAll
+    Class<?> arrayClass = Array.newInstance(type, 0).getClass();
+    try (JsonReader reader = reader(json)) {
+      return mapper.fromJson(reader, arrayClass);
+    }
+  }
+
+  private JsonReader reader(byte[] json) {
+    return new JsonReader(
+        new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import org.openbaton.catalogue.mano.descriptor.NetworkServiceDescriptor;
+import org.openbaton.catalogue.mano.descriptor.VirtualNetworkFunctionDescriptor;
+import org.openbaton.catalogue.mano.record.NetworkServiceRecord;
+import org.openbaton.catalogue.nfvo.viminstances.BaseVimInstance;
+import org.openbaton.sdk.api.util.RestSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Encoding and decoding of single entities with the Gson mappers of a RestSession, which carry the
+ * VimInstance type adapters. The decode benchmarks read from a byte stream, like the agents do with
+ * the content of a response. The sizes of the compact and the pretty printed documents are logged
+ * once in the setup, since the time alone does not show how much pretty printing adds on the wire.
+ */
+@State(Scope.Benchmark)
+public class GsonCodecBenchmark {
+
+  // number of VNFRs of the NetworkServiceRecord, each with 2 VDUs of 2 VNFCInstances, and of VNFDs
+  // embedded in the NetworkServiceDescriptor, each with 2 VDUs
+  @Param({"1", "10", "50"})
+  public int vnfrs;
+
+  private Logger log = LoggerFactory.getLogger(this.getClass());
+
+  private RestSession session;
+  private Gson mapper;
+  private Gson displayMapper;
+
+  private byte[] networkServiceRecordJson;
+  private NetworkServiceRecord networkServiceRecord;
+  private byte[] networkServiceDescriptorJson;
+  private NetworkServiceDescriptor networkServiceDescriptor;
+  private byte[] vnfdJson;
+  private VirtualNetworkFunctionDescriptor vnfd;
+  private byte[] vimInstanceJson;
+  private BaseVimInstance vimInstance;
+
+  @Setup
+  public void setUp() throws IOException {
+    // no connection is opened as long as no request is sent
+    session = new RestSession("admin", "openbaton", false, "localhost", "8080", "1");
+    mapper = session.getMapper();
+    displayMapper = session.getDisplayMapper();
+
+    networkServiceRecordJson = bytes(Payloads.networkServiceRecord(vnfrs, 2, 2).toString());
+    networkServiceRecord = decode(networkServiceRecordJson, NetworkServiceRecord.class);
+    vnfdJson = bytes(Payloads.virtualNetworkFunctionDescriptor(2 * vnfrs).toString());
+    vnfd = decode(vnfdJson, VirtualNetworkFunctionDescriptor.class);
+    vimInstanceJson = bytes(Payloads.vimInstance(0).toString());
+    vimInstance = decode(vimInstanceJson, BaseVimInstance.class);
+    networkServiceDescriptorJson = bytes(Payloads.networkServiceDescriptor(vnfrs, 2).toString());
+    networkServiceDescriptor = decode(networkServiceDescriptorJson, NetworkServiceDescriptor.class);
+
+    log.info(
+        "Encoded sizes with "
+            + vnfrs
+            + " VNFRs/VNFDs in bytes (compact/pretty): NetworkServiceRecord "
+            + bytes(mapper.toJson(networkServiceRecord)).length
+            + "/"
+            + bytes(displayMapper.toJson(networkServiceRecord)).length
+            + ", NetworkServiceDescriptor "
+            + bytes(mapper.toJson(networkServiceDescriptor)).length
+            + "/"
+            + bytes(displayMapper.toJson(networkServiceDescriptor)).length);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    session.close();
+  }
+
+  @Benchmark
+  public NetworkServiceRecord decodeNetworkServiceRecord() throws IOException {
+    return decode(networkServiceRecordJson, NetworkServiceRecord.class);
+  }
+
+  @Benchmark
+  public String encodeNetworkServiceRecord() {
+    return mapper.toJson(networkServiceRecord);
+  }
+
+  /** The pretty printing mapper, which the SDK only uses for showing objects to humans. */
+  @Benchmark
+  public String encodeNetworkServiceRecordPretty() {
+    return displayMapper.toJson(networkServiceRecord);
+  }
+
+  @Benchmark
+  public String encodeNetworkServiceDescriptor() {
+    return mapper.toJson(networkServiceDescriptor);
+  }
+
+  @Benchmark
+  public String encodeNetworkServiceDescriptorPretty() {
+    return displayMapper.toJson(networkServiceDescriptor);
+  }
+
+  @Benchmark
+  public VirtualNetworkFunctionDescriptor decodeVirtualNetworkFunctionDescriptor()
+      throws IOException {
+    return decode(vnfdJson, VirtualNetworkFunctionDescriptor.class);
+  }
+
+  @Benchmark
+  public String encodeVirtualNetworkFunctionDescriptor() {
+    return mapper.toJson(vnfd);
+  }
+
+  /** Goes through NfvoGsonDeserializerVimInstance, which picks the class from the type field. */
+  @Benchmark
+  public BaseVimInstance decodeVimInstance() throws IOException {
+    return decode(vimInstanceJson, BaseVimInstance.class);
+  }
+
+  @Benchmark
+  public String encodeVimInstance() {
+    return mapper.toJson(vimInstance, BaseVimInstance.class);
+  }
+
+  private <T> T decode(byte[] json, Class<T> type) throws IOException {
+    try (JsonReader reader =
+        new JsonReader(
+            new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8))) {
+      return mapper.fromJson(reader, type);
+    }
+  }
+
+  private static byte[] bytes(String json) {
+    return json.getBytes(StandardCharsets.UTF_8);
+  }
+}
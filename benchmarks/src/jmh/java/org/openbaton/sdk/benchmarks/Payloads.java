@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.benchmarks;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.util.UUID;
+
+/**
+ * Builds json documents shaped like the ones the NFVO returns, in configurable sizes. They are
+ * built as json trees instead of catalogue objects, so that they contain exactly what the NFVO
+ * sends, e.g. the ids and the relations between the records.
+ */
+final class Payloads {
+
+  static final String PROJECT_ID = "0b9c5d83-4a29-4f4b-9f0c-3a4c1d8e7f60";
+
+  private Payloads() {}
+
+  /**
+   * A deployed NetworkServiceRecord.
+   *
+   * @param vnfrs the number of VirtualNetworkFunctionRecords
+   * @param vdus the number of VirtualDeploymentUnits per VNFR
+   * @param vnfcInstances the number of VNFCInstances per VDU
+   * @return the json object
+   */
+  static JsonObject networkServiceRecord(int vnfrs, int vdus, int vnfcInstances) {
+    String nsrId = id();
+    JsonObject nsr = new JsonObject();
+    nsr.addProperty("id", nsrId);
+    nsr.addProperty("hbVersion", 12);
+    nsr.addProperty("name", "benchmark-ns");
+    nsr.addProperty("vendor", "fokus");
+    nsr.addProperty("version", "1.0");
+    nsr.addProperty("status", "ACTIVE");
+    nsr.addProperty("descriptor_reference", id());
+    nsr.addProperty("projectId", PROJECT_ID);
+    nsr.addProperty("task", "Onboarded");
+    JsonArray records = new JsonArray();
+    for (int i = 0; i < vnfrs; i++) {
+      records.add(virtualNetworkFunctionRecord(nsrId, i, vdus, vnfcInstances));
+    }
+    nsr.add("vnfr", records);
+    return nsr;
+  }
+
+  private static JsonObject virtualNetworkFunctionRecord(
+      String nsrId, int index, int vdus, int vnfcInstances) {
+    JsonObject vnfr = new JsonObject();
+    vnfr.addProperty("id", id());
+    vnfr.addProperty("hbVersion", 7);
+    vnfr.addProperty("name", "vnf-" + index);
+    vnfr.addProperty("vendor", "fokus");
+    vnfr.addProperty("version", "1.0");
+    vnfr.addProperty("type", "server");
+    vnfr.addProperty("endpoint", "generic");
+    vnfr.addProperty("status", "ACTIVE");
+    vnfr.addProperty("descriptor_reference", id());
+    vnfr.addProperty("parent_ns_id", nsrId);
+    vnfr.addProperty("projectId", PROJECT_ID);
+    vnfr.addProperty("deployment_flavour_key", "m1.small");
+    vnfr.add("monitoring_parameter", strings("cpu", "memory", "disk"));
+    vnfr.add("vnf_address", strings("192.168.0." + (index + 2), "172.16.0." + (index + 2)));
+    JsonArray units = new JsonArray();
+    for (int i = 0; i < vdus; i++) {
+      units.add(virtualDeploymentUnit("vdu-" + index + "-" + i, vnfcInstances));
+    }
+    vnfr.add("vdu", units);
+    return vnfr;
+  }
+
+  private static JsonObject virtualDeploymentUnit(String name, int vnfcInstances) {
+    JsonObject vdu = new JsonObject();
+    vdu.addProperty("id", id());
+    vdu.addProperty("hbVersion", 3);
+    vdu.addProperty("name", name);
+    vdu.addProperty("projectId", PROJECT_ID);
+    vdu.addProperty("scale_in_out", 5);
+    vdu.addProperty("hostname", name);
+    vdu.add("vm_image", strings("ubuntu-16.04-server-cloudimg-amd64"));
+    vdu.add("vimInstanceName", strings("vim-instance"));
+    JsonArray instances = new JsonArray();
+    for (int i = 0; i < vnfcInstances; i++) {
+      JsonObject instance = new JsonObject();
+      instance.addProperty("id", id());
+      instance.addProperty("hbVersion", 2);
+      instance.addProperty("vim_id", id());
+      instance.addProperty("vc_id", id());
+      instance.addProperty("hostname", name + "-" + i);
+      instance.addProperty("state", "ACTIVE");
+      instance.add("ips", ips("private", "192.168.0." + (i + 10)));
+      instance.add("floatingIps", ips("private", "10.147.66." + (i + 10)));
+      instances.add(instance);
+    }
+    vdu.add("vnfc_instance", instances);
+    return vdu;
+  }
+
+  /**
+   * An onboarded NetworkServiceDescriptor, which embeds its VirtualNetworkFunctionDescriptors like
+   * the NFVO does when it returns a single NSD.
+   *
+   * @param vnfds the number of VirtualNetworkFunctionDescriptors
+   * @param vdus the number of VirtualDeploymentUnits per VNFD
+   * @return the json object
+   */
+  static JsonObject networkServiceDescriptor(int vnfds, int vdus) {
+    JsonObject nsd = new JsonObject();
+    nsd.addProperty("id", id());
+    nsd.addProperty("hbVersion", 1);
+    nsd.addProperty("name", "benchmark-nsd");
+    nsd.addProperty("vendor", "fokus");
+    nsd.addProperty("version", "1.0");
+    nsd.addProperty("projectId", PROJECT_ID);
+    nsd.addProperty("enabled", true);
+    JsonArray descriptors = new JsonArray();
+    for (int i = 0; i < vnfds; i++) {
+      descriptors.add(virtualNetworkFunctionDescriptor("vnf-" + i, vdus));
+    }
+    nsd.add("vnfd", descriptors);
+    JsonArray links = new JsonArray();
+    for (String network : new String[] {"private", "management"}) {
+      JsonObject link = new JsonObject();
+      link.addProperty("id", id());
+      link.addProperty("hbVersion", 1);
+      link.addProperty("name", network);
+      links.add(link);
+    }
+    nsd.add("vld", links);
+    return nsd;
+  }
+
+  /**
+   * An onboarded VirtualNetworkFunctionDescriptor.
+   *
+   * @param vdus the number of VirtualDeploymentUnits
+   * @return the json object
+   */
+  static JsonObject virtualNetworkFunctionDescriptor(int vdus) {
+    return virtualNetworkFunctionDescriptor("iperf-server", vdus);
+  }
+
+  private static JsonObject virtualNetworkFunctionDescriptor(String name, int vdus) {
+    JsonObject vnfd = new JsonObject();
+    vnfd.addProperty("id", id());
+    vnfd.addProperty("hbVersion", 1);
+    vnfd.addProperty("name", name);
+    vnfd.addProperty("vendor", "fokus");
+    vnfd.addProperty("version", "1.0");
+    vnfd.addProperty("type", "server");
+    vnfd.addProperty("endpoint", "generic");
+    vnfd.addProperty("projectId", PROJECT_ID);
+    vnfd.addProperty("vnfPackageLocation", id());
+    JsonArray lifecycleEvents = new JsonArray();
+    for (String event : new String[] {"INSTANTIATE", "CONFIGURE", "START", "TERMINATE"}) {
+      JsonObject lifecycleEvent = new JsonObject();
+      lifecycleEvent.addProperty("id", id());
+      lifecycleEvent.addProperty("event", event);
+      lifecycleEvent.add(
+          "lifecycle_events", strings(event.toLowerCase() + ".sh", event.toLowerCase() + "-2.sh"));
+      lifecycleEvents.add(lifecycleEvent);
+    }
+    vnfd.add("lifecycle_event", lifecycleEvents);
+    JsonArray units = new JsonArray();
+    for (int i = 0; i < vdus; i++) {
+      JsonObject vdu = new JsonObject();
+      vdu.addProperty("id", id());
+      vdu.addProperty("name", "vdu-" + i);
+      vdu.addProperty("scale_in_out", 3);
+      vdu.add("vm_image", strings("ubuntu-16.04-server-cloudimg-amd64"));
+      vdu.add("vimInstanceName", strings("vim-instance"));
+      units.add(vdu);
+    }
+    vnfd.add("vdu", units);
+    return vnfd;
+  }
+
+  /**
+   * An OpenStack VimInstance, which is decoded by the NfvoGsonDeserializerVimInstance adapter.
+   *
+   * @param index distinguishes the names of several instances
+   * @return the json object
+   */
+  static JsonObject vimInstance(int index) {
+    JsonObject vim = new JsonObject();
+    vim.addProperty("id", id());
+    vim.addProperty("hbVersion", 4);
+    vim.addProperty("name", "vim-instance-" + index);
+    vim.addProperty("type", "openstack");
+    vim.addProperty("authUrl", "http://10.147.66.10:5000/v3");
+    vim.addProperty("tenant", "openbaton");
+    vim.addProperty("username", "admin");
+    vim.addProperty("password", "openbaton");
+    vim.addProperty("keyPair", "openbaton-key");
+    vim.addProperty("projectId", PROJECT_ID);
+    vim.add("securityGroups", strings("default", "openbaton"));
+    JsonObject location = new JsonObject();
+    location.addProperty("id", id());
+    location.addProperty("name", "Berlin");
+    location.addProperty("latitude", "52.525876");
+    location.addProperty("longitude", "13.314400");
+    vim.add("location", location);
+    return vim;
+  }
+
+  /**
+   * @param size the number of elements
+   * @param vnfrs the number of VNFRs of every NSR
+   * @return a json array of NetworkServiceRecords, like the response of a findAll
+   */
+  static JsonArray networkServiceRecords(int size, int vnfrs) {
+    JsonArray array = new JsonArray();
+    for (int i = 0; i < size; i++) {
+      array.add(networkServiceRecord(vnfrs, 1, 1));
+    }
+    return array;
+  }
+
+  /**
+   * @param size the number of elements
+   * @return a json array of VimInstances, like the response of a findAll
+   */
+  static JsonArray vimInstances(int size) {
+    JsonArray array = new JsonArray();
+    for (int i = 0; i < size; i++) {
+      array.add(vimInstance(i));
+    }
+    return array;
+  }
+
+  private static JsonArray ips(String netName, String ip) {
+    JsonObject object = new JsonObject();
+    object.addProperty("id", id());
+    object.addProperty("netName", netName);
+    object.addProperty("ip", ip);
+    JsonArray array = new JsonArray();
+    array.add(object);
+    return array;
+  }
+
+  private static JsonArray strings(String... values) {
+    JsonArray array = new JsonArray();
+    for (String value : values) {
+      array.add(value);
+    }
+    return array;
+  }
+
+  private static String id() {
+    return UUID.randomUUID().toString();
+  }
+}
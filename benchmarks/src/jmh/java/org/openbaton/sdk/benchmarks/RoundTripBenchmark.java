@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Stream;
+import org.openbaton.catalogue.mano.record.NetworkServiceRecord;
+import org.openbaton.catalogue.nfvo.viminstances.BaseVimInstance;
+import org.openbaton.sdk.NFVORequestor;
+import org.openbaton.sdk.NfvoRequestorBuilder;
+import org.openbaton.sdk.api.exception.SDKException;
+import org.openbaton.sdk.api.rest.AsyncNetworkServiceRecordAgent;
+import org.openbaton.sdk.api.rest.NetworkServiceRecordAgent;
+import org.openbaton.sdk.api.rest.VimInstanceAgent;
+import org.openbaton.sdk.api.tracing.NoopSdkTracer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Complete requests through an NFVORequestor against a {@link StubNfvo} on the loopback interface:
+ * token handling, connection pool, request and response headers, and decoding. The tracing is
+ * disabled, so that its debug output does not distort the results.
+ */
+@State(Scope.Benchmark)
+public class RoundTripBenchmark {
+
+  // number of NetworkServiceRecords returned by findAll
+  @Param({"10", "100"})
+  public int size;
+
+  private StubNfvo nfvo;
+  private NFVORequestor requestor;
+  private NetworkServiceRecordAgent networkServiceRecordAgent;
+  private VimInstanceAgent vimInstanceAgent;
+  private AsyncNetworkServiceRecordAgent asyncNetworkServiceRecordAgent;
+  private String networkServiceRecordId;
+
+  @Setup
+  public void setUp() throws IOException, SDKException {
+    nfvo =
+        new StubNfvo(
+            Payloads.networkServiceRecord(5, 2, 2),
+            Payloads.networkServiceRecords(size, 2),
+            Payloads.vimInstances(size));
+    requestor =
+        NfvoRequestorBuilder.create()
+            .nfvoIp("127.0.0.1")
+            .nfvoPort(nfvo.getPort())
+            .username("admin")
+            .password("openbaton")
+            .tracer(NoopSdkTracer.INSTANCE)
+            .build();
+    networkServiceRecordAgent = requestor.getNetworkServiceRecordAgent();
+    vimInstanceAgent = requestor.getVimInstanceAgent();
+    asyncNetworkServiceRecordAgent = requestor.getAsyncNetworkServiceRecordAgent();
+    networkServiceRecordId = networkServiceRecordAgent.findAll().get(0).getId();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    requestor.close();
+    nfvo.close();
+  }
+
+  @Benchmark
+  public NetworkServiceRecord findById() throws SDKException {
+    return networkServiceRecordAgent.findById(networkServiceRecordId);
+  }
+
+  /** Several threads share the pooled connections of the session. */
+  @Benchmark
+  @Threads(8)
+  public NetworkServiceRecord findByIdConcurrently() throws SDKException {
+    return networkServiceRecordAgent.findById(networkServiceRecordId);
+  }
+
+  @Benchmark
+  public List<NetworkServiceRecord> findAll() throws SDKException {
+    return networkServiceRecordAgent.findAll();
+  }
+
+  @Benchmark
+  public long streamAll() throws SDKException {
+    try (Stream<NetworkServiceRecord> stream = networkServiceRecordAgent.stream()) {
+      return stream.count();
+    }
+  }
+
+  @Benchmark
+  public List<BaseVimInstance> findAllVimInstances() throws SDKException {
+    return vimInstanceAgent.findAll();
+  }
+
+  @Benchmark
+  public NetworkServiceRecord findByIdAsync() throws Exception {
+    return asyncNetworkServiceRecordAgent.findById(networkServiceRecordId).get();
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.benchmarks;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A minimal NFVO on a local port answering with pre-encoded responses, so that the round trip
+ * benchmarks measure the SDK and the loopback connection instead of the NFVO. It knows the token,
+ * project, NetworkServiceRecord and VimInstance endpoints.
+ */
+final class StubNfvo implements Closeable {
+
+  static {
+    // otherwise the JDK's HttpServer sends the response body after a delayed ACK, which adds about
+    // 40 ms to every request; read when the first server is created
+    System.setProperty("sun.net.httpserver.nodelay", "true");
+  }
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final byte[] token;
+  private final byte[] projects;
+  private final byte[] networkServiceRecord;
+  private final byte[] networkServiceRecords;
+  private final byte[] vimInstances;
+
+  /**
+   * Start the stub NFVO.
+   *
+   * @param networkServiceRecord the NetworkServiceRecord returned by GET on an id and by POST
+   * @param networkServiceRecords the array returned by GET on /ns-records
+   * @param vimInstances the array returned by GET on /datacenters
+   * @throws IOException if the server cannot be started
+   */
+  StubNfvo(JsonObject networkServiceRecord, JsonArray networkServiceRecords, JsonArray vimInstances)
+      throws IOException {
+    JsonObject project = new JsonObject();
+    project.addProperty("id", Payloads.PROJECT_ID);
+    project.addProperty("name", "default");
+    JsonArray projectArray = new JsonArray();
+    projectArray.add(project);
+    this.token = bytes("{\"value\":\"7e5a3f4b-c8a3-4c6e-9f67-2b3a1d8c9e10\"}");
+    this.projects = bytes(projectArray.toString());
+    this.networkServiceRecord = bytes(networkServiceRecord.toString());
+    this.networkServiceRecords = bytes(networkServiceRecords.toString());
+    this.vimInstances = bytes(vimInstances.toString());
+
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 128);
+    executor = Executors.newFixedThreadPool(8);
+    server.setExecutor(executor);
+    server.createContext("/oauth/token", exchange -> respond(exchange, 200, token));
+    server.createContext("/api/v1/projects", exchange -> respond(exchange, 200, projects));
+    server.createContext("/api/v1/ns-records", this::handleNetworkServiceRecords);
+    server.createContext(
+        "/api/v1/datacenters", exchange -> respond(exchange, 200, this.vimInstances));
+    server.start();
+  }
+
+  int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  private void handleNetworkServiceRecords(HttpExchange exchange) throws IOException {
+    String path = exchange.getRequestURI().getPath();
+    if (exchange.getRequestMethod().equals("POST")) {
+      respond(exchange, 201, networkServiceRecord);
+    } else if (path.equals("/api/v1/ns-records") || path.equals("/api/v1/ns-records/")) {
+      respond(exchange, 200, networkServiceRecords);
+    } else {
+      respond(exchange, 200, networkServiceRecord);
+    }
+  }
+
+  private void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+    try (InputStream in = exchange.getRequestBody()) {
+      byte[] buffer = new byte[8192];
+      while (in.read(buffer) != -1) {
+        // the request bodies are not needed
+      }
+    }
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  private static byte[] bytes(String json) {
+    return json.getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+}
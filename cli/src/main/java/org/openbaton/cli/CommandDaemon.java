@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.cli;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openbaton.sdk.NFVORequestor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A long running command line interface which executes the commands forwarded by openbaton.sh -x,
+ * so that a command costs a round trip over the loopback interface instead of a JVM start and a
+ * login to the NFVO.
+ *
+ * <p>The daemon keeps one NFVORequestor, and so one token and one connection pool, for every
+ * combination of NFVO_* variables the clients send, i.e. per NFVO, user and project. Missing
+ * variables default to the ones of the daemon.
+ *
+ * <p>Java 8 cannot listen on Unix domain sockets, therefore the daemon listens on a random port of
+ * the loopback interface. The port and a random secret are written to ~/.openbaton/cli-daemon,
+ * which only the owner can read, and a client has to send the secret before anything else.
+ *
+ * <p>A client sends, one per line: the secret, the NFVO_* variables as NAME=value, an empty line,
+ * the number of arguments and the arguments. The daemon answers with the output of the command
+ * followed by a "### exit status: n" line and closes the connection.
+ */
+class CommandDaemon implements Closeable {
+
+  static final Path DAEMON_FILE =
+      Paths.get(System.getProperty("user.home"), ".openbaton", "cli-daemon");
+
+  // time a client has to send its command after connecting
+  private static final int READ_TIMEOUT = 10000;
+
+  private static final AtomicInteger threadCount = new AtomicInteger();
+
+  private Logger log = LoggerFactory.getLogger(this.getClass());
+
+  private final Properties defaults;
+  private final Map<String, NFVORequestor> sessions = new ConcurrentHashMap<>();
+  private final ExecutorService executor = Executors.newCachedThreadPool(this::newThread);
+  private final ServerSocket serverSocket;
+  private final byte[] secret;
+
+  /**
+   * Listen on the loopback interface and write the daemon file.
+   *
+   * @param defaults the NFVO_* properties of the daemon
+   * @param requestor the NFVORequestor created from the defaults
+   * @throws IOException if the socket or the daemon file cannot be created
+   */
+  CommandDaemon(Properties defaults, NFVORequestor requestor) throws IOException {
+    this.defaults = defaults;
+    this.sessions.put(sessionKey(defaults), requestor);
+    byte[] random = new byte[32];
+    new SecureRandom().nextBytes(random);
+    StringBuilder hex = new StringBuilder();
+    for (byte b : random) {
+      hex.append(String.format("%02x", b));
+    }
+    this.secret = hex.toString().getBytes(StandardCharsets.UTF_8);
+    this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    try {
+      writeDaemonFile(serverSocket.getLocalPort() + " " + hex + "\n");
+    } catch (IOException e) {
+      serverSocket.close();
+      throw e;
+    }
+    Runtime.getRuntime().addShutdownHook(new Thread(this::close));
+  }
+
+  /** Accept clients until the daemon is closed. */
+  void run() {
+    log.info("Listening for commands on port " + serverSocket.getLocalPort());
+    while (!serverSocket.isClosed()) {
+      try {
+        Socket socket = serverSocket.accept();
+        executor.execute(() -> serve(socket));
+      } catch (SocketException e) {
+        // closed
+      } catch (IOException e) {
+        log.warn("Error while accepting a client: " + e.getMessage());
+      }
+    }
+  }
+
+  private void serve(Socket client) {
+    try (Socket socket = client) {
+      socket.setSoTimeout(READ_TIMEOUT);
+      BufferedReader in =
+          new BufferedReader(
+              new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+      String line = in.readLine();
+      if (line == null || !MessageDigest.isEqual(secret, line.getBytes(StandardCharsets.UTF_8))) {
+        log.warn("Rejected a client which did not send the secret");
+        return;
+      }
+      Properties properties = new Properties();
+      properties.putAll(defaults);
+      while ((line = in.readLine()) != null && !line.isEmpty()) {
+        int separator = line.indexOf('=');
+        if (line.startsWith("NFVO_") && separator > 0) {
+          properties.setProperty(line.substring(0, separator), line.substring(separator + 1));
+        }
+      }
+      String[] args = new String[Integer.parseInt(String.valueOf(in.readLine()).trim())];
+      for (int i = 0; i < args.length; i++) {
+        args[i] = in.readLine();
+        if (args[i] == null) {
+          throw new IOException("Connection closed after " + i + " of " + args.length + " args");
+        }
+      }
+      socket.setSoTimeout(0);
+
+      PrintStream out =
+          new PrintStream(
+              new BufferedOutputStream(socket.getOutputStream()),
+              true,
+              StandardCharsets.UTF_8.name());
+      int status = 1;
+      if (args.length == 0) {
+        out.println("Error: no command given");
+      } else {
+        log.debug("Running " + Arrays.toString(args));
+        NFVORequestor nfvo =
+            sessions.computeIfAbsent(
+                sessionKey(properties),
+                key -> NFVOCommandLineInterface.createRequestor(properties));
+        status = NFVOCommandLineInterface.runCommand(args, out, nfvo);
+      }
+      out.println("### exit status: " + status);
+      out.flush();
+    } catch (IOException | RuntimeException e) {
+      log.warn("Error while serving a client: " + e.getMessage());
+    }
+  }
+
+  /** The sessions are shared by the clients with the same NFVO, credentials and project. */
+  private static String sessionKey(Properties properties) {
+    return String.join(
+        "\n",
+        properties.getProperty("NFVO_IP"),
+        properties.getProperty("NFVO_PORT"),
+        properties.getProperty("NFVO_SSL_ENABLED"),
+        properties.getProperty("NFVO_API_VERSION"),
+        properties.getProperty("NFVO_USERNAME"),
+        properties.getProperty("NFVO_PASSWORD"),
+        properties.getProperty("NFVO_PROJECT_ID"));
+  }
+
+  private void writeDaemonFile(String content) throws IOException {
+    Path directory = DAEMON_FILE.getParent();
+    try {
+      if (!Files.exists(directory)) {
+        Files.createDirectories(
+            directory,
+            PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+      }
+      Files.deleteIfExists(DAEMON_FILE);
+      Files.createFile(
+          DAEMON_FILE,
+          PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+    } catch (UnsupportedOperationException e) {
+      log.warn("Cannot restrict the permissions of " + DAEMON_FILE + " on this file system");
+      Files.createDirectories(directory);
+    }
+    Files.write(DAEMON_FILE, content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Override
+  public void close() {
+    if (serverSocket.isClosed()) {
+      return;
+    }
+    try {
+      serverSocket.close();
+      Files.deleteIfExists(DAEMON_FILE);
+    } catch (IOException e) {
+      log.warn("Error while stopping the daemon: " + e.getMessage());
+    }
+    executor.shutdownNow();
+    for (NFVORequestor requestor : sessions.values()) {
+      try {
+        requestor.close();
+      } catch (IOException e) {
+        log.warn("Error while closing a session: " + e.getMessage());
+      }
+    }
+    sessions.clear();
+  }
+
+  private Thread newThread(Runnable runnable) {
+    Thread thread = new Thread(runnable, "openbaton-daemon-" + threadCount.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  }
+}
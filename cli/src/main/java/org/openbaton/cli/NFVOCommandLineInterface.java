@@ -20,12 +20,20 @@ package org.openbaton.cli;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonParseException;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
@@ -33,13 +41,18 @@ import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import jline.console.ConsoleReader;
+import jline.console.UserInterruptException;
 import jline.console.completer.ArgumentCompleter;
 import jline.console.completer.Completer;
 import jline.console.completer.FileNameCompleter;
@@ -57,6 +70,18 @@ import org.openbaton.cli.util.PrintFormat;
 import org.openbaton.cli.util.Utils;
 import org.openbaton.sdk.NFVORequestor;
 import org.openbaton.sdk.api.annotations.Help;
+import org.openbaton.sdk.api.rest.ConfigurationAgent;
+import org.openbaton.sdk.api.rest.EventAgent;
+import org.openbaton.sdk.api.rest.KeyAgent;
+import org.openbaton.sdk.api.rest.NetworkServiceDescriptorAgent;
+import org.openbaton.sdk.api.rest.NetworkServiceRecordAgent;
+import org.openbaton.sdk.api.rest.ProjectAgent;
+import org.openbaton.sdk.api.rest.UserAgent;
+import org.openbaton.sdk.api.rest.VNFFGAgent;
+import org.openbaton.sdk.api.rest.VNFPackageAgent;
+import org.openbaton.sdk.api.rest.VimInstanceAgent;
+import org.openbaton.sdk.api.rest.VirtualLinkAgent;
+import org.openbaton.sdk.api.rest.VirtualNetworkFunctionDescriptorAgent;
 import org.openbaton.sdk.api.util.AbstractRestAgent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -68,17 +93,59 @@ public class NFVOCommandLineInterface {
 
   private static final String VERSION = "1";
 
-  private static final LinkedHashMap<String, LinkedList<Command>> commandMap =
-      new LinkedHashMap<>();
-  private static final LinkedHashMap<String, String> helpCommandMap =
-      new LinkedHashMap<String, String>() {
-        {
-          put("help", "print the usage");
-        }
-      };
+  // the NFVORequestor created from the environment variables, whose agents the commands belong to
+  private static NFVORequestor requestor;
+
+  // the agents offering commands; an agent is only created when one of its commands is executed
+  private static final LinkedHashMap<
+          Class<? extends AbstractRestAgent>, Function<NFVORequestor, AbstractRestAgent>>
+      agents = new LinkedHashMap<>();
+
+  static {
+    agents.put(NetworkServiceRecordAgent.class, NFVORequestor::getNetworkServiceRecordAgent);
+    agents.put(ConfigurationAgent.class, NFVORequestor::getConfigurationAgent);
+    agents.put(EventAgent.class, NFVORequestor::getEventAgent);
+    agents.put(VNFFGAgent.class, NFVORequestor::getVNFFGAgent);
+    agents.put(VimInstanceAgent.class, NFVORequestor::getVimInstanceAgent);
+    agents.put(
+        NetworkServiceDescriptorAgent.class, NFVORequestor::getNetworkServiceDescriptorAgent);
+    agents.put(
+        VirtualNetworkFunctionDescriptorAgent.class,
+        NFVORequestor::getVirtualNetworkFunctionDescriptorAgent);
+    agents.put(VirtualLinkAgent.class, NFVORequestor::getVirtualLinkAgent);
+    agents.put(VNFPackageAgent.class, NFVORequestor::getVNFPackageAgent);
+    agents.put(KeyAgent.class, NFVORequestor::getKeyAgent);
+    agents.put(ProjectAgent.class, NFVORequestor::getProjectAgent);
+    agents.put(UserAgent.class, NFVORequestor::getUserAgent);
+  }
+
+  /**
+   * The available commands. They are looked up the first time they are needed and then kept for the
+   * following commands of the shell, the script or the daemon.
+   */
+  private static final class Registry {
+    private static final LinkedHashMap<String, LinkedList<Command>> commandMap =
+        new LinkedHashMap<>();
+    private static final LinkedHashMap<String, String> helpCommandMap =
+        new LinkedHashMap<String, String>() {
+          {
+            put("help", "print the usage");
+          }
+        };
+
+    static {
+      long start = System.nanoTime();
+      fillCommands();
+      log.debug("Registered " + commandMap.size() + " commands in " + millisSince(start) + " ms");
+    }
+  }
 
   /** Print out how to use the OpenBaton command line interface. */
   public static void usage() {
+    usage(System.out);
+  }
+
+  private static void usage(PrintStream out) {
 
     log.info(
         "\n"
@@ -89,16 +156,16 @@ public class NFVOCommandLineInterface {
             + "\\____|__  /\\___  /      \\___/   \\_______  /          \\______  /_______ \\___|\n"
             + "        \\/     \\/                       \\/                  \\/        \\/    ");
     log.info("OpenBaton's NFVO Command Line Interface");
-    System.out.println("/~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~/");
-    System.out.println("Available commands are");
+    out.println("/~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~/");
+    out.println("Available commands are");
     String format = "%-80s%s%n";
-    for (Object entry : helpCommandMap.entrySet()) {
-      System.out.printf(
+    for (Object entry : Registry.helpCommandMap.entrySet()) {
+      out.printf(
           format,
           ((Map.Entry) entry).getKey().toString() + ":",
           ((Map.Entry) entry).getValue().toString());
     }
-    System.out.println("/~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~/");
+    out.println("/~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~/");
   }
 
   /**
@@ -107,11 +174,15 @@ public class NFVOCommandLineInterface {
    * @param s The command
    */
   public static void helpUsage(String s) {
-    for (Object entry : helpCommandMap.entrySet()) {
+    helpUsage(s, System.out);
+  }
+
+  private static void helpUsage(String s, PrintStream out) {
+    for (Object entry : Registry.helpCommandMap.entrySet()) {
       String format = "%-80s%s%n";
       if (((Map.Entry) entry).getKey().toString().startsWith(s)
           || ((Map.Entry) entry).getKey().toString().startsWith(s + "-")) {
-        System.out.printf(
+        out.printf(
             format,
             ((Map.Entry) entry).getKey().toString() + ":",
             ((Map.Entry) entry).getValue().toString());
@@ -120,7 +191,7 @@ public class NFVOCommandLineInterface {
   }
 
   private static void helpCommand(String command) {
-    Command cmd = commandMap.get(command).getFirst();
+    Command cmd = Registry.commandMap.get(command).getFirst();
     System.out.println();
     System.out.println("/~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~/");
     System.out.print("Usage: " + command + " ");
@@ -138,6 +209,8 @@ public class NFVOCommandLineInterface {
 
   public static void main(String[] args)
       throws IOException, KeyStoreException, NoSuchAlgorithmException, KeyManagementException {
+    long jvmStartup = log.isDebugEnabled() ? ManagementFactory.getRuntimeMXBean().getUptime() : 0;
+    long start = System.nanoTime();
 
     ConsoleReader reader = getConsoleReader();
     Properties properties = new Properties();
@@ -151,96 +224,237 @@ public class NFVOCommandLineInterface {
     getProperty(reader, properties, "NFVO_PORT", "8443");
     getProperty(reader, properties, "NFVO_API_VERSION", VERSION);
 
-    NFVORequestor nfvo =
-        new NFVORequestor(
-            properties.getProperty("NFVO_USERNAME"),
-            properties.getProperty("NFVO_PASSWORD"),
-            properties.getProperty("NFVO_PROJECT_ID"),
-            Boolean.parseBoolean(properties.getProperty("NFVO_SSL_ENABLED")),
-            properties.getProperty("NFVO_IP"),
-            properties.getProperty("NFVO_PORT"),
-            properties.getProperty("NFVO_API_VERSION"));
+    long propertiesRead = System.nanoTime();
+    requestor = createRequestor(properties);
+    log.debug(
+        "Startup took "
+            + jvmStartup
+            + " ms until main, "
+            + TimeUnit.NANOSECONDS.toMillis(propertiesRead - start)
+            + " ms for reading the properties and "
+            + millisSince(propertiesRead)
+            + " ms for creating the NFVORequestor");
+
+    if (args.length == 0 || (args.length == 1 && args[0].equals("-i"))) {
+      runShell(reader, properties.getProperty("NFVO_USERNAME"));
+      exit(0);
+    }
+    if (args[0].equals("-f") || args[0].equals("-p")) {
+      exit(runScript(args));
+    }
+    if (args.length == 1 && args[0].equals("-s")) {
+      try (CommandDaemon daemon = new CommandDaemon(properties, requestor)) {
+        daemon.run();
+      }
+      exit(0);
+    }
+    long commandStart = System.nanoTime();
+    int status = runCommand(args, System.out);
+    log.debug("Command " + args[0] + " took " + millisSince(commandStart) + " ms");
+    exit(status);
+  }
 
-    fillCommands(nfvo);
+  private static long millisSince(long start) {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+  }
 
+  /**
+   * Create the NFVORequestor for the given NFVO_* properties.
+   *
+   * @param properties the properties
+   * @return the NFVORequestor
+   */
+  static NFVORequestor createRequestor(Properties properties) {
+    return new NFVORequestor(
+        properties.getProperty("NFVO_USERNAME"),
+        properties.getProperty("NFVO_PASSWORD"),
+        properties.getProperty("NFVO_PROJECT_ID"),
+        Boolean.parseBoolean(properties.getProperty("NFVO_SSL_ENABLED")),
+        properties.getProperty("NFVO_IP"),
+        properties.getProperty("NFVO_PORT"),
+        properties.getProperty("NFVO_API_VERSION"));
+  }
+
+  /**
+   * Read commands from the console and run them until the user types exit or closes the input. All
+   * the commands are sent with the same NFVORequestor, so the token and the connections to the NFVO
+   * are reused instead of starting a new JVM and logging in again for every command.
+   *
+   * @param reader the console
+   * @param username the user shown in the prompt
+   */
+  private static void runShell(ConsoleReader reader, String username) throws IOException {
+    List<String> candidates = new LinkedList<>(Registry.helpCommandMap.keySet());
+    candidates.add("exit");
     List<Completer> completors = new LinkedList<Completer>();
-    completors.add(new StringsCompleter(helpCommandMap.keySet()));
+    completors.add(new StringsCompleter(candidates));
     completors.add(new FileNameCompleter());
 
     reader.addCompleter(new ArgumentCompleter(completors));
-    reader.setPrompt(
-        "\u001B[135m" + properties.get("NFVO_USERNAME") + "@[\u001B[32mopen-baton\u001B[0m]~> ");
+    reader.setHandleUserInterrupt(true);
+    reader.setPrompt("\u001B[135m" + username + "@[\u001B[32mopen-baton\u001B[0m]~> ");
 
-    try {
-      reader.setPrompt(
-          "\u001B[135m" + properties.get("NFVO_USERNAME") + "@[\u001B[32mopen-baton\u001B[0m]~> ");
+    System.out.println("Type help to list the available commands and exit to leave the shell");
+    while (true) {
+      String line;
+      try {
+        line = reader.readLine();
+      } catch (UserInterruptException e) {
+        // Ctrl-C discards the current line only
+        continue;
+      }
+      if (line == null) {
+        break;
+      }
+      String[] command = Utils.splitCommandLine(line);
+      if (command.length == 0) {
+        continue;
+      }
+      if (command[0].equals("exit") || command[0].equals("quit")) {
+        break;
+      }
+      runCommand(command, System.out);
+    }
+  }
 
-      int find = 0;
+  /**
+   * Run a single command, given either as arguments of the main method or as a line of the
+   * interactive shell.
+   *
+   * @param args the name of the command followed by its parameters
+   * @param out where the result of the command is printed
+   * @return the exit status, 0 if the command succeeded
+   */
+  static int runCommand(String[] args, PrintStream out) {
+    return runCommand(args, out, requestor);
+  }
 
-      for (Object entry : helpCommandMap.entrySet()) {
-        String format = "%-80s%s%n";
-        String search = args[0] + "-";
-        if (((Map.Entry) entry).getKey().toString().equals(args[0])) {
-          find++;
-        }
+  /**
+   * Run a single command with the agents of the given NFVORequestor instead of the one created from
+   * the environment variables.
+   *
+   * @param args the name of the command followed by its parameters
+   * @param out where the result of the command is printed
+   * @param nfvo the NFVORequestor sending the requests
+   * @return the exit status, 0 if the command succeeded
+   */
+  static int runCommand(String[] args, PrintStream out, NFVORequestor nfvo) {
+    if (Registry.helpCommandMap.containsKey(args[0])) { //correct comand
+      if (args.length == 1 && args[0].equalsIgnoreCase("help")) { // case: ./openbaton.sh help
+        usage(out);
+        return 0;
       }
 
-      if (find > 0) { //correct comand
-        if (args.length == 1 && args[0].equalsIgnoreCase("help")) { // case: ./openbaton.sh help
-          usage();
-          exit(0);
-        }
+      if (args[args.length - 1].equalsIgnoreCase("help")) { // case: ./openbaton.sh [command] help
+        helpUsage(args[0], out);
+        return 0;
+      }
 
-        if (args[args.length - 1].equalsIgnoreCase("help")) { // case: ./openbaton.sh [command] help
-          helpUsage(args[0]);
-          exit(0);
-        }
+      if (args.length != 1
+          && args[0].equalsIgnoreCase("help")) { // case: ./openbaton.sh help something...
+        out.println(
+            "Type the following to get help for the usage of a command: \n./openbaton.sh [command] help");
+        return 1;
+      }
 
-        if (args.length != 1
-            && args[0].equalsIgnoreCase("help")) { // case: ./openbaton.sh help something...
-          System.out.println(
-              "Type the following to get help for the usage of a command: \n./openbaton.sh [command] help");
-          exit(1);
+      //execute comand
+      try {
+        String result = PrintFormat.printResult(args[0], executeCommand(args, nfvo));
+        out.println(result);
+        return 0;
+
+      } catch (CommandLineException ce) {
+        out.println("Error: " + ce.getMessage());
+        if (log.isDebugEnabled() && ce.getCause() != null) ce.getCause().printStackTrace();
+        return 1;
+      } catch (Exception e) {
+        // the SDKException of the agent method arrives wrapped by the reflective call
+        Throwable cause =
+            e instanceof InvocationTargetException && e.getCause() != null ? e.getCause() : e;
+        out.println("Error: " + cause.getMessage());
+        if (log.isDebugEnabled()) cause.printStackTrace();
+        log.error("Error while invoking command");
+        return 1;
+      }
+    } else { //wrong comand
+      int find = 0;
+      for (Object entry : Registry.helpCommandMap.entrySet()) {
+        String format = "%-80s%s%n";
+        if (((Map.Entry) entry).getKey().toString().startsWith(args[0])) {
+          out.printf(
+              format,
+              ((Map.Entry) entry).getKey().toString() + ":",
+              ((Map.Entry) entry).getValue().toString());
+          find++;
         }
+      }
+      if (find == 0) {
 
-        //execute comand
-        try {
-          String result = PrintFormat.printResult(args[0], executeCommand(args));
-          System.out.println(result);
-          exit(0);
-
-        } catch (CommandLineException ce) {
-          System.out.println("Error: " + ce.getMessage());
-          if (log.isDebugEnabled()) ce.getCause().printStackTrace();
-          exit(1);
-        } catch (Exception e) {
-          e.printStackTrace();
-          log.error("Error while invoking command");
-          exit(1);
-        }
-      } else { //wrong comand
-        for (Object entry : helpCommandMap.entrySet()) {
-          String format = "%-80s%s%n";
-          if (((Map.Entry) entry).getKey().toString().startsWith(args[0])) {
-            System.out.printf(
-                format,
-                ((Map.Entry) entry).getKey().toString() + ":",
-                ((Map.Entry) entry).getValue().toString());
-            find++;
-          }
-        }
-        if (find == 0) {
+        out.println("OpenBaton's NFVO Command Line Interface");
+        out.println("/~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~/");
+        out.println(args[0] + ": comand not found");
+        return 1;
+      }
+      return 0;
+    }
+  }
 
-          System.out.println("OpenBaton's NFVO Command Line Interface");
-          System.out.println("/~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~/");
-          System.out.println(args[0] + ": comand not found");
-          exit(1);
+  /**
+   * Run the commands of a script, see {@link ScriptRunner}. The arguments are -f followed by the
+   * path of the script, or - to read it from the standard input, and optionally -p followed by the
+   * maximum number of commands executed at the same time.
+   *
+   * @param args the arguments of the main method
+   * @return the exit status, 0 if all the commands succeeded
+   */
+  private static int runScript(String[] args) {
+    String path = "-";
+    int parallelism = ScriptRunner.DEFAULT_PARALLELISM;
+    try {
+      for (int i = 0; i < args.length; i += 2) {
+        if (args[i].equals("-f") && i + 1 < args.length) {
+          path = args[i + 1];
+        } else if (args[i].equals("-p") && i + 1 < args.length) {
+          parallelism = Integer.parseInt(args[i + 1]);
+        } else {
+          throw new IllegalArgumentException("Unknown option " + args[i]);
         }
       }
+      if (parallelism < 1) {
+        throw new IllegalArgumentException("The parallelism must be positive");
+      }
+    } catch (IllegalArgumentException e) {
+      System.out.println("Error: " + e.getMessage());
+      System.out.println("Usage: -f <script or - for the standard input> [-p <parallelism>]");
+      return 1;
+    }
+
+    try (BufferedReader script =
+        path.equals("-")
+            ? new BufferedReader(new InputStreamReader(System.in))
+            : new BufferedReader(new FileReader(path))) {
+      return new ScriptRunner(parallelism).run(script, System.out) == 0 ? 0 : 1;
+    } catch (IOException e) {
+      System.out.println("Error while reading the script " + path + ": " + e.getMessage());
+      return 1;
+    }
+  }
 
-    } catch (Throwable t) {
-      t.printStackTrace();
+  /**
+   * Returns true if the command only reads from the NFVO, i.e. it is a find or get command, so it
+   * can run at the same time as other such commands.
+   *
+   * @param args the name of the command followed by its parameters
+   * @return true if the command does not change anything on the NFVO
+   */
+  static boolean isReadOnly(String[] args) {
+    LinkedList<Command> commands = Registry.commandMap.get(args[0]);
+    if (commands == null) {
+      // help and unknown commands just print the usage
+      return true;
     }
+    String methodName = commands.getFirst().getMethod().getName();
+    return methodName.startsWith("find") || methodName.startsWith("get");
   }
 
   private static void getProperty(
@@ -269,7 +483,7 @@ public class NFVOCommandLineInterface {
     while (commandLineIterator.hasNext()) {
       params.add(commandLineIterator.next());
     }
-    LinkedList<Command> commandList = commandMap.get(commandName);
+    LinkedList<Command> commandList = Registry.commandMap.get(commandName);
     if (commandList == null || commandList.size() == 0) {
       throw new CommandLineException("Command: " + commandName + " not found!");
     }
@@ -310,13 +524,14 @@ public class NFVOCommandLineInterface {
    * Try to execute the user's command line input.
    *
    * @param line
+   * @param nfvo the NFVORequestor whose agent executes the command
    * @return the object returned by the execution of the command line input
    * @throws InvocationTargetException
    * @throws IllegalAccessException
    * @throws FileNotFoundException
    * @throws CommandLineException
    */
-  private static Object executeCommand(String[] line)
+  private static Object executeCommand(String[] line, NFVORequestor nfvo)
       throws InvocationTargetException, IllegalAccessException, FileNotFoundException,
           CommandLineException {
     Iterator<String> commandLineIterator = Arrays.asList(line).iterator();
@@ -325,7 +540,8 @@ public class NFVOCommandLineInterface {
     if (commandLineIterator.hasNext()) commandLineIterator.next();
 
     Command command = validateParametersAndGetCommand(line);
-    handleExceptionalCommandNames(command);
+    // the command is shared by concurrent executions, so it must not be modified
+    Class<?> clazz = handleExceptionalCommandNames(command);
     log.trace(
         "invoking method: "
             + command.getMethod().getName()
@@ -341,9 +557,7 @@ public class NFVOCommandLineInterface {
       } else if (t.equals(HashMap.class)) {
         String pathname = commandLineIterator.next();
         log.trace("the path is: " + pathname);
-        File f = new File(pathname);
-        FileInputStream fileInputStream = new FileInputStream(f);
-        String file = getString(fileInputStream);
+        String file = getString(new File(pathname));
         log.trace(file);
         HashMap casted;
         try {
@@ -357,9 +571,7 @@ public class NFVOCommandLineInterface {
       } else if (t.equals(ArrayList.class)) {
         String pathname = commandLineIterator.next();
         log.trace("the path is: " + pathname);
-        File f = new File(pathname);
-        FileInputStream fileInputStream = new FileInputStream(f);
-        String file = getString(fileInputStream);
+        String file = getString(new File(pathname));
         log.trace(file);
         ArrayList casted;
         try {
@@ -373,18 +585,16 @@ public class NFVOCommandLineInterface {
       } else { // for instance waiting for an obj so passing a file
         String pathname = commandLineIterator.next();
         log.trace("the path is: " + pathname);
-        File f = new File(pathname);
-        FileInputStream fileInputStream = new FileInputStream(f);
-        String file = getString(fileInputStream);
+        String file = getString(new File(pathname));
         log.trace(file);
-        log.trace("waiting for an object of type " + command.getClazz().getName());
+        log.trace("waiting for an object of type " + clazz.getName());
         Object casted = null;
         try {
-          casted = command.getClazz().cast(gson.fromJson(file, command.getClazz()));
+          casted = clazz.cast(gson.fromJson(file, clazz));
         } catch (JsonParseException je) {
           throw new CommandLineException(
               "The provided json file could not be cast to an object of type "
-                  + command.getClazz().getSimpleName(),
+                  + clazz.getSimpleName(),
               je.getCause());
         }
         log.trace("Parameter added is: " + casted);
@@ -397,92 +607,73 @@ public class NFVOCommandLineInterface {
     }
     log.trace(
         "invoking method: " + command.getMethod().getName() + " with parameters: " + parameters);
-    return command.getMethod().invoke(command.getInstance(), params.toArray());
+    long start = System.nanoTime();
+    Object agent = agents.get(command.getAgentClass()).apply(nfvo);
+    log.debug(
+        "Got the " + command.getAgentClass().getSimpleName() + " in " + millisSince(start) + " ms");
+    return command.getMethod().invoke(agent, params.toArray());
   }
 
   /**
-   * This method modifies commands which do not use the object provided by their names. For example
-   * the command NetworkServiceRecord-createVNFCInstance will not create a NetworkServiceRecord but
-   * a VNFCInstance. Therefore the clazz attribute in the command object has to be changed from
-   * NetworkServiceRecord to VNFCInstance.
+   * This method resolves the class of the object passed to commands which do not use the object
+   * provided by their names. For example the command NetworkServiceRecord-createVNFCInstance will
+   * not create a NetworkServiceRecord but a VNFCInstance. Therefore VNFCInstance is returned instead
+   * of the clazz attribute of the command object, NetworkServiceRecord.
    *
    * @param command
+   * @return the class of the object the command expects
    */
-  private static void handleExceptionalCommandNames(Command command) {
+  private static Class<?> handleExceptionalCommandNames(Command command) {
+    String methodName = command.getMethod().getName();
     if (command.getClazz().equals(NetworkServiceRecord.class)) {
-      if (command.getMethod().getName().equals("createVNFCInstance"))
-        command.setClazz(VNFCInstance.class);
-      if (command.getMethod().getName().equals("createVNFR"))
-        command.setClazz(VirtualNetworkFunctionRecord.class);
-      if (command.getMethod().getName().equals("postVNFDependency"))
-        command.setClazz(VNFRecordDependency.class);
-      if (command.getMethod().getName().equals("updateVNFDependency"))
-        command.setClazz(VNFRecordDependency.class);
+      if (methodName.equals("createVNFCInstance")) return VNFCInstance.class;
+      if (methodName.equals("createVNFR")) return VirtualNetworkFunctionRecord.class;
+      if (methodName.equals("postVNFDependency")) return VNFRecordDependency.class;
+      if (methodName.equals("updateVNFDependency")) return VNFRecordDependency.class;
     }
     if (command.getClazz().equals(NetworkServiceDescriptor.class)) {
-      if (command.getMethod().getName().equals("createVNFD"))
-        command.setClazz(VirtualNetworkFunctionDescriptor.class);
-      if (command.getMethod().getName().equals("createVNFDependency"))
-        command.setClazz(VNFDependency.class);
+      if (methodName.equals("createVNFD")) return VirtualNetworkFunctionDescriptor.class;
+      if (methodName.equals("createVNFDependency")) return VNFDependency.class;
     }
+    return command.getClazz();
   }
 
-  private static String getString(FileInputStream fileInputStream) {
+  private static String getString(File file)
+      throws FileNotFoundException, CommandLineException {
     StringBuilder builder = new StringBuilder();
     int ch;
-    try {
+    try (InputStream fileInputStream = new BufferedInputStream(new FileInputStream(file))) {
       while ((ch = fileInputStream.read()) != -1) {
         builder.append((char) ch);
       }
+    } catch (FileNotFoundException e) {
+      throw e;
     } catch (IOException e) {
-      e.printStackTrace();
-      exit(333);
+      throw new CommandLineException("Error while reading the file " + file, e);
     }
     return builder.toString();
   }
 
-  /**
-   * Fill the commandMap and helpCommandMap with the available commands from the sdk.
-   *
-   * @param nfvoRequestor
-   */
-  private static void fillCommands(NFVORequestor nfvoRequestor) throws FileNotFoundException {
-    getMethods(nfvoRequestor.getNetworkServiceRecordAgent());
-    getMethods(nfvoRequestor.getConfigurationAgent());
-    getMethods(nfvoRequestor.getEventAgent());
-    getMethods(nfvoRequestor.getVNFFGAgent());
-    getMethods(nfvoRequestor.getVimInstanceAgent());
-    getMethods(nfvoRequestor.getNetworkServiceDescriptorAgent());
-    getMethods(nfvoRequestor.getVirtualNetworkFunctionDescriptorAgent());
-    getMethods(nfvoRequestor.getVirtualLinkAgent());
-    getMethods(nfvoRequestor.getVNFPackageAgent());
-    getMethods(nfvoRequestor.getKeyAgent());
-    getMethods(nfvoRequestor.getProjectAgent());
-    getMethods(nfvoRequestor.getUserAgent());
+  /** Fill the commandMap and helpCommandMap with the available commands from the sdk. */
+  private static void fillCommands() {
+    for (Class<? extends AbstractRestAgent> agentClass : agents.keySet()) {
+      getMethods(agentClass);
+    }
   }
 
   /**
    * Fill the commandMap and helpCommandMap with the available commands offered by a specific
-   * AbstractRestAgent from the sdk.
+   * AbstractRestAgent from the sdk. Only the class of the agent is inspected, the type of the
+   * entities it handles is the type argument of its AbstractRestAgent superclass.
    *
-   * @param agent
+   * @param agentClass
    */
-  private static void getMethods(AbstractRestAgent agent) {
-    String className = agent.getClass().getSimpleName();
+  private static void getMethods(Class<? extends AbstractRestAgent> agentClass) {
+    String className = agentClass.getSimpleName();
     log.trace(className);
-    Class clazz = null;
-    try {
-      clazz = (Class) agent.getClass().getSuperclass().getDeclaredMethod("getClazz").invoke(agent);
-    } catch (InvocationTargetException e) {
-      e.printStackTrace();
-      exit(123);
-    } catch (NoSuchMethodException e) {
-      e.printStackTrace();
-      exit(123);
-    } catch (IllegalAccessException e) {
-      e.printStackTrace();
-      exit(123);
-    }
+    Class clazz =
+        (Class)
+            ((ParameterizedType) agentClass.getGenericSuperclass()).getActualTypeArguments()[0];
     String replacement = null;
     if (className.endsWith("RestRequest")) {
       replacement = className.substring(0, className.indexOf("RestRequest"));
@@ -494,42 +685,34 @@ public class NFVOCommandLineInterface {
     log.trace("Clazz: " + clazz);
     log.trace("Replacement: " + replacement);
 
-    for (Method superMethod : agent.getClass().getSuperclass().getDeclaredMethods()) {
+    Set<String> overridden = new HashSet<>();
+    for (Method subMethod : agentClass.getDeclaredMethods()) {
+      overridden.add(Utils.signature(subMethod));
+    }
+
+    for (Method superMethod : agentClass.getSuperclass().getDeclaredMethods()) {
       if (superMethod.isAnnotationPresent(Help.class)
-          && !superMethod.isAnnotationPresent(Deprecated.class)) {
-        boolean superMethodOverridden = false;
-        for (Method subMethod : agent.getClass().getDeclaredMethods()) {
-          if (Utils.methodsAreEqual(superMethod, subMethod)) superMethodOverridden = true;
-        }
-        if (!superMethodOverridden) {
-          helpCommandMap.put(
-              replacement + "-" + superMethod.getName(),
-              superMethod.getAnnotation(Help.class).help().replace("{#}", replacement));
-          Command command = new Command(agent, superMethod, superMethod.getParameterTypes(), clazz);
-          if (commandMap.containsKey(replacement + "-" + superMethod.getName())) {
-            commandMap.get(replacement + "-" + superMethod.getName()).add(command);
-          } else {
-            LinkedList commandList = new LinkedList();
-            commandList.add(command);
-            commandMap.put(replacement + "-" + superMethod.getName(), commandList);
-          }
-        }
+          && !superMethod.isAnnotationPresent(Deprecated.class)
+          && !overridden.contains(Utils.signature(superMethod))) {
+        Registry.helpCommandMap.put(
+            replacement + "-" + superMethod.getName(),
+            superMethod.getAnnotation(Help.class).help().replace("{#}", replacement));
+        Command command =
+            new Command(agentClass, superMethod, superMethod.getParameterTypes(), clazz);
+        Registry.commandMap
+            .computeIfAbsent(replacement + "-" + superMethod.getName(), k -> new LinkedList<>())
+            .add(command);
       }
     }
 
-    for (Method method : agent.getClass().getDeclaredMethods()) {
+    for (Method method : agentClass.getDeclaredMethods()) {
       if (method.isAnnotationPresent(Help.class) && !method.isAnnotationPresent(Deprecated.class)) {
-        Command command = new Command(agent, method, method.getParameterTypes(), clazz);
-        helpCommandMap.put(
+        Command command = new Command(agentClass, method, method.getParameterTypes(), clazz);
+        Registry.helpCommandMap.put(
             replacement + "-" + method.getName(), method.getAnnotation(Help.class).help());
-        // check if key is already in map
-        if (commandMap.containsKey(replacement + "-" + method.getName())) {
-          commandMap.get(replacement + "-" + method.getName()).add(command);
-        } else {
-          LinkedList commandList = new LinkedList();
-          commandList.add(command);
-          commandMap.put(replacement + "-" + method.getName(), commandList);
-        }
+        Registry.commandMap
+            .computeIfAbsent(replacement + "-" + method.getName(), k -> new LinkedList<>())
+            .add(command);
       }
     }
   }
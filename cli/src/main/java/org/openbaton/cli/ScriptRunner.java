@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.cli;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openbaton.cli.util.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs a script of command line interface commands, one command per line, over the NFVORequestor of
+ * the command line interface. Empty lines and lines starting with # are ignored.
+ *
+ * <p>Commands which only read from the NFVO (the find and get commands) run concurrently, at most
+ * parallelism at the same time. Every other command waits until all the previous lines are done and
+ * runs alone, so a line can rely on the effects of the create or delete commands before it.
+ *
+ * <p>The output of each command is buffered and printed in the order of the script, framed by the
+ * line number and the exit status of the command.
+ */
+class ScriptRunner {
+
+  static final int DEFAULT_PARALLELISM = 4;
+
+  private static final AtomicInteger threadCount = new AtomicInteger();
+
+  private Logger log = LoggerFactory.getLogger(this.getClass());
+
+  private final int parallelism;
+
+  ScriptRunner(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Run all the commands of the script and print their results.
+   *
+   * @param script the script
+   * @param out where the results are printed
+   * @return the number of commands which failed
+   * @throws IOException if the script cannot be read
+   */
+  int run(BufferedReader script, PrintStream out) throws IOException {
+    ExecutorService executor = Executors.newFixedThreadPool(parallelism, this::newThread);
+    List<Future<Result>> results = new ArrayList<>();
+    int printed = 0;
+    int failed = 0;
+    try {
+      String line;
+      int lineNumber = 0;
+      while ((line = script.readLine()) != null) {
+        lineNumber++;
+        String[] args = Utils.splitCommandLine(line);
+        if (args.length == 0 || args[0].startsWith("#")) {
+          continue;
+        }
+        final int number = lineNumber;
+        if (NFVOCommandLineInterface.isReadOnly(args)) {
+          results.add(executor.submit(() -> execute(number, args)));
+        } else {
+          // wait for the commands before, then run this one alone
+          failed += print(results, printed, results.size(), out);
+          printed = results.size();
+          results.add(CompletableFuture.completedFuture(execute(number, args)));
+        }
+      }
+      failed += print(results, printed, results.size(), out);
+    } finally {
+      executor.shutdownNow();
+    }
+    if (failed > 0) {
+      log.warn(failed + " of " + results.size() + " commands failed");
+    }
+    return failed;
+  }
+
+  /** Wait for the results from index from to index to, print them and return how many failed. */
+  private int print(List<Future<Result>> results, int from, int to, PrintStream out) {
+    int failed = 0;
+    for (Future<Result> future : results.subList(from, to)) {
+      Result result;
+      try {
+        result = future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while running the script", e);
+      } catch (ExecutionException e) {
+        // cannot happen, runCommand catches the exceptions of the commands
+        throw new IllegalStateException(e.getCause());
+      }
+      out.println("### " + result.lineNumber + ": " + result.command);
+      out.print(result.output);
+      out.println("### exit status: " + result.status);
+      if (result.status != 0) {
+        failed++;
+      }
+    }
+    out.flush();
+    return failed;
+  }
+
+  private Result execute(int lineNumber, String[] args) throws UnsupportedEncodingException {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    PrintStream out = new PrintStream(buffer, true, "UTF-8");
+    int status = NFVOCommandLineInterface.runCommand(args, out);
+    out.flush();
+    return new Result(lineNumber, String.join(" ", args), status, buffer.toString("UTF-8"));
+  }
+
+  private Thread newThread(Runnable runnable) {
+    Thread thread = new Thread(runnable, "openbaton-script-" + threadCount.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  }
+
+  private static final class Result {
+    private final int lineNumber;
+    private final String command;
+    private final int status;
+    private final String output;
+
+    private Result(int lineNumber, String command, int status, String output) {
+      this.lineNumber = lineNumber;
+      this.command = command;
+      this.status = status;
+      this.output = output;
+    }
+  }
+}
@@ -27,12 +27,12 @@ import java.lang.reflect.Method;
 public class Command {
 
   private Class clazz;
-  private Object instance;
+  private Class agentClass;
   private Method method;
   private Class[] params;
 
-  public Command(Object instance, Method method, Class[] params, Class clazz) {
-    this.instance = instance;
+  public Command(Class agentClass, Method method, Class[] params, Class clazz) {
+    this.agentClass = agentClass;
     this.method = method;
     this.params = params;
     this.clazz = clazz;
@@ -46,12 +46,12 @@ public class Command {
     this.clazz = clazz;
   }
 
-  public Object getInstance() {
-    return instance;
+  public Class getAgentClass() {
+    return agentClass;
   }
 
-  public void setInstance(Object instance) {
-    this.instance = instance;
+  public void setAgentClass(Class agentClass) {
+    this.agentClass = agentClass;
   }
 
   public Method getMethod() {
@@ -39,7 +39,8 @@ public class PrintFormat {
   private static List<String[]> rows = new LinkedList<String[]>();
   public static Logger log = LoggerFactory.getLogger(PrintFormat.class);
 
-  public static String printResult(String command, Object obj)
+  // the rows are shared, so the results of concurrent commands are formatted one after the other
+  public static synchronized String printResult(String command, Object obj)
       throws InvocationTargetException, IllegalAccessException {
 
     List<Object> object = new ArrayList<Object>();
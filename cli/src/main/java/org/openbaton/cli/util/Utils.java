@@ -18,23 +18,61 @@
 package org.openbaton.cli.util;
 
 import java.lang.reflect.Method;
-import org.apache.commons.lang3.ArrayUtils;
+import java.util.ArrayList;
+import java.util.List;
 
 /** Created by tbr on 26.05.16. */
 public class Utils {
 
   /**
-   * Returns true if the two passed methods are equal. Methods are in this case regarded as equal if
-   * they take the same parameter types, return the same return type and share the same name.
+   * Returns the signature of a method. Methods are in this case regarded as equal, i.e. have the
+   * same signature, if they take the same parameter types, return the same return type and share
+   * the same name.
    *
-   * @param m1
-   * @param m2
-   * @return true if method m1 and method m2 are considered equal for our case
+   * @param method
+   * @return the signature, usable as key of a hash based collection
    */
-  public static boolean methodsAreEqual(Method m1, Method m2) {
-    if (!m1.getName().equals(m2.getName())) return false;
-    if (!m1.getReturnType().equals(m2.getReturnType())) return false;
-    if (!ArrayUtils.isEquals(m1.getParameterTypes(), m2.getParameterTypes())) return false;
-    return true;
+  public static String signature(Method method) {
+    StringBuilder signature = new StringBuilder(method.getReturnType().getName());
+    signature.append(' ').append(method.getName()).append('(');
+    for (Class<?> parameterType : method.getParameterTypes()) {
+      signature.append(parameterType.getName()).append(',');
+    }
+    return signature.append(')').toString();
+  }
+
+  /**
+   * Split a line typed in the interactive shell into the command and its parameters. Parameters are
+   * separated by whitespace, unless it is enclosed in single or double quotes, e.g. a path to a
+   * file containing spaces.
+   *
+   * @param line the line
+   * @return the command followed by its parameters, empty if the line is blank
+   */
+  public static String[] splitCommandLine(String line) {
+    List<String> tokens = new ArrayList<>();
+    StringBuilder token = new StringBuilder();
+    boolean inToken = false;
+    char quote = 0;
+    for (char c : line.toCharArray()) {
+      if (quote != 0) {
+        if (c == quote) quote = 0;
+        else token.append(c);
+      } else if (c == '"' || c == '\'') {
+        quote = c;
+        inToken = true;
+      } else if (Character.isWhitespace(c)) {
+        if (inToken) {
+          tokens.add(token.toString());
+          token.setLength(0);
+          inToken = false;
+        }
+      } else {
+        token.append(c);
+        inToken = true;
+      }
+    }
+    if (inToken) tokens.add(token.toString());
+    return tokens.toArray(new String[tokens.size()]);
   }
 }
@@ -19,6 +19,10 @@ source gradle.properties
 
 _version=${version}
 _level=INFO
+_script=
+_parallelism=4
+_forward=false
+_daemon_file="$HOME/.openbaton/cli-daemon"
 _openbaton_cli_jar="cli/build/libs/cli-all-$_version.jar"
 
 function usage {
@@ -28,6 +32,11 @@ function usage {
     echo -e "\t\t * -c show configuration"
     echo -e "\t\t * -d activate debug mode"
     echo -e "\t\t * -h prints this help"
+    echo -e "\t\t * -i starts an interactive shell, which keeps the connection to the NFVO open between the commands"
+    echo -e "\t\t * -f <file> runs the commands of a file, one per line, or of the standard input if the file is -"
+    echo -e "\t\t * -p <n> runs at most n find and get commands of the file at the same time (default 4)"
+    echo -e "\t\t * -s starts a daemon which keeps the sessions to the NFVO open for the -x option"
+    echo -e "\t\t * -x forwards the command to the daemon instead of starting a new JVM"
     echo -e "\t\t * -l lists available commands"
 }
 
@@ -65,11 +74,47 @@ function execute {
     java -jar -DrootLevel=$_level $_openbaton_cli_jar ${1+"$@"}    # the symbol ${1+"$@"} to handle spaces in arguments correctly
 }
 
+# sends the command to the daemon started with -s and prints what it answers
+function forward {
+    local port secret line arg status=1
+    if [ ! -r "$_daemon_file" ]; then
+        echo "The CLI daemon is not running, please start it with './openbaton.sh -s'"
+        exit 1
+    fi
+    read -r port secret < "$_daemon_file"
+    if ! exec 3<>/dev/tcp/127.0.0.1/$port; then
+        echo "Cannot connect to the CLI daemon on port $port"
+        exit 1
+    fi
+    {
+        echo "$secret"
+        env | grep "^NFVO_"
+        echo
+        echo $#
+        for arg in "$@"; do
+            # the daemon runs in another directory
+            if [ -e "$arg" ]; then
+                arg="$(cd "$(dirname "$arg")" && pwd)/$(basename "$arg")"
+            fi
+            printf '%s\n' "$arg"
+        done
+    } >&3
+    while IFS= read -r line <&3; do
+        if [[ "$line" =~ ^"### exit status: "([0-9]+)$ ]]; then
+            status=${BASH_REMATCH[1]}
+        else
+            printf '%s\n' "$line"
+        fi
+    done
+    exec 3<&-
+    exit $status
+}
+
 ##
 #   MAIN
 ##
 
-while getopts "hlcd" OPTION
+while getopts "hlcdif:p:sx" OPTION
     do
          case $OPTION in
              c)
@@ -86,14 +131,40 @@ while getopts "hlcd" OPTION
              h) usage
                 exit 1
                 ;;
+             i)
+                checkEnvironmentVariables
+                execute -i
+                exit $?
+                ;;
+             f)
+                _script=$OPTARG
+                ;;
+             p)
+                _parallelism=$OPTARG
+                ;;
+             s)
+                checkEnvironmentVariables
+                execute -s
+                exit $?
+                ;;
+             x)
+                _forward=true
+                ;;
          esac
     done
     shift $(( OPTIND - 1 ))
 
-if [ $# -eq 0 ]
+if [ -n "$_script" ]
+then
+    checkEnvironmentVariables
+    execute -f "$_script" -p "$_parallelism"
+elif [ $# -eq 0 ]
 then
     usage
     exit 1
+elif [ "$_forward" = true ]
+then
+    forward ${1+"$@"}
 else
     checkEnvironmentVariables
     execute ${1+"$@"}
@@ -17,28 +17,37 @@
 
 package org.openbaton.sdk;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.openbaton.sdk.api.batch.BatchOperations;
+import org.openbaton.sdk.api.batch.OnboardingPipeline;
 import org.openbaton.sdk.api.exception.SDKException;
 import org.openbaton.sdk.api.rest.*;
+import org.openbaton.sdk.api.util.RestSession;
+import org.openbaton.sdk.api.watch.EventReceiver;
+import org.openbaton.sdk.api.watch.EventReceiverConfig;
+import org.openbaton.sdk.api.watch.RecordWatcher;
 
 /**
  * This class serves as a creator of request agents for the NFVO. These agents can be obtained by
  * get methods and provide methods for sending requests to the NFVO API. The agents have the same
  * configuration as the NFVORequestor object from which they are obtained. In this way it is easier
  * to get the appropriate agents that are needed without calling the particular constructors each
- * time. The NFVORequestor class is thread safe.
+ * time. All the agents share the NFVORequestor's RestSession, i.e. one pooled HttpClient and one
+ * access token. The NFVORequestor class is thread safe.
+ *
+ * <p>Non-blocking agents returning CompletableFutures exist for the NetworkServiceRecords, the
+ * NetworkServiceDescriptors, the VirtualNetworkFunctionDescriptors and the VimInstances, which are
+ * the ones used in bulk. The other agents, e.g. for users, projects, keys and the VNFPackage
+ * uploads, are only available as blocking agents.
  */
-public final class NFVORequestor {
+public final class NFVORequestor implements Closeable {
 
-  private String serviceKey;
-  private String username;
-  private String password;
-  private boolean isService;
-  private String serviceName;
+  private final RestSession session;
+  // true if the session was created for this NFVORequestor and is closed together with it
+  private final boolean ownsSession;
   private String projectId;
-  private boolean sslEnabled;
-  private String nfvoIp;
-  private String nfvoPort;
-  private String version;
 
   private ConfigurationAgent configurationAgent;
   private NetworkServiceDescriptorAgent networkServiceDescriptorAgent;
@@ -52,6 +61,12 @@ public final class NFVORequestor {
   private ProjectAgent projectAgent;
   private UserAgent userAgent;
   private KeyAgent keyAgent;
+  private AsyncNetworkServiceRecordAgent asyncNetworkServiceRecordAgent;
+  private AsyncNetworkServiceDescriptorAgent asyncNetworkServiceDescriptorAgent;
+  private AsyncVirtualNetworkFunctionDescriptorAgent asyncVirtualNetworkFunctionDescriptorAgent;
+  private AsyncVimInstanceAgent asyncVimInstanceAgent;
+  private BatchOperations batchOperations;
+  private RecordWatcher recordWatcher;
   // if a new agent is added please keep in mind to update the resetAgents method
 
   /**
@@ -76,14 +91,10 @@ public final class NFVORequestor {
       String nfvoIp,
       String nfvoPort,
       String version) {
-    this.username = username;
-    this.password = password;
-    this.projectId = projectId;
-    this.sslEnabled = sslEnabled;
-    this.nfvoIp = nfvoIp;
-    this.nfvoPort = nfvoPort;
-    this.version = version;
-    this.isService = false;
+    this(
+        new RestSession(username, password, sslEnabled, nfvoIp, nfvoPort, version),
+        projectId,
+        true);
   }
 
   /**
@@ -112,16 +123,12 @@ public final class NFVORequestor {
       String nfvoPort,
       String version)
       throws SDKException {
-    this.username = username;
-    this.password = password;
-    this.sslEnabled = sslEnabled;
-    this.nfvoIp = nfvoIp;
-    this.nfvoPort = nfvoPort;
-    this.version = version;
-    this.isService = false;
+    this.session = new RestSession(username, password, sslEnabled, nfvoIp, nfvoPort, version);
+    this.ownsSession = true;
     try {
       this.projectId = getProjectIdForProjectName(projectName);
     } catch (SDKException e) {
+      closeSessionQuietly(e);
       throw new SDKException(
           "Could not create the NFVORequestor", e.getStackTraceElements(), e.getReason());
     }
@@ -151,14 +158,10 @@ public final class NFVORequestor {
       boolean sslEnabled,
       String serviceKey)
       throws SDKException {
-    this.serviceName = serviceName;
-    this.isService = true;
-    this.projectId = projectId;
-    this.sslEnabled = sslEnabled;
-    this.nfvoIp = nfvoIp;
-    this.nfvoPort = nfvoPort;
-    this.version = version;
-    this.serviceKey = serviceKey;
+    this(
+        new RestSession(serviceName, sslEnabled, nfvoIp, nfvoPort, version, serviceKey),
+        projectId,
+        true);
   }
 
   /**
@@ -185,14 +188,30 @@ public final class NFVORequestor {
       String projectName,
       String serviceKey)
       throws SDKException {
-    this.serviceName = serviceName;
-    this.isService = true;
-    this.sslEnabled = sslEnabled;
-    this.serviceKey = serviceKey;
-    this.nfvoIp = nfvoIp;
-    this.nfvoPort = nfvoPort;
-    this.version = version;
-    this.projectId = getProjectIdForProjectName(projectName);
+    this.session = new RestSession(serviceName, sslEnabled, nfvoIp, nfvoPort, version, serviceKey);
+    this.ownsSession = true;
+    try {
+      this.projectId = getProjectIdForProjectName(projectName);
+    } catch (SDKException e) {
+      closeSessionQuietly(e);
+      throw e;
+    }
+  }
+
+  /**
+   * Constructor for the NFVORequestor using an existing RestSession. The agents returned by this
+   * NFVORequestor will all use the given session.
+   *
+   * @param session the RestSession used for sending requests
+   * @param projectId the NFVO Project's ID that will be used in the requests to the NFVO
+   * @param ownsSession true if the session was created for this NFVORequestor and has to be closed
+   *     by it, false if it is shared and closed by its owner
+   * @see NfvoRequestorBuilder
+   */
+  NFVORequestor(RestSession session, String projectId, boolean ownsSession) {
+    this.session = session;
+    this.projectId = projectId;
+    this.ownsSession = ownsSession;
   }
 
   /**
@@ -203,27 +222,7 @@ public final class NFVORequestor {
    */
   public synchronized ConfigurationAgent getConfigurationAgent() {
     if (this.configurationAgent == null) {
-      if (isService) {
-        this.configurationAgent =
-            new ConfigurationAgent(
-                this.serviceName,
-                this.projectId,
-                this.sslEnabled,
-                this.nfvoIp,
-                this.nfvoPort,
-                this.version,
-                this.serviceKey);
-      } else {
-        this.configurationAgent =
-            new ConfigurationAgent(
-                this.username,
-                this.password,
-                this.projectId,
-                this.sslEnabled,
-                this.nfvoIp,
-                this.nfvoPort,
-                this.version);
-      }
+      this.configurationAgent = new ConfigurationAgent(this.session, this.projectId);
     }
     return this.configurationAgent;
   }
@@ -236,27 +235,8 @@ public final class NFVORequestor {
    */
   public synchronized NetworkServiceDescriptorAgent getNetworkServiceDescriptorAgent() {
     if (this.networkServiceDescriptorAgent == null) {
-      if (isService) {
-        this.networkServiceDescriptorAgent =
-            new NetworkServiceDescriptorAgent(
-                this.serviceName,
-                this.projectId,
-                this.sslEnabled,
-                this.nfvoIp,
-                this.nfvoPort,
-                this.version,
-                this.serviceKey);
-      } else {
-        this.networkServiceDescriptorAgent =
-            new NetworkServiceDescriptorAgent(
-                this.username,
-                this.password,
-                this.projectId,
-                this.sslEnabled,
-                this.nfvoIp,
-                this.nfvoPort,
-                this.version);
-      }
+      this.networkServiceDescriptorAgent =
+          new NetworkServiceDescriptorAgent(this.session, this.projectId);
     }
     return this.networkServiceDescriptorAgent;
   }
@@ -270,27 +250,8 @@ public final class NFVORequestor {
   public synchronized VirtualNetworkFunctionDescriptorAgent
       getVirtualNetworkFunctionDescriptorAgent() {
     if (this.virtualNetworkFunctionDescriptorAgent == null) {
-      if (isService) {
-        this.virtualNetworkFunctionDescriptorAgent =
-            new VirtualNetworkFunctionDescriptorAgent(
-                this.serviceName,
-                this.projectId,
-                this.sslEnabled,
-                this.nfvoIp,
-                this.nfvoPort,
-                this.version,
-                this.serviceKey);
-      } else {
-        this.virtualNetworkFunctionDescriptorAgent =
-            new VirtualNetworkFunctionDescriptorAgent(
-                this.username,
-                this.password,
-                this.projectId,
-                this.sslEnabled,
-                this.nfvoIp,
-                this.nfvoPort,
-                this.version);
-      }
+      this.virtualNetworkFunctionDescriptorAgent =
+          new VirtualNetworkFunctionDescriptorAgent(this.session, this.projectId);
     }
     return this.virtualNetworkFunctionDescriptorAgent;
   }
@@ -303,31 +264,153 @@ public final class NFVORequestor {
    */
   public synchronized NetworkServiceRecordAgent getNetworkServiceRecordAgent() {
     if (this.networkServiceRecordAgent == null) {
-      if (isService) {
-        this.networkServiceRecordAgent =
-            new NetworkServiceRecordAgent(
-                this.serviceName,
-                this.projectId,
-                this.sslEnabled,
-                this.nfvoIp,
-                this.nfvoPort,
-                this.version,
-                this.serviceKey);
-      } else {
-        this.networkServiceRecordAgent =
-            new NetworkServiceRecordAgent(
-                this.username,
-                this.password,
-                this.projectId,
-                this.sslEnabled,
-                this.nfvoIp,
-                this.nfvoPort,
-                this.version);
-      }
+      this.networkServiceRecordAgent = new NetworkServiceRecordAgent(this.session, this.projectId);
     }
     return this.networkServiceRecordAgent;
   }
 
+  /**
+   * Returns an AsyncNetworkServiceRecordAgent with which requests regarding NetworkServiceRecords
+   * can be sent to the NFVO without blocking the calling thread.
+   *
+   * @return an AsyncNetworkServiceRecordAgent
+   */
+  public synchronized AsyncNetworkServiceRecordAgent getAsyncNetworkServiceRecordAgent() {
+    if (this.asyncNetworkServiceRecordAgent == null) {
+      this.asyncNetworkServiceRecordAgent =
+          new AsyncNetworkServiceRecordAgent(this.session, this.projectId);
+    }
+    return this.asyncNetworkServiceRecordAgent;
+  }
+
+  /**
+   * Returns an AsyncNetworkServiceDescriptorAgent with which requests regarding
+   * NetworkServiceDescriptors can be sent to the NFVO without blocking the calling thread.
+   *
+   * @return an AsyncNetworkServiceDescriptorAgent
+   */
+  public synchronized AsyncNetworkServiceDescriptorAgent getAsyncNetworkServiceDescriptorAgent() {
+    if (this.asyncNetworkServiceDescriptorAgent == null) {
+      this.asyncNetworkServiceDescriptorAgent =
+          new AsyncNetworkServiceDescriptorAgent(this.session, this.projectId);
+    }
+    return this.asyncNetworkServiceDescriptorAgent;
+  }
+
+  /**
+   * Returns an AsyncVirtualNetworkFunctionDescriptorAgent with which requests regarding
+   * VirtualNetworkFunctionDescriptors can be sent to the NFVO without blocking the calling thread.
+   *
+   * @return an AsyncVirtualNetworkFunctionDescriptorAgent
+   */
+  public synchronized AsyncVirtualNetworkFunctionDescriptorAgent
+      getAsyncVirtualNetworkFunctionDescriptorAgent() {
+    if (this.asyncVirtualNetworkFunctionDescriptorAgent == null) {
+      this.asyncVirtualNetworkFunctionDescriptorAgent =
+          new AsyncVirtualNetworkFunctionDescriptorAgent(this.session, this.projectId);
+    }
+    return this.asyncVirtualNetworkFunctionDescriptorAgent;
+  }
+
+  /**
+   * Returns an AsyncVimInstanceAgent with which requests regarding VimInstances can be sent to the
+   * NFVO without blocking the calling thread.
+   *
+   * @return an AsyncVimInstanceAgent
+   */
+  public synchronized AsyncVimInstanceAgent getAsyncVimInstanceAgent() {
+    if (this.asyncVimInstanceAgent == null) {
+      this.asyncVimInstanceAgent = new AsyncVimInstanceAgent(this.session, this.projectId);
+    }
+    return this.asyncVimInstanceAgent;
+  }
+
+  /**
+   * Returns a BatchOperations object with which many NetworkServiceRecord and VNFCInstance
+   * lifecycle operations can be sent to the NFVO in parallel. At most as many operations are sent
+   * at the same time as the RestSession allows connections per route.
+   *
+   * @return a BatchOperations object
+   */
+  public synchronized BatchOperations getBatchOperations() {
+    if (this.batchOperations == null) {
+      this.batchOperations =
+          new BatchOperations(
+              getNetworkServiceRecordAgent(),
+              this.session.getSessionConfig().getMaxConnectionsPerRoute());
+    }
+    return this.batchOperations;
+  }
+
+  /**
+   * Returns a BatchOperations object with which many NetworkServiceRecord and VNFCInstance
+   * lifecycle operations can be sent to the NFVO in parallel.
+   *
+   * @param parallelism the maximum number of operations sent at the same time
+   * @return a BatchOperations object
+   */
+  public synchronized BatchOperations getBatchOperations(int parallelism) {
+    return new BatchOperations(getNetworkServiceRecordAgent(), parallelism);
+  }
+
+  /**
+   * Returns a RecordWatcher with which the status of NetworkServiceRecords and
+   * VirtualNetworkFunctionRecords can be watched without polling them in the calling application.
+   * The RecordWatcher is closed when this NFVORequestor is closed or switches to another project.
+   *
+   * @return a RecordWatcher
+   */
+  public synchronized RecordWatcher getRecordWatcher() {
+    if (this.recordWatcher == null) {
+      this.recordWatcher = new RecordWatcher(getNetworkServiceRecordAgent(), 2);
+    }
+    return this.recordWatcher;
+  }
+
+  /**
+   * Returns an OnboardingPipeline with which the VNF packages of a network service can be uploaded
+   * in parallel and its NetworkServiceDescriptor created in one call.
+   *
+   * @param journalPath the file in which the completed uploads are recorded, so that an interrupted
+   *     onboarding can be resumed
+   * @return an OnboardingPipeline
+   */
+  public synchronized OnboardingPipeline getOnboardingPipeline(Path journalPath) {
+    return new OnboardingPipeline(
+        getVNFPackageAgent(),
+        getVirtualNetworkFunctionDescriptorAgent(),
+        getNetworkServiceDescriptorAgent(),
+        journalPath);
+  }
+
+  /**
+   * Start an EventReceiver with the default options, which receives the events the NFVO pushes for
+   * the subscriptions made through it. The caller has to close the EventReceiver.
+   *
+   * @return a started EventReceiver
+   * @throws SDKException if the EventReceiver cannot be started
+   */
+  public EventReceiver createEventReceiver() throws SDKException {
+    return createEventReceiver(new EventReceiverConfig());
+  }
+
+  /**
+   * Start an EventReceiver, which receives the events the NFVO pushes for the subscriptions made
+   * through it. The caller has to close the EventReceiver.
+   *
+   * @param config the options of the EventReceiver
+   * @return a started EventReceiver
+   * @throws SDKException if the EventReceiver cannot be started
+   */
+  public EventReceiver createEventReceiver(EventReceiverConfig config) throws SDKException {
+    try {
+      return new EventReceiver(getEventAgent(), this.session.getMapper(), config);
+    } catch (IOException e) {
+      throw new SDKException(
+          "Could not start the event receiver", e.getStackTrace(), e.getMessage());
+    }
+  }
+
   /**
    * Returns a VimInstanceAgent with which requests regarding VimInstances can be sent to the NFVO.
    *
@@ -335,27 +418,7 @@ public final class NFVORequestor {
    */
   public synchronized VimInstanceAgent getVimInstanceAgent() {
     if (this.vimInstanceAgent == null) {
-      if (isService) {
-        this.vimInstanceAgent =
-            new VimInstanceAgent(
-                this.serviceName,
-                this.projectId,
-                this.sslEnabled,
-                this.nfvoIp,
-                this.nfvoPort,
-                this.version,
-                this.serviceKey);
-      } else {
-        this.vimInstanceAgent =
-            new VimInstanceAgent(
-                this.username,
-                this.password,
-                this.projectId,
-                this.sslEnabled,
-                this.nfvoIp,
-                this.nfvoPort,
-                this.version);
-      }
+      this.vimInstanceAgent = new VimInstanceAgent(this.session, this.projectId);
     }
     return this.vimInstanceAgent;
   }
@@ -367,27 +430,7 @@ public final class NFVORequestor {
    */
   public synchronized VirtualLinkAgent getVirtualLinkAgent() {
     if (this.virtualLinkAgent == null) {
-      if (isService) {
-        this.virtualLinkAgent =
-            new VirtualLinkAgent(
-                this.serviceName,
-                this.projectId,
-                this.sslEnabled,
-                this.nfvoIp,
-                this.nfvoPort,
-                this.version,
-                this.serviceKey);
-      } else {
-        this.virtualLinkAgent =
-            new VirtualLinkAgent(
-                this.username,
-                this.password,
-                this.projectId,
-                this.sslEnabled,
-                this.nfvoIp,
-                this.nfvoPort,
-                this.version);
-      }
+      this.virtualLinkAgent = new VirtualLinkAgent(this.session, this.projectId);
     }
     return this.virtualLinkAgent;
   }
@@ -401,27 +444,8 @@ public final class NFVORequestor {
   public synchronized VirtualNetworkFunctionDescriptorAgent
       getVirtualNetworkFunctionDescriptorRestAgent() {
     if (this.virtualNetworkFunctionDescriptorAgent == null) {
-      if (isService) {
-        this.virtualNetworkFunctionDescriptorAgent =
-            new VirtualNetworkFunctionDescriptorAgent(
-                this.serviceName,
-                this.projectId,
-                this.sslEnabled,
-                this.nfvoIp,
-                this.nfvoPort,
-                this.version,
-                this.serviceKey);
-      } else {
-        this.virtualNetworkFunctionDescriptorAgent =
-            new VirtualNetworkFunctionDescriptorAgent(
-                this.username,
-                this.password,
-                this.projectId,
-                this.sslEnabled,
-                this.nfvoIp,
-                this.nfvoPort,
-                this.version);
-      }
+      this.virtualNetworkFunctionDescriptorAgent =
+          new VirtualNetworkFunctionDescriptorAgent(this.session, this.projectId);
     }
     return this.virtualNetworkFunctionDescriptorAgent;
   }
@@ -433,27 +457,7 @@ public final class NFVORequestor {
    */
   public synchronized VNFFGAgent getVNFFGAgent() {
     if (this.vnffgAgent == null) {
-      if (isService) {
-        this.vnffgAgent =
-            new VNFFGAgent(
-                this.serviceName,
-                this.projectId,
-                this.sslEnabled,
-                this.nfvoIp,
-                this.nfvoPort,
-                this.version,
-                this.serviceKey);
-      } else {
-        this.vnffgAgent =
-            new VNFFGAgent(
-                this.username,
-                this.password,
-                this.projectId,
-                this.sslEnabled,
-                this.nfvoIp,
-                this.nfvoPort,
-                this.version);
-      }
+      this.vnffgAgent = new VNFFGAgent(this.session, this.projectId);
     }
     return this.vnffgAgent;
   }
@@ -465,27 +469,7 @@ public final class NFVORequestor {
    */
   public synchronized EventAgent getEventAgent() {
     if (this.eventAgent == null) {
-      if (isService) {
-        this.eventAgent =
-            new EventAgent(
-                this.serviceName,
-                this.projectId,
-                this.sslEnabled,
-                this.nfvoIp,
-                this.nfvoPort,
-                this.version,
-                this.serviceKey);
-      } else {
-        this.eventAgent =
-            new EventAgent(
-                this.username,
-                this.password,
-                this.projectId,
-                this.sslEnabled,
-                this.nfvoIp,
-                this.nfvoPort,
-                this.version);
-      }
+      this.eventAgent = new EventAgent(this.session, this.projectId);
     }
     return this.eventAgent;
   }
@@ -497,27 +481,7 @@ public final class NFVORequestor {
    */
   public synchronized VNFPackageAgent getVNFPackageAgent() {
     if (this.vnfPackageAgent == null) {
-      if (isService) {
-        this.vnfPackageAgent =
-            new VNFPackageAgent(
-                this.serviceName,
-                this.projectId,
-                this.sslEnabled,
-                this.nfvoIp,
-                this.nfvoPort,
-                this.version,
-                this.serviceKey);
-      } else {
-        this.vnfPackageAgent =
-            new VNFPackageAgent(
-                this.username,
-                this.password,
-                this.projectId,
-                this.sslEnabled,
-                this.nfvoIp,
-                this.nfvoPort,
-                this.version);
-      }
+      this.vnfPackageAgent = new VNFPackageAgent(this.session, this.projectId);
     }
     return this.vnfPackageAgent;
   }
@@ -529,27 +493,7 @@ public final class NFVORequestor {
    */
   public synchronized ProjectAgent getProjectAgent() {
     if (this.projectAgent == null) {
-      if (isService) {
-        this.projectAgent =
-            new ProjectAgent(
-                this.serviceName,
-                this.projectId,
-                this.sslEnabled,
-                this.nfvoIp,
-                this.nfvoPort,
-                this.version,
-                this.serviceKey);
-      } else {
-        this.projectAgent =
-            new ProjectAgent(
-                this.username,
-                this.password,
-                this.projectId,
-                this.sslEnabled,
-                this.nfvoIp,
-                this.nfvoPort,
-                this.version);
-      }
+      this.projectAgent = new ProjectAgent(this.session, this.projectId);
     }
     return this.projectAgent;
   }
@@ -561,27 +505,7 @@ public final class NFVORequestor {
    */
   public synchronized UserAgent getUserAgent() {
     if (this.userAgent == null) {
-      if (isService) {
-        this.userAgent =
-            new UserAgent(
-                this.serviceName,
-                this.projectId,
-                this.sslEnabled,
-                this.nfvoIp,
-                this.nfvoPort,
-                this.version,
-                this.serviceKey);
-      } else {
-        this.userAgent =
-            new UserAgent(
-                this.username,
-                this.password,
-                this.projectId,
-                this.sslEnabled,
-                this.nfvoIp,
-                this.nfvoPort,
-                this.version);
-      }
+      this.userAgent = new UserAgent(this.session, this.projectId);
     }
     return this.userAgent;
   }
@@ -593,31 +517,53 @@ public final class NFVORequestor {
    */
   public synchronized KeyAgent getKeyAgent() {
     if (this.keyAgent == null) {
-      if (isService) {
-        this.keyAgent =
-            new KeyAgent(
-                this.serviceName,
-                this.projectId,
-                this.sslEnabled,
-                this.nfvoIp,
-                this.nfvoPort,
-                this.version,
-                this.serviceKey);
-      } else {
-        this.keyAgent =
-            new KeyAgent(
-                this.username,
-                this.password,
-                this.projectId,
-                this.sslEnabled,
-                this.nfvoIp,
-                this.nfvoPort,
-                this.version);
-      }
+      this.keyAgent = new KeyAgent(this.session, this.projectId);
     }
     return this.keyAgent;
   }
 
+  /**
+   * Returns the RestSession shared by all the agents of this NFVORequestor.
+   *
+   * @return the RestSession
+   */
+  public RestSession getSession() {
+    return this.session;
+  }
+
+  /**
+   * Close this NFVORequestor and its RecordWatcher. If the RestSession was created for this
+   * NFVORequestor, it is closed too and its pooled connections are released, so that the agents
+   * obtained from this NFVORequestor cannot be used afterwards. A session passed to {@link
+   * NfvoRequestorBuilder#session(RestSession)} is shared with other NFVORequestors and stays open;
+   * whoever created it has to close it.
+   *
+   * @throws IOException if the session cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    synchronized (this) {
+      if (this.recordWatcher != null) {
+        this.recordWatcher.close();
+      }
+    }
+    if (this.ownsSession) {
+      this.session.close();
+    }
+  }
+
+  /**
+   * Close the session created by a constructor which then failed, so that its connections and
+   * threads do not leak.
+   */
+  private void closeSessionQuietly(SDKException cause) {
+    try {
+      this.session.close();
+    } catch (IOException e) {
+      cause.addSuppressed(e);
+    }
+  }
+
   /**
    * Set the NFVORequestor's project id. See the {@link #switchProject(String) switchProject} method
    * for a more convenient alternative.
@@ -697,5 +643,14 @@ public final class NFVORequestor {
     this.vimInstanceAgent = null;
     this.networkServiceDescriptorAgent = null;
     this.networkServiceRecordAgent = null;
+    this.asyncNetworkServiceRecordAgent = null;
+    this.asyncNetworkServiceDescriptorAgent = null;
+    this.asyncVirtualNetworkFunctionDescriptorAgent = null;
+    this.asyncVimInstanceAgent = null;
+    this.batchOperations = null;
+    if (this.recordWatcher != null) {
+      this.recordWatcher.close();
+      this.recordWatcher = null;
+    }
   }
 }
@@ -1,6 +1,15 @@
 package org.openbaton.sdk;
 
+import java.io.IOException;
 import org.openbaton.sdk.api.exception.SDKException;
+import org.openbaton.sdk.api.metrics.MicrometerSdkMetrics;
+import org.openbaton.sdk.api.metrics.SdkMetrics;
+import org.openbaton.sdk.api.tracing.DefaultSdkTracer;
+import org.openbaton.sdk.api.tracing.NoopSdkTracer;
+import org.openbaton.sdk.api.tracing.SdkTracer;
+import org.openbaton.sdk.api.util.RestSession;
+import org.openbaton.sdk.api.util.RestSessionConfig;
+import org.openbaton.sdk.api.util.RetryPolicy;
 
 public class NfvoRequestorBuilder {
 
@@ -14,6 +23,8 @@ public class NfvoRequestorBuilder {
   private String nfvoIp;
   private int nfvoPort;
   private String version;
+  private RestSession session;
+  private RestSessionConfig sessionConfig = new RestSessionConfig();
 
   private NfvoRequestorBuilder() {}
 
@@ -79,51 +90,381 @@ public class NfvoRequestorBuilder {
     return this;
   }
 
+  /**
+   * Set the maximum number of connections kept in the pool.
+   *
+   * @param maxConnectionsTotal the maximum number of pooled connections
+   * @return the builder
+   */
+  public NfvoRequestorBuilder maxConnectionsTotal(int maxConnectionsTotal) {
+    this.sessionConfig.setMaxConnectionsTotal(maxConnectionsTotal);
+    return this;
+  }
+
+  /**
+   * Set the maximum number of connections kept in the pool for one route, i.e. to the NFVO.
+   *
+   * @param maxConnectionsPerRoute the maximum number of pooled connections per route
+   * @return the builder
+   */
+  public NfvoRequestorBuilder maxConnectionsPerRoute(int maxConnectionsPerRoute) {
+    this.sessionConfig.setMaxConnectionsPerRoute(maxConnectionsPerRoute);
+    return this;
+  }
+
+  /**
+   * Set how long to wait for a free connection from the pool.
+   *
+   * @param connectionRequestTimeout the timeout in milliseconds
+   * @return the builder
+   */
+  public NfvoRequestorBuilder connectionRequestTimeout(int connectionRequestTimeout) {
+    this.sessionConfig.setConnectionRequestTimeout(connectionRequestTimeout);
+    return this;
+  }
+
+  /**
+   * Set how long to wait for a connection to the NFVO to be established.
+   *
+   * @param connectTimeout the timeout in milliseconds
+   * @return the builder
+   */
+  public NfvoRequestorBuilder connectTimeout(int connectTimeout) {
+    this.sessionConfig.setConnectTimeout(connectTimeout);
+    return this;
+  }
+
+  /**
+   * Set how long to wait for data from the NFVO once a request was sent.
+   *
+   * @param socketTimeout the timeout in milliseconds, 0 or less means no timeout
+   * @return the builder
+   */
+  public NfvoRequestorBuilder socketTimeout(int socketTimeout) {
+    this.sessionConfig.setSocketTimeout(socketTimeout);
+    return this;
+  }
+
+  /**
+   * Set after how long idle pooled connections are closed by the background reaper thread.
+   *
+   * @param idleConnectionTimeout the idle time in milliseconds, 0 or less disables the reaper
+   * @return the builder
+   */
+  public NfvoRequestorBuilder idleConnectionTimeout(int idleConnectionTimeout) {
+    this.sessionConfig.setIdleConnectionTimeout(idleConnectionTimeout);
+    return this;
+  }
+
+  /**
+   * Set after how long of inactivity a pooled connection is checked before it is reused.
+   *
+   * @param validateAfterInactivity the inactivity period in milliseconds
+   * @return the builder
+   */
+  public NfvoRequestorBuilder validateAfterInactivity(int validateAfterInactivity) {
+    this.sessionConfig.setValidateAfterInactivity(validateAfterInactivity);
+    return this;
+  }
+
+  /**
+   * Set the maximum time a connection is kept alive.
+   *
+   * @param keepAliveDuration the duration in milliseconds, 0 or less means as long as the NFVO
+   *     allows
+   * @return the builder
+   */
+  public NfvoRequestorBuilder keepAliveDuration(int keepAliveDuration) {
+    this.sessionConfig.setKeepAliveDuration(keepAliveDuration);
+    return this;
+  }
+
+  /**
+   * Enable or disable compressed responses. If enabled, which is the default, the NFVO is told that
+   * gzip and deflate encoded responses are accepted, and they are decompressed while being decoded.
+   *
+   * @param responseCompression false to disable compressed responses
+   * @return the builder
+   */
+  public NfvoRequestorBuilder responseCompression(boolean responseCompression) {
+    this.sessionConfig.setResponseCompression(responseCompression);
+    return this;
+  }
+
+  /**
+   * Enable or disable gzip compressed request bodies. This is disabled by default and must only be
+   * enabled if the NFVO, or a proxy in front of it, accepts gzip encoded requests.
+   *
+   * @param requestCompression true to compress the request bodies
+   * @return the builder
+   */
+  public NfvoRequestorBuilder requestCompression(boolean requestCompression) {
+    this.sessionConfig.setRequestCompression(requestCompression);
+    return this;
+  }
+
+  /**
+   * Set the minimum size of the request bodies which are compressed if request compression is
+   * enabled. Compressing small bodies costs more than it saves.
+   *
+   * @param requestCompressionThreshold the minimum size in bytes
+   * @return the builder
+   */
+  public NfvoRequestorBuilder requestCompressionThreshold(int requestCompressionThreshold) {
+    this.sessionConfig.setRequestCompressionThreshold(requestCompressionThreshold);
+    return this;
+  }
+
+  /**
+   * Set how long before its expiration an access token is renewed. This only applies if the NFVO
+   * tells how long its tokens are valid.
+   *
+   * @param tokenRefreshMargin the margin in milliseconds
+   * @return the builder
+   */
+  public NfvoRequestorBuilder tokenRefreshMargin(int tokenRefreshMargin) {
+    this.sessionConfig.setTokenRefreshMargin(tokenRefreshMargin);
+    return this;
+  }
+
+  /**
+   * Set how often a request which the NFVO rejects as unauthorized is sent again with a new access
+   * token before the request fails.
+   *
+   * @param maxUnauthorizedRetries the number of retries, 0 to never retry
+   * @return the builder
+   */
+  public NfvoRequestorBuilder maxUnauthorizedRetries(int maxUnauthorizedRetries) {
+    this.sessionConfig.setMaxUnauthorizedRetries(maxUnauthorizedRetries);
+    return this;
+  }
+
+  /**
+   * Set the policy deciding which failed requests are sent again, e.g. because the NFVO was
+   * temporarily unavailable. By default idempotent requests are tried up to three times. Use {@link
+   * RetryPolicy#noRetries()} to disable retries.
+   *
+   * @param retryPolicy the RetryPolicy
+   * @return the builder
+   */
+  public NfvoRequestorBuilder retryPolicy(RetryPolicy retryPolicy) {
+    this.sessionConfig.setRetryPolicy(retryPolicy);
+    return this;
+  }
+
+  /**
+   * Enable or disable the circuit breaker. If enabled, no requests are sent to the NFVO for a while
+   * once too many of the recent requests failed, instead they fail at once with a
+   * CircuitBreakerOpenException. It is disabled by default.
+   *
+   * @param circuitBreakerEnabled true to enable the circuit breaker
+   * @return the builder
+   */
+  public NfvoRequestorBuilder circuitBreakerEnabled(boolean circuitBreakerEnabled) {
+    this.sessionConfig.setCircuitBreakerEnabled(circuitBreakerEnabled);
+    return this;
+  }
+
+  /**
+   * Set the percentage of failed requests at which the circuit breaker opens.
+   *
+   * @param failureRateThreshold the percentage, between 1 and 100
+   * @return the builder
+   */
+  public NfvoRequestorBuilder failureRateThreshold(int failureRateThreshold) {
+    this.sessionConfig.setFailureRateThreshold(failureRateThreshold);
+    return this;
+  }
+
+  /**
+   * Set the number of recent requests from which the failure rate of the circuit breaker is
+   * computed.
+   *
+   * @param slidingWindowSize the number of requests
+   * @return the builder
+   */
+  public NfvoRequestorBuilder slidingWindowSize(int slidingWindowSize) {
+    this.sessionConfig.setSlidingWindowSize(slidingWindowSize);
+    return this;
+  }
+
+  /**
+   * Set how long an open circuit breaker rejects all requests before it lets trial requests
+   * through.
+   *
+   * @param openStateDuration the duration in milliseconds
+   * @return the builder
+   */
+  public NfvoRequestorBuilder openStateDuration(int openStateDuration) {
+    this.sessionConfig.setOpenStateDuration(openStateDuration);
+    return this;
+  }
+
+  /**
+   * Limit the number of requests which wait for the NFVO at the same time. Further requests wait
+   * for at most maxConcurrentRequestsWait milliseconds and then fail with a BulkheadFullException.
+   * The limit is shared by the blocking and the async agents. By default there is no limit.
+   *
+   * @param maxConcurrentRequests the maximum number of concurrent requests, 0 for no limit
+   * @return the builder
+   */
+  public NfvoRequestorBuilder maxConcurrentRequests(int maxConcurrentRequests) {
+    this.sessionConfig.setMaxConcurrentRequests(maxConcurrentRequests);
+    return this;
+  }
+
+  /**
+   * Set how long a request waits if the maximum number of concurrent requests is reached.
+   *
+   * @param maxConcurrentRequestsWait the time in milliseconds
+   * @return the builder
+   */
+  public NfvoRequestorBuilder maxConcurrentRequestsWait(int maxConcurrentRequestsWait) {
+    this.sessionConfig.setMaxConcurrentRequestsWait(maxConcurrentRequestsWait);
+    return this;
+  }
+
+  /**
+   * Set the number of threads of the session which do the work of the async agents that must not
+   * run on the I/O dispatcher threads of the HttpAsyncClient: the logins, the decoding of the
+   * responses and the requests which waited for a free slot of the concurrent requests limit. By
+   * default there is one per processor.
+   *
+   * @param asyncThreads the number of threads
+   * @return the builder
+   */
+  public NfvoRequestorBuilder asyncThreads(int asyncThreads) {
+    this.sessionConfig.setAsyncThreads(asyncThreads);
+    return this;
+  }
+
+  /**
+   * Enable the cache for the responses of the NetworkServiceDescriptor,
+   * VirtualNetworkFunctionDescriptor, VimInstance and Configuration agents by setting its maximum
+   * number of entries. The cache is disabled by default.
+   *
+   * @param entityCacheSize the maximum number of cached responses, 0 to disable the cache
+   * @return the builder
+   */
+  public NfvoRequestorBuilder entityCacheSize(int entityCacheSize) {
+    this.sessionConfig.setEntityCacheSize(entityCacheSize);
+    return this;
+  }
+
+  /**
+   * Set how long a cached response is used without asking the NFVO. Afterwards it is revalidated
+   * with a conditional request if the NFVO sent an ETag or Last-Modified header, otherwise it is
+   * fetched again.
+   *
+   * @param entityCacheTtl the time in milliseconds
+   * @return the builder
+   */
+  public NfvoRequestorBuilder entityCacheTtl(int entityCacheTtl) {
+    this.sessionConfig.setEntityCacheTtl(entityCacheTtl);
+    return this;
+  }
+
+  /**
+   * Enable or disable request coalescing. If enabled, threads which send the same GET request in
+   * the same project at the same time share one request to the NFVO, and all of them get the same
+   * decoded object, which therefore must not be modified. It is disabled by default.
+   *
+   * @param requestCoalescing true to enable request coalescing
+   * @return the builder
+   */
+  public NfvoRequestorBuilder requestCoalescing(boolean requestCoalescing) {
+    this.sessionConfig.setRequestCoalescing(requestCoalescing);
+    return this;
+  }
+
+  /**
+   * Set the receiver of the measurements of all the requests sent to the NFVO, e.g. a {@link
+   * MicrometerSdkMetrics}. By default the measurements are discarded.
+   *
+   * @param metrics the SdkMetrics
+   * @return the builder
+   */
+  public NfvoRequestorBuilder metrics(SdkMetrics metrics) {
+    this.sessionConfig.setMetrics(metrics);
+    return this;
+  }
+
+  /**
+   * Set the tracer which creates a span for every request sent to the NFVO. By default {@link
+   * NoopSdkTracer#INSTANCE} is used, which traces nothing. A {@link DefaultSdkTracer} sends a W3C
+   * traceparent header with every request and logs the duration of its phases at debug level.
+   *
+   * @param tracer the SdkTracer
+   * @return the builder
+   */
+  public NfvoRequestorBuilder tracer(SdkTracer tracer) {
+    this.sessionConfig.setTracer(tracer);
+    return this;
+  }
+
+  /**
+   * Use an existing RestSession instead of creating a new one. This way several NFVORequestors,
+   * e.g. one per project, can share the same connection pool and access token. If a session is set,
+   * the credential and connection options of this builder are ignored. The NFVORequestor does not
+   * close a session set here, the caller has to close it once all its NFVORequestors are done.
+   *
+   * @param session the RestSession to use
+   * @return the builder
+   */
+  public NfvoRequestorBuilder session(RestSession session) {
+    this.session = session;
+    return this;
+  }
+
   public NFVORequestor build() throws SDKException {
-    // Is service
-    if (serviceKey != null
-        && !serviceKey.equalsIgnoreCase("")
-        && serviceName != null
-        && !serviceName.equalsIgnoreCase("")) {
-      if (projectName != null && !projectName.equals("")) {
-        return new NFVORequestor(
-            serviceName,
-            nfvoIp,
-            String.format("%d", nfvoPort),
-            version,
-            sslEnabled,
-            projectName,
-            serviceKey);
+    RestSession session = this.session;
+    boolean ownsSession = session == null;
+    if (ownsSession) {
+      // Is service
+      if (serviceKey != null
+          && !serviceKey.equalsIgnoreCase("")
+          && serviceName != null
+          && !serviceName.equalsIgnoreCase("")) {
+        session =
+            new RestSession(
+                serviceName,
+                sslEnabled,
+                nfvoIp,
+                String.format("%d", nfvoPort),
+                version,
+                serviceKey,
+                sessionConfig);
       } else {
-        return new NFVORequestor(
-            serviceName,
-            projectId,
-            nfvoIp,
-            String.format("%d", nfvoPort),
-            version,
-            sslEnabled,
-            serviceKey);
+        session =
+            new RestSession(
+                username,
+                password,
+                sslEnabled,
+                nfvoIp,
+                String.format("%d", nfvoPort),
+                version,
+                sessionConfig);
       }
-    } else {
-      if (projectName != null && !projectName.equalsIgnoreCase("")) {
-        return new NFVORequestor(
-            username,
-            password,
-            sslEnabled,
-            projectName,
-            nfvoIp,
-            String.format("%d", nfvoPort),
-            version);
-      } else {
-        return new NFVORequestor(
-            username,
-            password,
-            projectId,
-            sslEnabled,
-            nfvoIp,
-            String.format("%d", nfvoPort),
-            version);
+    }
+    NFVORequestor requestor = new NFVORequestor(session, projectId, ownsSession);
+    if (projectName != null && !projectName.equalsIgnoreCase("")) {
+      try {
+        requestor.switchProject(projectName);
+      } catch (SDKException e) {
+        SDKException failure =
+            new SDKException(
+                "Could not create the NFVORequestor", e.getStackTraceElements(), e.getReason());
+        if (ownsSession) {
+          // nobody else can close the session created for the failed NFVORequestor
+          try {
+            session.close();
+          } catch (IOException closeFailure) {
+            failure.addSuppressed(closeFailure);
+          }
+        }
+        throw failure;
       }
     }
+    return requestor;
   }
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.batch;
+
+import java.util.ArrayList;
+import org.openbaton.catalogue.mano.descriptor.VNFComponent;
+import org.openbaton.sdk.api.exception.SDKException;
+import org.openbaton.sdk.api.rest.NetworkServiceRecordAgent;
+
+/**
+ * A single lifecycle operation of a batch, i.e. one call to a NetworkServiceRecordAgent method.
+ * Instances are created with the static factory methods and executed by {@link BatchOperations}.
+ */
+public final class BatchOperation {
+
+  /** Sends the request of an operation. */
+  public interface Action {
+    void execute(NetworkServiceRecordAgent agent) throws SDKException;
+  }
+
+  private final String description;
+  private final Action action;
+
+  private BatchOperation(String description, Action action) {
+    this.description = description;
+    this.action = action;
+  }
+
+  /**
+   * Create an operation which calls an arbitrary NetworkServiceRecordAgent method.
+   *
+   * @param description a short description used in the results and log messages
+   * @param action the call
+   * @return the operation
+   */
+  public static BatchOperation of(String description, Action action) {
+    return new BatchOperation(description, action);
+  }
+
+  /**
+   * Create a new VNFCInstance without specifying the VirtualDeploymentUnit. See {@link
+   * NetworkServiceRecordAgent#createVNFCInstance(String, String, VNFComponent, ArrayList)}.
+   */
+  public static BatchOperation createVNFCInstance(
+      final String idNsr,
+      final String idVnfr,
+      final VNFComponent vnfComponent,
+      final ArrayList<String> vimInstanceNames) {
+    return new BatchOperation(
+        "create VNFCInstance in VNFR " + idVnfr,
+        agent -> agent.createVNFCInstance(idNsr, idVnfr, vnfComponent, vimInstanceNames));
+  }
+
+  /**
+   * Create a new VNFCInstance in the given VirtualDeploymentUnit. See {@link
+   * NetworkServiceRecordAgent#createVNFCInstance(String, String, String, VNFComponent, ArrayList)}.
+   */
+  public static BatchOperation createVNFCInstance(
+      final String idNsr,
+      final String idVnfr,
+      final String idVdu,
+      final VNFComponent vnfComponent,
+      final ArrayList<String> vimInstanceNames) {
+    return new BatchOperation(
+        "create VNFCInstance in VDU " + idVdu + " of VNFR " + idVnfr,
+        agent -> agent.createVNFCInstance(idNsr, idVnfr, idVdu, vnfComponent, vimInstanceNames));
+  }
+
+  /**
+   * Delete a VNFCInstance of a VirtualNetworkFunctionRecord. See {@link
+   * NetworkServiceRecordAgent#deleteVNFCInstance(String, String)}.
+   */
+  public static BatchOperation deleteVNFCInstance(final String idNsr, final String idVnfr) {
+    return new BatchOperation(
+        "delete VNFCInstance of VNFR " + idVnfr, agent -> agent.deleteVNFCInstance(idNsr, idVnfr));
+  }
+
+  /**
+   * Delete a VNFCInstance of a VirtualDeploymentUnit. See {@link
+   * NetworkServiceRecordAgent#deleteVNFCInstance(String, String, String)}.
+   */
+  public static BatchOperation deleteVNFCInstance(
+      final String idNsr, final String idVnfr, final String idVdu) {
+    return new BatchOperation(
+        "delete VNFCInstance of VDU " + idVdu + " of VNFR " + idVnfr,
+        agent -> agent.deleteVNFCInstance(idNsr, idVnfr, idVdu));
+  }
+
+  /**
+   * Delete a specific VNFCInstance. See {@link NetworkServiceRecordAgent#deleteVNFCInstance(String,
+   * String, String, String)}.
+   */
+  public static BatchOperation deleteVNFCInstance(
+      final String idNsr, final String idVnfr, final String idVdu, final String idVnfcInstance) {
+    return new BatchOperation(
+        "delete VNFCInstance " + idVnfcInstance,
+        agent -> agent.deleteVNFCInstance(idNsr, idVnfr, idVdu, idVnfcInstance));
+  }
+
+  /**
+   * Start a specific VNFCInstance. See {@link NetworkServiceRecordAgent#startVNFCInstance(String,
+   * String, String, String)}.
+   */
+  public static BatchOperation startVNFCInstance(
+      final String nsrId, final String vnfrId, final String vduId, final String vnfcInstanceId) {
+    return new BatchOperation(
+        "start VNFCInstance " + vnfcInstanceId,
+        agent -> agent.startVNFCInstance(nsrId, vnfrId, vduId, vnfcInstanceId));
+  }
+
+  /**
+   * Stop a specific VNFCInstance. See {@link NetworkServiceRecordAgent#stopVNFCInstance(String,
+   * String, String, String)}.
+   */
+  public static BatchOperation stopVNFCInstance(
+      final String nsrId, final String vnfrId, final String vduId, final String vnfcInstanceId) {
+    return new BatchOperation(
+        "stop VNFCInstance " + vnfcInstanceId,
+        agent -> agent.stopVNFCInstance(nsrId, vnfrId, vduId, vnfcInstanceId));
+  }
+
+  /** Delete a NetworkServiceRecord. See {@link NetworkServiceRecordAgent#delete(String)}. */
+  public static BatchOperation deleteNetworkServiceRecord(final String idNsr) {
+    return new BatchOperation("delete NSR " + idNsr, agent -> agent.delete(idNsr));
+  }
+
+  /**
+   * Delete a VirtualNetworkFunctionRecord. See {@link
+   * NetworkServiceRecordAgent#deleteVirtualNetworkFunctionRecord(String, String)}.
+   */
+  public static BatchOperation deleteVirtualNetworkFunctionRecord(
+      final String idNsr, final String idVnfr) {
+    return new BatchOperation(
+        "delete VNFR " + idVnfr, agent -> agent.deleteVirtualNetworkFunctionRecord(idNsr, idVnfr));
+  }
+
+  void execute(NetworkServiceRecordAgent agent) throws SDKException {
+    action.execute(agent);
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  @Override
+  public String toString() {
+    return description;
+  }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.batch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openbaton.sdk.api.exception.SDKException;
+import org.openbaton.sdk.api.rest.NetworkServiceRecordAgent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes many NetworkServiceRecord and VNFCInstance lifecycle operations at once, e.g. the
+ * creation of the VNFCInstances of a scale out over dozens of VirtualNetworkFunctionRecords.
+ *
+ * <p>At most parallelism operations are sent at the same time, each one by its own thread over the
+ * pooled connections of the NFVORequestor's RestSession. Therefore the parallelism should not
+ * exceed the session's maximum number of connections per route, otherwise the additional threads
+ * just wait for a connection. The token handling, retries and circuit breaker of the session apply
+ * to every operation as usual.
+ *
+ * <p>A failed operation does not stop the others. Every operation gets a {@link BatchResult}
+ * telling whether it succeeded. If the batch times out or the calling thread is interrupted, the
+ * operations which are not done yet are cancelled and get a failed BatchResult, while the results
+ * of the finished ones are kept. An operation cancelled while its request was on the way may still
+ * have been executed by the NFVO. The BatchOperations class is thread safe.
+ */
+public class BatchOperations {
+
+  private static final AtomicInteger threadCount = new AtomicInteger();
+
+  private Logger log = LoggerFactory.getLogger(this.getClass());
+
+  private final NetworkServiceRecordAgent agent;
+  private final int parallelism;
+
+  /**
+   * @param agent the agent used to send the requests
+   * @param parallelism the maximum number of operations sent at the same time
+   */
+  public BatchOperations(NetworkServiceRecordAgent agent, int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("The parallelism must be positive");
+    }
+    this.agent = agent;
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Execute the operations and wait until all of them are done.
+   *
+   * @param operations the operations
+   * @return the results, in the same order as the operations. If the calling thread is interrupted
+   *     while waiting, the unfinished operations are cancelled and failed, and the interrupt status
+   *     is set again
+   * @throws SDKException if an operation could not be executed at all
+   */
+  public List<BatchResult> execute(BatchOperation... operations) throws SDKException {
+    return execute(Arrays.asList(operations));
+  }
+
+  /**
+   * Execute the operations and wait until all of them are done.
+   *
+   * @param operations the operations
+   * @return the results, in the same order as the operations. If the calling thread is interrupted
+   *     while waiting, the unfinished operations are cancelled and failed, and the interrupt status
+   *     is set again
+   * @throws SDKException if an operation could not be executed at all
+   */
+  public List<BatchResult> execute(List<BatchOperation> operations) throws SDKException {
+    return execute(operations, -1);
+  }
+
+  /**
+   * Execute the operations and wait until all of them are done, at most for the given time.
+   *
+   * @param operations the operations
+   * @param timeout the maximum time to wait
+   * @param unit the time unit of the timeout
+   * @return the results, in the same order as the operations. If the timeout elapses or the calling
+   *     thread is interrupted, the unfinished operations are cancelled and failed
+   * @throws SDKException if an operation could not be executed at all
+   */
+  public List<BatchResult> execute(List<BatchOperation> operations, long timeout, TimeUnit unit)
+      throws SDKException {
+    return execute(operations, Math.max(0, unit.toNanos(timeout)));
+  }
+
+  private List<BatchResult> execute(List<BatchOperation> operations, long timeoutNanos)
+      throws SDKException {
+    long start = System.nanoTime();
+    long deadline = start + timeoutNanos;
+    List<BatchResult> results = new ArrayList<>(operations.size());
+    if (operations.isEmpty()) {
+      return results;
+    }
+    ExecutorService executor =
+        Executors.newFixedThreadPool(Math.min(parallelism, operations.size()), this::newThread);
+    List<Future<BatchResult>> futures = new ArrayList<>(operations.size());
+    String abortReason = null;
+    try {
+      for (BatchOperation operation : operations) {
+        futures.add(executor.submit(() -> run(operation)));
+      }
+      for (Future<BatchResult> future : futures) {
+        if (timeoutNanos < 0) {
+          results.add(future.get());
+        } else {
+          results.add(future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+        }
+      }
+    } catch (TimeoutException e) {
+      abortReason = "The batch timed out";
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      abortReason = "The batch was interrupted";
+    } catch (ExecutionException e) {
+      // cannot happen, run() catches everything
+      throw new SDKException(e.getCause());
+    } finally {
+      // interrupts the running operations and drops the ones not yet sent
+      executor.shutdownNow();
+    }
+    if (abortReason != null) {
+      // the results of operations after the one waited for may be done already
+      long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      int unfinished = 0;
+      for (int i = results.size(); i < futures.size(); i++) {
+        BatchResult result = getIfDone(futures.get(i));
+        if (result == null) {
+          unfinished++;
+          result =
+              new BatchResult(
+                  operations.get(i),
+                  new SDKException(
+                      "Batch operation " + operations.get(i) + " was cancelled",
+                      new StackTraceElement[0],
+                      abortReason),
+                  duration);
+        }
+        results.add(result);
+      }
+      log.warn(abortReason + ", " + unfinished + " of " + results.size() + " operations cancelled");
+    }
+    long failed = results.stream().filter(r -> !r.isSuccessful()).count();
+    if (failed > 0) {
+      log.warn(failed + " of " + results.size() + " batch operations failed");
+    }
+    return results;
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  private BatchResult run(BatchOperation operation) {
+    long start = System.nanoTime();
+    SDKException error = null;
+    try {
+      operation.execute(agent);
+    } catch (SDKException e) {
+      log.debug("Batch operation " + operation + " failed: " + e.getMessage());
+      error = e;
+    } catch (RuntimeException e) {
+      log.debug("Batch operation " + operation + " failed", e);
+      error = new SDKException(e);
+    }
+    return new BatchResult(
+        operation, error, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+  }
+
+  private static BatchResult getIfDone(Future<BatchResult> future) {
+    if (!future.isDone() || future.isCancelled()) {
+      return null;
+    }
+    try {
+      return future.get();
+    } catch (InterruptedException | ExecutionException e) {
+      // cannot happen, the future is done and run() catches everything
+      return null;
+    }
+  }
+
+  private Thread newThread(Runnable runnable) {
+    Thread thread = new Thread(runnable, "openbaton-batch-" + threadCount.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.batch;
+
+import org.openbaton.sdk.api.exception.SDKException;
+
+/** The outcome of one operation of a batch. */
+public final class BatchResult {
+
+  private final BatchOperation operation;
+  private final SDKException error;
+  private final long duration;
+
+  BatchResult(BatchOperation operation, SDKException error, long duration) {
+    this.operation = operation;
+    this.error = error;
+    this.duration = duration;
+  }
+
+  public BatchOperation getOperation() {
+    return operation;
+  }
+
+  /** @return true if the NFVO accepted the operation */
+  public boolean isSuccessful() {
+    return error == null;
+  }
+
+  /** @return the reason why the operation failed, or null if it succeeded */
+  public SDKException getError() {
+    return error;
+  }
+
+  /** @return how many milliseconds the request of the operation took */
+  public long getDuration() {
+    return duration;
+  }
+
+  @Override
+  public String toString() {
+    return "BatchResult{"
+        + "operation="
+        + operation
+        + ", successful="
+        + isSuccessful()
+        + (error == null ? "" : ", error=" + error.getMessage())
+        + ", duration="
+        + duration
+        + '}';
+  }
+}
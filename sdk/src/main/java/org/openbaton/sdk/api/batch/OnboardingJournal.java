@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.batch;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Remembers the VNF packages an OnboardingPipeline already uploaded, so that an interrupted run can
+ * be resumed without uploading them again. Every completed upload is appended as one line to the
+ * journal file and flushed at once. A package counts as uploaded as long as its path, size and
+ * modification time are unchanged.
+ */
+class OnboardingJournal {
+
+  private final Path path;
+  // key of the file, see key(File), mapped to the package id
+  private final Map<String, String> packageIds = new HashMap<>();
+
+  /**
+   * @param path the journal file, which does not need to exist
+   * @throws IOException if an existing journal cannot be read
+   */
+  OnboardingJournal(Path path) throws IOException {
+    this.path = path;
+    if (Files.exists(path)) {
+      for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+        // key, sha256 and package id, separated by tabs
+        String[] fields = line.split("\t");
+        if (fields.length == 3) {
+          packageIds.put(fields[0], fields[2]);
+        }
+      }
+    }
+  }
+
+  /** @return the id of the package uploaded from the file, or null if it was not uploaded */
+  synchronized String getPackageId(File file) {
+    return packageIds.get(key(file));
+  }
+
+  synchronized void forget(File file) {
+    packageIds.remove(key(file));
+  }
+
+  synchronized void record(File file, String sha256, String packageId) throws IOException {
+    String key = key(file);
+    try (BufferedWriter writer =
+        Files.newBufferedWriter(
+            path,
+            StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.APPEND,
+            StandardOpenOption.WRITE)) {
+      writer.write(key + "\t" + sha256 + "\t" + packageId);
+      writer.newLine();
+    }
+    packageIds.put(key, packageId);
+  }
+
+  /** Remove the journal file once the onboarding is complete. */
+  synchronized void delete() throws IOException {
+    Files.deleteIfExists(path);
+    packageIds.clear();
+  }
+
+  private static String key(File file) {
+    return file.getAbsolutePath() + "|" + file.length() + "|" + file.lastModified();
+  }
+}
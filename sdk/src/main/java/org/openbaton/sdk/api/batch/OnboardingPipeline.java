@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openbaton.catalogue.mano.descriptor.NetworkServiceDescriptor;
+import org.openbaton.catalogue.mano.descriptor.VirtualNetworkFunctionDescriptor;
+import org.openbaton.sdk.api.exception.NotFoundException;
+import org.openbaton.sdk.api.exception.SDKException;
+import org.openbaton.sdk.api.rest.NetworkServiceDescriptorAgent;
+import org.openbaton.sdk.api.rest.VNFPackageAgent;
+import org.openbaton.sdk.api.rest.VirtualNetworkFunctionDescriptorAgent;
+import org.openbaton.sdk.api.util.PackageUploadOptions;
+import org.openbaton.sdk.api.util.PackageUploadResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Onboards a network service, i.e. uploads its VNF packages and creates its
+ * NetworkServiceDescriptor, in one call.
+ *
+ * <p>A run goes through the following steps, and stops with an SDKException at the first one that
+ * fails:
+ *
+ * <ol>
+ *   <li>All the tar files are validated locally, before anything is sent to the NFVO.
+ *   <li>The packages are uploaded, at most parallelism of them at the same time. Every completed
+ *       upload is recorded in the journal file, and packages recorded there by an earlier,
+ *       interrupted run are not uploaded again as long as the NFVO still has them. Only a package
+ *       the NFVO reports as not found is uploaded again; if the NFVO cannot be asked, the run
+ *       stops.
+ *   <li>The VirtualNetworkFunctionDescriptors referenced by the NetworkServiceDescriptor are looked
+ *       up on the NFVO. References without an id are resolved by name, and by vendor and version if
+ *       they are set.
+ *   <li>The NetworkServiceDescriptor is created and the journal file is deleted.
+ * </ol>
+ *
+ * The OnboardingPipeline class is not thread safe, but it may be used for several runs one after
+ * the other.
+ */
+public class OnboardingPipeline {
+
+  private static final AtomicInteger threadCount = new AtomicInteger();
+
+  private Logger log = LoggerFactory.getLogger(this.getClass());
+
+  private final VNFPackageAgent vnfPackageAgent;
+  private final VirtualNetworkFunctionDescriptorAgent vnfdAgent;
+  private final NetworkServiceDescriptorAgent nsdAgent;
+  private final Path journalPath;
+
+  private int parallelism = 4;
+  private PackageUploadOptions uploadOptions = new PackageUploadOptions();
+
+  /**
+   * @param vnfPackageAgent the agent uploading the packages
+   * @param vnfdAgent the agent looking up the VirtualNetworkFunctionDescriptors
+   * @param nsdAgent the agent creating the NetworkServiceDescriptor
+   * @param journalPath the file in which the completed uploads are recorded
+   */
+  public OnboardingPipeline(
+      VNFPackageAgent vnfPackageAgent,
+      VirtualNetworkFunctionDescriptorAgent vnfdAgent,
+      NetworkServiceDescriptorAgent nsdAgent,
+      Path journalPath) {
+    this.vnfPackageAgent = vnfPackageAgent;
+    this.vnfdAgent = vnfdAgent;
+    this.nsdAgent = nsdAgent;
+    this.journalPath = journalPath;
+  }
+
+  /**
+   * Upload the packages and create the NetworkServiceDescriptor.
+   *
+   * @param packagePaths the paths of the tar files of the VNF packages
+   * @param nsd the NetworkServiceDescriptor to create once all the packages are uploaded, or null
+   *     to only upload the packages
+   * @return the ids of the packages and the created NetworkServiceDescriptor
+   * @throws SDKException if a package is not valid or cannot be uploaded, if a referenced
+   *     VirtualNetworkFunctionDescriptor does not exist or the NetworkServiceDescriptor cannot be
+   *     created
+   */
+  public OnboardingResult onboard(List<String> packagePaths, NetworkServiceDescriptor nsd)
+      throws SDKException {
+    List<File> files = new ArrayList<>(packagePaths.size());
+    List<String> invalid = new ArrayList<>();
+    for (String packagePath : packagePaths) {
+      File file = new File(packagePath);
+      try {
+        PackageValidator.validate(file);
+      } catch (SDKException e) {
+        invalid.add(file.getName() + ": " + e.getReason());
+      }
+      files.add(file);
+    }
+    if (!invalid.isEmpty()) {
+      throw new SDKException(
+          invalid.size() + " of " + files.size() + " VNF packages are not valid",
+          new StackTraceElement[0],
+          String.join(", ", invalid));
+    }
+
+    OnboardingJournal journal;
+    try {
+      journal = new OnboardingJournal(journalPath);
+    } catch (IOException e) {
+      throw new SDKException(
+          "Could not read the onboarding journal " + journalPath,
+          e.getStackTrace(),
+          e.getMessage());
+    }
+
+    Map<String, String> packageIds = new LinkedHashMap<>();
+    List<String> resumed = new ArrayList<>();
+    List<File> pending = new ArrayList<>();
+    for (File file : files) {
+      String packageId = journal.getPackageId(file);
+      if (packageId != null && packageExists(packageId)) {
+        log.debug("Package " + file.getName() + " was already uploaded as " + packageId);
+        packageIds.put(file.getPath(), packageId);
+        resumed.add(file.getPath());
+      } else {
+        journal.forget(file);
+        pending.add(file);
+      }
+    }
+
+    List<String> uploaded = upload(pending, journal, packageIds);
+
+    NetworkServiceDescriptor created = null;
+    if (nsd != null) {
+      resolveVnfds(nsd);
+      created = nsdAgent.create(nsd);
+      log.info("Created NetworkServiceDescriptor " + created.getId());
+    }
+    try {
+      journal.delete();
+    } catch (IOException e) {
+      log.warn("Could not delete the onboarding journal " + journalPath + ": " + e.getMessage());
+    }
+    return new OnboardingResult(packageIds, uploaded, resumed, created);
+  }
+
+  private List<String> upload(List<File> files, OnboardingJournal journal, Map<String, String> ids)
+      throws SDKException {
+    List<String> uploaded = new ArrayList<>();
+    if (files.isEmpty()) {
+      return uploaded;
+    }
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            Math.min(parallelism, files.size()),
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "openbaton-onboarding-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    List<String> failed = new ArrayList<>();
+    try {
+      List<Future<PackageUploadResult>> futures = new ArrayList<>(files.size());
+      for (File file : files) {
+        futures.add(executor.submit(() -> upload(file, journal)));
+      }
+      for (int i = 0; i < files.size(); i++) {
+        PackageUploadResult result = futures.get(i).get();
+        String path = files.get(i).getPath();
+        if (result.isSuccessful()) {
+          ids.put(path, result.getVnfPackage().getId());
+          uploaded.add(path);
+        } else {
+          failed.add(files.get(i).getName() + ": " + result.getError().getMessage());
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SDKException(
+          "Interrupted while uploading the VNF packages",
+          new StackTraceElement[0],
+          "The completed uploads are recorded in " + journalPath);
+    } catch (ExecutionException e) {
+      // cannot happen, the upload task catches everything
+      throw new SDKException(e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+    if (!failed.isEmpty()) {
+      throw new SDKException(
+          failed.size() + " of " + files.size() + " VNF packages could not be uploaded",
+          new StackTraceElement[0],
+          String.join(", ", failed));
+    }
+    return uploaded;
+  }
+
+  private PackageUploadResult upload(File file, OnboardingJournal journal) {
+    PackageUploadResult result;
+    try {
+      result = vnfPackageAgent.upload(file.getPath(), uploadOptions);
+    } catch (SDKException e) {
+      log.warn("Could not upload " + file.getName() + ": " + e.getMessage());
+      return PackageUploadResult.failed(file, e);
+    } catch (RuntimeException e) {
+      log.warn("Could not upload " + file.getName(), e);
+      return PackageUploadResult.failed(file, new SDKException(e));
+    }
+    try {
+      journal.record(file, result.getSha256(), result.getVnfPackage().getId());
+    } catch (IOException e) {
+      // the package is uploaded anyway, a resumed run would just upload it again
+      log.warn("Could not record the upload of " + file.getName() + ": " + e.getMessage());
+    }
+    return result;
+  }
+
+  /**
+   * Check if the NFVO still has a package recorded in the journal.
+   *
+   * @throws SDKException if the NFVO cannot tell, e.g. because it is not reachable; uploading the
+   *     package again would then duplicate it
+   */
+  private boolean packageExists(String packageId) throws SDKException {
+    try {
+      return vnfPackageAgent.findById(packageId) != null;
+    } catch (NotFoundException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Set the ids of the VirtualNetworkFunctionDescriptors referenced by the NSD.
+   *
+   * @throws SDKException if a referenced VirtualNetworkFunctionDescriptor does not exist
+   */
+  private void resolveVnfds(NetworkServiceDescriptor nsd) throws SDKException {
+    if (nsd.getVnfd() == null || nsd.getVnfd().isEmpty()) {
+      return;
+    }
+    // a cached list may predate the uploads of this run, or of a previous one when resuming
+    vnfdAgent.invalidateCache();
+    List<VirtualNetworkFunctionDescriptor> existing = vnfdAgent.findAll();
+    List<String> missing = new ArrayList<>();
+    for (VirtualNetworkFunctionDescriptor reference : nsd.getVnfd()) {
+      VirtualNetworkFunctionDescriptor match =
+          existing.stream().filter(vnfd -> matches(reference, vnfd)).findFirst().orElse(null);
+      if (match == null) {
+        missing.add(reference.getId() != null ? reference.getId() : reference.getName());
+      } else {
+        reference.setId(match.getId());
+      }
+    }
+    if (!missing.isEmpty()) {
+      throw new SDKException(
+          "Could not create the NetworkServiceDescriptor " + nsd.getName(),
+          new StackTraceElement[0],
+          "The VirtualNetworkFunctionDescriptors " + missing + " do not exist");
+    }
+    // the ids changed, so the hash codes may have changed as well
+    nsd.setVnfd(new HashSet<>(nsd.getVnfd()));
+  }
+
+  private static boolean matches(
+      VirtualNetworkFunctionDescriptor reference, VirtualNetworkFunctionDescriptor vnfd) {
+    if (reference.getId() != null) {
+      return reference.getId().equals(vnfd.getId());
+    }
+    return reference.getName() != null
+        && reference.getName().equals(vnfd.getName())
+        && (reference.getVendor() == null || reference.getVendor().equals(vnfd.getVendor()))
+        && (reference.getVersion() == null || reference.getVersion().equals(vnfd.getVersion()));
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  public void setParallelism(int parallelism) {
+    this.parallelism = Math.max(1, parallelism);
+  }
+
+  public PackageUploadOptions getUploadOptions() {
+    return uploadOptions;
+  }
+
+  public void setUploadOptions(PackageUploadOptions uploadOptions) {
+    this.uploadOptions = uploadOptions;
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.batch;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.openbaton.catalogue.mano.descriptor.NetworkServiceDescriptor;
+
+/** The outcome of a successful {@link OnboardingPipeline} run. */
+public final class OnboardingResult {
+
+  private final Map<String, String> packageIds;
+  private final List<String> uploaded;
+  private final List<String> resumed;
+  private final NetworkServiceDescriptor networkServiceDescriptor;
+
+  OnboardingResult(
+      Map<String, String> packageIds,
+      List<String> uploaded,
+      List<String> resumed,
+      NetworkServiceDescriptor networkServiceDescriptor) {
+    this.packageIds = Collections.unmodifiableMap(packageIds);
+    this.uploaded = Collections.unmodifiableList(uploaded);
+    this.resumed = Collections.unmodifiableList(resumed);
+    this.networkServiceDescriptor = networkServiceDescriptor;
+  }
+
+  /** @return the ids of the VNFPackages, by the path of their tar file */
+  public Map<String, String> getPackageIds() {
+    return packageIds;
+  }
+
+  /** @return the paths of the packages uploaded in this run */
+  public List<String> getUploaded() {
+    return uploaded;
+  }
+
+  /** @return the paths of the packages skipped because a previous run had uploaded them */
+  public List<String> getResumed() {
+    return resumed;
+  }
+
+  /** @return the created NetworkServiceDescriptor, or null if none was submitted */
+  public NetworkServiceDescriptor getNetworkServiceDescriptor() {
+    return networkServiceDescriptor;
+  }
+
+  @Override
+  public String toString() {
+    return "OnboardingResult{"
+        + "uploaded="
+        + uploaded.size()
+        + ", resumed="
+        + resumed.size()
+        + ", networkServiceDescriptor="
+        + (networkServiceDescriptor == null ? null : networkServiceDescriptor.getId())
+        + '}';
+  }
+}
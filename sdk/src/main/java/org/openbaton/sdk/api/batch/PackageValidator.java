@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import org.openbaton.sdk.api.exception.SDKException;
+
+/**
+ * Checks a VNF package before it is uploaded: it has to be a tar archive with a Metadata.yaml file
+ * at its top level. Only the 512 byte headers of the archive entries are read, the content of the
+ * entries is skipped, so even large packages are checked quickly.
+ */
+class PackageValidator {
+
+  private static final int BLOCK_SIZE = 512;
+
+  private PackageValidator() {}
+
+  /**
+   * @param file the package
+   * @throws SDKException if the file is not a readable tar archive containing a Metadata.yaml
+   */
+  static void validate(File file) throws SDKException {
+    if (!file.isFile() || !file.canRead()) {
+      throw invalid(file, "The file does not exist or cannot be read");
+    }
+    boolean metadataFound = false;
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      ByteBuffer header = ByteBuffer.allocate(BLOCK_SIZE);
+      long position = 0;
+      long size = channel.size();
+      while (true) {
+        header.clear();
+        if (position + BLOCK_SIZE > size || readFully(channel, header, position) < BLOCK_SIZE) {
+          throw invalid(file, "The archive ends unexpectedly at byte " + position);
+        }
+        byte[] block = header.array();
+        if (isZero(block)) {
+          // the end of archive marker
+          break;
+        }
+        if (!hasValidChecksum(block)) {
+          throw invalid(file, "No valid tar header at byte " + position);
+        }
+        String name = readString(block, 0, 100);
+        if (name.startsWith("./")) {
+          name = name.substring(2);
+        }
+        if (name.equals("Metadata.yaml")) {
+          metadataFound = true;
+        }
+        long entrySize = readSize(block);
+        position += BLOCK_SIZE + (entrySize + BLOCK_SIZE - 1) / BLOCK_SIZE * BLOCK_SIZE;
+      }
+    } catch (IOException | NumberFormatException e) {
+      throw invalid(file, e.getMessage());
+    }
+    if (!metadataFound) {
+      throw invalid(file, "The archive contains no Metadata.yaml");
+    }
+  }
+
+  private static int readFully(FileChannel channel, ByteBuffer buffer, long position)
+      throws IOException {
+    int total = 0;
+    while (buffer.hasRemaining()) {
+      int n = channel.read(buffer, position + total);
+      if (n < 0) {
+        break;
+      }
+      total += n;
+    }
+    return total;
+  }
+
+  private static boolean isZero(byte[] block) {
+    for (byte b : block) {
+      if (b != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean hasValidChecksum(byte[] block) {
+    long expected;
+    try {
+      expected = readOctal(block, 148, 8);
+    } catch (NumberFormatException e) {
+      return false;
+    }
+    // the checksum field itself counts as eight spaces
+    long sum = 8 * ' ';
+    for (int i = 0; i < BLOCK_SIZE; i++) {
+      if (i < 148 || i >= 156) {
+        sum += block[i] & 0xff;
+      }
+    }
+    return sum == expected;
+  }
+
+  private static long readSize(byte[] block) {
+    if ((block[124] & 0x80) == 0) {
+      return readOctal(block, 124, 12);
+    }
+    // GNU tar stores sizes of 8 GiB and more in base 256
+    long size = 0;
+    for (int i = 125; i < 136; i++) {
+      size = (size << 8) | (block[i] & 0xff);
+    }
+    return size;
+  }
+
+  private static String readString(byte[] block, int offset, int length) {
+    int end = offset;
+    while (end < offset + length && block[end] != 0) {
+      end++;
+    }
+    return new String(block, offset, end - offset, StandardCharsets.UTF_8);
+  }
+
+  private static long readOctal(byte[] block, int offset, int length) {
+    String value = readString(block, offset, length).trim();
+    return value.isEmpty() ? 0 : Long.parseLong(value, 8);
+  }
+
+  private static SDKException invalid(File file, String reason) {
+    return new SDKException(
+        "The VNF package " + file.getName() + " is not valid", new StackTraceElement[0], reason);
+  }
+}
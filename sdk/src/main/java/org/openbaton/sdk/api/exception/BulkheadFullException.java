@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.exception;
+
+/**
+ * Thrown instead of sending a request if the maximum number of concurrent requests to the NFVO is
+ * reached and no request finished in time.
+ */
+public class BulkheadFullException extends SDKException {
+
+  /**
+   * @param baseUrl the url of the NFVO
+   * @param maxConcurrentRequests the maximum number of concurrent requests
+   */
+  public BulkheadFullException(String baseUrl, int maxConcurrentRequests) {
+    super(
+        "Too many concurrent requests to " + baseUrl,
+        new StackTraceElement[0],
+        "All "
+            + maxConcurrentRequests
+            + " permitted concurrent requests to the NFVO are still waiting for a response");
+  }
+}
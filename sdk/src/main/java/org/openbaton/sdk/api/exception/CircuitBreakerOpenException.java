@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.exception;
+
+/**
+ * Thrown instead of sending a request while the circuit breaker of the RestSession is open, i.e.
+ * while too many of the recent requests to the NFVO failed.
+ */
+public class CircuitBreakerOpenException extends SDKException {
+
+  /**
+   * @param baseUrl the url of the NFVO
+   * @param remainingOpenTime how many milliseconds the circuit breaker stays open
+   */
+  public CircuitBreakerOpenException(String baseUrl, long remainingOpenTime) {
+    super(
+        "The circuit breaker for " + baseUrl + " is open",
+        new StackTraceElement[0],
+        "Too many requests to the NFVO failed recently, no requests are sent for another "
+            + remainingOpenTime
+            + " ms");
+  }
+}
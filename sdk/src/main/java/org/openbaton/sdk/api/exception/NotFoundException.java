@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.exception;
+
+/**
+ * Thrown if the NFVO answered a request with 404 Not Found, i.e. the requested entity does not
+ * exist. Other failures of a request are thrown as a plain SDKException.
+ */
+public class NotFoundException extends SDKException {
+
+  /** @param reason the body of the NFVO's response */
+  public NotFoundException(String reason) {
+    super("Status is 404", new StackTraceElement[0], reason);
+  }
+}
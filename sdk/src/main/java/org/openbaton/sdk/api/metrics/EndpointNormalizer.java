@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.metrics;
+
+/**
+ * Turns the path of a request into the endpoint under which its measurements are recorded, by
+ * replacing every path segment which looks like an id with "{id}", e.g.
+ * /api/v1/ns-records/8f3b.../vnfrecords/1a2c... becomes /api/v1/ns-records/{id}/vnfrecords/{id}.
+ * Segments which are UUIDs, numbers or long hexadecimal strings are considered ids.
+ */
+public final class EndpointNormalizer {
+
+  private static final String ID = "{id}";
+  // shorter hexadecimal segments may be words, e.g. "add" or "face"
+  private static final int MIN_HEX_ID_LENGTH = 16;
+
+  private EndpointNormalizer() {}
+
+  /**
+   * @param path the path of a request, without scheme and host; a query string is removed
+   * @return the normalized path
+   */
+  public static String normalize(String path) {
+    if (path == null || path.isEmpty()) {
+      return "/";
+    }
+    int query = path.indexOf('?');
+    if (query >= 0) {
+      path = path.substring(0, query);
+    }
+    StringBuilder endpoint = new StringBuilder(path.length());
+    int start = 0;
+    while (start <= path.length()) {
+      int end = path.indexOf('/', start);
+      if (end < 0) {
+        end = path.length();
+      }
+      if (start > 0) {
+        endpoint.append('/');
+      }
+      if (isId(path, start, end)) {
+        endpoint.append(ID);
+      } else {
+        endpoint.append(path, start, end);
+      }
+      start = end + 1;
+    }
+    return endpoint.toString();
+  }
+
+  private static boolean isId(String path, int start, int end) {
+    int length = end - start;
+    if (length == 0) {
+      return false;
+    }
+    boolean digits = true;
+    boolean hex = true;
+    boolean uuid = length == 36;
+    for (int i = start; i < end; i++) {
+      char c = path.charAt(i);
+      int position = i - start;
+      boolean hyphenPosition = position == 8 || position == 13 || position == 18 || position == 23;
+      boolean isHex = (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+      digits &= c >= '0' && c <= '9';
+      hex &= isHex;
+      uuid &= hyphenPosition ? c == '-' : isHex;
+    }
+    return digits || uuid || (hex && length >= MIN_HEX_ID_LENGTH);
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the measurements of the SDK to a Micrometer MeterRegistry. The SDK does not depend on
+ * Micrometer at runtime, so micrometer-core has to be on the classpath of applications using this
+ * class. The following meters are registered, all names prefixed with the configured prefix,
+ * "openbaton.sdk" by default:
+ *
+ * <ul>
+ *   <li>requests: a timer with percentile histogram, tagged with method, endpoint, status and
+ *       outcome
+ *   <li>request.size and response.size: distribution summaries of the body sizes in bytes, tagged
+ *       with method and endpoint
+ *   <li>connection.lease: a timer of the time spent waiting for a pooled connection
+ *   <li>token.refreshes: a counter tagged with the outcome
+ *   <li>retries: a counter of the retries of the RetryPolicy, tagged with method, endpoint and
+ *       reason
+ *   <li>token.rejections: a counter of the requests sent again with a new access token, tagged with
+ *       method and endpoint
+ * </ul>
+ */
+public class MicrometerSdkMetrics implements SdkMetrics {
+
+  private final MeterRegistry registry;
+  private final String prefix;
+
+  public MicrometerSdkMetrics(MeterRegistry registry) {
+    this(registry, "openbaton.sdk");
+  }
+
+  /**
+   * @param registry the registry to which the meters are added
+   * @param prefix the prefix of the meter names
+   */
+  public MicrometerSdkMetrics(MeterRegistry registry, String prefix) {
+    this.registry = registry;
+    this.prefix = prefix;
+  }
+
+  @Override
+  public void recordRequest(String method, String endpoint, int status, long durationNanos) {
+    Timer.builder(prefix + ".requests")
+        .description("Requests sent to the NFVO")
+        .tag("method", method)
+        .tag("endpoint", endpoint)
+        .tag("status", status == 0 ? "NONE" : Integer.toString(status))
+        .tag("outcome", getOutcome(status))
+        .publishPercentileHistogram()
+        .register(registry)
+        .record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void recordBytesSent(String method, String endpoint, long bytes) {
+    DistributionSummary.builder(prefix + ".request.size")
+        .description("Size of the request bodies")
+        .baseUnit("bytes")
+        .tag("method", method)
+        .tag("endpoint", endpoint)
+        .register(registry)
+        .record(bytes);
+  }
+
+  @Override
+  public void recordBytesReceived(String method, String endpoint, long bytes) {
+    DistributionSummary.builder(prefix + ".response.size")
+        .description("Size of the response bodies")
+        .baseUnit("bytes")
+        .tag("method", method)
+        .tag("endpoint", endpoint)
+        .register(registry)
+        .record(bytes);
+  }
+
+  @Override
+  public void recordConnectionLease(long waitNanos) {
+    Timer.builder(prefix + ".connection.lease")
+        .description("Time spent waiting for a pooled connection")
+        .register(registry)
+        .record(waitNanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void recordTokenRefresh(boolean successful) {
+    Counter.builder(prefix + ".token.refreshes")
+        .description("Access tokens requested from the NFVO")
+        .tag("outcome", successful ? "SUCCESS" : "FAILURE")
+        .register(registry)
+        .increment();
+  }
+
+  @Override
+  public void recordRetry(String method, String endpoint, String reason) {
+    Counter.builder(prefix + ".retries")
+        .description("Requests sent again")
+        .tag("method", method)
+        .tag("endpoint", endpoint)
+        .tag("reason", reason)
+        .register(registry)
+        .increment();
+  }
+
+  @Override
+  public void recordUnauthorizedRetry(String method, String endpoint) {
+    Counter.builder(prefix + ".token.rejections")
+        .description("Requests sent again because the NFVO rejected the access token")
+        .tag("method", method)
+        .tag("endpoint", endpoint)
+        .register(registry)
+        .increment();
+  }
+
+  private String getOutcome(int status) {
+    if (status == 0) {
+      return "IO_ERROR";
+    } else if (status < 300) {
+      return "SUCCESS";
+    } else if (status < 400) {
+      return "REDIRECTION";
+    } else if (status < 500) {
+      return "CLIENT_ERROR";
+    }
+    return "SERVER_ERROR";
+  }
+}
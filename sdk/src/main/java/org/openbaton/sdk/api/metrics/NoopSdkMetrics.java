@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.metrics;
+
+/** The default SdkMetrics, which discards all the measurements. */
+public final class NoopSdkMetrics implements SdkMetrics {
+
+  public static final NoopSdkMetrics INSTANCE = new NoopSdkMetrics();
+
+  private NoopSdkMetrics() {}
+
+  @Override
+  public void recordRequest(String method, String endpoint, int status, long durationNanos) {}
+
+  @Override
+  public void recordBytesSent(String method, String endpoint, long bytes) {}
+
+  @Override
+  public void recordBytesReceived(String method, String endpoint, long bytes) {}
+
+  @Override
+  public void recordConnectionLease(long waitNanos) {}
+
+  @Override
+  public void recordTokenRefresh(boolean successful) {}
+
+  @Override
+  public void recordRetry(String method, String endpoint, String reason) {}
+
+  @Override
+  public void recordUnauthorizedRetry(String method, String endpoint) {}
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.metrics;
+
+/**
+ * Receives measurements of the requests a RestSession sends to the NFVO, so that they can be
+ * published to a monitoring system. Set an implementation with {@link
+ * org.openbaton.sdk.NfvoRequestorBuilder#metrics(SdkMetrics)}; by default {@link
+ * NoopSdkMetrics#INSTANCE} discards everything, and {@link MicrometerSdkMetrics} publishes to a
+ * Micrometer MeterRegistry.
+ *
+ * <p>The endpoints are the paths of the requests with the ids replaced by "{id}", see {@link
+ * EndpointNormalizer}, so that there is a bounded number of them. The methods are called on the
+ * threads sending and reading the requests, including the I/O dispatcher threads of the
+ * non-blocking HttpClient, so implementations must be thread safe and must not block.
+ */
+public interface SdkMetrics {
+
+  /**
+   * Called once per attempt of a request, when the response headers arrived or the request failed.
+   * The duration includes the time spent waiting for a pooled connection.
+   *
+   * @param method the http method, e.g. GET
+   * @param endpoint the normalized path of the request
+   * @param status the status of the response, or 0 if no response was received
+   * @param durationNanos the duration of the attempt in nanoseconds
+   */
+  void recordRequest(String method, String endpoint, int status, long durationNanos);
+
+  /**
+   * Called once per request body which was sent, with the number of bytes after compression.
+   *
+   * @param method the http method
+   * @param endpoint the normalized path of the request
+   * @param bytes the size of the body
+   */
+  void recordBytesSent(String method, String endpoint, long bytes);
+
+  /**
+   * Called once per response body, with the number of bytes sent by the NFVO before any
+   * decompression.
+   *
+   * @param method the http method of the request
+   * @param endpoint the normalized path of the request
+   * @param bytes the size of the body
+   */
+  void recordBytesReceived(String method, String endpoint, long bytes);
+
+  /**
+   * Called whenever the blocking HttpClient obtained a connection from its pool, or gave up waiting
+   * for one. Long waits mean that the pool is too small for the number of concurrent requests.
+   *
+   * @param waitNanos the time spent waiting in nanoseconds
+   */
+  void recordConnectionLease(long waitNanos);
+
+  /**
+   * Called whenever a new access token was requested from the NFVO.
+   *
+   * @param successful false if no token could be obtained
+   */
+  void recordTokenRefresh(boolean successful);
+
+  /**
+   * Called whenever the RetryPolicy of the session sends a request again.
+   *
+   * @param method the http method
+   * @param endpoint the normalized path of the request
+   * @param reason "exception" if the previous attempt failed with an IOException, "status" if the
+   *     NFVO answered with a retryable status
+   */
+  void recordRetry(String method, String endpoint, String reason);
+
+  /**
+   * Called whenever a request is sent again with a new access token because the NFVO rejected the
+   * previous one. These are not retries of the RetryPolicy and are not passed to {@link
+   * #recordRetry}.
+   *
+   * @param method the http method
+   * @param endpoint the normalized path of the request
+   */
+  void recordUnauthorizedRetry(String method, String endpoint);
+}
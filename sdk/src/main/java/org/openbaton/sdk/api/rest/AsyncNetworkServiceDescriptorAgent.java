@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.rest;
+
+import java.net.HttpURLConnection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.apache.http.annotation.ThreadSafe;
+import org.openbaton.catalogue.mano.common.Security;
+import org.openbaton.catalogue.mano.descriptor.NetworkServiceDescriptor;
+import org.openbaton.catalogue.mano.descriptor.PhysicalNetworkFunctionDescriptor;
+import org.openbaton.catalogue.mano.descriptor.VNFDependency;
+import org.openbaton.catalogue.mano.descriptor.VirtualNetworkFunctionDescriptor;
+import org.openbaton.sdk.api.util.AbstractAsyncRestAgent;
+import org.openbaton.sdk.api.util.RestSession;
+
+/**
+ * This class is the non-blocking variant of the NetworkServiceDescriptorAgent. Every method sends
+ * the same request as the NetworkServiceDescriptorAgent method with the same name, but returns a
+ * CompletableFuture instead of waiting for the response. The deprecated VirtualNetworkFunction
+ * Descriptor methods have no async variant, use the VirtualNetworkFunctionDescriptorAgent instead.
+ * It is thread safe.
+ */
+@ThreadSafe
+public class AsyncNetworkServiceDescriptorAgent
+    extends AbstractAsyncRestAgent<NetworkServiceDescriptor> {
+
+  /**
+   * @param session the RestSession shared with the other agents of the same NFVORequestor
+   * @param projectId the NFVO Project's ID that will be used in the requests to the NFVO
+   */
+  public AsyncNetworkServiceDescriptorAgent(RestSession session, String projectId) {
+    super(session, projectId, NetworkServiceDescriptor.class);
+  }
+
+  /** The NetworkServiceDescriptorAgent caches its responses. */
+  @Override
+  protected boolean isCacheable() {
+    return true;
+  }
+
+  /**
+   * NetworkServiceDescriptors may embed VirtualNetworkFunctionDescriptors, which the NFVO creates,
+   * updates and deletes together with them.
+   */
+  @Override
+  protected List<String> getAffectedPaths() {
+    return Collections.singletonList(getPath(VirtualNetworkFunctionDescriptor.class));
+  }
+
+  /**
+   * Return a List with all the VNFDependencies that are contained in a specific
+   * NetworkServiceDescriptor.
+   *
+   * @param idNSD the ID of the NetworkServiceDescriptor
+   * @return a future holding the List of VNFDependencies
+   */
+  public CompletableFuture<List<VNFDependency>> getVNFDependencies(final String idNSD) {
+    String url = idNSD + "/vnfdependencies";
+    return findAll(url, VNFDependency.class);
+  }
+
+  /**
+   * Return a specific VNFDependency that is contained in a particular NetworkServiceDescriptor.
+   *
+   * @param idNSD the ID of the NetworkServiceDescriptor
+   * @param idVnfd the VNFDependencies' ID
+   * @return a future holding the VNFDependency
+   */
+  public CompletableFuture<VNFDependency> getVNFDependency(
+      final String idNSD, final String idVnfd) {
+    String url = idNSD + "/vnfdependencies" + "/" + idVnfd;
+    return requestGet(url, VNFDependency.class);
+  }
+
+  /**
+   * Delete a VNFDependency.
+   *
+   * @param idNSD the ID of the NetworkServiceDescriptor which contains the VNFDependency
+   * @param idVnfd the ID of the VNFDependency that shall be deleted
+   * @return a future which completes when the VNFDependency is deleted
+   */
+  public CompletableFuture<Void> deleteVNFDependency(final String idNSD, final String idVnfd) {
+    String url = idNSD + "/vnfdependencies" + "/" + idVnfd;
+    return requestDelete(url);
+  }
+
+  /**
+   * Add a new VNFDependency to a specific NetworkServiceDescriptor.
+   *
+   * @param idNSD the ID of the NetworkServiceDescriptor
+   * @param vnfDependency the new VNFDependency
+   * @return a future holding the new VNFDependency
+   */
+  public CompletableFuture<VNFDependency> createVNFDependency(
+      final String idNSD, final VNFDependency vnfDependency) {
+    String url = idNSD + "/vnfdependencies" + "/";
+    return requestPost(url, vnfDependency, VNFDependency.class);
+  }
+
+  /**
+   * Update a specific VNFDependency which is contained in a particular NetworkServiceDescriptor.
+   *
+   * @param idNSD the ID of the NetworkServiceDescriptor containing the VNFDependency
+   * @param idVnfDep the ID of the VNFDependency which shall be updated
+   * @param vnfDependency the updated version of the VNFDependency
+   * @return a future holding the updated VNFDependency
+   */
+  public CompletableFuture<VNFDependency> updateVNFD(
+      final String idNSD, final String idVnfDep, final VNFDependency vnfDependency) {
+    String url = idNSD + "/vnfdependencies" + "/" + idVnfDep;
+    return requestPut(url, vnfDependency, VNFDependency.class);
+  }
+
+  /**
+   * Returns the List of PhysicalNetworkFunctionDescriptors that are contained in a specific
+   * NetworkServiceDescriptor.
+   *
+   * @param idNSD the ID of the NetworkServiceDescriptor
+   * @return a future holding the List of PhysicalNetworkFunctionDescriptors
+   */
+  public CompletableFuture<List<PhysicalNetworkFunctionDescriptor>>
+      getPhysicalNetworkFunctionDescriptors(final String idNSD) {
+    String url = idNSD + "/pnfdescriptors";
+    return findAll(url, PhysicalNetworkFunctionDescriptor.class);
+  }
+
+  /**
+   * Returns a specific PhysicalNetworkFunctionDescriptor that is contained in a particular
+   * NetworkServiceDescriptor.
+   *
+   * @param idNsd the NetworkServiceDescriptr's ID
+   * @param idPnf the PhysicalNetworkFunctionDescriptor's ID
+   * @return a future holding the PhysicalNetworkFunctionDescriptor
+   */
+  public CompletableFuture<PhysicalNetworkFunctionDescriptor> getPhysicalNetworkFunctionDescriptor(
+      final String idNsd, final String idPnf) {
+    String url = idNsd + "/pnfdescriptors" + "/" + idPnf;
+    return requestGet(
+        url, PhysicalNetworkFunctionDescriptor.class, HttpURLConnection.HTTP_ACCEPTED);
+  }
+
+  /**
+   * Delete a specific PhysicalNetworkFunctionDescriptor which is contained in a particular
+   * NetworkServiceDescriptor.
+   *
+   * @param idNsd the NetworkServiceDescriptor's ID
+   * @param idPnf the PhysicalNetworkFunctionDescriptor's ID
+   * @return a future which completes when the PhysicalNetworkFunctionDescriptor is deleted
+   */
+  public CompletableFuture<Void> deletePhysicalNetworkFunctionDescriptor(
+      final String idNsd, final String idPnf) {
+    String url = idNsd + "/pnfdescriptors" + "/" + idPnf;
+    return requestDelete(url);
+  }
+
+  /**
+   * Create a new PhysicalNetworkFunctionDescriptor in a NetworkServiceDescriptor
+   *
+   * @param idNsd the NetworkServiceDescriptor's ID
+   * @param physicalNetworkFunctionDescriptor the new PhysicalNetworkFunctionDescriptor
+   * @return a future holding the created PhysicalNetworkFunctionDescriptor
+   */
+  public CompletableFuture<PhysicalNetworkFunctionDescriptor>
+      createPhysicalNetworkFunctionDescriptor(
+          final String idNsd,
+          final PhysicalNetworkFunctionDescriptor physicalNetworkFunctionDescriptor) {
+    String url = idNsd + "/pnfdescriptors";
+    return requestPost(
+        url, physicalNetworkFunctionDescriptor, PhysicalNetworkFunctionDescriptor.class);
+  }
+
+  /**
+   * Update a PhysicalNetworkFunctionDescriptor.
+   *
+   * @param idNsd the NetworkFunctionDescriptor's ID
+   * @param idPnf the PhysicalNetworkFunctionDescriptor's ID
+   * @param physicalNetworkFunctionDescriptor the updated version of the
+   *     PhysicalNetworkFunctionDescriptor
+   * @return a future holding the updated PhysicalNetworkFunctionDescriptor
+   */
+  public CompletableFuture<PhysicalNetworkFunctionDescriptor> updatePNFD(
+      final String idNsd,
+      final String idPnf,
+      final PhysicalNetworkFunctionDescriptor physicalNetworkFunctionDescriptor) {
+    String url = idNsd + "/pnfdescriptors" + "/" + idPnf;
+    return requestPut(
+        url, physicalNetworkFunctionDescriptor, PhysicalNetworkFunctionDescriptor.class);
+  }
+
+  /**
+   * Returns the Security object of a specific NetworkServiceDescriptor.
+   *
+   * @param idNsd the ID of the NetworkServiceDescriptor
+   * @return a future holding the Security object
+   */
+  public CompletableFuture<Security> getSecurities(final String idNsd) {
+    String url = idNsd + "/security";
+    return requestGet(url, Security.class);
+  }
+
+  /**
+   * Delete a Security object.
+   *
+   * @param idNsd the NetworkServiceDescriptor's ID
+   * @param idSecurity the Security object's ID
+   * @return a future which completes when the Security object is deleted
+   */
+  public CompletableFuture<Void> deleteSecurity(final String idNsd, final String idSecurity) {
+    String url = idNsd + "/security" + "/" + idSecurity;
+    return requestDelete(url);
+  }
+
+  /**
+   * Add a new Security object to a NetworkServiceDescriptor.
+   *
+   * @param idNSD the ID of the NetworkServiceDescriptor
+   * @param security the Security object to add
+   * @return a future holding the new Security object
+   */
+  public CompletableFuture<Security> createSecurity(final String idNSD, final Security security) {
+    String url = idNSD + "/security" + "/";
+    return requestPost(url, security, Security.class);
+  }
+
+  /**
+   * Update a Security object of a specific NetworkServiceDescriptor.
+   *
+   * @param idNSD the id of the NetworkServiceDescriptor
+   * @param idSecurity the ID of the Security object which shall be updated
+   * @param updatedSecurity the updated version of the Security object
+   * @return a future holding the updated Security object
+   */
+  public CompletableFuture<Security> updateSecurity(
+      final String idNSD, final String idSecurity, final Security updatedSecurity) {
+    String url = idNSD + "/security" + "/" + idSecurity;
+    return requestPut(url, updatedSecurity, Security.class);
+  }
+}
@@ -0,0 +1,499 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.rest;
+
+import java.io.Serializable;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.apache.http.annotation.ThreadSafe;
+import org.openbaton.catalogue.mano.descriptor.VNFComponent;
+import org.openbaton.catalogue.mano.record.NetworkServiceRecord;
+import org.openbaton.catalogue.mano.record.PhysicalNetworkFunctionRecord;
+import org.openbaton.catalogue.mano.record.VNFCInstance;
+import org.openbaton.catalogue.mano.record.VNFRecordDependency;
+import org.openbaton.catalogue.mano.record.VirtualNetworkFunctionRecord;
+import org.openbaton.catalogue.nfvo.Configuration;
+import org.openbaton.catalogue.nfvo.messages.Interfaces.NFVMessage;
+import org.openbaton.sdk.api.util.AbstractAsyncRestAgent;
+import org.openbaton.sdk.api.util.RestSession;
+
+/**
+ * This class is the non-blocking variant of the NetworkServiceRecordAgent. Every method sends the
+ * same request as the NetworkServiceRecordAgent method with the same name, but returns a
+ * CompletableFuture instead of waiting for the response. It is thread safe.
+ */
+@ThreadSafe
+public class AsyncNetworkServiceRecordAgent extends AbstractAsyncRestAgent<NetworkServiceRecord> {
+
+  /**
+   * @param session the RestSession shared with the other agents of the same NFVORequestor
+   * @param projectId the NFVO Project's ID that will be used in the requests to the NFVO
+   */
+  public AsyncNetworkServiceRecordAgent(RestSession session, String projectId) {
+    super(session, projectId, NetworkServiceRecord.class);
+  }
+
+  /**
+   * Create a new NetworkServiceRecord from a NetworkServiceDescriptor.
+   *
+   * @param id ID of the NetworkServiceDescriptor
+   * @param vduVimInstances a HashMap assigning VimInstance names to VirtualDeploymentUnits
+   * @param keys an ArrayList of Key names that shall be passed to the NetworkServiceRecord
+   * @param configurations a HashMap assigning Configuration objects to VirtualNetworkServiceRecords
+   * @return a future holding the created NetworkServiceRecord
+   */
+  public CompletableFuture<NetworkServiceRecord> create(
+      final String id,
+      HashMap<String, ArrayList<String>> vduVimInstances,
+      ArrayList<String> keys,
+      HashMap<String, Configuration> configurations) {
+    HashMap<String, Serializable> jsonBody = new HashMap<>();
+    jsonBody.put("keys", keys);
+    jsonBody.put("vduVimInstances", vduVimInstances);
+    jsonBody.put("configurations", configurations);
+    return requestPost(id, jsonBody, NetworkServiceRecord.class);
+  }
+
+  /**
+   * Returns a List of all the VirtualNetworkFunctionRecords that are contained in a
+   * NetworkServiceRecord.
+   *
+   * @param id ID of the NetworkServiceRecord
+   * @return a future holding the List of VirtualNetworkFunctionRecords
+   */
+  public CompletableFuture<List<VirtualNetworkFunctionRecord>> getVirtualNetworkFunctionRecords(
+      final String id) {
+    String url = id + "/vnfrecords";
+    return findAll(url, VirtualNetworkFunctionRecord.class);
+  }
+
+  /**
+   * Returns a specific VirtualNetworkFunctionRecord.
+   *
+   * @param id the ID of the NetworkServiceRecord containing the VirtualNetworkFunctionRecord
+   * @param idVnfr the ID of the VirtualNetworkFunctionRecord
+   * @return a future holding the VirtualNetworkFunctionRecord
+   */
+  public CompletableFuture<VirtualNetworkFunctionRecord> getVirtualNetworkFunctionRecord(
+      final String id, final String idVnfr) {
+    String url = id + "/vnfrecords" + "/" + idVnfr;
+    return requestGet(url, VirtualNetworkFunctionRecord.class);
+  }
+
+  /**
+   * Deletes a specific VirtualNetworkFunctionRecord.
+   *
+   * @param id the ID of the NetworkServiceRecord containing the VirtualNetworkFunctionRecord
+   * @param idVnfr the ID of the VirtualNetworkFunctionRecord to delete
+   * @return a future which completes when the VirtualNetworkFunctionRecord is deleted
+   */
+  public CompletableFuture<Void> deleteVirtualNetworkFunctionRecord(
+      final String id, final String idVnfr) {
+    String url = id + "/vnfrecords" + "/" + idVnfr;
+    return requestDelete(url);
+  }
+
+  /**
+   * Create a new VNFCInstance in standby mode.
+   *
+   * @param idNsr the ID of the NetworkServiceRecord to which the VNFCInstance shall be added
+   * @param idVnfr the ID of the VirtualNetworkFunctionRecord to which the VNFCInstance shall be
+   *     added
+   * @param idVdu the ID of the VirtualDeploymentUnit to which the VNFCInstance shall be added
+   * @param vnfComponent the VNFComponent from which the VNFCInstance shall be created
+   * @param vimInstanceNames the list of vimInstanceNames where you want to deploy the new vnf
+   *     component
+   * @return a future which completes when the NFVO accepted the request
+   */
+  public CompletableFuture<Void> createVNFCInstanceInStandby(
+      final String idNsr,
+      final String idVnfr,
+      final String idVdu,
+      final VNFComponent vnfComponent,
+      ArrayList<String> vimInstanceNames) {
+    String url = idNsr + "/vnfrecords/" + idVnfr + "/vdunits/" + idVdu + "/vnfcinstances/standby";
+    HashMap<String, Serializable> body = new HashMap<>();
+    body.put("vnfComponent", vnfComponent);
+    body.put("vimInstanceNames", vimInstanceNames);
+    return requestPost(url, body, null);
+  }
+
+  /**
+   * Make a VNFCInstance switch into standby mode.
+   *
+   * @param idNsr the ID of the NetworkServiceRecord containing the VNFCInstance
+   * @param idVnfr the ID of the VirtualNetworkFunctionRecord containing the VNFCInstance
+   * @param idVdu the ID of the VirtualDeploymentUnit containing the VNFCInstance
+   * @param idVnfc the ID on the VNFCInstance that shall switch into standby mode
+   * @param failedVnfcInstance the failed VNFCInstance
+   * @return a future which completes when the NFVO accepted the request
+   */
+  public CompletableFuture<Void> switchToStandby(
+      final String idNsr,
+      final String idVnfr,
+      final String idVdu,
+      final String idVnfc,
+      final VNFCInstance failedVnfcInstance) {
+    String url =
+        idNsr
+            + "/vnfrecords/"
+            + idVnfr
+            + "/vdunits/"
+            + idVdu
+            + "/vnfcinstances/"
+            + idVnfc
+            + "/switchtostandby";
+    return requestPost(url, failedVnfcInstance, null);
+  }
+
+  /**
+   * Trigger the execution of a specific LifecycleEvent on a VNFCInstance. Currently only the HEAL
+   * LifecycleEvent is supported.
+   *
+   * @param idNsr the ID of the NetworkServiceRecord containing the VNFCInstance
+   * @param idVnfr the ID of the VirtualNetworkFunctionRecord containing the VNFCInstance
+   * @param idVdu the ID of the VirtualDeploymentUnit containing the VNFCInstance
+   * @param idVnfc the ID on the VNFCInstance on which a LifecycleEvent shall be executed
+   * @param nfvMessage the NFVMessage describing the LifecyceEvent to execute
+   * @return a future which completes when the NFVO accepted the request
+   */
+  public CompletableFuture<Void> postAction(
+      final String idNsr,
+      final String idVnfr,
+      final String idVdu,
+      final String idVnfc,
+      final NFVMessage nfvMessage) {
+    String url =
+        idNsr
+            + "/vnfrecords/"
+            + idVnfr
+            + "/vdunits/"
+            + idVdu
+            + "/vnfcinstances/"
+            + idVnfc
+            + "/actions";
+    return requestPost(url, nfvMessage, null);
+  }
+
+  /**
+   * Create a new VirtualNetworkFunctionRecord and add it to a NetworkServiceRecord.
+   *
+   * @param idNsr the ID of the NetworkServiceRecord to which the VirtualNetworkFunctionRecord shall
+   *     be added
+   * @param virtualNetworkFunctionRecord the new VirtualNetworkFunctionRecord
+   * @return a future holding the VirtualNetworkFunctionRecord
+   */
+  public CompletableFuture<VirtualNetworkFunctionRecord> createVNFR(
+      final String idNsr, final VirtualNetworkFunctionRecord virtualNetworkFunctionRecord) {
+    String url = idNsr + "/vnfrecords";
+    return requestPost(url, virtualNetworkFunctionRecord, VirtualNetworkFunctionRecord.class);
+  }
+
+  /**
+   * Create a new VNFCInstance from a VNFComponent without specifying the VirtualDeploymentUnit to
+   * which the VNFCInstance shall be added. This is also called a scale out operation.
+   *
+   * @param idNsr the ID of the NetworkServiceRecord to which the new VNFCInstance shall be added
+   * @param idVnfr the ID of the VirtualNetworkFunctionRecord to which the new VNFCInstance shall be
+   *     added
+   * @param vnfComponent the VNFComponent from which the new VNFCInstance shall be created
+   * @param vimInstanceNames the list of vimInstanceNames where you want to deploy the new vnf
+   *     component
+   * @return a future which completes when the NFVO accepted the request
+   */
+  public CompletableFuture<Void> createVNFCInstance(
+      final String idNsr,
+      final String idVnfr,
+      final VNFComponent vnfComponent,
+      ArrayList<String> vimInstanceNames) {
+    String url = idNsr + "/vnfrecords/" + idVnfr + "/vdunits/vnfcinstances";
+    HashMap<String, Serializable> body = new HashMap<>();
+    body.put("vnfComponent", vnfComponent);
+    body.put("vimInstanceNames", vimInstanceNames);
+    return requestPost(url, body, null);
+  }
+
+  /**
+   * Create a new VNFCInstance from a VNFComponent and specify the VirtualDeploymentUnit to which
+   * the VNFCInstance shall be added. This is also called a scale out operation.
+   *
+   * @param idNsr the ID of the NetworkServiceRecord to which the new VNFCInstance shall be added
+   * @param idVnfr the ID of the VirtualNetworkFunctionRecord to which the new VNFCInstance shall be
+   *     added
+   * @param idVdu the VirtualDeploymentUnit to which the new VNFCInstance shall be added
+   * @param vnfComponent the VNFComponent from which the new VNFCInstance shall be created
+   * @param vimInstanceNames the list of vimInstanceNames where you want to deploy the new vnf
+   *     component
+   * @return a future which completes when the NFVO accepted the request
+   */
+  public CompletableFuture<Void> createVNFCInstance(
+      final String idNsr,
+      final String idVnfr,
+      final String idVdu,
+      final VNFComponent vnfComponent,
+      ArrayList<String> vimInstanceNames) {
+    String url = idNsr + "/vnfrecords/" + idVnfr + "/vdunits/" + idVdu + "/vnfcinstances";
+    HashMap<String, Serializable> body = new HashMap<>();
+    body.put("vnfComponent", vnfComponent);
+    body.put("vimInstanceNames", vimInstanceNames);
+    return requestPost(url, body, null);
+  }
+
+  /**
+   * Remove a VNFCInstance from a VirtualNetworkFunctionRecord. This is also called a scale in
+   * operation.
+   *
+   * @param idNsr the ID of the NetworkServiceRecord from which the VNFCInstance shall be deleted
+   * @param idVnfr the ID of the VirtualNetworkFunctionRecord from which the VNFCInstance shall be
+   *     deleted
+   * @return a future which completes when the NFVO accepted the request
+   */
+  public CompletableFuture<Void> deleteVNFCInstance(final String idNsr, final String idVnfr) {
+    String url = idNsr + "/vnfrecords/" + idVnfr + "/vdunits/vnfcinstances";
+    return requestDelete(url);
+  }
+
+  /**
+   * Remove a VNFCInstance from a specific VirtualDeploymentUnit. This is also called a scale in
+   * operation.
+   *
+   * @param idNsr the ID of the NetworkServiceRecord from which the VNFCInstance shall be deleted
+   * @param idVnfr the ID of the VirtualNetworkFunctionRecord from which the VNFCInstance shall be
+   *     deleted
+   * @param idVdu the ID of the VirtualDeploymentUnit from which the VNFCInstance shall be deleted
+   * @return a future which completes when the NFVO accepted the request
+   */
+  public CompletableFuture<Void> deleteVNFCInstance(
+      final String idNsr, final String idVnfr, final String idVdu) {
+    String url = idNsr + "/vnfrecords/" + idVnfr + "/vdunits/" + idVdu + "/vnfcinstances";
+    return requestDelete(url);
+  }
+
+  /**
+   * Remove a specific VNFCInstance. This is also called a scale in operation.
+   *
+   * @param idNsr the ID of the NetworkServiceRecord from which the VNFCInstance shall be deleted
+   * @param idVnfr the ID of the VirtualNetworkFunctionRecord from which the VNFCInstance shall be
+   *     deleted
+   * @param idVdu the ID of the VirtualDeploymentUnit from which the VNFCInstance shall be deleted
+   * @param idVnfcInstance the ID of the VNFCInstance that shall be deleted
+   * @return a future which completes when the NFVO accepted the request
+   */
+  public CompletableFuture<Void> deleteVNFCInstance(
+      final String idNsr, final String idVnfr, final String idVdu, final String idVnfcInstance) {
+    String url =
+        idNsr + "/vnfrecords/" + idVnfr + "/vdunits/" + idVdu + "/vnfcinstances/" + idVnfcInstance;
+    return requestDelete(url);
+  }
+
+  /**
+   * Updates a VirtualNetworkFunctionRecord.
+   *
+   * @param idNsr the ID of the NetworkServiceRecord containing the VirtualNetworkFunctionRecord
+   * @param idVnfr the ID of the VirtualNetworkFunctionRecord to update
+   * @param virtualNetworkFunctionRecord the updated version of the VirtualNetworkFunctionRecord
+   * @return a future holding the updated VirtualNetworkFunctionRecord
+   */
+  public CompletableFuture<VirtualNetworkFunctionRecord> updateVNFR(
+      final String idNsr,
+      final String idVnfr,
+      final VirtualNetworkFunctionRecord virtualNetworkFunctionRecord) {
+    String url = idNsr + "/vnfrecords" + "/" + idVnfr;
+    return requestPut(url, virtualNetworkFunctionRecord, VirtualNetworkFunctionRecord.class);
+  }
+
+  /**
+   * Returns a List of all the VNFRecordDependencies contained in a particular NetworkServiceRecord.
+   *
+   * @param idNsr the ID of the NetworkServiceRecord
+   * @return a future holding the List of VNFRecordDependencies
+   */
+  public CompletableFuture<List<VNFRecordDependency>> getVNFDependencies(final String idNsr) {
+    String url = idNsr + "/vnfdependencies";
+    return findAll(url, VNFRecordDependency.class);
+  }
+
+  /**
+   * Returns a specific VNFRecordDependency.
+   *
+   * @param idNsr the ID of the NetworkServiceRecord containing the VNFRecordDependency
+   * @param idVnfrDep the ID of the requested VNFRecordDependency
+   * @return a future holding the VNFRecordDependency
+   */
+  public CompletableFuture<VNFRecordDependency> getVNFDependency(
+      final String idNsr, final String idVnfrDep) {
+    String url = idNsr + "/vnfdependencies" + "/" + idVnfrDep;
+    return requestGet(url, VNFRecordDependency.class);
+  }
+
+  /**
+   * Deletes a specific VNFRecordDependency.
+   *
+   * @param idNsr the ID of the NetworkServiceRecord containing the VNFRecordDependency
+   * @param idVnfrDep the ID of the VNFRecordDependency to delete
+   * @return a future which completes when the VNFRecordDependency is deleted
+   */
+  public CompletableFuture<Void> deleteVNFDependency(final String idNsr, final String idVnfrDep) {
+    String url = idNsr + "/vnfdependencies" + "/" + idVnfrDep;
+    return requestDelete(url);
+  }
+
+  /**
+   * Add a new VNFRecordDependency to a NetworkServiceRecord.
+   *
+   * @param idNsr the ID of the NetworkServiceRecord
+   * @param vnfRecordDependency the new VNFRecordDependency
+   * @return a future holding the new VNFRecordDependency
+   */
+  public CompletableFuture<VNFRecordDependency> postVNFDependency(
+      final String idNsr, final VNFRecordDependency vnfRecordDependency) {
+    String url = idNsr + "/vnfdependencies" + "/";
+    return requestPost(url, vnfRecordDependency, VNFRecordDependency.class);
+  }
+
+  /**
+   * Updates a specific VNFRecordDependency.
+   *
+   * @param idNsr the ID of the NetworkServiceRecord containing the VNFRecordDependency
+   * @param idVnfrDep the ID of the VNFRecordDependency to update
+   * @param vnfRecordDependency the updated version of the VNFRecordDependency
+   * @return a future holding the updated VNFRecordDependency
+   */
+  public CompletableFuture<VNFRecordDependency> updateVNFDependency(
+      final String idNsr, final String idVnfrDep, final VNFRecordDependency vnfRecordDependency) {
+    String url = idNsr + "/vnfdependencies" + "/" + idVnfrDep;
+    return requestPut(url, vnfRecordDependency, VNFRecordDependency.class);
+  }
+
+  /**
+   * Start a specific VNFCInstance.
+   *
+   * @param nsrId the ID of the NetworkServiceRecord containing the VNFCInstance
+   * @param vnfrId the ID of the VirtualNetworkFunctionRecord containing the VNFCInstance
+   * @param vduId the ID of the VirtualDeploymentUnit containing the VNFCInstance
+   * @param vnfcInstanceId the ID on the VNFCInstance that shall be started
+   * @return a future which completes when the NFVO accepted the request
+   */
+  public CompletableFuture<Void> startVNFCInstance(
+      final String nsrId, final String vnfrId, final String vduId, final String vnfcInstanceId) {
+    String url =
+        nsrId
+            + "/vnfrecords/"
+            + vnfrId
+            + "/vdunits/"
+            + vduId
+            + "/vnfcinstances/"
+            + vnfcInstanceId
+            + "/start";
+    return requestPost(url);
+  }
+
+  /**
+   * Stops a specific VNFCInstance.
+   *
+   * @param nsrId the ID of the NetworkServiceRecord containing the VNFCInstance
+   * @param vnfrId the ID of the VirtualNetworkFunctionRecord containing the VNFCInstance
+   * @param vduId the ID of the VirtualDeploymentUnit containing the VNFCInstance
+   * @param vnfcInstanceId the ID on the VNFCInstance that shall be stopped
+   * @return a future which completes when the NFVO accepted the request
+   */
+  public CompletableFuture<Void> stopVNFCInstance(
+      final String nsrId, final String vnfrId, final String vduId, final String vnfcInstanceId) {
+    String url =
+        nsrId
+            + "/vnfrecords/"
+            + vnfrId
+            + "/vdunits/"
+            + vduId
+            + "/vnfcinstances/"
+            + vnfcInstanceId
+            + "/stop";
+    return requestPost(url);
+  }
+
+  /**
+   * Returns a List of all the PhysicalNetworkFunctionRecords that are contained in a particular
+   * NetworkServiceRecord.
+   *
+   * @param idNsr the ID of the NetworkServiceRecord
+   * @return a future holding the List of PhysicalNetworkFunctionRecords
+   */
+  public CompletableFuture<List<PhysicalNetworkFunctionRecord>> getPhysicalNetworkFunctionRecords(
+      final String idNsr) {
+    String url = idNsr + "/pnfrecords";
+    return findAll(url, PhysicalNetworkFunctionRecord.class);
+  }
+
+  /**
+   * Returns a specific PhysicalNetworkFunctionRecord.
+   *
+   * @param idNsr the ID of the NetworkFunctionRecord containing the PhysicalNetworkFunctionRecord
+   * @param idPnfr the ID of the requested PhysicalNetworkFunctionRecord
+   * @return a future holding the PhysicalNetworkFunctionRecord
+   */
+  public CompletableFuture<PhysicalNetworkFunctionRecord> getPhysicalNetworkFunctionRecord(
+      final String idNsr, final String idPnfr) {
+    String url = idNsr + "/pnfrecords" + "/" + idPnfr;
+    return requestGet(url, PhysicalNetworkFunctionRecord.class, HttpURLConnection.HTTP_ACCEPTED);
+  }
+
+  /**
+   * Deletes a specific PhysicalNetworkFunctionRecord.
+   *
+   * @param idNsr the ID of the NetworkFunctionRecord containing the PhysicalNetworkFunctionRecord
+   * @param idPnfr the ID of the PhysicalNetworkFunctionRecord to delete
+   * @return a future which completes when the PhysicalNetworkFunctionRecord is deleted
+   */
+  public CompletableFuture<Void> deletePhysicalNetworkFunctionRecord(
+      final String idNsr, final String idPnfr) {
+    String url = idNsr + "/pnfrecords" + "/" + idPnfr;
+    return requestDelete(url);
+  }
+
+  /**
+   * Create a new PhysicalnetworkFunctionRecord and add it ot a NetworkServiceRecord.
+   *
+   * @param idNsr the ID of the NetworkServiceRecord
+   * @param physicalNetworkFunctionRecord the new PhysicalNetworkFunctionRecord
+   * @return a future holding the new PhysicalNetworkFunctionRecord
+   */
+  public CompletableFuture<PhysicalNetworkFunctionRecord> postPhysicalNetworkFunctionRecord(
+      final String idNsr, final PhysicalNetworkFunctionRecord physicalNetworkFunctionRecord) {
+    String url = idNsr + "/pnfrecords" + "/";
+    return requestPost(url, physicalNetworkFunctionRecord, PhysicalNetworkFunctionRecord.class);
+  }
+
+  /**
+   * Updates a specific PhysicalNetworkFunctionRecord.
+   *
+   * @param idNsr the ID of the NetworkServiceRecord containing the PhysicalNetworkFunctionRecord
+   * @param idPnfr the ID of the PhysicalNetworkFunctionRecord to update
+   * @param physicalNetworkFunctionRecord the updated version of the PhysicalNetworkFunctionRecord
+   * @return a future holding the updated PhysicalNetworkFunctionRecord
+   */
+  public CompletableFuture<PhysicalNetworkFunctionRecord> updatePNFD(
+      final String idNsr,
+      final String idPnfr,
+      final PhysicalNetworkFunctionRecord physicalNetworkFunctionRecord) {
+    String url = idNsr + "/pnfrecords" + "/" + idPnfr;
+    return requestPut(url, physicalNetworkFunctionRecord, PhysicalNetworkFunctionRecord.class);
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.rest;
+
+import java.util.Collections;
+import java.util.List;
+import org.apache.http.annotation.ThreadSafe;
+import org.openbaton.catalogue.mano.descriptor.NetworkServiceDescriptor;
+import org.openbaton.catalogue.mano.descriptor.VirtualNetworkFunctionDescriptor;
+import org.openbaton.sdk.api.util.AbstractAsyncRestAgent;
+import org.openbaton.sdk.api.util.RestSession;
+
+/**
+ * This class is the non-blocking variant of the VirtualNetworkFunctionDescriptorAgent. Every method
+ * sends the same request as the VirtualNetworkFunctionDescriptorAgent method with the same name,
+ * but returns a CompletableFuture instead of waiting for the response. It is thread safe.
+ */
+@ThreadSafe
+public class AsyncVirtualNetworkFunctionDescriptorAgent
+    extends AbstractAsyncRestAgent<VirtualNetworkFunctionDescriptor> {
+
+  /**
+   * @param session the RestSession shared with the other agents of the same NFVORequestor
+   * @param projectId the NFVO Project's ID that will be used in the requests to the NFVO
+   */
+  public AsyncVirtualNetworkFunctionDescriptorAgent(RestSession session, String projectId) {
+    super(session, projectId, VirtualNetworkFunctionDescriptor.class);
+  }
+
+  /** The VirtualNetworkFunctionDescriptorAgent caches its responses. */
+  @Override
+  protected boolean isCacheable() {
+    return true;
+  }
+
+  /** NetworkServiceDescriptors contain the VirtualNetworkFunctionDescriptors they use. */
+  @Override
+  protected List<String> getAffectedPaths() {
+    return Collections.singletonList(getPath(NetworkServiceDescriptor.class));
+  }
+}
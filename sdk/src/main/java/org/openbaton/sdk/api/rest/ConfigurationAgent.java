@@ -19,6 +19,7 @@ package org.openbaton.sdk.api.rest;
 
 import org.openbaton.catalogue.nfvo.Configuration;
 import org.openbaton.sdk.api.util.AbstractRestAgent;
+import org.openbaton.sdk.api.util.RestSession;
 
 /**
  * This class is a Rest Request Agent for sending requests regarding Configuration objects to the
@@ -76,4 +77,21 @@ public class ConfigurationAgent extends AbstractRestAgent<Configuration> {
         serviceKey,
         Configuration.class);
   }
+
+  /**
+   * @param session the RestSession shared with the other agents of the same NFVORequestor
+   * @param projectId the NFVO Project's ID that will be used in the requests to the NFVO
+   */
+  public ConfigurationAgent(RestSession session, String projectId) {
+    super(session, projectId, Configuration.class);
+  }
+
+  /**
+   * Configurations rarely change, so their responses may be cached if the session has an
+   * EntityCache.
+   */
+  @Override
+  protected boolean isCacheable() {
+    return true;
+  }
 }
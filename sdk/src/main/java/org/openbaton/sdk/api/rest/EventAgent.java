@@ -19,6 +19,7 @@ package org.openbaton.sdk.api.rest;
 
 import org.openbaton.catalogue.nfvo.EventEndpoint;
 import org.openbaton.sdk.api.util.AbstractRestAgent;
+import org.openbaton.sdk.api.util.RestSession;
 
 /**
  * This class is a Rest Request Agent for sending requests regarding Event objects to the NFVO API.
@@ -76,4 +77,12 @@ public class EventAgent extends AbstractRestAgent<EventEndpoint> {
         serviceKey,
         EventEndpoint.class);
   }
+
+  /**
+   * @param session the RestSession shared with the other agents of the same NFVORequestor
+   * @param projectId the NFVO Project's ID that will be used in the requests to the NFVO
+   */
+  public EventAgent(RestSession session, String projectId) {
+    super(session, projectId, EventEndpoint.class);
+  }
 }
@@ -21,6 +21,7 @@ import org.openbaton.catalogue.security.Key;
 import org.openbaton.sdk.api.annotations.Help;
 import org.openbaton.sdk.api.exception.SDKException;
 import org.openbaton.sdk.api.util.AbstractRestAgent;
+import org.openbaton.sdk.api.util.RestSession;
 
 /**
  * This class is a Rest Request Agent for sending requests regarding Key objects to the NFVO API. It
@@ -70,6 +71,14 @@ public class KeyAgent extends AbstractRestAgent<Key> {
     super(serviceName, projectId, sslEnabled, nfvoIp, nfvoPort, version, serviceKey, Key.class);
   }
 
+  /**
+   * @param session the RestSession shared with the other agents of the same NFVORequestor
+   * @param projectId the NFVO Project's ID that will be used in the requests to the NFVO
+   */
+  public KeyAgent(RestSession session, String projectId) {
+    super(session, projectId, Key.class);
+  }
+
   /**
    * Use the generateKey method instead.
    *
@@ -18,7 +18,9 @@
 package org.openbaton.sdk.api.rest;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 import org.apache.http.annotation.ThreadSafe;
 import org.openbaton.catalogue.mano.common.Security;
 import org.openbaton.catalogue.mano.descriptor.NetworkServiceDescriptor;
@@ -28,6 +30,7 @@ import org.openbaton.catalogue.mano.descriptor.VirtualNetworkFunctionDescriptor;
 import org.openbaton.sdk.api.annotations.Help;
 import org.openbaton.sdk.api.exception.SDKException;
 import org.openbaton.sdk.api.util.AbstractRestAgent;
+import org.openbaton.sdk.api.util.RestSession;
 
 /**
  * This class is a Rest Request Agent for sending requests regarding NetworkServiceDescriptor
@@ -94,6 +97,32 @@ public class NetworkServiceDescriptorAgent extends AbstractRestAgent<NetworkServ
         NetworkServiceDescriptor.class);
   }
 
+  /**
+   * @param session the RestSession shared with the other agents of the same NFVORequestor
+   * @param projectId the NFVO Project's ID that will be used in the requests to the NFVO
+   */
+  public NetworkServiceDescriptorAgent(RestSession session, String projectId) {
+    super(session, projectId, NetworkServiceDescriptor.class);
+  }
+
+  /**
+   * NetworkServiceDescriptors rarely change, so their responses may be cached if the session has an
+   * EntityCache.
+   */
+  @Override
+  protected boolean isCacheable() {
+    return true;
+  }
+
+  /**
+   * NetworkServiceDescriptors may embed VirtualNetworkFunctionDescriptors, which the NFVO creates,
+   * updates and deletes together with them.
+   */
+  @Override
+  protected List<String> getAffectedPaths() {
+    return Collections.singletonList(getPath(VirtualNetworkFunctionDescriptor.class));
+  }
+
   /**
    * Get all VirtualNetworkFunctionDescriptors contained in a NetworkServiceDescriptor specified by
    * its ID.
@@ -217,6 +246,20 @@ public class NetworkServiceDescriptorAgent extends AbstractRestAgent<NetworkServ
     return Arrays.asList((VNFDependency[]) requestGetAll(url, VNFDependency.class));
   }
 
+  /**
+   * Return a Stream of all the VNFDependencies that are contained in a specific
+   * NetworkServiceDescriptor, decoded one at a time while the Stream is consumed. The Stream should
+   * be closed if it is not consumed completely.
+   *
+   * @param idNSD the ID of the NetworkServiceDescriptor
+   * @return a Stream of VNFDependencies
+   * @throws SDKException if the request fails
+   */
+  public Stream<VNFDependency> streamVNFDependencies(final String idNSD) throws SDKException {
+    String url = idNSD + "/vnfdependencies";
+    return requestGetAllIterator(url, VNFDependency.class).stream();
+  }
+
   /**
    * Return a specific VNFDependency that is contained in a particular NetworkServiceDescriptor.
    *
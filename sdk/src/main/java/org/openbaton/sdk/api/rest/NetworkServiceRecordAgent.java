@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.stream.Stream;
 import org.apache.http.annotation.ThreadSafe;
 import org.openbaton.catalogue.mano.descriptor.VNFComponent;
 import org.openbaton.catalogue.mano.record.NetworkServiceRecord;
@@ -34,6 +35,7 @@ import org.openbaton.catalogue.nfvo.messages.Interfaces.NFVMessage;
 import org.openbaton.sdk.api.annotations.Help;
 import org.openbaton.sdk.api.exception.SDKException;
 import org.openbaton.sdk.api.util.AbstractRestAgent;
+import org.openbaton.sdk.api.util.RestSession;
 
 /**
  * This class is a Rest Request Agent for sending requests regarding NetworkServiceRecord objects to
@@ -100,6 +102,14 @@ public class NetworkServiceRecordAgent extends AbstractRestAgent<NetworkServiceR
         NetworkServiceRecord.class);
   }
 
+  /**
+   * @param session the RestSession shared with the other agents of the same NFVORequestor
+   * @param projectId the NFVO Project's ID that will be used in the requests to the NFVO
+   */
+  public NetworkServiceRecordAgent(RestSession session, String projectId) {
+    super(session, projectId, NetworkServiceRecord.class);
+  }
+
   /**
    * Create a new NetworkServiceRecord from a NetworkServiceDescriptor.
    *
@@ -140,6 +150,22 @@ public class NetworkServiceRecordAgent extends AbstractRestAgent<NetworkServiceR
         (VirtualNetworkFunctionRecord[]) requestGetAll(url, VirtualNetworkFunctionRecord.class));
   }
 
+  /**
+   * Returns a Stream of all the VirtualNetworkFunctionRecords that are contained in a
+   * NetworkServiceRecord. The records are decoded one at a time while the Stream is consumed, which
+   * keeps the memory usage low for large NetworkServiceRecords. The Stream should be closed if it
+   * is not consumed completely.
+   *
+   * @param id ID of the NetworkServiceRecord
+   * @return a Stream of VirtualNetworkFunctionRecords
+   * @throws SDKException if the request fails
+   */
+  public Stream<VirtualNetworkFunctionRecord> streamVirtualNetworkFunctionRecords(final String id)
+      throws SDKException {
+    String url = id + "/vnfrecords";
+    return requestGetAllIterator(url, VirtualNetworkFunctionRecord.class).stream();
+  }
+
   /**
    * Returns a specific VirtualNetworkFunctionRecord which is contained in a NetworkServiceRecord.
    *
@@ -420,6 +446,20 @@ public class NetworkServiceRecordAgent extends AbstractRestAgent<NetworkServiceR
     return Arrays.asList((VNFRecordDependency[]) requestGetAll(url, VNFRecordDependency.class));
   }
 
+  /**
+   * Returns a Stream of all the VNFRecordDependencies contained in a particular
+   * NetworkServiceRecord, decoded one at a time while the Stream is consumed. The Stream should be
+   * closed if it is not consumed completely.
+   *
+   * @param idNsr the ID of the NetworkServiceRecord
+   * @return a Stream of VNFRecordDependencies
+   * @throws SDKException if the request fails
+   */
+  public Stream<VNFRecordDependency> streamVNFDependencies(final String idNsr) throws SDKException {
+    String url = idNsr + "/vnfdependencies";
+    return requestGetAllIterator(url, VNFRecordDependency.class).stream();
+  }
+
   /**
    * Returns a specific VNFRecordDependency from a particular NetworkServiceRecord.
    *
@@ -19,6 +19,7 @@ package org.openbaton.sdk.api.rest;
 
 import org.openbaton.catalogue.security.Project;
 import org.openbaton.sdk.api.util.AbstractRestAgent;
+import org.openbaton.sdk.api.util.RestSession;
 
 /**
  * This class is a Rest Request Agent for sending requests regarding Project objects to the NFVO
@@ -67,4 +68,12 @@ public class ProjectAgent extends AbstractRestAgent<Project> {
       throws IllegalArgumentException {
     super(serviceName, projectId, sslEnabled, nfvoIp, nfvoPort, version, serviceKey, Project.class);
   }
+
+  /**
+   * @param session the RestSession shared with the other agents of the same NFVORequestor
+   * @param projectId the NFVO Project's ID that will be used in the requests to the NFVO
+   */
+  public ProjectAgent(RestSession session, String projectId) {
+    super(session, projectId, Project.class);
+  }
 }
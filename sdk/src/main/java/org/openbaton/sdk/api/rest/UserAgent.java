@@ -23,6 +23,7 @@ import org.openbaton.catalogue.security.User;
 import org.openbaton.sdk.api.annotations.Help;
 import org.openbaton.sdk.api.exception.SDKException;
 import org.openbaton.sdk.api.util.AbstractRestAgent;
+import org.openbaton.sdk.api.util.RestSession;
 
 /**
  * This class is a Rest Request Agent for sending requests regarding User objects to the NFVO API.
@@ -73,6 +74,14 @@ public class UserAgent extends AbstractRestAgent<User> {
     super(serviceName, projectId, sslEnabled, nfvoIp, nfvoPort, version, serviceKey, User.class);
   }
 
+  /**
+   * @param session the RestSession shared with the other agents of the same NFVORequestor
+   * @param projectId the NFVO Project's ID that will be used in the requests to the NFVO
+   */
+  public UserAgent(RestSession session, String projectId) {
+    super(session, projectId, User.class);
+  }
+
   /**
    * Use findByName instead.
    *
@@ -18,11 +18,22 @@
 package org.openbaton.sdk.api.rest;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.http.annotation.ThreadSafe;
+import org.openbaton.catalogue.mano.descriptor.VirtualNetworkFunctionDescriptor;
 import org.openbaton.catalogue.nfvo.VNFPackage;
 import org.openbaton.sdk.api.annotations.Help;
 import org.openbaton.sdk.api.exception.SDKException;
 import org.openbaton.sdk.api.util.AbstractRestAgent;
+import org.openbaton.sdk.api.util.PackageUploadOptions;
+import org.openbaton.sdk.api.util.PackageUploadResult;
+import org.openbaton.sdk.api.util.RestSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -85,6 +96,20 @@ public class VNFPackageAgent extends AbstractRestAgent<VNFPackage> {
         VNFPackage.class);
   }
 
+  /**
+   * @param session the RestSession shared with the other agents of the same NFVORequestor
+   * @param projectId the NFVO Project's ID that will be used in the requests to the NFVO
+   */
+  public VNFPackageAgent(RestSession session, String projectId) {
+    super(session, projectId, VNFPackage.class);
+  }
+
+  /** Uploading or deleting a VNFPackage creates or deletes its VirtualNetworkFunctionDescriptor. */
+  @Override
+  protected List<String> getAffectedPaths() {
+    return Collections.singletonList(getPath(VirtualNetworkFunctionDescriptor.class));
+  }
+
   /**
    * Use the create(String filePath) method instead.
    *
@@ -109,14 +134,92 @@ public class VNFPackageAgent extends AbstractRestAgent<VNFPackage> {
   @Help(help = "Create a VNFPackage by uploading a tar file")
   public VNFPackage create(String filePath) throws SDKException {
     log.debug("Start uploading a VNFPackage using the tar at path " + filePath);
+    return requestPostPackage(getPackageFile(filePath));
+  }
+
+  /**
+   * Uploads a VNFPackage to the NFVO, streaming the file and computing its SHA-256 checksum on the
+   * way.
+   *
+   * @param filePath the path to the tar file representing the VNFPackage
+   * @param options the progress listener, transfer encoding and timeout of the upload
+   * @return the uploaded VNFPackage together with the checksum of the file
+   * @throws SDKException if the file does not exist or the upload fails
+   */
+  public PackageUploadResult upload(String filePath, PackageUploadOptions options)
+      throws SDKException {
+    log.debug("Start uploading a VNFPackage using the tar at path " + filePath);
+    return requestPostPackage(getPackageFile(filePath), options);
+  }
+
+  /**
+   * Uploads several VNFPackages to the NFVO in parallel. A failed upload does not stop the others.
+   *
+   * @param filePaths the paths to the tar files representing the VNFPackages
+   * @param options the progress listener, transfer encoding and timeout of the uploads
+   * @param parallelism the maximum number of files uploaded at the same time
+   * @return the results, in the same order as the file paths
+   * @throws SDKException if the calling thread is interrupted while waiting, in which case the
+   *     uploads not yet started are cancelled
+   */
+  public List<PackageUploadResult> uploadAll(
+      List<String> filePaths, PackageUploadOptions options, int parallelism) throws SDKException {
+    List<PackageUploadResult> results = new ArrayList<>(filePaths.size());
+    if (filePaths.isEmpty()) {
+      return results;
+    }
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            Math.min(Math.max(1, parallelism), filePaths.size()),
+            runnable -> {
+              Thread thread = new Thread(runnable, "openbaton-upload");
+              thread.setDaemon(true);
+              return thread;
+            });
+    try {
+      List<Future<PackageUploadResult>> futures = new ArrayList<>(filePaths.size());
+      for (String filePath : filePaths) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  try {
+                    return upload(filePath, options);
+                  } catch (SDKException e) {
+                    log.warn("Could not upload " + filePath + ": " + e.getMessage());
+                    return PackageUploadResult.failed(new File(filePath), e);
+                  } catch (RuntimeException e) {
+                    log.warn("Could not upload " + filePath, e);
+                    return PackageUploadResult.failed(new File(filePath), new SDKException(e));
+                  }
+                }));
+      }
+      for (Future<PackageUploadResult> future : futures) {
+        results.add(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SDKException(
+          "Interrupted while uploading the VNFPackages",
+          new StackTraceElement[0],
+          results.size() + " of " + filePaths.size() + " files were uploaded");
+    } catch (ExecutionException e) {
+      // cannot happen, the upload task catches everything
+      throw new SDKException(e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+    return results;
+  }
+
+  private File getPackageFile(String filePath) throws SDKException {
     File f = new File(filePath);
-    if (f == null || !f.exists()) {
+    if (!f.exists()) {
       log.error("No package: " + f.getName() + " found!");
       throw new SDKException(
           "No package: " + f.getName() + " found!",
           new StackTraceElement[0],
           "File " + filePath + " not existing");
     }
-    return requestPostPackage(f);
+    return f;
   }
 }
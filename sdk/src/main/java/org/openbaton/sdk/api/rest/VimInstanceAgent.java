@@ -19,6 +19,7 @@ package org.openbaton.sdk.api.rest;
 
 import org.openbaton.catalogue.nfvo.viminstances.BaseVimInstance;
 import org.openbaton.sdk.api.util.AbstractRestAgent;
+import org.openbaton.sdk.api.util.RestSession;
 
 /**
  * This class is a Rest Request Agent for sending requests regarding VimInstance objects to the NFVO
@@ -83,4 +84,20 @@ public class VimInstanceAgent extends AbstractRestAgent<BaseVimInstance> {
         serviceKey,
         BaseVimInstance.class);
   }
+
+  /**
+   * @param session the RestSession shared with the other agents of the same NFVORequestor
+   * @param projectId the NFVO Project's ID that will be used in the requests to the NFVO
+   */
+  public VimInstanceAgent(RestSession session, String projectId) {
+    super(session, projectId, BaseVimInstance.class);
+  }
+
+  /**
+   * VimInstances rarely change, so their responses may be cached if the session has an EntityCache.
+   */
+  @Override
+  protected boolean isCacheable() {
+    return true;
+  }
 }
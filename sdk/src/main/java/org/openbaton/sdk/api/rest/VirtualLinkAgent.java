@@ -19,6 +19,7 @@ package org.openbaton.sdk.api.rest;
 
 import org.openbaton.catalogue.mano.descriptor.VirtualLinkDescriptor;
 import org.openbaton.sdk.api.util.AbstractRestAgent;
+import org.openbaton.sdk.api.util.RestSession;
 
 /**
  * This class is a Rest Request Agent for sending requests regarding VirtualLink objects to the NFVO
@@ -83,4 +84,12 @@ public class VirtualLinkAgent extends AbstractRestAgent<VirtualLinkDescriptor> {
         serviceKey,
         VirtualLinkDescriptor.class);
   }
+
+  /**
+   * @param session the RestSession shared with the other agents of the same NFVORequestor
+   * @param projectId the NFVO Project's ID that will be used in the requests to the NFVO
+   */
+  public VirtualLinkAgent(RestSession session, String projectId) {
+    super(session, projectId, VirtualLinkDescriptor.class);
+  }
 }
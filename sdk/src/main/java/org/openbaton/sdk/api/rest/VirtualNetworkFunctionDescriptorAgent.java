@@ -17,8 +17,12 @@
 
 package org.openbaton.sdk.api.rest;
 
+import java.util.Collections;
+import java.util.List;
+import org.openbaton.catalogue.mano.descriptor.NetworkServiceDescriptor;
 import org.openbaton.catalogue.mano.descriptor.VirtualNetworkFunctionDescriptor;
 import org.openbaton.sdk.api.util.AbstractRestAgent;
+import org.openbaton.sdk.api.util.RestSession;
 
 /**
  * This class is a Rest Request Agent for sending requests regarding
@@ -84,4 +88,27 @@ public class VirtualNetworkFunctionDescriptorAgent
         serviceKey,
         VirtualNetworkFunctionDescriptor.class);
   }
+
+  /**
+   * @param session the RestSession shared with the other agents of the same NFVORequestor
+   * @param projectId the NFVO Project's ID that will be used in the requests to the NFVO
+   */
+  public VirtualNetworkFunctionDescriptorAgent(RestSession session, String projectId) {
+    super(session, projectId, VirtualNetworkFunctionDescriptor.class);
+  }
+
+  /**
+   * VirtualNetworkFunctionDescriptors rarely change, so their responses may be cached if the
+   * session has an EntityCache.
+   */
+  @Override
+  protected boolean isCacheable() {
+    return true;
+  }
+
+  /** NetworkServiceDescriptors contain the VirtualNetworkFunctionDescriptors they use. */
+  @Override
+  protected List<String> getAffectedPaths() {
+    return Collections.singletonList(getPath(NetworkServiceDescriptor.class));
+  }
 }
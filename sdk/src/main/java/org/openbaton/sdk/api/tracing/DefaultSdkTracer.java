@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.tracing;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An SdkTracer which has to be set explicitly. It sends a W3C traceparent header with every
+ * request, so that a request can be found in the logs of the NFVO. All the attempts of a request
+ * share one random trace id and get their own span id. Once an attempt is done, the ids are logged
+ * together with the duration of every phase at debug level, e.g.
+ *
+ * <pre>
+ * GET /api/v1/ns-records/{id} returned 200 in 14.2 ms (trace 4bf92f3577b34da6a3ce929d0e0e4736,
+ * span 00f067aa0ba902b7, LEASE 0.0 ms, SEND 0.1 ms, FIRST_BYTE 12.9 ms, DECODE 1.2 ms)
+ * </pre>
+ */
+public class DefaultSdkTracer implements SdkTracer {
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private Logger log = LoggerFactory.getLogger(this.getClass());
+
+  @Override
+  public TraceContext startTrace(String method, String endpoint) {
+    return new Trace(randomHex(16));
+  }
+
+  @Override
+  public RequestSpan startSpan(TraceContext trace, String method, String endpoint) {
+    String traceId = trace.getTraceId();
+    // a trace started by another tracer may have no id
+    return new Span(traceId != null ? traceId : randomHex(16), method, endpoint);
+  }
+
+  private static String randomHex(int bytes) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    char[] chars = new char[bytes * 2];
+    boolean zero = true;
+    for (int i = 0; i < chars.length; i++) {
+      int digit = random.nextInt(16);
+      zero &= digit == 0;
+      chars[i] = HEX[digit];
+    }
+    // ids consisting only of zeros are invalid
+    if (zero) {
+      chars[chars.length - 1] = '1';
+    }
+    return new String(chars);
+  }
+
+  private static String toMillis(long nanos) {
+    return String.format("%.1f ms", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+  }
+
+  private static final class Trace implements TraceContext {
+
+    private final String traceId;
+
+    private Trace(String traceId) {
+      this.traceId = traceId;
+    }
+
+    @Override
+    public String getTraceId() {
+      return traceId;
+    }
+  }
+
+  private final class Span implements RequestSpan {
+
+    private final String traceId;
+    private final String spanId = randomHex(8);
+    private final String method;
+    private final String endpoint;
+    private final long start = System.nanoTime();
+    private final Map<Phase, Long> phases = new EnumMap<>(Phase.class);
+
+    private Span(String traceId, String method, String endpoint) {
+      this.traceId = traceId;
+      this.method = method;
+      this.endpoint = endpoint;
+    }
+
+    @Override
+    public String getTraceparent() {
+      return "00-" + traceId + "-" + spanId + "-01";
+    }
+
+    @Override
+    public synchronized void recordPhase(Phase phase, long durationNanos) {
+      phases.merge(phase, durationNanos, Long::sum);
+    }
+
+    @Override
+    public synchronized void end(int status, Throwable error) {
+      if (!log.isDebugEnabled()) {
+        return;
+      }
+      StringBuilder message = new StringBuilder();
+      message.append(method).append(' ').append(endpoint);
+      if (status != 0) {
+        message.append(" returned ").append(status);
+      } else {
+        message.append(" failed");
+        if (error != null) {
+          message.append(" (").append(error).append(')');
+        }
+      }
+      message.append(" in ").append(toMillis(System.nanoTime() - start));
+      message.append(" (trace ").append(traceId).append(", span ").append(spanId);
+      for (Map.Entry<Phase, Long> phase : phases.entrySet()) {
+        message.append(", ").append(phase.getKey()).append(' ').append(toMillis(phase.getValue()));
+      }
+      message.append(')');
+      log.debug(message.toString());
+    }
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.tracing;
+
+/** A SdkTracer which sends no traceparent header and discards all the traces and spans. */
+public final class NoopSdkTracer implements SdkTracer, TraceContext, RequestSpan {
+
+  public static final NoopSdkTracer INSTANCE = new NoopSdkTracer();
+
+  private NoopSdkTracer() {}
+
+  @Override
+  public TraceContext startTrace(String method, String endpoint) {
+    return this;
+  }
+
+  @Override
+  public RequestSpan startSpan(TraceContext trace, String method, String endpoint) {
+    return this;
+  }
+
+  @Override
+  public String getTraceId() {
+    return null;
+  }
+
+  @Override
+  public String getTraceparent() {
+    return null;
+  }
+
+  @Override
+  public void recordPhase(Phase phase, long durationNanos) {}
+
+  @Override
+  public void end(int status, Throwable error) {}
+}
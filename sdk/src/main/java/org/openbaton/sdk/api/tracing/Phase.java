@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.tracing;
+
+/** The phases of a request whose durations are recorded in its {@link RequestSpan}. */
+public enum Phase {
+  /** Waiting for a connection from the pool. */
+  LEASE,
+  /** Opening the TCP connection, only if no pooled connection could be reused. */
+  CONNECT,
+  /** The TLS handshake, only if a new connection to an https NFVO was opened. */
+  TLS,
+  /** Writing the request line, headers and body. */
+  SEND,
+  /** Waiting for the status line and headers of the response. */
+  FIRST_BYTE,
+  /** Reading and decoding the response body. */
+  DECODE
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.tracing;
+
+/**
+ * The span of one attempt of a request to the NFVO, created by a {@link SdkTracer}. The SDK calls
+ * {@link #recordPhase} for every phase the attempt went through and {@link #end} exactly once
+ * afterwards, possibly from another thread than the one which created the span.
+ */
+public interface RequestSpan {
+
+  /** @return the value of the W3C traceparent header sent with the request, or null to send none */
+  String getTraceparent();
+
+  /**
+   * Record the duration of a phase. The phases are only measured for the requests of the blocking
+   * agents; the requests of the async agents only report their end.
+   *
+   * @param phase the phase
+   * @param durationNanos its duration in nanoseconds
+   */
+  void recordPhase(Phase phase, long durationNanos);
+
+  /**
+   * End the span, once the response body was read or the request failed.
+   *
+   * @param status the status of the response, or 0 if no response was received
+   * @param error the reason why no response was received, or null
+   */
+  void end(int status, Throwable error);
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.tracing;
+
+/**
+ * Creates a span for every request a RestSession sends to the NFVO, so that the requests can be
+ * correlated with the logs of the NFVO and their latency can be attributed to the phases of the
+ * request. Set an implementation with {@link
+ * org.openbaton.sdk.NfvoRequestorBuilder#tracer(SdkTracer)}, e.g. one which bridges to the tracing
+ * library of the application, or {@link DefaultSdkTracer}. By default {@link NoopSdkTracer} is
+ * used, which disables tracing.
+ *
+ * <p>Every request gets one {@link TraceContext}, and every attempt of the request gets its own
+ * span within it, so a retried request has several spans of the same trace. Implementations must be
+ * thread safe.
+ */
+public interface SdkTracer {
+
+  /**
+   * Called once for every request, right before its first attempt is sent.
+   *
+   * @param method the http method, e.g. GET
+   * @param endpoint the path of the request with the ids replaced by "{id}"
+   * @return the trace of the request, passed to {@link #startSpan} for each of its attempts, never
+   *     null
+   */
+  TraceContext startTrace(String method, String endpoint);
+
+  /**
+   * Called right before an attempt of a request is sent.
+   *
+   * @param trace the trace of the request, as returned by {@link #startTrace}
+   * @param method the http method, e.g. GET
+   * @param endpoint the path of the request with the ids replaced by "{id}"
+   * @return the span of the attempt, never null
+   */
+  RequestSpan startSpan(TraceContext trace, String method, String endpoint);
+}
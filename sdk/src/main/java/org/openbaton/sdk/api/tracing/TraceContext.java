@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.tracing;
+
+/**
+ * The trace of one request to the NFVO, created by a {@link SdkTracer} before the first attempt of
+ * the request. The spans of all its attempts, i.e. the retries and the re-sends with a new token,
+ * are started with it, so that they can be correlated.
+ */
+public interface TraceContext {
+
+  /** @return the id of the trace, e.g. a W3C trace id, or null if the tracer assigns none */
+  String getTraceId();
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * This class can be extended by explicit async request agents which then obtain non-blocking
+ * methods for sending create, get, delete and update requests to the NFVO API. It is the
+ * counterpart of AbstractRestAgent.
+ */
+public class AbstractAsyncRestAgent<T extends Serializable> extends AsyncRestRequest {
+
+  private static final String SDK_PROPERTIES_FILE = "sdk.api.properties";
+  private static final PropertyReader propertyReader = new PropertyReader(SDK_PROPERTIES_FILE);
+
+  private final Class<T> clazz;
+
+  /**
+   * @param session the RestSession shared with the other agents of the same NFVORequestor
+   * @param projectId the NFVO Project's ID that will be used in the requests to the NFVO
+   * @param tClass the agent works with objects of this class type
+   */
+  public AbstractAsyncRestAgent(RestSession session, String projectId, Class<T> tClass) {
+    super(session, projectId, propertyReader.getRestUrl(tClass.getSimpleName()));
+    clazz = tClass;
+  }
+
+  public Class<T> getClazz() {
+    return clazz;
+  }
+
+  /**
+   * @param entityClass the class of the entities
+   * @return the path of the agent for the given entities, relative to the base url
+   */
+  protected static String getPath(Class<?> entityClass) {
+    return propertyReader.getRestUrl(entityClass.getSimpleName());
+  }
+
+  /**
+   * Sends a request for creating an instance of type T to the NFVO API.
+   *
+   * @param object the object that is sent in the create request
+   * @return a future holding the created object
+   */
+  public CompletableFuture<T> create(final T object) {
+    return requestPost("", object, clazz);
+  }
+
+  /**
+   * Sends a request to the NFVO API for deleting an instance of type T specified by its ID.
+   *
+   * @param id the ID of the object that shall be deleted
+   * @return a future which completes when the object is deleted
+   */
+  public CompletableFuture<Void> delete(final String id) {
+    return requestDelete(id);
+  }
+
+  /**
+   * Sends a request for finding all instances of type T to the NFVO API.
+   *
+   * @return a future holding the list of found objects
+   */
+  public CompletableFuture<List<T>> findAll() {
+    return findAll(null, clazz);
+  }
+
+  /**
+   * Sends a request to the NFVO API for finding an instance of type T specified by it's ID.
+   *
+   * @param id the ID of the object that shall be retrieved
+   * @return a future holding the found object
+   */
+  public CompletableFuture<T> findById(final String id) {
+    return requestGet(id, clazz);
+  }
+
+  /**
+   * Sends a request to the NFVO API for updating an instance of type T specified by its ID.
+   *
+   * @param object the new object that is sent in the update request
+   * @param id the ID of the object to update
+   * @return a future holding the updated object
+   */
+  public CompletableFuture<T> update(final T object, final String id) {
+    return requestPut(id, object, clazz);
+  }
+
+  /**
+   * Sends a get request on the given id and maps the returned json array to a list.
+   *
+   * @param id the id path used for the api request, or null for the path of this agent
+   * @param type the type of the elements of the list
+   * @param <E> the type of the elements of the list
+   * @return a future holding the list of found objects
+   */
+  protected <E> CompletableFuture<List<E>> findAll(final String id, Class<E> type) {
+    return this.<E[]>requestGet(id, Array.newInstance(type, 0).getClass())
+        .thenApply(Arrays::asList);
+  }
+}
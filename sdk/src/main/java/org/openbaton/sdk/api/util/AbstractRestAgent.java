@@ -20,6 +20,7 @@ package org.openbaton.sdk.api.util;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Stream;
 import org.openbaton.sdk.api.annotations.Help;
 import org.openbaton.sdk.api.exception.SDKException;
 import org.slf4j.Logger;
@@ -90,10 +91,28 @@ public class AbstractRestAgent<T extends Serializable> extends RestRequest {
     clazz = tClass;
   }
 
+  /**
+   * @param session the RestSession shared with the other agents of the same NFVORequestor
+   * @param projectId the NFVO Project's ID that will be used in the requests to the NFVO
+   * @param tClass the RestAgent works with objects of this class type
+   */
+  public AbstractRestAgent(RestSession session, String projectId, Class<T> tClass) {
+    super(session, projectId, propertyReader.getRestUrl(tClass.getSimpleName()));
+    clazz = tClass;
+  }
+
   public Class<T> getClazz() {
     return clazz;
   }
 
+  /**
+   * @param entityClass the class of the entities
+   * @return the path of the agent for the given entities, relative to the base url
+   */
+  protected static String getPath(Class<?> entityClass) {
+    return propertyReader.getRestUrl(entityClass.getSimpleName());
+  }
+
   /**
    * Sends a request for creating an instance of type T to the NFVO API.
    *
@@ -128,6 +147,31 @@ public class AbstractRestAgent<T extends Serializable> extends RestRequest {
     return Arrays.asList((T[]) requestGet(null, clazz));
   }
 
+  /**
+   * Sends a request for finding all instances of type T to the NFVO API, but decodes the found
+   * objects one at a time while the Stream is consumed instead of loading them all into memory. The
+   * Stream holds a connection until it is consumed completely or closed, so it should be used in a
+   * try-with-resources statement.
+   *
+   * @return a Stream of the found objects
+   * @throws SDKException if the request fails
+   */
+  public Stream<T> stream() throws SDKException {
+    return requestGetAllIterator(null, clazz).stream();
+  }
+
+  /**
+   * Sends a request for finding all instances of type T to the NFVO API and returns an Iterator
+   * which decodes the found objects one at a time. The Iterator holds a connection until all the
+   * objects are read or it is closed.
+   *
+   * @return an Iterator over the found objects
+   * @throws SDKException if the request fails
+   */
+  public JsonArrayIterator<T> findAllIterator() throws SDKException {
+    return requestGetAllIterator(null, clazz);
+  }
+
   /**
    * Sends a request to the NFVO API for finding an instance of type T specified by it's ID.
    *
@@ -0,0 +1,613 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.entity.DeflateDecompressingEntity;
+import org.apache.http.client.entity.GzipDecompressingEntity;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.util.EntityUtils;
+import org.openbaton.sdk.api.exception.BulkheadFullException;
+import org.openbaton.sdk.api.exception.CircuitBreakerOpenException;
+import org.openbaton.sdk.api.exception.SDKException;
+import org.openbaton.sdk.api.metrics.EndpointNormalizer;
+import org.openbaton.sdk.api.metrics.SdkMetrics;
+import org.openbaton.sdk.api.tracing.RequestSpan;
+import org.openbaton.sdk.api.tracing.TraceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The non-blocking counterpart of RestRequest. The requests are sent with the HttpAsyncClient of
+ * the RestSession, so they share the access token and the Gson mapper with the blocking agents, and
+ * every method returns a CompletableFuture immediately instead of waiting for the NFVO.
+ *
+ * <p>A failed request completes the future exceptionally with an SDKException. The I/O dispatcher
+ * threads of the HttpAsyncClient only receive the responses; logins, waiting for a bulkhead permit
+ * and decoding the responses happen on the session's async executor, so a large response does not
+ * hold up the other requests. Callbacks which are attached without an executor may run on one of
+ * those threads, so they must not block.
+ */
+public abstract class AsyncRestRequest {
+
+  private Logger log = LoggerFactory.getLogger(this.getClass());
+  protected final String pathUrl;
+  protected final Gson mapper;
+  private final RestSession session;
+  private String projectId;
+
+  /**
+   * @param session the RestSession shared with the other agents of the same NFVORequestor
+   * @param projectId the NFVO Project's ID that will be used in the requests to the NFVO
+   * @param path the url path used for the api requests
+   */
+  public AsyncRestRequest(RestSession session, String projectId, String path) {
+    this.session = session;
+    this.projectId = projectId;
+    this.pathUrl = session.getBaseUrl() + path;
+    this.mapper = session.getMapper();
+  }
+
+  public String getProjectId() {
+    return projectId;
+  }
+
+  public void setProjectId(String projectId) {
+    this.projectId = projectId;
+  }
+
+  /** @return the RestSession used by this request */
+  public RestSession getSession() {
+    return session;
+  }
+
+  /**
+   * Executes a http post without a body on the given id.
+   *
+   * @param id specifies the entity on which to perform the post request
+   * @return a future which completes when the NFVO answered with 201
+   */
+  protected CompletableFuture<Void> requestPost(final String id) {
+    return execute(
+        () -> new HttpPost(this.pathUrl + "/" + id), HttpURLConnection.HTTP_CREATED, null);
+  }
+
+  /**
+   * Executes a http post on the given id, while serializing the object as json. A String object is
+   * sent as it is.
+   *
+   * @param id specifies the entity on which to perform the post request
+   * @param object the object content to be serialized as json
+   * @param type the type to which the response is mapped, or null to ignore the response
+   * @param <R> the type of the response
+   * @return a future holding the deserialized response
+   */
+  protected <R> CompletableFuture<R> requestPost(final String id, final Object object, Type type) {
+    final String body = object instanceof String ? (String) object : mapper.toJson(object);
+    log.trace("sending: " + body);
+    final HttpEntity entity = createJsonEntity(body);
+    return execute(
+        () -> {
+          HttpPost httpPost = new HttpPost(this.pathUrl + "/" + id);
+          httpPost.setEntity(entity);
+          return httpPost;
+        },
+        HttpURLConnection.HTTP_CREATED,
+        type);
+  }
+
+  /**
+   * Executes a http get on the given id, or on the path of this request if the id is null.
+   *
+   * @param id the id path used for the api request
+   * @param type the type to which the response is mapped
+   * @param <R> the type of the response
+   * @return a future holding the deserialized response
+   */
+  protected <R> CompletableFuture<R> requestGet(final String id, Type type) {
+    return requestGet(id, type, HttpURLConnection.HTTP_OK);
+  }
+
+  /**
+   * Executes a http get on the given id and checks that the NFVO answered with the given status.
+   *
+   * @param id the id path used for the api request, or null
+   * @param type the type to which the response is mapped
+   * @param httpStatus the expected http status of the response
+   * @param <R> the type of the response
+   * @return a future holding the deserialized response
+   */
+  protected <R> CompletableFuture<R> requestGet(final String id, Type type, int httpStatus) {
+    final String url = id == null ? this.pathUrl : this.pathUrl + "/" + id;
+    return execute(() -> new HttpGet(url), httpStatus, type);
+  }
+
+  /**
+   * Executes a http put on the given id, while serializing the object as json.
+   *
+   * @param id the id path used for the api request
+   * @param object the object content to be serialized as json
+   * @param type the type to which the response is mapped
+   * @param <R> the type of the response
+   * @return a future holding the deserialized response
+   */
+  protected <R> CompletableFuture<R> requestPut(final String id, final Object object, Type type) {
+    final String body = mapper.toJson(object);
+    log.trace("sending: " + body);
+    final HttpEntity entity = createJsonEntity(body);
+    return execute(
+        () -> {
+          HttpPut httpPut = new HttpPut(this.pathUrl + "/" + id);
+          httpPut.setEntity(entity);
+          return httpPut;
+        },
+        HttpURLConnection.HTTP_ACCEPTED,
+        type);
+  }
+
+  /**
+   * Executes a http delete on the given id.
+   *
+   * @param id the id path used for the api request
+   * @return a future which completes when the NFVO answered with 204
+   */
+  protected CompletableFuture<Void> requestDelete(final String id) {
+    return execute(
+        () -> new HttpDelete(this.pathUrl + "/" + id), HttpURLConnection.HTTP_NO_CONTENT, null);
+  }
+
+  private <R> CompletableFuture<R> execute(
+      Supplier<HttpRequestBase> requestFactory, int httpStatus, Type type) {
+    return execute(requestFactory, httpStatus, type, 0, null);
+  }
+
+  /**
+   * Sends the request created by the factory. If the NFVO answers with 401 the token is discarded
+   * and the request is sent again with a new token, at most as often as the session's
+   * maxUnauthorizedRetries allows. The factory is called again for every attempt, because a request
+   * object cannot be executed twice.
+   *
+   * <p>Every attempt holds a permit of the session's bulkhead until its response arrived. If no
+   * permit is free, the request is queued without blocking a thread and continues on the session's
+   * async executor once it got one. If a token has to be fetched first, the request is sent from
+   * the async executor once the login is done. Otherwise the request is sent right away from the
+   * calling thread.
+   *
+   * <p>All the attempts belong to one trace of the session's tracer, which is started with the
+   * first one and then passed on, null until then.
+   */
+  private <R> CompletableFuture<R> execute(
+      Supplier<HttpRequestBase> requestFactory,
+      int httpStatus,
+      Type type,
+      int unauthorizedRetries,
+      TraceContext trace) {
+    Bulkhead bulkhead = session.getBulkhead();
+    if (bulkhead == null) {
+      return authorize(requestFactory, httpStatus, type, unauthorizedRetries, trace);
+    }
+    CompletableFuture<R> future = new CompletableFuture<>();
+    try {
+      ScheduledExecutorService executor = session.getAsyncExecutor();
+      CompletableFuture<Boolean> permit = bulkhead.acquireAsync(executor);
+      if (permit.isDone() && !permit.isCompletedExceptionally()) {
+        // decided right away, no need to leave the calling thread
+        proceed(
+            permit.join(), requestFactory, httpStatus, type, unauthorizedRetries, trace, future);
+      } else {
+        // the permit is handed over by the thread releasing it, maybe an I/O dispatcher thread
+        permit
+            .whenCompleteAsync(
+                (acquired, error) -> {
+                  if (error != null) {
+                    future.completeExceptionally(
+                        new SDKException(
+                            "Could not send the request",
+                            error.getStackTrace(),
+                            error.getMessage()));
+                  } else {
+                    proceed(
+                        acquired,
+                        requestFactory,
+                        httpStatus,
+                        type,
+                        unauthorizedRetries,
+                        trace,
+                        future);
+                  }
+                },
+                executor)
+            // the executor rejects the task if the session was closed in the meantime
+            .exceptionally(
+                error -> {
+                  future.completeExceptionally(error);
+                  return null;
+                });
+      }
+    } catch (IllegalStateException | RejectedExecutionException e) {
+      // the session is closed
+      future.completeExceptionally(
+          new SDKException("Could not send the request", e.getStackTrace(), e.getMessage()));
+    }
+    return future;
+  }
+
+  private <R> void proceed(
+      boolean acquired,
+      Supplier<HttpRequestBase> requestFactory,
+      int httpStatus,
+      Type type,
+      int unauthorizedRetries,
+      TraceContext trace,
+      CompletableFuture<R> future) {
+    if (!acquired) {
+      Bulkhead bulkhead = session.getBulkhead();
+      future.completeExceptionally(
+          new BulkheadFullException(session.getBaseUrl(), bulkhead.getMaxConcurrentCalls()));
+      return;
+    }
+    completeWith(
+        this.<R>authorize(requestFactory, httpStatus, type, unauthorizedRetries, trace), future);
+  }
+
+  /**
+   * Gets the token for an attempt. The caller has acquired a bulkhead permit. If a login is needed,
+   * it runs on the session's async executor and the attempt is sent from there.
+   */
+  private <R> CompletableFuture<R> authorize(
+      Supplier<HttpRequestBase> requestFactory,
+      int httpStatus,
+      Type type,
+      int unauthorizedRetries,
+      TraceContext trace) {
+    CompletableFuture<String> authorization;
+    try {
+      authorization =
+          session.getTokenManager().getAuthorizationHeaderAsync(session.getAsyncExecutor());
+    } catch (IllegalStateException e) {
+      // the session is closed
+      authorization = new CompletableFuture<>();
+      authorization.completeExceptionally(e);
+    }
+    if (authorization.isDone() && !authorization.isCompletedExceptionally()) {
+      return send(
+          requestFactory, httpStatus, type, unauthorizedRetries, trace, authorization.join());
+    }
+    CompletableFuture<R> future = new CompletableFuture<>();
+    authorization.whenComplete(
+        (header, error) -> {
+          if (error != null) {
+            Bulkhead bulkhead = session.getBulkhead();
+            if (bulkhead != null) {
+              bulkhead.release();
+            }
+            future.completeExceptionally(
+                error instanceof SDKException
+                    ? error
+                    : new SDKException(
+                        "Could not get the token", error.getStackTrace(), error.getMessage()));
+            return;
+          }
+          completeWith(
+              this.<R>send(requestFactory, httpStatus, type, unauthorizedRetries, trace, header),
+              future);
+        });
+    return future;
+  }
+
+  private static <R> void completeWith(CompletableFuture<R> source, CompletableFuture<R> target) {
+    source.whenComplete(
+        (result, throwable) -> {
+          if (throwable != null) {
+            target.completeExceptionally(throwable);
+          } else {
+            target.complete(result);
+          }
+        });
+  }
+
+  /** Sends a single attempt. The caller has acquired a bulkhead permit, which is released here. */
+  private <R> CompletableFuture<R> send(
+      Supplier<HttpRequestBase> requestFactory,
+      int httpStatus,
+      Type type,
+      int unauthorizedRetries,
+      TraceContext trace,
+      final String authorization) {
+    CompletableFuture<R> future = new CompletableFuture<>();
+    HttpRequestBase request = requestFactory.get();
+    prepareHeaders(request, authorization);
+    final Bulkhead bulkhead = session.getBulkhead();
+    final CircuitBreaker circuitBreaker = session.getCircuitBreaker();
+    if (circuitBreaker != null && !circuitBreaker.tryAcquirePermission()) {
+      if (bulkhead != null) {
+        bulkhead.release();
+      }
+      future.completeExceptionally(
+          new CircuitBreakerOpenException(
+              session.getBaseUrl(), circuitBreaker.getRemainingOpenTime()));
+      return future;
+    }
+    final String method = request.getMethod();
+    final String endpoint = EndpointNormalizer.normalize(request.getURI().getRawPath());
+    final SdkMetrics metrics = session.getMetrics();
+    final TraceContext requestTrace =
+        trace != null ? trace : session.getTracer().startTrace(method, endpoint);
+    final RequestSpan span = session.getTracer().startSpan(requestTrace, method, endpoint);
+    if (span.getTraceparent() != null) {
+      request.setHeader(new BasicHeader("traceparent", span.getTraceparent()));
+    }
+    final long start = System.nanoTime();
+    log.debug("Executing " + method + " on: " + request.getURI());
+    try {
+      session
+          .getAsyncHttpClient()
+          .execute(
+              request,
+              new FutureCallback<HttpResponse>() {
+                @Override
+                public void completed(HttpResponse response) {
+                  if (bulkhead != null) {
+                    bulkhead.release();
+                  }
+                  invalidateCache(method);
+                  metrics.recordRequest(
+                      method,
+                      endpoint,
+                      response.getStatusLine().getStatusCode(),
+                      System.nanoTime() - start);
+                  // the response is already buffered, so there are no phases to report
+                  span.end(response.getStatusLine().getStatusCode(), null);
+                  if (circuitBreaker != null) {
+                    if (response.getStatusLine().getStatusCode() >= 500) {
+                      circuitBreaker.onFailure();
+                    } else {
+                      circuitBreaker.onSuccess();
+                    }
+                  }
+                  if (response.getStatusLine().getStatusCode() == HttpStatus.SC_UNAUTHORIZED
+                      && authorization != null
+                      && unauthorizedRetries
+                          < session.getSessionConfig().getMaxUnauthorizedRetries()) {
+                    EntityUtils.consumeQuietly(response.getEntity());
+                    session.getTokenManager().invalidate(authorization);
+                    metrics.recordUnauthorizedRetry(method, endpoint);
+                    // a new login runs on the async executor, not on this dispatcher thread
+                    completeWith(
+                        AsyncRestRequest.this.<R>execute(
+                            requestFactory,
+                            httpStatus,
+                            type,
+                            unauthorizedRetries + 1,
+                            requestTrace),
+                        future);
+                    return;
+                  }
+                  decode(response, httpStatus, type, future);
+                }
+
+                @Override
+                public void failed(Exception e) {
+                  if (bulkhead != null) {
+                    bulkhead.release();
+                  }
+                  invalidateCache(method);
+                  metrics.recordRequest(method, endpoint, 0, System.nanoTime() - start);
+                  span.end(0, e);
+                  if (circuitBreaker != null) {
+                    circuitBreaker.onFailure();
+                  }
+                  log.error(e.getMessage(), e);
+                  future.completeExceptionally(
+                      new SDKException(
+                          "Could not http-" + method.toLowerCase(),
+                          e.getStackTrace(),
+                          e.getMessage()));
+                }
+
+                @Override
+                public void cancelled() {
+                  if (bulkhead != null) {
+                    bulkhead.release();
+                  }
+                  invalidateCache(method);
+                  span.end(0, null);
+                  if (circuitBreaker != null) {
+                    circuitBreaker.releasePermission();
+                  }
+                  future.cancel(false);
+                }
+              });
+    } catch (RuntimeException e) {
+      // e.g. the session is closed or the I/O reactor stopped, nothing was sent
+      if (bulkhead != null) {
+        bulkhead.release();
+      }
+      metrics.recordRequest(method, endpoint, 0, System.nanoTime() - start);
+      span.end(0, e);
+      if (circuitBreaker != null) {
+        circuitBreaker.onFailure();
+      }
+      log.error(e.getMessage(), e);
+      future.completeExceptionally(
+          new SDKException(
+              "Could not http-" + method.toLowerCase(), e.getStackTrace(), e.getMessage()));
+    }
+    return future;
+  }
+
+  /**
+   * Whether the blocking agent for the same entities keeps its responses in the session's
+   * EntityCache, so that the POST, PUT and DELETE requests of this agent have to remove them.
+   *
+   * @return false by default
+   */
+  protected boolean isCacheable() {
+    return false;
+  }
+
+  /**
+   * The paths of other, cacheable agents, relative to the base url, whose entities are changed by
+   * the POST, PUT and DELETE requests of this agent too. See RestRequest#getAffectedPaths.
+   *
+   * @return no paths by default
+   */
+  protected List<String> getAffectedPaths() {
+    return Collections.emptyList();
+  }
+
+  /**
+   * Remove the cached responses of the blocking agents which a POST, PUT or DELETE of this agent
+   * may have changed, whatever its outcome.
+   */
+  private void invalidateCache(String method) {
+    EntityCache cache = session.getEntityCache();
+    if (cache == null || method.equals("GET")) {
+      return;
+    }
+    if (isCacheable()) {
+      cache.invalidate(pathUrl);
+    }
+    for (String path : getAffectedPaths()) {
+      cache.invalidate(session.getBaseUrl() + path);
+    }
+  }
+
+  /** Creates the entity of a request body, which can be sent more than once. */
+  private HttpEntity createJsonEntity(String body) {
+    try {
+      return session.compressRequestEntity(new StringEntity(body, ContentType.APPLICATION_JSON));
+    } catch (IOException e) {
+      // the body is already in memory, so this cannot really happen
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void prepareHeaders(HttpRequestBase request, String authorization) {
+    request.setHeader(new BasicHeader("accept", "application/json"));
+    if (projectId != null) {
+      request.setHeader(new BasicHeader("project-id", projectId));
+    }
+    if (session.getSessionConfig().isResponseCompression()) {
+      // the HttpAsyncClient does not handle content encodings itself, see decompress
+      request.setHeader(new BasicHeader("Accept-Encoding", "gzip,deflate"));
+    }
+    if (authorization != null) {
+      request.setHeader(new BasicHeader("authorization", authorization));
+    }
+  }
+
+  /**
+   * Decodes the buffered response on the session's async executor, because decoding a large list on
+   * the I/O dispatcher thread would hold up all the other requests it serves.
+   */
+  private <R> void decode(
+      HttpResponse response, int httpStatus, Type type, CompletableFuture<R> future) {
+    try {
+      session
+          .getAsyncExecutor()
+          .execute(
+              () -> {
+                try {
+                  future.complete(readResponse(response, httpStatus, type));
+                } catch (SDKException e) {
+                  future.completeExceptionally(e);
+                } catch (RuntimeException e) {
+                  future.completeExceptionally(
+                      new SDKException(
+                          "Could not read the response", e.getStackTrace(), e.getMessage()));
+                }
+              });
+    } catch (IllegalStateException | RejectedExecutionException e) {
+      // the session was closed while the response was on the way
+      EntityUtils.consumeQuietly(response.getEntity());
+      future.completeExceptionally(
+          new SDKException("Could not read the response", e.getStackTrace(), e.getMessage()));
+    }
+  }
+
+  private <R> R readResponse(HttpResponse response, int httpStatus, Type type) throws SDKException {
+    HttpEntity entity = decompress(response.getEntity());
+    int statusCode = response.getStatusLine().getStatusCode();
+    try {
+      if (statusCode != httpStatus) {
+        log.error("Status expected: " + httpStatus + " obtained: " + statusCode);
+        String body = entity != null ? EntityUtils.toString(entity) : "";
+        log.error("Body: " + body);
+        throw RestUtils.statusException(statusCode, body);
+      }
+      if (type == null || entity == null || statusCode == HttpURLConnection.HTTP_NO_CONTENT) {
+        EntityUtils.consume(entity);
+        return null;
+      }
+      try (Reader reader = new InputStreamReader(entity.getContent(), StandardCharsets.UTF_8)) {
+        return mapper.fromJson(reader, type);
+      }
+    } catch (IOException | JsonParseException e) {
+      log.error(e.getMessage(), e);
+      throw new SDKException(
+          "Could not read the response of the NFVO", e.getStackTrace(), e.getMessage());
+    }
+  }
+
+  /**
+   * Wraps a gzip or deflate encoded entity into one which inflates the content while it is read, so
+   * that the decoder gets the plain json without the whole body being inflated in memory first.
+   */
+  private HttpEntity decompress(HttpEntity entity) {
+    if (entity == null || entity.getContentEncoding() == null) {
+      return entity;
+    }
+    for (HeaderElement codec : entity.getContentEncoding().getElements()) {
+      String codecName = codec.getName().toLowerCase(Locale.ROOT);
+      if ("gzip".equals(codecName) || "x-gzip".equals(codecName)) {
+        return new GzipDecompressingEntity(entity);
+      } else if ("deflate".equals(codecName)) {
+        return new DeflateDecompressingEntity(entity);
+      }
+    }
+    return entity;
+  }
+}
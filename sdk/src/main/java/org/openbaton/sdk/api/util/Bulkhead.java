@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the number of requests which wait for the NFVO at the same time. If the NFVO hangs, only
+ * that many threads of the calling application block, the others are rejected after at most maxWait
+ * milliseconds. Async requests do not block a thread while they wait for a permit, they are queued
+ * and get the permit from the thread which releases it. The Bulkhead class is thread safe.
+ */
+public class Bulkhead {
+
+  private final Semaphore semaphore;
+  private final int maxConcurrentCalls;
+  private final long maxWait;
+  // the async requests waiting for a permit, in arrival order
+  private final Queue<CompletableFuture<Boolean>> waiters = new ConcurrentLinkedQueue<>();
+
+  /**
+   * @param maxConcurrentCalls the maximum number of requests sent at the same time
+   * @param maxWait how many milliseconds a request waits for another one to finish
+   */
+  public Bulkhead(int maxConcurrentCalls, long maxWait) {
+    this.semaphore = new Semaphore(maxConcurrentCalls, true);
+    this.maxConcurrentCalls = maxConcurrentCalls;
+    this.maxWait = maxWait;
+  }
+
+  /**
+   * Wait until a request may be sent. If it returns true, {@link #release()} has to be called once
+   * the request is answered.
+   *
+   * @return true if the request may be sent, false if the maximum wait time elapsed
+   * @throws InterruptedException if the thread is interrupted while waiting
+   */
+  public boolean tryAcquire() throws InterruptedException {
+    return semaphore.tryAcquire(maxWait, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * The non-blocking variant of {@link #tryAcquire()}. The returned future completes with true once
+   * the request may be sent, in which case {@link #release()} has to be called once the request is
+   * answered, or with false if no permit became free within maxWait milliseconds from now. Note
+   * that it may complete on the thread calling release().
+   *
+   * @param timer schedules the end of the maximum wait time
+   * @return a future holding whether the request may be sent
+   */
+  public CompletableFuture<Boolean> acquireAsync(ScheduledExecutorService timer) {
+    if (semaphore.tryAcquire()) {
+      return CompletableFuture.completedFuture(true);
+    }
+    if (maxWait <= 0) {
+      return CompletableFuture.completedFuture(false);
+    }
+    CompletableFuture<Boolean> waiter = new CompletableFuture<>();
+    waiters.add(waiter);
+    // a permit may have been released while the waiter was queued
+    handOverPermits();
+    if (!waiter.isDone()) {
+      ScheduledFuture<?> timeout =
+          timer.schedule(
+              () -> {
+                if (waiter.complete(false)) {
+                  waiters.remove(waiter);
+                }
+              },
+              maxWait,
+              TimeUnit.MILLISECONDS);
+      waiter.whenComplete((acquired, error) -> timeout.cancel(false));
+    }
+    return waiter;
+  }
+
+  public void release() {
+    semaphore.release();
+    handOverPermits();
+  }
+
+  /**
+   * Complete the futures of all the async requests still waiting for a permit exceptionally, e.g.
+   * because the session is closed.
+   *
+   * @param reason the exception the futures complete with
+   */
+  public void cancelWaiters(Throwable reason) {
+    CompletableFuture<Boolean> waiter;
+    while ((waiter = waiters.poll()) != null) {
+      waiter.completeExceptionally(reason);
+    }
+  }
+
+  /**
+   * Give the free permits to the queued async requests. Both acquireAsync and release call it after
+   * changing their side, so that a permit and a waiter cannot miss each other.
+   */
+  private void handOverPermits() {
+    while (!waiters.isEmpty() && semaphore.tryAcquire()) {
+      boolean handedOver = false;
+      CompletableFuture<Boolean> waiter;
+      while (!handedOver && (waiter = waiters.poll()) != null) {
+        // false if the waiter timed out or was cancelled already
+        handedOver = waiter.complete(true);
+      }
+      if (!handedOver) {
+        semaphore.release();
+      }
+    }
+  }
+
+  public int getMaxConcurrentCalls() {
+    return maxConcurrentCalls;
+  }
+
+  /** @return the number of async requests waiting for a permit */
+  public int getQueuedRequests() {
+    return waiters.size();
+  }
+
+  /** @return the number of requests which could be sent right now */
+  public int getAvailablePermits() {
+    return semaphore.availablePermits();
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.mime.content.FileBody;
+
+/**
+ * A multipart file body which computes the SHA-256 checksum of the file and reports the progress
+ * while the file is written to the connection, so the file is read only once. Every call of
+ * writeTo, e.g. for a retry, starts the checksum and the progress from the beginning.
+ */
+class ChecksumFileBody extends FileBody {
+
+  private final ProgressListener progressListener;
+  private final long progressInterval;
+  private final int bufferSize;
+  private volatile byte[] digest;
+
+  ChecksumFileBody(File file, PackageUploadOptions options) {
+    super(file, ContentType.DEFAULT_BINARY, file.getName());
+    this.progressListener = options.getProgressListener();
+    this.progressInterval = Math.max(1, options.getProgressInterval());
+    this.bufferSize = options.getBufferSize();
+  }
+
+  @Override
+  public void writeTo(OutputStream out) throws IOException {
+    MessageDigest sha256 = createDigest();
+    long total = getFile().length();
+    long sent = 0;
+    long nextProgress = progressInterval;
+    // the buffer is needed for the checksum anyway, so the channel cannot transfer to the socket
+    // directly
+    ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+    try (FileChannel channel = FileChannel.open(getFile().toPath(), StandardOpenOption.READ)) {
+      int n;
+      while ((n = channel.read(buffer)) != -1) {
+        sha256.update(buffer.array(), 0, n);
+        out.write(buffer.array(), 0, n);
+        buffer.clear();
+        sent += n;
+        if (progressListener != null && sent >= nextProgress) {
+          progressListener.progress(getFilename(), sent, total);
+          nextProgress = sent + progressInterval;
+        }
+      }
+    }
+    out.flush();
+    if (progressListener != null && nextProgress - progressInterval != sent) {
+      progressListener.progress(getFilename(), sent, total);
+    }
+    digest = sha256.digest();
+  }
+
+  /** @return the hex encoded SHA-256 checksum of the last complete write, or null */
+  String getSha256() {
+    byte[] bytes = digest;
+    if (bytes == null) {
+      return null;
+    }
+    StringBuilder hex = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+    }
+    return hex.toString();
+  }
+
+  private static MessageDigest createDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      // every Java platform supports SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+}
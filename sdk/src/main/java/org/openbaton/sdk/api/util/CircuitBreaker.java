@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stops sending requests to an NFVO which keeps failing, so that the callers get an error at once
+ * instead of waiting for timeouts.
+ *
+ * <p>The circuit breaker starts closed and records the outcome of the last slidingWindowSize
+ * requests. Once at least minimumNumberOfCalls outcomes are recorded and the share of failures
+ * reaches failureRateThreshold percent, it opens and rejects all requests for openStateDuration
+ * milliseconds. Afterwards it is half open and lets permittedCallsInHalfOpenState requests through:
+ * if they all succeed it closes again, if one of them fails it opens again.
+ *
+ * <p>Every request for which {@link #tryAcquirePermission()} returned true must be followed by a
+ * call to onSuccess, onFailure or releasePermission. The CircuitBreaker class is thread safe.
+ */
+public class CircuitBreaker {
+
+  public enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  private Logger log = LoggerFactory.getLogger(this.getClass());
+
+  private final String name;
+  private final int failureRateThreshold;
+  private final int minimumNumberOfCalls;
+  private final long openStateDurationNanos;
+  private final int permittedCallsInHalfOpenState;
+
+  // ring buffer of the outcomes in the closed state, true for a failure
+  private final boolean[] window;
+  private int windowIndex = 0;
+  private int windowCount = 0;
+  private int windowFailures = 0;
+
+  private State state = State.CLOSED;
+  private long openedAt;
+  private int halfOpenPermitted = 0;
+  private int halfOpenSucceeded = 0;
+
+  /**
+   * @param name the name used in the log messages, e.g. the url of the NFVO
+   * @param failureRateThreshold the percentage of failures at which the circuit breaker opens
+   * @param slidingWindowSize the number of recent requests from which the failure rate is computed
+   * @param minimumNumberOfCalls the number of requests needed before the circuit breaker can open
+   * @param openStateDuration how many milliseconds the circuit breaker stays open
+   * @param permittedCallsInHalfOpenState the number of trial requests in the half open state
+   */
+  public CircuitBreaker(
+      String name,
+      int failureRateThreshold,
+      int slidingWindowSize,
+      int minimumNumberOfCalls,
+      long openStateDuration,
+      int permittedCallsInHalfOpenState) {
+    if (slidingWindowSize < 1 || permittedCallsInHalfOpenState < 1) {
+      throw new IllegalArgumentException(
+          "The sliding window size and the permitted calls in half open state must be positive");
+    }
+    this.name = name;
+    this.failureRateThreshold = failureRateThreshold;
+    this.window = new boolean[slidingWindowSize];
+    this.minimumNumberOfCalls = Math.min(minimumNumberOfCalls, slidingWindowSize);
+    this.openStateDurationNanos = TimeUnit.MILLISECONDS.toNanos(openStateDuration);
+    this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+  }
+
+  /**
+   * Check whether a request may be sent now.
+   *
+   * @return true if the request may be sent, false if it has to be rejected
+   */
+  public synchronized boolean tryAcquirePermission() {
+    if (state == State.OPEN) {
+      if (System.nanoTime() - openedAt < openStateDurationNanos) {
+        return false;
+      }
+      transitionTo(State.HALF_OPEN);
+    }
+    if (state == State.HALF_OPEN) {
+      if (halfOpenPermitted >= permittedCallsInHalfOpenState) {
+        return false;
+      }
+      halfOpenPermitted++;
+    }
+    return true;
+  }
+
+  /** Record that the NFVO answered a request. */
+  public synchronized void onSuccess() {
+    if (state == State.HALF_OPEN) {
+      halfOpenSucceeded++;
+      if (halfOpenSucceeded >= permittedCallsInHalfOpenState) {
+        transitionTo(State.CLOSED);
+      }
+    } else if (state == State.CLOSED) {
+      record(false);
+    }
+  }
+
+  /** Record that a request could not be sent or that the NFVO answered with a server error. */
+  public synchronized void onFailure() {
+    if (state == State.HALF_OPEN) {
+      transitionTo(State.OPEN);
+    } else if (state == State.CLOSED) {
+      record(true);
+      if (windowCount >= minimumNumberOfCalls
+          && windowFailures * 100 >= failureRateThreshold * windowCount) {
+        transitionTo(State.OPEN);
+      }
+    }
+  }
+
+  /** Give back a permission without recording an outcome, e.g. if the request was cancelled. */
+  public synchronized void releasePermission() {
+    if (state == State.HALF_OPEN && halfOpenPermitted > 0) {
+      halfOpenPermitted--;
+    }
+  }
+
+  public synchronized State getState() {
+    return state;
+  }
+
+  /** @return how many milliseconds the circuit breaker stays open, 0 if it is not open */
+  public synchronized long getRemainingOpenTime() {
+    if (state != State.OPEN) {
+      return 0;
+    }
+    long remaining = openStateDurationNanos - (System.nanoTime() - openedAt);
+    return Math.max(0, TimeUnit.NANOSECONDS.toMillis(remaining));
+  }
+
+  /**
+   * @return the percentage of failed requests in the sliding window, -1 if it is not full enough
+   */
+  public synchronized float getFailureRate() {
+    if (windowCount < minimumNumberOfCalls || windowCount == 0) {
+      return -1;
+    }
+    return windowFailures * 100f / windowCount;
+  }
+
+  private void record(boolean failure) {
+    if (windowCount == window.length) {
+      if (window[windowIndex]) {
+        windowFailures--;
+      }
+    } else {
+      windowCount++;
+    }
+    window[windowIndex] = failure;
+    if (failure) {
+      windowFailures++;
+    }
+    windowIndex = (windowIndex + 1) % window.length;
+  }
+
+  private void transitionTo(State newState) {
+    log.info("Circuit breaker for " + name + " changes from " + state + " to " + newState);
+    state = newState;
+    switch (newState) {
+      case OPEN:
+        openedAt = System.nanoTime();
+        break;
+      case HALF_OPEN:
+        halfOpenPermitted = 0;
+        halfOpenSucceeded = 0;
+        break;
+      case CLOSED:
+        windowIndex = 0;
+        windowCount = 0;
+        windowFailures = 0;
+        break;
+    }
+  }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.http.HttpRequest;
+
+/**
+ * Keeps the responses of GET requests for entities which rarely change, like descriptors, VIM
+ * instances and configurations, so that agents reading them repeatedly do not ask the NFVO every
+ * time.
+ *
+ * <p>The cache holds at most maxEntries responses and evicts the least recently used one when it is
+ * full. A response is used without asking the NFVO for ttl milliseconds. Afterwards, if the NFVO
+ * sent an ETag or Last-Modified header, the request is sent with If-None-Match or If-Modified-Since
+ * and the cached response is kept if the NFVO answers 304. Every POST, PUT or DELETE sent by an
+ * agent removes the cached responses below that agent's path and below the paths of the entities
+ * the request may change as well, e.g. a VNF package upload removes the cached
+ * VirtualNetworkFunctionDescriptors.
+ *
+ * <p>Every invalidation starts a new generation of the cache and is recorded for its url prefix. A
+ * response is not stored if its url was invalidated while the request was in flight, because the
+ * invalidation may have been meant for it. Invalidations of other urls do not matter, so writes to
+ * other entities do not keep a busy cache from filling.
+ *
+ * <p>The cache stores the json bodies, not the decoded objects, so every caller gets its own copy
+ * which it may modify. The EntityCache class is thread safe.
+ */
+public class EntityCache {
+
+  // more distinct prefixes are not expected, the agents invalidate their own paths
+  private static final int MAX_INVALIDATED_PREFIXES = 256;
+
+  private final int maxEntries;
+  private final long ttlNanos;
+  private final LinkedHashMap<String, Entry> entries;
+  // the number of invalidations so far
+  private long generation;
+  // the generation in which the urls starting with a prefix were invalidated last
+  private final Map<String, Long> invalidatedPrefixes = new HashMap<>();
+  // the generation in which all the urls were invalidated last
+  private long clearedGeneration;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong revalidations = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+  private final AtomicLong invalidations = new AtomicLong();
+
+  /**
+   * @param maxEntries the maximum number of cached responses
+   * @param ttl how many milliseconds a response is used without revalidating it
+   */
+  public EntityCache(int maxEntries, long ttl) {
+    this.maxEntries = maxEntries;
+    this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttl);
+    this.entries =
+        new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() > EntityCache.this.maxEntries) {
+              evictions.incrementAndGet();
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  /**
+   * @param projectId the project of the request
+   * @param url the url of the request
+   * @return the cached response, fresh or not, or null if there is none
+   */
+  synchronized Entry get(String projectId, String url) {
+    return entries.get(key(projectId, url));
+  }
+
+  /**
+   * @return the current generation, to be taken before the request is sent and passed to put or
+   *     revalidated with the response
+   */
+  synchronized long getGeneration() {
+    return generation;
+  }
+
+  /** Store a response, unless its url was invalidated since the given generation. */
+  synchronized void put(
+      String projectId,
+      String url,
+      String body,
+      String etag,
+      String lastModified,
+      long requestGeneration) {
+    if (invalidatedSince(url, requestGeneration)) {
+      return;
+    }
+    entries.put(key(projectId, url), new Entry(body, etag, lastModified, System.nanoTime()));
+  }
+
+  /**
+   * Mark a cached response as fresh again after the NFVO answered 304, unless its url was
+   * invalidated since the given generation.
+   */
+  synchronized void revalidated(String projectId, String url, Entry entry, long requestGeneration) {
+    if (invalidatedSince(url, requestGeneration)) {
+      return;
+    }
+    revalidations.incrementAndGet();
+    entries.put(
+        key(projectId, url),
+        new Entry(entry.body, entry.etag, entry.lastModified, System.nanoTime()));
+  }
+
+  void hit() {
+    hits.incrementAndGet();
+  }
+
+  void miss() {
+    misses.incrementAndGet();
+  }
+
+  /**
+   * Remove the cached responses of all the urls starting with the given prefix, in all projects.
+   *
+   * @param urlPrefix the prefix, e.g. the url of an agent
+   */
+  public synchronized void invalidate(String urlPrefix) {
+    generation++;
+    invalidatedPrefixes.put(urlPrefix, generation);
+    if (invalidatedPrefixes.size() > MAX_INVALIDATED_PREFIXES) {
+      // forget the single prefixes and treat them as one invalidation of everything
+      invalidatedPrefixes.clear();
+      clearedGeneration = generation;
+    }
+    Iterator<String> keys = entries.keySet().iterator();
+    while (keys.hasNext()) {
+      String key = keys.next();
+      if (key.substring(key.indexOf(' ') + 1).startsWith(urlPrefix)) {
+        keys.remove();
+        invalidations.incrementAndGet();
+      }
+    }
+  }
+
+  /** Remove all the cached responses. */
+  public synchronized void clear() {
+    generation++;
+    invalidatedPrefixes.clear();
+    clearedGeneration = generation;
+    invalidations.addAndGet(entries.size());
+    entries.clear();
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /** @return how often a fresh cached response was used without asking the NFVO */
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  /** @return how often the NFVO had to be asked, including the conditional requests */
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  /** @return how often the NFVO confirmed with 304 that a cached response is still valid */
+  public long getRevalidationCount() {
+    return revalidations.get();
+  }
+
+  /** @return how many responses were removed because the cache was full */
+  public long getEvictionCount() {
+    return evictions.get();
+  }
+
+  /** @return how many responses were removed because of a create, update or delete request */
+  public long getInvalidationCount() {
+    return invalidations.get();
+  }
+
+  /** @return the share of the lookups answered from the cache without asking the NFVO */
+  public double getHitRate() {
+    long hitCount = hits.get();
+    long total = hitCount + misses.get();
+    return total == 0 ? 0 : (double) hitCount / total;
+  }
+
+  @Override
+  public String toString() {
+    return "EntityCache{"
+        + "size="
+        + size()
+        + ", hits="
+        + hits
+        + ", misses="
+        + misses
+        + ", revalidations="
+        + revalidations
+        + ", evictions="
+        + evictions
+        + ", invalidations="
+        + invalidations
+        + '}';
+  }
+
+  /** Must be called while holding the lock of the cache. */
+  private boolean invalidatedSince(String url, long requestGeneration) {
+    if (clearedGeneration > requestGeneration) {
+      return true;
+    }
+    for (Map.Entry<String, Long> invalidated : invalidatedPrefixes.entrySet()) {
+      if (invalidated.getValue() > requestGeneration && url.startsWith(invalidated.getKey())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String key(String projectId, String url) {
+    // project ids do not contain spaces
+    return projectId + " " + url;
+  }
+
+  /** A cached response body together with the validators the NFVO sent with it. */
+  final class Entry {
+    private final String body;
+    private final String etag;
+    private final String lastModified;
+    private final long storedAt;
+
+    private Entry(String body, String etag, String lastModified, long storedAt) {
+      this.body = body;
+      this.etag = etag;
+      this.lastModified = lastModified;
+      this.storedAt = storedAt;
+    }
+
+    String getBody() {
+      return body;
+    }
+
+    boolean isFresh() {
+      return System.nanoTime() - storedAt < ttlNanos;
+    }
+
+    /** Add If-None-Match and If-Modified-Since headers, if the NFVO sent validators. */
+    void addConditionalHeaders(HttpRequest request) {
+      if (etag != null) {
+        request.setHeader("If-None-Match", etag);
+      }
+      if (lastModified != null) {
+        request.setHeader("If-Modified-Since", lastModified);
+      }
+    }
+  }
+}
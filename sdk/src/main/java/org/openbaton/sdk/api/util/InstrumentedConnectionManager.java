@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.config.Registry;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.openbaton.sdk.api.metrics.SdkMetrics;
+import org.openbaton.sdk.api.tracing.Phase;
+
+/**
+ * A PoolingHttpClientConnectionManager which reports how long the requests wait for a connection,
+ * to the metrics and as LEASE phase of the request's span, so that an undersized pool shows up as
+ * such instead of only as slow requests. It also tells the PhaseTimer of a request when the
+ * connection is released, which happens however the response is closed.
+ */
+class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+
+  private final SdkMetrics metrics;
+  // the timers of the requests currently holding a connection
+  private final Map<HttpClientConnection, PhaseTimer> timers = new ConcurrentHashMap<>();
+
+  InstrumentedConnectionManager(
+      Registry<ConnectionSocketFactory> socketFactoryRegistry, SdkMetrics metrics) {
+    super(socketFactoryRegistry);
+    this.metrics = metrics;
+  }
+
+  @Override
+  public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+    ConnectionRequest request = super.requestConnection(route, state);
+    return new ConnectionRequest() {
+      @Override
+      public HttpClientConnection get(long timeout, TimeUnit tunit)
+          throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+        long start = System.nanoTime();
+        HttpClientConnection connection;
+        try {
+          connection = request.get(timeout, tunit);
+        } finally {
+          long wait = System.nanoTime() - start;
+          metrics.recordConnectionLease(wait);
+          PhaseTimer.record(Phase.LEASE, wait);
+        }
+        PhaseTimer timer = PhaseTimer.current();
+        if (timer != null) {
+          timers.put(connection, timer);
+        }
+        return connection;
+      }
+
+      @Override
+      public boolean cancel() {
+        return request.cancel();
+      }
+    };
+  }
+
+  @Override
+  public void releaseConnection(
+      HttpClientConnection managedConn, Object state, long keepalive, TimeUnit tunit) {
+    try {
+      super.releaseConnection(managedConn, state, keepalive, tunit);
+    } finally {
+      PhaseTimer timer = timers.remove(managedConn);
+      if (timer != null) {
+        timer.connectionReleased();
+      }
+    }
+  }
+}
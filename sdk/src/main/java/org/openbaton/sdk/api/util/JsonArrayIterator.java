@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Iterates over the elements of a json array returned by the NFVO, decoding one element at a time
+ * directly from the response stream. Only the current element is kept in memory, whatever the size
+ * of the array.
+ *
+ * <p>The connection is released as soon as the end of the array is reached. A consumer which stops
+ * before that has to call {@link #close()}, otherwise the connection stays leased from the pool.
+ * Errors while reading the response are thrown as UncheckedIOException. The iterator is not thread
+ * safe.
+ */
+public class JsonArrayIterator<T> implements Iterator<T>, Closeable {
+
+  private Logger log = LoggerFactory.getLogger(this.getClass());
+
+  private final CloseableHttpResponse response;
+  private final JsonReader reader;
+  private final Gson mapper;
+  private final Class<T> type;
+  private boolean exhausted = false;
+  private boolean closed = false;
+
+  /**
+   * @param response the response of the NFVO, its entity has to contain a json array
+   * @param reader the reader on the content of the response entity
+   * @param mapper the Gson used for decoding the elements
+   * @param type the class of the elements
+   * @throws IOException if the response does not start with a json array
+   */
+  JsonArrayIterator(CloseableHttpResponse response, JsonReader reader, Gson mapper, Class<T> type)
+      throws IOException {
+    this.response = response;
+    this.reader = reader;
+    this.mapper = mapper;
+    this.type = type;
+    try {
+      if (reader.peek() == JsonToken.END_DOCUMENT) {
+        // no content, i.e. no elements
+        exhausted = true;
+        close();
+      } else {
+        reader.beginArray();
+      }
+    } catch (IOException | RuntimeException e) {
+      close();
+      throw e;
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (closed) {
+      return false;
+    }
+    try {
+      if (reader.hasNext()) {
+        return true;
+      }
+      reader.endArray();
+      exhausted = true;
+      close();
+      return false;
+    } catch (IOException e) {
+      closeQuietly();
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    try {
+      return mapper.fromJson(reader, type);
+    } catch (JsonParseException e) {
+      closeQuietly();
+      throw e;
+    }
+  }
+
+  /**
+   * Returns a sequential Stream over the remaining elements. Closing the Stream closes this
+   * iterator.
+   *
+   * @return a Stream of the elements of the json array
+   */
+  public Stream<T> stream() {
+    return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL),
+            false)
+        .onClose(this::closeQuietly);
+  }
+
+  /**
+   * Release the connection. If the array was not read until its end, the connection is closed
+   * instead of being returned to the pool, so that the rest of the body is not downloaded.
+   *
+   * @throws IOException if the response cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (exhausted) {
+      // closing the content stream first consumes the entity and returns the connection to the pool
+      reader.close();
+      response.close();
+    } else {
+      // closing the response first aborts the transfer instead of consuming the rest
+      response.close();
+      reader.close();
+    }
+  }
+
+  private void closeQuietly() {
+    try {
+      close();
+    } catch (IOException e) {
+      log.warn("Could not close the response: " + e.getMessage());
+    }
+  }
+}
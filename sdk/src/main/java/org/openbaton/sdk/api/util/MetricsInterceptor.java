@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpCoreContext;
+import org.openbaton.sdk.api.metrics.EndpointNormalizer;
+import org.openbaton.sdk.api.metrics.SdkMetrics;
+
+/**
+ * Records the sizes of the request and response bodies of a RestSession's HttpClients. It is added
+ * as last request and first response interceptor, so it sees the request bodies after they were
+ * compressed and the response bodies before they are decompressed. Bodies of unknown length are
+ * counted while they are written or read.
+ */
+class MetricsInterceptor implements HttpRequestInterceptor, HttpResponseInterceptor {
+
+  private final SdkMetrics metrics;
+
+  MetricsInterceptor(SdkMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  @Override
+  public void process(HttpRequest request, HttpContext context) {
+    if (!(request instanceof HttpEntityEnclosingRequest)) {
+      return;
+    }
+    HttpEntityEnclosingRequest entityRequest = (HttpEntityEnclosingRequest) request;
+    HttpEntity entity = entityRequest.getEntity();
+    if (entity == null) {
+      return;
+    }
+    String method = request.getRequestLine().getMethod();
+    String endpoint = getEndpoint(request);
+    if (entity.getContentLength() >= 0) {
+      metrics.recordBytesSent(method, endpoint, entity.getContentLength());
+    } else {
+      entityRequest.setEntity(new CountingRequestEntity(entity, method, endpoint));
+    }
+  }
+
+  @Override
+  public void process(HttpResponse response, HttpContext context) {
+    HttpEntity entity = response.getEntity();
+    HttpRequest request = HttpCoreContext.adapt(context).getRequest();
+    if (entity == null || request == null) {
+      return;
+    }
+    String method = request.getRequestLine().getMethod();
+    String endpoint = getEndpoint(request);
+    if (entity.getContentLength() >= 0) {
+      metrics.recordBytesReceived(method, endpoint, entity.getContentLength());
+    } else {
+      response.setEntity(new CountingResponseEntity(entity, method, endpoint));
+    }
+  }
+
+  /** The request line contains an absolute uri if the request is sent over a proxy. */
+  private String getEndpoint(HttpRequest request) {
+    String uri = request.getRequestLine().getUri();
+    int scheme = uri.indexOf("://");
+    if (scheme >= 0) {
+      int path = uri.indexOf('/', scheme + 3);
+      uri = path >= 0 ? uri.substring(path) : "/";
+    }
+    return EndpointNormalizer.normalize(uri);
+  }
+
+  private final class CountingRequestEntity extends HttpEntityWrapper {
+
+    private final String method;
+    private final String endpoint;
+
+    private CountingRequestEntity(HttpEntity entity, String method, String endpoint) {
+      super(entity);
+      this.method = method;
+      this.endpoint = endpoint;
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+      long[] count = new long[1];
+      try {
+        wrappedEntity.writeTo(
+            new FilterOutputStream(outStream) {
+              @Override
+              public void write(int b) throws IOException {
+                out.write(b);
+                count[0]++;
+              }
+
+              @Override
+              public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+                count[0] += len;
+              }
+            });
+      } finally {
+        metrics.recordBytesSent(method, endpoint, count[0]);
+      }
+    }
+  }
+
+  private final class CountingResponseEntity extends HttpEntityWrapper {
+
+    private final String method;
+    private final String endpoint;
+    private InputStream content;
+
+    private CountingResponseEntity(HttpEntity entity, String method, String endpoint) {
+      super(entity);
+      this.method = method;
+      this.endpoint = endpoint;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+      // the content of a streamed entity can only be read once, so always return the same stream
+      if (content == null || wrappedEntity.isRepeatable()) {
+        content = new CountingInputStream(wrappedEntity.getContent(), method, endpoint);
+      }
+      return content;
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+      try (InputStream in = getContent()) {
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+          outStream.write(buffer, 0, read);
+        }
+      }
+    }
+  }
+
+  /** Reports the number of bytes read once the end of the stream is reached or it is closed. */
+  private final class CountingInputStream extends FilterInputStream {
+
+    private final String method;
+    private final String endpoint;
+    private long count;
+    private boolean reported;
+
+    private CountingInputStream(InputStream in, String method, String endpoint) {
+      super(in);
+      this.method = method;
+      this.endpoint = endpoint;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b == -1) {
+        report();
+      } else {
+        count++;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int read = super.read(b, off, len);
+      if (read == -1) {
+        report();
+      } else {
+        count += read;
+      }
+      return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = super.skip(n);
+      count += skipped;
+      return skipped;
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        super.close();
+      } finally {
+        report();
+      }
+    }
+
+    private void report() {
+      if (!reported) {
+        reported = true;
+        metrics.recordBytesReceived(method, endpoint, count);
+      }
+    }
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+/**
+ * Options for uploading VNFPackages with the VNFPackageAgent. All durations are in milliseconds.
+ */
+public class PackageUploadOptions {
+
+  // notified while the file is sent, may be null
+  private ProgressListener progressListener = null;
+  // number of bytes between two progress notifications
+  private long progressInterval = 8 * 1024 * 1024;
+  // send the request body with chunked transfer encoding instead of a Content-Length
+  private boolean chunked = false;
+  // time to wait for data on the connection, null means the session's socket timeout
+  private Integer socketTimeout = null;
+  // number of bytes read from the file at once
+  private int bufferSize = 64 * 1024;
+
+  public ProgressListener getProgressListener() {
+    return progressListener;
+  }
+
+  public void setProgressListener(ProgressListener progressListener) {
+    this.progressListener = progressListener;
+  }
+
+  public long getProgressInterval() {
+    return progressInterval;
+  }
+
+  public void setProgressInterval(long progressInterval) {
+    this.progressInterval = progressInterval;
+  }
+
+  public boolean isChunked() {
+    return chunked;
+  }
+
+  public void setChunked(boolean chunked) {
+    this.chunked = chunked;
+  }
+
+  public Integer getSocketTimeout() {
+    return socketTimeout;
+  }
+
+  public void setSocketTimeout(Integer socketTimeout) {
+    this.socketTimeout = socketTimeout;
+  }
+
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  public void setBufferSize(int bufferSize) {
+    this.bufferSize = bufferSize;
+  }
+}
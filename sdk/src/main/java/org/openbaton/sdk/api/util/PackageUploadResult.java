@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+import java.io.File;
+import org.openbaton.catalogue.nfvo.VNFPackage;
+import org.openbaton.sdk.api.exception.SDKException;
+
+/** The outcome of a VNFPackage upload. */
+public final class PackageUploadResult {
+
+  private final File file;
+  private final VNFPackage vnfPackage;
+  private final String sha256;
+  private final long size;
+  private final long duration;
+  private final SDKException error;
+
+  PackageUploadResult(
+      File file,
+      VNFPackage vnfPackage,
+      String sha256,
+      long size,
+      long duration,
+      SDKException error) {
+    this.file = file;
+    this.vnfPackage = vnfPackage;
+    this.sha256 = sha256;
+    this.size = size;
+    this.duration = duration;
+    this.error = error;
+  }
+
+  /**
+   * @param file the file which could not be uploaded
+   * @param error the reason
+   * @return the result of a failed upload
+   */
+  public static PackageUploadResult failed(File file, SDKException error) {
+    return new PackageUploadResult(file, null, null, file.length(), 0, error);
+  }
+
+  public File getFile() {
+    return file;
+  }
+
+  /** @return the VNFPackage created by the NFVO, or null if the upload failed */
+  public VNFPackage getVnfPackage() {
+    return vnfPackage;
+  }
+
+  /** @return the hex encoded SHA-256 checksum of the bytes sent, or null if the upload failed */
+  public String getSha256() {
+    return sha256;
+  }
+
+  /** @return the size of the file in bytes */
+  public long getSize() {
+    return size;
+  }
+
+  /** @return how many milliseconds the upload took, including retries */
+  public long getDuration() {
+    return duration;
+  }
+
+  public boolean isSuccessful() {
+    return error == null;
+  }
+
+  /** @return the reason why the upload failed, or null if it succeeded */
+  public SDKException getError() {
+    return error;
+  }
+
+  @Override
+  public String toString() {
+    return "PackageUploadResult{"
+        + "file="
+        + file.getName()
+        + ", size="
+        + size
+        + ", duration="
+        + duration
+        + (error == null ? ", sha256=" + sha256 : ", error=" + error.getMessage())
+        + '}';
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.openbaton.sdk.api.tracing.Phase;
+import org.openbaton.sdk.api.tracing.RequestSpan;
+
+/**
+ * Collects the phase durations of one attempt of a blocking request and reports them to its
+ * RequestSpan. While the HttpClient executes the request, the timer is bound to the calling thread,
+ * which is how the connection manager, the socket factories and the request executor of the session
+ * find it. Afterwards the DECODE phase lasts until the response body is read completely or the
+ * response is closed, i.e. until its connection is released, and then the span is ended.
+ */
+class PhaseTimer {
+
+  private static final ThreadLocal<PhaseTimer> current = new ThreadLocal<>();
+
+  private final RequestSpan span;
+  // -1 for the phases which did not happen
+  private final long[] durations = new long[Phase.values().length];
+  private long headersReceived;
+  private int status;
+  // the connection was released, no more of the response will be read
+  private boolean released;
+  private boolean ended;
+
+  private PhaseTimer(RequestSpan span) {
+    this.span = span;
+    for (int i = 0; i < durations.length; i++) {
+      durations[i] = -1;
+    }
+  }
+
+  /**
+   * Create a timer for the span and bind it to the current thread.
+   *
+   * @param span the span of the attempt
+   * @return the timer
+   */
+  static PhaseTimer start(RequestSpan span) {
+    PhaseTimer timer = new PhaseTimer(span);
+    current.set(timer);
+    return timer;
+  }
+
+  /** @return the timer bound to the current thread, or null if no request is being executed */
+  static PhaseTimer current() {
+    return current.get();
+  }
+
+  /** Add the duration of a phase to the timer bound to the current thread, if there is one. */
+  static void record(Phase phase, long durationNanos) {
+    PhaseTimer timer = current.get();
+    if (timer != null) {
+      timer.add(phase, durationNanos);
+    }
+  }
+
+  void add(Phase phase, long durationNanos) {
+    int index = phase.ordinal();
+    durations[index] = Math.max(durations[index], 0) + durationNanos;
+  }
+
+  /** @return the duration of the phase so far, 0 if it did not happen */
+  long get(Phase phase) {
+    return Math.max(durations[phase.ordinal()], 0);
+  }
+
+  /**
+   * Unbind the timer from the current thread once the response headers arrived. The span ends when
+   * the body of the response was read, or at once if it has none.
+   *
+   * @param response the response
+   */
+  synchronized void responseReceived(HttpResponse response) {
+    current.remove();
+    headersReceived = System.nanoTime();
+    status = response.getStatusLine().getStatusCode();
+    HttpEntity entity = response.getEntity();
+    if (entity == null || released) {
+      end(status, null);
+    } else {
+      response.setEntity(new TimedEntity(entity, status));
+    }
+  }
+
+  /**
+   * Unbind the timer from the current thread and end the span of a request which failed before a
+   * response arrived.
+   *
+   * @param error the reason
+   */
+  void failed(Throwable error) {
+    current.remove();
+    end(0, error);
+  }
+
+  /**
+   * End the span once the connection of the request was released, because the response was read
+   * completely, closed without reading its body or aborted. A connection without a response to read
+   * is released before the response is received, and then the span ends with that.
+   */
+  synchronized void connectionReleased() {
+    released = true;
+    if (headersReceived != 0) {
+      end(status, null);
+    }
+  }
+
+  private synchronized void end(int status, Throwable error) {
+    if (ended) {
+      return;
+    }
+    ended = true;
+    if (headersReceived != 0) {
+      add(Phase.DECODE, System.nanoTime() - headersReceived);
+    }
+    for (Phase phase : Phase.values()) {
+      if (durations[phase.ordinal()] >= 0) {
+        span.recordPhase(phase, durations[phase.ordinal()]);
+      }
+    }
+    span.end(status, error);
+  }
+
+  /** Ends the span once the content is read completely or closed. */
+  private final class TimedEntity extends HttpEntityWrapper {
+
+    private final int status;
+
+    private TimedEntity(HttpEntity entity, int status) {
+      super(entity);
+      this.status = status;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+      return new FilterInputStream(wrappedEntity.getContent()) {
+        @Override
+        public int read() throws IOException {
+          int b = super.read();
+          if (b == -1) {
+            end(status, null);
+          }
+          return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+          int read = super.read(b, off, len);
+          if (read == -1) {
+            end(status, null);
+          }
+          return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          } finally {
+            end(status, null);
+          }
+        }
+      };
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+      try {
+        super.writeTo(outStream);
+      } finally {
+        end(status, null);
+      }
+    }
+  }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+/** Gets notified about the progress of an upload. */
+public interface ProgressListener {
+
+  /**
+   * Called from the uploading thread every progressInterval bytes and once the whole file is sent.
+   * If the upload is retried, the number of sent bytes starts from 0 again.
+   *
+   * @param fileName the name of the uploaded file
+   * @param bytesSent the number of bytes of the file sent so far
+   * @param totalBytes the size of the file
+   */
+  void progress(String fileName, long bytesSent, long totalBytes);
+}
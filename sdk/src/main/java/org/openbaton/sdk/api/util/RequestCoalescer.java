@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openbaton.sdk.api.exception.SDKException;
+
+/**
+ * Lets concurrent identical GET requests share one request to the NFVO. The first thread asking for
+ * a key sends the request, the threads asking for the same key while it is in flight wait for it
+ * and get the same result, or the same exception. Once the request is answered the key is free
+ * again, so nothing is cached.
+ *
+ * <p>The waiting threads get the very same decoded object as the thread which sent the request, so
+ * callers must not modify the objects returned while coalescing is enabled. The RequestCoalescer
+ * class is thread safe.
+ */
+public class RequestCoalescer {
+
+  /** Sends a request and decodes its response. */
+  interface Loader<R> {
+    R load() throws IOException, SDKException;
+  }
+
+  private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight =
+      new ConcurrentHashMap<>();
+  private final AtomicLong requests = new AtomicLong();
+  private final AtomicLong coalesced = new AtomicLong();
+
+  /**
+   * Run the loader, unless another thread is already running it for the same key, in which case its
+   * result is returned.
+   *
+   * @param key identifies the request, e.g. project, url and type of the result
+   * @param loader sends the request
+   * @return the result of the loader
+   * @throws IOException if the request could not be sent
+   * @throws SDKException if the request failed
+   */
+  @SuppressWarnings("unchecked")
+  <R> R execute(String key, Loader<R> loader) throws IOException, SDKException {
+    CompletableFuture<Object> future = new CompletableFuture<>();
+    CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+    if (existing != null) {
+      coalesced.incrementAndGet();
+      return (R) await(existing);
+    }
+    requests.incrementAndGet();
+    try {
+      R result = loader.load();
+      future.complete(result);
+      return result;
+    } catch (IOException | SDKException | RuntimeException | Error e) {
+      future.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, future);
+    }
+  }
+
+  /** @return the number of requests actually sent */
+  public long getRequestCount() {
+    return requests.get();
+  }
+
+  /** @return the number of requests which were not sent because an identical one was in flight */
+  public long getCoalescedCount() {
+    return coalesced.get();
+  }
+
+  /** @return the number of requests in flight right now */
+  public int getInFlightCount() {
+    return inFlight.size();
+  }
+
+  private Object await(CompletableFuture<Object> future) throws IOException, SDKException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for an identical request");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof SDKException) {
+        throw (SDKException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new SDKException(cause);
+    }
+  }
+}
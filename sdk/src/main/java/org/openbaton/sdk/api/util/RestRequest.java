@@ -18,67 +18,53 @@
 package org.openbaton.sdk.api.util;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import com.mashape.unirest.http.JsonNode;
+import com.google.gson.stream.JsonReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.io.Serializable;
+import java.io.StringReader;
 import java.lang.reflect.Array;
 import java.lang.reflect.Type;
 import java.net.HttpURLConnection;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.security.KeyManagementException;
-import java.security.KeyStoreException;
-import java.security.NoSuchAlgorithmException;
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import javax.net.ssl.SSLContext;
-import org.apache.commons.codec.binary.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.config.RequestConfig;
-import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpDelete;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
-import org.apache.http.config.Registry;
-import org.apache.http.config.RegistryBuilder;
-import org.apache.http.conn.HttpHostConnectException;
-import org.apache.http.conn.socket.ConnectionSocketFactory;
-import org.apache.http.conn.ssl.NoopHostnameVerifier;
-import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
-import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.HttpEntityWrapper;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
-import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.message.BasicHeader;
-import org.apache.http.message.BasicNameValuePair;
-import org.apache.http.ssl.SSLContexts;
 import org.apache.http.util.EntityUtils;
 import org.openbaton.catalogue.nfvo.VNFPackage;
-import org.openbaton.catalogue.nfvo.viminstances.BaseVimInstance;
-import org.openbaton.exceptions.NotFoundException;
-import org.openbaton.nfvo.common.configuration.NfvoGsonDeserializerVimInstance;
-import org.openbaton.nfvo.common.configuration.NfvoGsonSerializerVimInstance;
-import org.openbaton.nfvo.common.utils.key.KeyHelper;
+import org.openbaton.sdk.api.exception.BulkheadFullException;
+import org.openbaton.sdk.api.exception.CircuitBreakerOpenException;
 import org.openbaton.sdk.api.exception.SDKException;
+import org.openbaton.sdk.api.metrics.EndpointNormalizer;
+import org.openbaton.sdk.api.metrics.SdkMetrics;
+import org.openbaton.sdk.api.tracing.RequestSpan;
+import org.openbaton.sdk.api.tracing.TraceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /** OpenBaton api request abstraction for all requester. Shares common data and methods. */
 public abstract class RestRequest {
 
-  private static final String KEY_FILE_PATH = "/etc/openbaton/service-key";
-  private static final String SDK_PROPERTIES_FILE = "sdk.api.properties";
-  private String serviceKey;
-
   private Logger log = LoggerFactory.getLogger(this.getClass());
   protected final String baseUrl;
   protected final String pathUrl;
@@ -86,12 +72,7 @@ public abstract class RestRequest {
   //	protected final String url;
 
   protected Gson mapper;
-  private String username;
-  private String password;
-  private boolean isService;
-  private String serviceName;
-  private String serviceTokenUrl;
-  private static final PropertyReader propertyReader = new PropertyReader(SDK_PROPERTIES_FILE);
+  private final RestSession session;
 
   public String getProjectId() {
     return projectId;
@@ -102,18 +83,10 @@ public abstract class RestRequest {
   }
 
   private String projectId;
-  private String authStr = "openbatonOSClient" + ":" + "secret";
-  private String encoding = Base64.encodeBase64String(authStr.getBytes());
-  private final String provider;
-  private String token = null;
-  private String bearerToken = null;
-
-  private CloseableHttpClient httpClient;
-  private RequestConfig config =
-      RequestConfig.custom().setConnectionRequestTimeout(10000).setConnectTimeout(60000).build();
 
   /**
-   * RestRequest constructor for normal users.
+   * RestRequest constructor for normal users. The request gets its own RestSession, use {@link
+   * #RestRequest(RestSession, String, String)} to share one between several requests.
    *
    * @param username
    * @param password
@@ -133,34 +106,15 @@ public abstract class RestRequest {
       String nfvoPort,
       String path,
       String version) {
-    if (sslEnabled) {
-      this.baseUrl = "https://" + nfvoIp + ":" + nfvoPort + "/api/v" + version;
-      this.provider = "https://" + nfvoIp + ":" + nfvoPort + "/oauth/token";
-      this.httpClient = getHttpClientForSsl();
-    } else {
-      this.baseUrl = "http://" + nfvoIp + ":" + nfvoPort + "/api/v" + version;
-      this.provider = "http://" + nfvoIp + ":" + nfvoPort + "/oauth/token";
-      this.httpClient =
-          HttpClientBuilder.create()
-              .setDefaultRequestConfig(config)
-              .setConnectionManager(new PoolingHttpClientConnectionManager())
-              .build();
-    }
-    this.pathUrl = this.baseUrl + path;
-    this.serviceTokenUrl = this.baseUrl + propertyReader.getRestUrl("Service") + "/register";
-    this.username = username;
-    this.password = password;
-    this.isService = false;
-    this.projectId = projectId;
-
-    GsonBuilder builder = new GsonBuilder();
-    builder.registerTypeAdapter(BaseVimInstance.class, new NfvoGsonDeserializerVimInstance());
-    builder.registerTypeAdapter(BaseVimInstance.class, new NfvoGsonSerializerVimInstance());
-    this.mapper = builder.setPrettyPrinting().create();
+    this(
+        new RestSession(username, password, sslEnabled, nfvoIp, nfvoPort, version),
+        projectId,
+        path);
   }
 
   /**
-   * RestRequest constructor for services.
+   * RestRequest constructor for services. The request gets its own RestSession, use {@link
+   * #RestRequest(RestSession, String, String)} to share one between several requests.
    *
    * @param serviceName
    * @param projectId
@@ -181,31 +135,30 @@ public abstract class RestRequest {
       String path,
       String version,
       String serviceKey) {
-    if (serviceKey == null) throw new IllegalArgumentException("The service key must not be null");
-    if (sslEnabled) {
-      this.baseUrl = "https://" + nfvoIp + ":" + nfvoPort + "/api/v" + version;
-      this.provider = "https://" + nfvoIp + ":" + nfvoPort + "/oauth/token";
-      this.httpClient = getHttpClientForSsl();
-    } else {
-      this.baseUrl = "http://" + nfvoIp + ":" + nfvoPort + "/api/v" + version;
-      this.provider = "http://" + nfvoIp + ":" + nfvoPort + "/oauth/token";
-      this.httpClient =
-          HttpClientBuilder.create()
-              .setDefaultRequestConfig(config)
-              .setConnectionManager(new PoolingHttpClientConnectionManager())
-              .build();
-    }
+    this(
+        new RestSession(serviceName, sslEnabled, nfvoIp, nfvoPort, version, serviceKey),
+        projectId,
+        path);
+  }
+
+  /**
+   * RestRequest constructor using a RestSession which may be shared with other requests.
+   *
+   * @param session the session providing the HttpClient, the mapper and the access token
+   * @param projectId the NFVO Project's ID that will be used in the requests to the NFVO
+   * @param path the path of the resource, appended to the session's base url
+   */
+  public RestRequest(RestSession session, String projectId, String path) {
+    this.session = session;
+    this.baseUrl = session.getBaseUrl();
     this.pathUrl = this.baseUrl + path;
-    this.serviceTokenUrl = this.baseUrl + propertyReader.getRestUrl("Service") + "/register";
-    this.serviceName = serviceName;
-    this.isService = true;
     this.projectId = projectId;
-    this.serviceKey = serviceKey.trim();
+    this.mapper = session.getMapper();
+  }
 
-    GsonBuilder builder = new GsonBuilder();
-    builder.registerTypeAdapter(BaseVimInstance.class, new NfvoGsonDeserializerVimInstance());
-    builder.registerTypeAdapter(BaseVimInstance.class, new NfvoGsonSerializerVimInstance());
-    this.mapper = builder.setPrettyPrinting().create();
+  /** @return the RestSession used by this request */
+  public RestSession getSession() {
+    return session;
   }
 
   /**
@@ -216,67 +169,29 @@ public abstract class RestRequest {
    * @throws SDKException if the request fails
    */
   public String requestPost(final String id) throws SDKException {
-    CloseableHttpResponse response = null;
-    HttpPost httpPost = null;
-    try {
-      log.debug("pathUrl: " + pathUrl);
-      log.debug("id: " + pathUrl + "/" + id);
-
-      checkToken();
-
-      // call the api here
-      log.debug("Executing post on: " + this.pathUrl + "/" + id);
-      httpPost = new HttpPost(this.pathUrl + "/" + id);
-      preparePostHeader(httpPost, "application/json", "application/json");
-
-      response = httpClient.execute(httpPost);
+    log.debug("pathUrl: " + pathUrl);
+    log.debug("id: " + pathUrl + "/" + id);
 
-      // check response status
-      RestUtils.checkStatus(response, HttpURLConnection.HTTP_CREATED);
+    // call the api here
+    log.debug("Executing post on: " + this.pathUrl + "/" + id);
+    try (CloseableHttpResponse response =
+        execute(
+            () -> createPost(this.pathUrl + "/" + id, "application/json", "application/json"),
+            HttpURLConnection.HTTP_CREATED)) {
       // return the response of the request
       String result = "";
       if (response.getEntity() != null) {
         result = EntityUtils.toString(response.getEntity());
       }
-      response.close();
       log.trace("received: " + result);
-
-      httpPost.releaseConnection();
       return result;
     } catch (IOException e) {
       // catch request exceptions here
       log.error(e.getMessage(), e);
-      if (httpPost != null) {
-        httpPost.releaseConnection();
-      }
       throw new SDKException(
           "Could not http-post or open the object properly",
           e.getStackTrace(),
           "Could not http-post or open the object properly because: " + e.getMessage());
-    } catch (SDKException e) {
-      if (response.getStatusLine().getStatusCode() == HttpStatus.SC_UNAUTHORIZED) {
-        token = null;
-        if (httpPost != null) {
-          httpPost.releaseConnection();
-        }
-        return requestPost(id);
-      } else {
-        if (httpPost != null) {
-          httpPost.releaseConnection();
-        }
-        try {
-          throw new SDKException(
-              "Status is " + response.getStatusLine().getStatusCode(),
-              new StackTraceElement[0],
-              EntityUtils.toString(response.getEntity()));
-        } catch (IOException e1) {
-          e1.printStackTrace();
-          throw new SDKException(
-              "Status is " + response.getStatusLine().getStatusCode(),
-              new StackTraceElement[0],
-              "could not provide reason because: " + e.getMessage());
-        }
-      }
     }
   }
 
@@ -295,8 +210,6 @@ public abstract class RestRequest {
   public Serializable requestPost(
       final String id, final Serializable object, final String acceptMime, final String contentMime)
       throws SDKException {
-    CloseableHttpResponse response = null;
-    HttpPost httpPost = null;
     try {
       log.trace("Object is: " + object);
       String fileJSONNode;
@@ -306,106 +219,61 @@ public abstract class RestRequest {
         fileJSONNode = mapper.toJson(object);
       }
 
-      log.trace("sending: " + fileJSONNode.toString());
+      log.trace("sending: " + fileJSONNode);
       log.debug("pathUrl: " + pathUrl);
       log.debug("id: " + pathUrl + "/" + id);
 
-      checkToken();
-
       // call the api here
       log.debug("Executing post on: " + this.pathUrl + "/" + id);
-      httpPost = new HttpPost(this.pathUrl + "/" + id);
-      preparePostHeader(httpPost, acceptMime, contentMime);
-      httpPost.setEntity(new StringEntity(fileJSONNode));
-
-      response = httpClient.execute(httpPost);
-
-      // check response status
-      RestUtils.checkStatus(response, HttpURLConnection.HTTP_CREATED);
-      // return the response of the request
-      Serializable result = null;
-      if (response.getEntity() != null) {
-        result = EntityUtils.toByteArray(response.getEntity());
+      HttpEntity entity = session.compressRequestEntity(new StringEntity(fileJSONNode));
+      try (CloseableHttpResponse response =
+          execute(
+              () -> createPost(this.pathUrl + "/" + id, acceptMime, contentMime, entity),
+              HttpURLConnection.HTTP_CREATED)) {
+        // return the response of the request
+        Serializable result = null;
+        if (response.getEntity() != null) {
+          result = EntityUtils.toByteArray(response.getEntity());
+        }
+        return result;
       }
-      return result;
     } catch (IOException e) {
       // catch request exceptions here
       log.error(e.getMessage(), e);
-      if (httpPost != null) {
-        httpPost.releaseConnection();
-      }
       throw new SDKException(
           "Could not http-post or open the object properly",
           e.getStackTrace(),
           "Could not http-post or open the object properly because: " + e.getMessage());
-    } catch (SDKException e) {
-      if (response != null
-          && response.getStatusLine().getStatusCode() == HttpStatus.SC_UNAUTHORIZED) {
-        token = null;
-        if (httpPost != null) {
-          httpPost.releaseConnection();
-        }
-        return requestPost(id);
-      } else if (response != null) {
-        throw e;
-      } else {
-        throw e;
-      }
     }
   }
 
   /**
-   * Add accept, content-type, projectId and token headers to an HttpPost object.
+   * Create an HttpPost with the accept and content-type headers.
    *
-   * @param httpPost
-   * @param acceptMimeType
-   * @param contentMimeType
+   * @param url the url of the request
+   * @param acceptMimeType the accepted mime type, null or empty for none
+   * @param contentMimeType the mime type of the content, null or empty for none
+   * @return the HttpPost
    */
-  private void preparePostHeader(HttpPost httpPost, String acceptMimeType, String contentMimeType) {
+  private HttpPost createPost(String url, String acceptMimeType, String contentMimeType) {
+    HttpPost httpPost = new HttpPost(url);
     if (acceptMimeType != null && !acceptMimeType.equals("")) {
       httpPost.setHeader(new BasicHeader("accept", acceptMimeType));
     }
     if (contentMimeType != null && !contentMimeType.equals("")) {
       httpPost.setHeader(new BasicHeader("Content-Type", contentMimeType));
     }
-    httpPost.setHeader(new BasicHeader("project-id", projectId));
-    if (token != null && bearerToken != null) {
-      httpPost.setHeader(new BasicHeader("authorization", bearerToken.replaceAll("\"", "")));
-    }
+    return httpPost;
   }
 
-  private CloseableHttpResponse genericPost(
-      String id, Serializable object, String acceptMimeType, String contentMimeType)
-      throws SDKException, IOException {
-    CloseableHttpResponse response = null;
-    HttpPost httpPost = null;
-    log.trace("Object is: " + object);
-    String fileJSONNode;
-    if (object instanceof String) {
-      fileJSONNode = (String) object;
-    } else {
-      fileJSONNode = mapper.toJson(object);
-    }
-
-    log.trace("sending: " + fileJSONNode.toString());
-    log.debug("pathUrl: " + pathUrl);
-    log.debug("id: " + pathUrl + "/" + id);
-
-    checkToken();
-
-    // call the api here
-    log.debug("Executing post on: " + this.pathUrl + "/" + id);
-    httpPost = new HttpPost(this.pathUrl + "/" + id);
-    preparePostHeader(httpPost, acceptMimeType, contentMimeType);
-    httpPost.setEntity(new StringEntity(fileJSONNode));
-
-    response = httpClient.execute(httpPost);
-    return response;
+  private HttpPost createPost(
+      String url, String acceptMimeType, String contentMimeType, HttpEntity entity) {
+    HttpPost httpPost = createPost(url, acceptMimeType, contentMimeType);
+    httpPost.setEntity(entity);
+    return httpPost;
   }
 
   public Serializable requestPost(final String id, final Serializable object) throws SDKException {
-    CloseableHttpResponse response = null;
-    HttpPost httpPost = null;
     try {
       log.trace("Object is: " + object);
       String fileJSONNode;
@@ -415,70 +283,37 @@ public abstract class RestRequest {
         fileJSONNode = mapper.toJson(object);
       }
 
-      log.trace("sending: " + fileJSONNode.toString());
+      log.trace("sending: " + fileJSONNode);
       log.debug("pathUrl: " + pathUrl);
       log.debug("id: " + pathUrl + "/" + id);
 
-      checkToken();
-
       // call the api here
       log.debug("Executing post on: " + this.pathUrl + "/" + id);
-      httpPost = new HttpPost(this.pathUrl + "/" + id);
-      if (!(object instanceof String)) {
-        preparePostHeader(httpPost, "application/json", "application/json");
-      } else {
-        preparePostHeader(httpPost, null, null);
-      }
-      httpPost.setEntity(new StringEntity(fileJSONNode));
-
-      response = httpClient.execute(httpPost);
-
-      // check response status
-      RestUtils.checkStatus(response, HttpURLConnection.HTTP_CREATED);
-      // return the response of the request
-      String result = "";
-      if (response.getEntity() != null) {
-        result = EntityUtils.toString(response.getEntity());
-      }
-
-      if (response.getStatusLine().getStatusCode() != HttpURLConnection.HTTP_NO_CONTENT) {
+      String mimeType = object instanceof String ? null : "application/json";
+      HttpEntity entity = session.compressRequestEntity(new StringEntity(fileJSONNode));
+      try (CloseableHttpResponse response =
+          execute(
+              () -> createPost(this.pathUrl + "/" + id, mimeType, mimeType, entity),
+              HttpURLConnection.HTTP_CREATED)) {
+        // return the response of the request
         if (object instanceof String) {
+          String result = "";
+          if (response.getEntity() != null) {
+            result = EntityUtils.toString(response.getEntity());
+          }
+          log.trace("received: " + result);
           return result;
         }
-        JsonParser jsonParser = new JsonParser();
-        JsonElement jsonElement = jsonParser.parse(result);
-        result = mapper.toJson(jsonElement);
-        log.trace("received: " + result);
-
         log.trace("Casting it into: " + object.getClass());
-        return mapper.fromJson(result, object.getClass());
+        return readEntity(response.getEntity(), object.getClass());
       }
-      response.close();
-      httpPost.releaseConnection();
-      return null;
     } catch (IOException e) {
       // catch request exceptions here
       log.error(e.getMessage(), e);
-      if (httpPost != null) {
-        httpPost.releaseConnection();
-      }
       throw new SDKException(
           "Could not http-post or open the object properly",
           e.getStackTrace(),
           "Could not http-post or open the object properly because: " + e.getMessage());
-    } catch (SDKException e) {
-      if (response != null
-          && response.getStatusLine().getStatusCode() == HttpStatus.SC_UNAUTHORIZED) {
-        token = null;
-        if (httpPost != null) {
-          httpPost.releaseConnection();
-        }
-        return requestPost(id);
-      } else if (response != null) {
-        throw e;
-      } else {
-        throw e;
-      }
     }
   }
 
@@ -496,79 +331,33 @@ public abstract class RestRequest {
    */
   public Serializable requestPost(final String id, final Serializable object, final Type type)
       throws SDKException {
-    CloseableHttpResponse response = null;
-    HttpPost httpPost = null;
     try {
       log.trace("Object is: " + object);
       String fileJSONNode = mapper.toJson(object);
-      log.trace("sending: " + fileJSONNode.toString());
+      log.trace("sending: " + fileJSONNode);
       log.debug("pathUrl: " + pathUrl);
       log.debug("id: " + pathUrl + "/" + id);
 
-      checkToken();
-
       // call the api here
       log.debug("Executing post on: " + this.pathUrl + "/" + id);
-      httpPost = new HttpPost(this.pathUrl + "/" + id);
-      preparePostHeader(httpPost, "application/json", "application/json");
-      httpPost.setEntity(new StringEntity(fileJSONNode));
-
-      response = httpClient.execute(httpPost);
-
-      // check response status
-      RestUtils.checkStatus(response, HttpURLConnection.HTTP_CREATED);
-      // return the response of the request
-      String result = "";
-      if (response.getEntity() != null) {
-        result = EntityUtils.toString(response.getEntity());
-      }
-
-      if (response.getStatusLine().getStatusCode() != HttpURLConnection.HTTP_NO_CONTENT) {
-        JsonParser jsonParser = new JsonParser();
-        JsonElement jsonElement = jsonParser.parse(result);
-        result = mapper.toJson(jsonElement);
-        log.trace("received: " + result);
-
+      HttpEntity entity = session.compressRequestEntity(new StringEntity(fileJSONNode));
+      try (CloseableHttpResponse response =
+          execute(
+              () ->
+                  createPost(
+                      this.pathUrl + "/" + id, "application/json", "application/json", entity),
+              HttpURLConnection.HTTP_CREATED)) {
+        // return the response of the request
         log.trace("Casting it into: " + type);
-        return mapper.fromJson(result, type);
+        return readEntity(response.getEntity(), type);
       }
-      response.close();
-      httpPost.releaseConnection();
-      return null;
     } catch (IOException e) {
       // catch request exceptions here
       log.error(e.getMessage(), e);
-      if (httpPost != null) {
-        httpPost.releaseConnection();
-      }
       throw new SDKException(
           "Could not http-post or open the object properly",
           e.getStackTrace(),
           "Could not http-post or open the object properly because: " + e.getMessage());
-    } catch (SDKException e) {
-      if (response.getStatusLine().getStatusCode() == HttpStatus.SC_UNAUTHORIZED) {
-        token = null;
-        if (httpPost != null) {
-          httpPost.releaseConnection();
-        }
-        return requestPost(id);
-      } else {
-        if (httpPost != null) {
-          httpPost.releaseConnection();
-        }
-        try {
-          throw new SDKException(
-              "Status is " + response.getStatusLine().getStatusCode(),
-              new StackTraceElement[0],
-              EntityUtils.toString(response.getEntity()));
-        } catch (IOException e1) {
-          e1.printStackTrace();
-          throw new SDKException(
-              "Status is " + response.getStatusLine().getStatusCode(),
-              new StackTraceElement[0],
-              "could not provide reason because: " + e.getMessage());
-        }
-      }
     }
   }
 
@@ -580,74 +369,325 @@ public abstract class RestRequest {
    * @throws SDKException if the request fails
    */
   public VNFPackage requestPostPackage(final File f) throws SDKException {
-    CloseableHttpResponse response = null;
-    HttpPost httpPost = null;
+    return requestPostPackage(f, new PackageUploadOptions()).getVnfPackage();
+  }
 
+  /**
+   * Used to upload tar files to the NFVO for creating VNFPackages. The file is streamed to the
+   * connection in a multipart request without being loaded into memory, and its SHA-256 checksum is
+   * computed while it is sent.
+   *
+   * @param f the tar file containing the VNFPackage
+   * @param options the progress listener, transfer encoding and timeout of the upload
+   * @return the created VNFPackage object together with the checksum of the file
+   * @throws SDKException if the request fails
+   */
+  public PackageUploadResult requestPostPackage(final File f, PackageUploadOptions options)
+      throws SDKException {
+    log.debug("Executing post on " + pathUrl);
+    ChecksumFileBody body = new ChecksumFileBody(f, options);
+    HttpEntity multipart = MultipartEntityBuilder.create().addPart("file", body).build();
+    HttpEntity entity = options.isChunked() ? new ChunkedEntity(multipart) : multipart;
+    RequestConfig requestConfig =
+        options.getSocketTimeout() == null
+            ? null
+            : RequestConfig.copy(session.getRequestConfig())
+                .setSocketTimeout(options.getSocketTimeout())
+                .build();
+
+    long start = System.nanoTime();
+    CloseableHttpResponse response;
     try {
-      checkToken();
-      log.debug("Executing post on " + pathUrl);
-      httpPost = new HttpPost(this.pathUrl);
-      preparePostHeader(httpPost, "application/json", null);
-
-      MultipartEntityBuilder multipartEntityBuilder = MultipartEntityBuilder.create();
-      multipartEntityBuilder.addBinaryBody("file", f);
-      httpPost.setEntity(multipartEntityBuilder.build());
-
-      response = httpClient.execute(httpPost);
+      response =
+          execute(
+              () -> {
+                HttpPost httpPost = createPost(this.pathUrl, "application/json", null, entity);
+                if (requestConfig != null) {
+                  httpPost.setConfig(requestConfig);
+                }
+                return httpPost;
+              },
+              HttpURLConnection.HTTP_OK);
     } catch (IOException e) {
-      httpPost.releaseConnection();
       throw new SDKException(
           "Could not create VNFPackage from file " + f.getName(),
           e.getStackTrace(),
           e.getMessage());
     }
 
-    // check response status
-    RestUtils.checkStatus(response, HttpURLConnection.HTTP_OK);
     // return the response of the request
-    String result = "";
-    if (response.getEntity() != null) {
-      try {
-        result = EntityUtils.toString(response.getEntity());
-      } catch (IOException e) {
-        e.printStackTrace();
-      }
+    try {
+      log.debug("Uploaded the VNFPackage, its SHA-256 checksum is " + body.getSha256());
+      log.trace("Casting it into: " + VNFPackage.class);
+      VNFPackage vnfPackage = readEntity(response.getEntity(), VNFPackage.class);
+      return new PackageUploadResult(
+          f,
+          vnfPackage,
+          body.getSha256(),
+          f.length(),
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+          null);
+    } catch (IOException e) {
+      throw new SDKException(
+          "Could not read the VNFPackage created from file " + f.getName(),
+          e.getStackTrace(),
+          e.getMessage());
+    } finally {
+      closeResponse(response);
     }
+  }
 
-    if (response.getStatusLine().getStatusCode() != HttpURLConnection.HTTP_NO_CONTENT) {
-      JsonParser jsonParser = new JsonParser();
-      JsonElement jsonElement = jsonParser.parse(result);
-      result = mapper.toJson(jsonElement);
-      log.debug("Uploaded the VNFPackage");
-      log.trace("received: " + result);
+  /**
+   * Deserializes the entity of a response directly from its content stream into the given type,
+   * without copying the body into a String first. Closing the stream consumes what is left of the
+   * entity, so the connection can be reused afterwards.
+   *
+   * @param entity the response entity, may be null
+   * @param type the type to which the json content is mapped
+   * @return the deserialized object, or null if the response has no content
+   * @throws IOException if the content cannot be read
+   */
+  private <R> R readEntity(HttpEntity entity, Type type) throws IOException {
+    if (entity == null) {
+      return null;
+    }
+    try (JsonReader reader = createReader(entity)) {
+      return mapper.fromJson(reader, type);
+    }
+  }
 
-      log.trace("Casting it into: " + VNFPackage.class);
-      httpPost.releaseConnection();
-      return mapper.fromJson(result, VNFPackage.class);
+  private JsonReader createReader(HttpEntity entity) throws IOException {
+    if (entity == null) {
+      return new JsonReader(new StringReader(""));
+    }
+    Charset charset = ContentType.getOrDefault(entity).getCharset();
+    return new JsonReader(
+        new InputStreamReader(
+            entity.getContent(), charset != null ? charset : StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Sends a request to the NFVO and checks the status of its response. The project-id and
+   * authorization headers are set on every attempt. If the NFVO rejects the access token, the
+   * request is sent again with a new one, at most as often as the session's maxUnauthorizedRetries
+   * allows, so a NFVO which keeps rejecting the token does not cause an endless loop. Requests
+   * which fail for other reasons are sent again if the session's RetryPolicy allows it.
+   *
+   * @param requestFactory creates the request, it is called once per attempt
+   * @param httpStatus the expected status of the response
+   * @return the response, which has to be closed by the caller
+   * @throws IOException if the request cannot be sent
+   * @throws SDKException if no token can be obtained or the response has another status
+   */
+  private CloseableHttpResponse execute(
+      Supplier<? extends HttpRequestBase> requestFactory, int httpStatus)
+      throws IOException, SDKException {
+    return execute(requestFactory, httpStatus, false);
+  }
+
+  /**
+   * Like {@link #execute(Supplier, int)}, but also accepts 304 as status of the response if
+   * notModifiedAccepted is true, for conditional requests.
+   */
+  private CloseableHttpResponse execute(
+      Supplier<? extends HttpRequestBase> requestFactory,
+      int httpStatus,
+      boolean notModifiedAccepted)
+      throws IOException, SDKException {
+    TokenManager tokenManager = session.getTokenManager();
+    RetryPolicy retryPolicy = session.getSessionConfig().getRetryPolicy();
+    RetryStatistics statistics = session.getRetryStatistics();
+    SdkMetrics metrics = session.getMetrics();
+    // the attempts of the RetryPolicy, a re-send with a new token does not count as one
+    int attempt = 1;
+    int unauthorizedRetries = 0;
+    // one trace for all the attempts, so that the retries can be correlated
+    TraceContext trace = null;
+    while (true) {
+      String authorization = tokenManager.getAuthorizationHeader();
+      HttpRequestBase request = requestFactory.get();
+      if (projectId != null) {
+        request.setHeader(new BasicHeader("project-id", projectId));
+      }
+      if (authorization != null) {
+        request.setHeader(new BasicHeader("authorization", authorization));
+      }
+      String endpoint = EndpointNormalizer.normalize(request.getURI().getRawPath());
+      if (trace == null) {
+        trace = session.getTracer().startTrace(request.getMethod(), endpoint);
+      }
+      statistics.attempt();
+      CloseableHttpResponse response;
+      try {
+        response = send(request, endpoint, trace);
+      } catch (IOException e) {
+        if (!retryPolicy.isRetryable(request, e, attempt)) {
+          if (attempt > 1) {
+            statistics.exhausted();
+          }
+          throw e;
+        }
+        long delay = retryPolicy.getDelay(attempt, null);
+        log.warn(
+            "Attempt "
+                + attempt
+                + " of "
+                + request.getMethod()
+                + " on "
+                + request.getURI()
+                + " failed ("
+                + e
+                + "), trying again in "
+                + delay
+                + " ms");
+        statistics.retryOnException(delay);
+        metrics.recordRetry(request.getMethod(), endpoint, "exception");
+        backOff(delay);
+        attempt++;
+        continue;
+      }
+      int statusCode = response.getStatusLine().getStatusCode();
+      if (statusCode == HttpStatus.SC_UNAUTHORIZED
+          && authorization != null
+          && unauthorizedRetries < session.getSessionConfig().getMaxUnauthorizedRetries()) {
+        unauthorizedRetries++;
+        log.debug("The access token was rejected, sending the request again with a new one");
+        EntityUtils.consumeQuietly(response.getEntity());
+        closeResponse(response);
+        tokenManager.invalidate(authorization);
+        statistics.retryOnUnauthorized();
+        metrics.recordUnauthorizedRetry(request.getMethod(), endpoint);
+        continue;
+      }
+      if (statusCode != httpStatus && retryPolicy.isRetryable(request, response, attempt)) {
+        long delay = retryPolicy.getDelay(attempt, response);
+        log.warn(
+            "Attempt "
+                + attempt
+                + " of "
+                + request.getMethod()
+                + " on "
+                + request.getURI()
+                + " returned status "
+                + statusCode
+                + ", trying again in "
+                + delay
+                + " ms");
+        EntityUtils.consumeQuietly(response.getEntity());
+        closeResponse(response);
+        statistics.retryOnStatus(delay);
+        metrics.recordRetry(request.getMethod(), endpoint, "status");
+        backOff(delay);
+        attempt++;
+        continue;
+      }
+      if (statusCode != httpStatus && attempt > 1) {
+        statistics.exhausted();
+      }
+      if (notModifiedAccepted && statusCode == HttpStatus.SC_NOT_MODIFIED) {
+        return response;
+      }
+      try {
+        // check response status
+        RestUtils.checkStatus(response, httpStatus);
+      } catch (SDKException e) {
+        closeResponse(response);
+        throw e;
+      }
+      return response;
     }
-    httpPost.releaseConnection();
-    return null;
   }
 
-  private void checkToken() throws SDKException {
+  /**
+   * Sends a single request, if the circuit breaker and the bulkhead of the session allow it, and
+   * records its outcome in the circuit breaker and the session's metrics. The bulkhead permit is
+   * held until the response headers are received. Every attempt gets a span of the request's trace
+   * from the session's tracer, which ends once the response body was read or the response was
+   * closed.
+   */
+  private CloseableHttpResponse send(HttpRequestBase request, String endpoint, TraceContext trace)
+      throws IOException, SDKException {
+    CircuitBreaker circuitBreaker = session.getCircuitBreaker();
+    Bulkhead bulkhead = session.getBulkhead();
+    if (circuitBreaker != null && !circuitBreaker.tryAcquirePermission()) {
+      throw new CircuitBreakerOpenException(baseUrl, circuitBreaker.getRemainingOpenTime());
+    }
     try {
-      if (this.token == null
-          && ((isService && this.serviceName != null && !this.serviceName.equals(""))
-              || (!((this.username == null && this.username.equals(""))
-                  || (this.password == null || this.password.equals("")))))) {
-        getAccessToken();
+      if (bulkhead != null && !bulkhead.tryAcquire()) {
+        if (circuitBreaker != null) {
+          circuitBreaker.releasePermission();
+        }
+        throw new BulkheadFullException(baseUrl, bulkhead.getMaxConcurrentCalls());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      if (circuitBreaker != null) {
+        circuitBreaker.releasePermission();
+      }
+      throw new InterruptedIOException("Interrupted while waiting to send the request");
+    }
+    RequestSpan span = session.getTracer().startSpan(trace, request.getMethod(), endpoint);
+    String traceparent = span.getTraceparent();
+    if (traceparent != null) {
+      request.setHeader(new BasicHeader("traceparent", traceparent));
+    }
+    PhaseTimer timer = PhaseTimer.start(span);
+    long start = System.nanoTime();
+    int statusCode = 0;
+    try {
+      CloseableHttpResponse response;
+      try {
+        response = session.getHttpClient().execute(request);
+      } catch (IOException | RuntimeException e) {
+        timer.failed(e);
+        throw e;
+      }
+      timer.responseReceived(response);
+      statusCode = response.getStatusLine().getStatusCode();
+      if (circuitBreaker != null) {
+        if (statusCode >= 500) {
+          circuitBreaker.onFailure();
+        } else {
+          circuitBreaker.onSuccess();
+        }
+      }
+      return response;
+    } catch (IOException e) {
+      if (circuitBreaker != null) {
+        circuitBreaker.onFailure();
+      }
+      throw e;
+    } catch (RuntimeException e) {
+      if (circuitBreaker != null) {
+        circuitBreaker.releasePermission();
+      }
+      throw e;
+    } finally {
+      session
+          .getMetrics()
+          .recordRequest(request.getMethod(), endpoint, statusCode, System.nanoTime() - start);
+      if (bulkhead != null) {
+        bulkhead.release();
+      }
+      if (!request.getMethod().equals("GET") && session.getEntityCache() != null) {
+        // whatever the outcome, the cached responses of this agent may be outdated now
+        if (isCacheable()) {
+          session.getEntityCache().invalidate(pathUrl);
+        }
+        for (String path : getAffectedPaths()) {
+          session.getEntityCache().invalidate(baseUrl + path);
+        }
       }
-    } catch (Exception e) {
-      log.error(e.getMessage(), e);
-      throw new SDKException(
-          (isService ? "Could not get service token" : "Could not get user token"),
-          e.getStackTrace(),
-          e.getMessage());
     }
   }
 
-  private JsonNode getJsonNode(Serializable object) throws IOException {
-    return new JsonNode(mapper.toJson(object));
+  private void backOff(long delay) throws InterruptedIOException {
+    try {
+      Thread.sleep(delay);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting to send the request again");
+    }
   }
 
   /**
@@ -657,52 +697,23 @@ public abstract class RestRequest {
    * @throws SDKException if the request fails
    */
   public void requestDelete(final String id) throws SDKException {
-    CloseableHttpResponse response = null;
-    HttpDelete httpDelete = null;
-    try {
-      log.debug("pathUrl: " + pathUrl);
-      log.debug("id: " + pathUrl + "/" + id);
-
-      checkToken();
-
-      // call the api here
-      log.info("Executing delete on: " + this.pathUrl + "/" + id);
-      httpDelete = new HttpDelete(this.pathUrl + "/" + id);
-      httpDelete.setHeader(new BasicHeader("project-id", projectId));
-      if (token != null) {
-        httpDelete.setHeader(new BasicHeader("authorization", bearerToken.replaceAll("\"", "")));
-      }
-
-      response = httpClient.execute(httpDelete);
-
-      // check response status
-      RestUtils.checkStatus(response, HttpURLConnection.HTTP_NO_CONTENT);
-      httpDelete.releaseConnection();
-      // return the response of the request
+    log.debug("pathUrl: " + pathUrl);
+    log.debug("id: " + pathUrl + "/" + id);
 
+    // call the api here
+    log.info("Executing delete on: " + this.pathUrl + "/" + id);
+    try (CloseableHttpResponse response =
+        execute(() -> new HttpDelete(this.pathUrl + "/" + id), HttpURLConnection.HTTP_NO_CONTENT)) {
+      log.trace("Deleted " + this.pathUrl + "/" + id);
     } catch (IOException e) {
       // catch request exceptions here
       log.error(e.getMessage(), e);
-      if (httpDelete != null) {
-        httpDelete.releaseConnection();
-      }
       throw new SDKException("Could not http-delete", e.getStackTrace(), e.getMessage());
+    } catch (CircuitBreakerOpenException | BulkheadFullException e) {
+      throw e;
     } catch (SDKException e) {
-      if (response != null
-          && (response.getStatusLine().getStatusCode() == HttpStatus.SC_UNAUTHORIZED)) {
-        token = null;
-        if (httpDelete != null) {
-          httpDelete.releaseConnection();
-        }
-        requestDelete(id);
-        return;
-      }
       throw new SDKException(
           "Could not http-delete or the api response was wrong", e.getStackTrace(), e.getMessage());
-    } finally {
-      if (httpDelete != null) {
-        httpDelete.releaseConnection();
-      }
     }
   }
 
@@ -729,68 +740,178 @@ public abstract class RestRequest {
     return requestGetAll(url, type, null);
   }
 
-  private Object requestGetAll(String url, Class type, final Integer httpStatus)
+  private Object requestGetAll(final String url, Class type, final Integer httpStatus)
       throws SDKException {
-    CloseableHttpResponse response = null;
-    HttpGet httpGet = null;
+    // call the api here
+    log.debug("Executing get on: " + url);
     try {
-      checkToken();
-
-      // call the api here
-      log.debug("Executing get on: " + url);
-      httpGet = new HttpGet(url);
-      if (projectId != null) {
-        httpGet.setHeader(new BasicHeader("project-id", projectId));
-      }
-      if (token != null) {
-        httpGet.setHeader(new BasicHeader("authorization", bearerToken.replaceAll("\"", "")));
+      // return the response of the request
+      Class<?> aClass = Array.newInstance(type, 0).getClass();
+      log.trace("class is: " + aClass);
+      Object[] o =
+          requestGetEntity(
+              url, httpStatus != null ? httpStatus : HttpURLConnection.HTTP_OK, aClass);
+      if (o == null) {
+        // a response without content contains no elements
+        o = (Object[]) Array.newInstance(type, 0);
       }
+      log.trace("deserialized is: " + Arrays.toString(o));
 
-      response = httpClient.execute(httpGet);
+      return o;
+    } catch (IOException e) {
+      // catch request exceptions here
+      log.error(e.getMessage(), e);
+      throw new SDKException("Could not http-get", e.getStackTrace(), e.getMessage());
+    }
+  }
 
-      // check response status
-      if (httpStatus != null) {
-        RestUtils.checkStatus(response, httpStatus);
-      } else {
-        RestUtils.checkStatus(response, HttpURLConnection.HTTP_OK);
+  /**
+   * Executes a http get and decodes the response. If the session has a RequestCoalescer, threads
+   * asking for the same url, project and type at the same time share one request and its result.
+   *
+   * @param url the url of the request
+   * @param httpStatus the expected status of the response
+   * @param type the type to which the json content is mapped
+   * @return the deserialized object, or null if the response has no content
+   */
+  private <R> R requestGetEntity(final String url, int httpStatus, Type type)
+      throws IOException, SDKException {
+    RequestCoalescer coalescer = session.getRequestCoalescer();
+    if (coalescer == null) {
+      return loadEntity(url, httpStatus, type);
+    }
+    String key = projectId + " " + httpStatus + " " + type.getTypeName() + " " + url;
+    return coalescer.execute(key, () -> this.<R>loadEntity(url, httpStatus, type));
+  }
+
+  /**
+   * Executes a http get and decodes the response. If this agent is cacheable and the session has an
+   * EntityCache, a fresh cached response is used instead of sending the request, and a stale one is
+   * revalidated with a conditional request.
+   */
+  private <R> R loadEntity(final String url, int httpStatus, Type type)
+      throws IOException, SDKException {
+    EntityCache cache = isCacheable() ? session.getEntityCache() : null;
+    if (cache == null) {
+      try (CloseableHttpResponse response = execute(() -> new HttpGet(url), httpStatus)) {
+        return readEntity(response.getEntity(), type);
       }
-      // return the response of the request
-      String result = "";
-      if (response.getEntity() != null) {
-        result = EntityUtils.toString(response.getEntity());
+    }
+    EntityCache.Entry cached = cache.get(projectId, url);
+    if (cached != null && cached.isFresh()) {
+      cache.hit();
+      log.trace("Using the cached response of: " + url);
+      return mapper.fromJson(cached.getBody(), type);
+    }
+    cache.miss();
+    long generation = cache.getGeneration();
+    try (CloseableHttpResponse response =
+        execute(
+            () -> {
+              HttpGet httpGet = new HttpGet(url);
+              if (cached != null) {
+                cached.addConditionalHeaders(httpGet);
+              }
+              return httpGet;
+            },
+            httpStatus,
+            cached != null)) {
+      String body;
+      if (response.getStatusLine().getStatusCode() == HttpStatus.SC_NOT_MODIFIED) {
+        log.trace("The cached response of " + url + " is still valid");
+        cache.revalidated(projectId, url, cached, generation);
+        body = cached.getBody();
+      } else {
+        body =
+            response.getEntity() != null
+                ? EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8)
+                : "";
+        cache.put(
+            projectId,
+            url,
+            body,
+            getHeaderValue(response, "ETag"),
+            getHeaderValue(response, "Last-Modified"),
+            generation);
       }
-      response.close();
-      httpGet.releaseConnection();
-      log.trace("result is: " + result);
+      return mapper.fromJson(body, type);
+    }
+  }
 
-      Class<?> aClass = Array.newInstance(type, 3).getClass();
-      log.trace("class is: " + aClass);
-      Object[] o = (Object[]) this.mapper.fromJson(result, aClass);
-      log.trace("deserialized is: " + Arrays.toString(o));
+  private String getHeaderValue(CloseableHttpResponse response, String name) {
+    Header header = response.getFirstHeader(name);
+    return header != null ? header.getValue() : null;
+  }
 
-      return o;
+  /**
+   * Whether the responses of the GET requests of this agent may be kept in the session's
+   * EntityCache. Agents for entities which rarely change override this to return true.
+   *
+   * @return false by default
+   */
+  protected boolean isCacheable() {
+    return false;
+  }
+
+  /**
+   * The paths of other, cacheable agents, relative to the base url, whose entities are changed by
+   * the POST, PUT and DELETE requests of this agent too, e.g. a VNF package upload creates
+   * VirtualNetworkFunctionDescriptors. Their cached responses are removed together with the ones of
+   * this agent.
+   *
+   * @return no paths by default
+   */
+  protected List<String> getAffectedPaths() {
+    return Collections.emptyList();
+  }
+
+  /**
+   * Remove the cached responses of this agent from the session's EntityCache, if there is one, so
+   * that the next requests ask the NFVO again, e.g. because another client changed the entities.
+   */
+  public void invalidateCache() {
+    if (session.getEntityCache() != null) {
+      session.getEntityCache().invalidate(pathUrl);
+    }
+  }
+
+  /**
+   * Executes a http get on the given id and returns an iterator which decodes the elements of the
+   * returned json array one at a time, instead of mapping the whole array at once. The iterator
+   * holds the connection until all the elements are read or it is closed.
+   *
+   * @param id the id path used for the api request, or null to get all the entities of this path
+   * @param type the class of the elements of the array
+   * @return an iterator over the elements of the returned json array
+   * @throws SDKException if the request fails
+   */
+  protected <E> JsonArrayIterator<E> requestGetAllIterator(final String id, Class<E> type)
+      throws SDKException {
+    String url = id == null ? this.pathUrl : this.pathUrl + "/" + id;
+    CloseableHttpResponse response = null;
+    try {
+      // call the api here
+      log.debug("Executing get on: " + url);
+      response = execute(() -> new HttpGet(url), HttpURLConnection.HTTP_OK);
+      return new JsonArrayIterator<>(response, createReader(response.getEntity()), mapper, type);
     } catch (IOException e) {
       // catch request exceptions here
       log.error(e.getMessage(), e);
-      httpGet.releaseConnection();
+      closeResponse(response);
       throw new SDKException("Could not http-get", e.getStackTrace(), e.getMessage());
-    } catch (SDKException e) {
-      if (response != null) {
-        if (response.getStatusLine().getStatusCode() == HttpStatus.SC_UNAUTHORIZED) {
-          token = null;
-          httpGet.releaseConnection();
-          return requestGetAll(url, type, httpStatus);
-        } else {
-          log.error(e.getMessage(), e);
-          httpGet.releaseConnection();
-          throw new SDKException("Could not authorize", e.getStackTrace(), e.getMessage());
-        }
-      } else {
-        log.error(e.getMessage(), e);
-        if (httpGet != null) {
-          httpGet.releaseConnection();
-        }
-        throw e;
+    }
+  }
+
+  /**
+   * Close the response, whether its body was read or not. This releases the connection, which also
+   * ends the span of the attempt.
+   */
+  private void closeResponse(CloseableHttpResponse response) {
+    if (response != null) {
+      try {
+        response.close();
+      } catch (IOException e) {
+        log.warn("Could not close the response: " + e.getMessage());
       }
     }
   }
@@ -806,73 +927,19 @@ public abstract class RestRequest {
    */
   private Object requestGetWithStatus(final String url, final Integer httpStatus, Class type)
       throws SDKException {
-    CloseableHttpResponse response = null;
-    HttpGet httpGet = null;
+    // call the api here
+    log.debug("Executing get on: " + url);
     try {
-      checkToken();
-
-      // call the api here
-      log.debug("Executing get on: " + url);
-      httpGet = new HttpGet(url);
-      if (projectId != null) {
-        httpGet.setHeader(new BasicHeader("project-id", projectId));
-      }
-      if (token != null) {
-        httpGet.setHeader(new BasicHeader("authorization", bearerToken.replaceAll("\"", "")));
-      }
-
-      response = httpClient.execute(httpGet);
-
-      // check response status
-      if (httpStatus != null) {
-        RestUtils.checkStatus(response, httpStatus);
-      } else {
-        RestUtils.checkStatus(response, HttpURLConnection.HTTP_OK);
-      }
       // return the response of the request
-      String result = "";
-      if (response.getEntity() != null) {
-        result = EntityUtils.toString(response.getEntity());
-      }
-      response.close();
-      httpGet.releaseConnection();
-      log.trace("result is: " + result);
-
-      JsonParser jsonParser = new JsonParser();
-      JsonElement jsonElement = jsonParser.parse(result);
-      result = mapper.toJson(jsonElement);
+      Object result =
+          requestGetEntity(url, httpStatus != null ? httpStatus : HttpURLConnection.HTTP_OK, type);
       log.trace("result is: " + result);
-      Class<?> aClass = Array.newInstance(type, 1).getClass();
-      log.trace("class is: " + aClass);
 
-      return mapper.fromJson(result, type);
+      return result;
     } catch (IOException e) {
       // catch request exceptions here
       log.error(e.getMessage(), e);
-      httpGet.releaseConnection();
       throw new SDKException("Could not http-get", e.getStackTrace(), e.getMessage());
-    } catch (SDKException e) {
-      if (response != null) {
-        if (response.getStatusLine().getStatusCode() == HttpStatus.SC_UNAUTHORIZED) {
-          token = null;
-          httpGet.releaseConnection();
-          return requestGetWithStatus(url, httpStatus, type);
-        } else {
-          log.error(e.getMessage(), e);
-          httpGet.releaseConnection();
-          throw new SDKException("Could not authorize", e.getStackTrace(), e.getMessage());
-        }
-      } else {
-        log.error(e.getMessage(), e);
-        if (httpGet != null) {
-          httpGet.releaseConnection();
-        }
-        throw e;
-      }
-    } finally {
-      if (httpGet != null) {
-        httpGet.releaseConnection();
-      }
     }
   }
 
@@ -900,256 +967,59 @@ public abstract class RestRequest {
    * @throws SDKException if the request fails
    */
   public Serializable requestPut(final String id, final Serializable object) throws SDKException {
-    CloseableHttpResponse response = null;
-    HttpPut httpPut = null;
     try {
       log.trace("Object is: " + object);
       String fileJSONNode = mapper.toJson(object);
 
-      checkToken();
-
       // call the api here
       log.debug("Executing put on: " + this.pathUrl + "/" + id);
-      httpPut = new HttpPut(this.pathUrl + "/" + id);
-      httpPut.setHeader(new BasicHeader("accept", "application/json"));
-      httpPut.setHeader(new BasicHeader("Content-Type", "application/json"));
-      httpPut.setHeader(new BasicHeader("project-id", projectId));
-      if (token != null) {
-        httpPut.setHeader(new BasicHeader("authorization", bearerToken.replaceAll("\"", "")));
-      }
-      httpPut.setEntity(new StringEntity(fileJSONNode));
-
-      response = httpClient.execute(httpPut);
-
-      // check response status
-      RestUtils.checkStatus(response, HttpURLConnection.HTTP_ACCEPTED);
-      // return the response of the request
-      String result = "";
-      if (response.getEntity() != null) {
-        result = EntityUtils.toString(response.getEntity());
-      }
-
-      if (response.getStatusLine().getStatusCode() != HttpURLConnection.HTTP_NO_CONTENT) {
-        response.close();
-        httpPut.releaseConnection();
-        JsonParser jsonParser = new JsonParser();
-        JsonElement jsonElement = jsonParser.parse(result);
-        result = mapper.toJson(jsonElement);
-        log.trace("received: " + result);
-
+      HttpEntity entity = session.compressRequestEntity(new StringEntity(fileJSONNode));
+      try (CloseableHttpResponse response =
+          execute(
+              () -> {
+                HttpPut httpPut = new HttpPut(this.pathUrl + "/" + id);
+                httpPut.setHeader(new BasicHeader("accept", "application/json"));
+                httpPut.setHeader(new BasicHeader("Content-Type", "application/json"));
+                httpPut.setEntity(entity);
+                return httpPut;
+              },
+              HttpURLConnection.HTTP_ACCEPTED)) {
+        // return the response of the request
         log.trace("Casting it into: " + object.getClass());
-        return mapper.fromJson(result, object.getClass());
+        return readEntity(response.getEntity(), object.getClass());
       }
-      response.close();
-      httpPut.releaseConnection();
-      return null;
     } catch (IOException e) {
       // catch request exceptions here
       log.error(e.getMessage(), e);
-      if (httpPut != null) {
-        httpPut.releaseConnection();
-      }
       throw new SDKException(
           "Could not http-put or the api response was wrong or open the object properly",
           e.getStackTrace(),
           e.getMessage());
+    } catch (CircuitBreakerOpenException | BulkheadFullException e) {
+      throw e;
     } catch (SDKException e) {
-      if (response.getStatusLine().getStatusCode() == HttpStatus.SC_UNAUTHORIZED) {
-        token = null;
-        if (httpPut != null) {
-          httpPut.releaseConnection();
-        }
-        return requestPut(id, object);
-      } else {
-        if (httpPut != null) {
-          httpPut.releaseConnection();
-        }
-        throw new SDKException(
-            "Could not http-put or the api response was wrong or open the object properly",
-            e.getStackTrace(),
-            e.getMessage());
-      }
-    } finally {
-      if (httpPut != null) {
-        httpPut.releaseConnection();
-      }
+      throw new SDKException(
+          "Could not http-put or the api response was wrong or open the object properly",
+          e.getStackTrace(),
+          e.getMessage());
     }
   }
 
-  private void getAccessToken() throws IOException, SDKException {
-    if (isService) {
-      try {
-        log.debug("Registering Service " + serviceName);
-
-        String encryptedMessage =
-            KeyHelper.encryptNew(
-                "{\"name\":\"" + serviceName + "\",\"action\":\"register\"}", serviceKey);
-
-        CloseableHttpResponse response = null;
-        HttpPost httpPost = new HttpPost(this.serviceTokenUrl);
-        httpPost.setHeader(new BasicHeader("accept", "application/json"));
-        httpPost.setHeader(new BasicHeader("Content-Type", "text/plain"));
-
-        httpPost.setEntity(new StringEntity(encryptedMessage));
-
-        log.debug("Post: " + httpPost.getURI());
-        response = httpClient.execute(httpPost);
-        RestUtils.checkStatus(response, HttpURLConnection.HTTP_CREATED);
-        String responseString = "";
-        if (response.getEntity() == null) {
-          log.error("The response entity is null when trying to get the access token.");
-          response.close();
-          httpPost.releaseConnection();
-          throw new NullPointerException(
-              "The response entity is null when trying to get the access token.");
-        }
-        responseString = EntityUtils.toString(response.getEntity());
-        JsonObject responseJson;
-        try {
-          responseJson = mapper.fromJson(responseString, JsonObject.class);
-        } catch (Exception e) {
-          log.error("The response does not seem to be valid Json: " + responseString);
-          response.close();
-          httpPost.releaseConnection();
-          throw e;
-        }
-        if (!responseJson.has("token"))
-          throw new NotFoundException(
-              "Did not find the 'token' field in the NFVO's response: "
-                  + mapper.toJson(responseJson));
-        String encryptedToken = "";
-        try {
-          encryptedToken = responseJson.getAsJsonPrimitive("token").getAsString();
-        } catch (Exception e) {
-          log.error(
-              "The 'token' field in the NFVO's response does not seem to be of type String: "
-                  + mapper.toJson(responseJson));
-          response.close();
-          httpPost.releaseConnection();
-          throw e;
-        }
-        response.close();
-        httpPost.releaseConnection();
-
-        String decryptedToken = KeyHelper.decryptNew(encryptedToken, serviceKey);
-        log.trace("Token is: " + decryptedToken);
-        this.token = decryptedToken;
-        this.bearerToken = "Bearer " + this.token;
-      } catch (HttpHostConnectException httpHostConnectException) {
-        throw new SDKException("Host unreachable: " + httpHostConnectException.getMessage());
-      } catch (Exception e) {
-        throw new SDKException(e);
-      }
-    } else {
-
-      HttpPost httpPost = new HttpPost(provider);
-      httpPost.setHeader("Authorization", "Basic " + encoding);
-      List<BasicNameValuePair> parametersBody = new ArrayList<>();
-      parametersBody.add(new BasicNameValuePair("grant_type", "password"));
-      parametersBody.add(new BasicNameValuePair("username", this.username));
-      parametersBody.add(new BasicNameValuePair("password", this.password));
-
-      log.debug("Username is: " + username);
-      log.debug("Password is: " + password);
-
-      httpPost.setEntity(new UrlEncodedFormEntity(parametersBody, StandardCharsets.UTF_8));
+  /** Sends an entity with chunked transfer encoding even though its length is known. */
+  private static final class ChunkedEntity extends HttpEntityWrapper {
 
-      CloseableHttpResponse response = null;
-      log.debug("httpPost is: " + httpPost.toString());
-      response = httpClient.execute(httpPost);
-      String responseString = null;
-      responseString = EntityUtils.toString(response.getEntity());
-      int statusCode = response.getStatusLine().getStatusCode();
-      response.close();
-      httpPost.releaseConnection();
-      log.trace(statusCode + ": " + responseString);
-
-      Gson gson = new GsonBuilder().setPrettyPrinting().create();
-      if (statusCode != 200) {
-        JsonObject error = gson.fromJson(responseString, JsonObject.class);
-
-        JsonElement detailMessage = error.get("detailMessage");
-        if (detailMessage == null) {
-          detailMessage = error.get("errorMessage");
-        }
-        if (detailMessage == null) {
-          detailMessage = error.get("message");
-        }
-        if (detailMessage == null) {
-          detailMessage = error.get("description");
-        }
-        if (detailMessage == null) {
-          detailMessage = error.get("errorDescription");
-        }
-
-        log.error(
-            "Status Code ["
-                + statusCode
-                + "]: Error signing-in ["
-                + (detailMessage != null ? detailMessage.getAsString() : "no error description")
-                + "]");
-
-        if (detailMessage == null) {
-          log.error("Got Error from server: \n" + gson.toJson(error));
-        }
-        throw new SDKException(
-            "Status Code ["
-                + statusCode
-                + "]: Error signing-in ["
-                + (detailMessage != null ? detailMessage.getAsString() : "no error description")
-                + "]",
-            new StackTraceElement[0],
-            (detailMessage != null ? detailMessage.getAsString() : "no error description"));
-      }
-      JsonObject jobj = new Gson().fromJson(responseString, JsonObject.class);
-      log.trace("JsonTokenAccess is: " + jobj.toString());
-      try {
-        String token = jobj.get("value").getAsString();
-        log.trace(token);
-        bearerToken = "Bearer " + token;
-        this.token = token;
-      } catch (NullPointerException e) {
-        String error = jobj.get("error").getAsString();
-        if (error.equals("invalid_grant")) {
-          throw new SDKException(
-              "Error during authentication: " + jobj.get("error_description").getAsString(),
-              e.getStackTrace(),
-              e.getMessage());
-        }
-      }
+    private ChunkedEntity(HttpEntity entity) {
+      super(entity);
     }
-  }
 
-  private CloseableHttpClient getHttpClientForSsl() {
-    SSLContext sslContext = null;
-    try {
-      sslContext =
-          SSLContexts.custom().loadTrustMaterial(null, new TrustSelfSignedStrategy()).build();
-    } catch (NoSuchAlgorithmException e) {
-      log.error("Could not initialize the HttpClient for SSL connections");
-      log.error(e.getMessage(), e);
-    } catch (KeyManagementException e) {
-      log.error("Could not initialize the HttpClient for SSL connections");
-      log.error(e.getMessage(), e);
-    } catch (KeyStoreException e) {
-      log.error("Could not initialize the HttpClient for SSL connections");
-      log.error(e.getMessage(), e);
+    @Override
+    public boolean isChunked() {
+      return true;
     }
 
-    // necessary to trust self signed certificates
-    SSLConnectionSocketFactory sslConnectionSocketFactory =
-        new SSLConnectionSocketFactory(
-            sslContext, new String[] {"TLSv1"}, null, new NoopHostnameVerifier());
-
-    Registry<ConnectionSocketFactory> socketFactoryRegistry =
-        RegistryBuilder.<ConnectionSocketFactory>create()
-            .register("https", sslConnectionSocketFactory)
-            .build();
-
-    return HttpClientBuilder.create()
-        .setDefaultRequestConfig(config)
-        .setConnectionManager(new PoolingHttpClientConnectionManager(socketFactoryRegistry))
-        .setSSLSocketFactory(sslConnectionSocketFactory)
-        .build();
+    @Override
+    public long getContentLength() {
+      return -1;
+    }
   }
 }
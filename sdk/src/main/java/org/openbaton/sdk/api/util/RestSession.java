@@ -0,0 +1,634 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.security.KeyManagementException;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+import javax.net.ssl.SSLContext;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.ssl.SSLContexts;
+import org.openbaton.catalogue.nfvo.viminstances.BaseVimInstance;
+import org.openbaton.nfvo.common.configuration.NfvoGsonDeserializerVimInstance;
+import org.openbaton.nfvo.common.configuration.NfvoGsonSerializerVimInstance;
+import org.openbaton.sdk.api.exception.SDKException;
+import org.openbaton.sdk.api.metrics.NoopSdkMetrics;
+import org.openbaton.sdk.api.metrics.SdkMetrics;
+import org.openbaton.sdk.api.tracing.SdkTracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The connection state shared by all the request agents which talk to the same NFVO: the pooled
+ * HttpClient, the Gson mapper and the access token. An NFVORequestor creates one RestSession and
+ * passes it to every agent it returns, so that connections, TLS sessions and tokens are reused
+ * across the whole SDK. The RestSession class is thread safe.
+ */
+public class RestSession implements Closeable {
+
+  private static final String SDK_PROPERTIES_FILE = "sdk.api.properties";
+  private static final PropertyReader propertyReader = new PropertyReader(SDK_PROPERTIES_FILE);
+
+  private static final AtomicInteger asyncThreadCount = new AtomicInteger();
+
+  private Logger log = LoggerFactory.getLogger(this.getClass());
+
+  private final String baseUrl;
+  private final String provider;
+  private final String serviceTokenUrl;
+
+  // compact, used for everything sent to or received from the NFVO
+  private final Gson mapper;
+  // pretty printing, only used for showing objects to humans
+  private final Gson displayMapper;
+  private final RestSessionConfig sessionConfig;
+  private final RequestConfig config;
+  private volatile CloseableHttpClient httpClient;
+  private boolean closed;
+  private final boolean sslEnabled;
+  private SSLContext sslContext;
+  // created on first use, most of the users of the SDK only send blocking requests
+  private CloseableHttpAsyncClient asyncHttpClient;
+  // created on first use like the asyncHttpClient, see getAsyncExecutor()
+  private ScheduledThreadPoolExecutor asyncExecutor;
+
+  private final TokenManager tokenManager;
+  private final SdkMetrics metrics;
+  private final SdkTracer tracer;
+  private final RetryStatistics retryStatistics = new RetryStatistics();
+  // null if disabled
+  private final CircuitBreaker circuitBreaker;
+  // null if the number of concurrent requests is not limited
+  private final Bulkhead bulkhead;
+  // null if disabled
+  private final EntityCache entityCache;
+  // null if disabled
+  private final RequestCoalescer requestCoalescer;
+
+  /**
+   * RestSession constructor for normal users.
+   *
+   * @param username the username used for sending requests
+   * @param password the password used for sending requests
+   * @param sslEnabled true if the NFVO uses SSL
+   * @param nfvoIp the IP address of the NFVO to which the requests are sent
+   * @param nfvoPort the port on which the NFVO runs
+   * @param version the API version
+   */
+  public RestSession(
+      String username,
+      String password,
+      boolean sslEnabled,
+      String nfvoIp,
+      String nfvoPort,
+      String version) {
+    this(username, password, sslEnabled, nfvoIp, nfvoPort, version, new RestSessionConfig());
+  }
+
+  /**
+   * RestSession constructor for normal users with a custom HttpClient configuration.
+   *
+   * @param username the username used for sending requests
+   * @param password the password used for sending requests
+   * @param sslEnabled true if the NFVO uses SSL
+   * @param nfvoIp the IP address of the NFVO to which the requests are sent
+   * @param nfvoPort the port on which the NFVO runs
+   * @param version the API version
+   * @param sessionConfig the connection pool and timeout options
+   */
+  public RestSession(
+      String username,
+      String password,
+      boolean sslEnabled,
+      String nfvoIp,
+      String nfvoPort,
+      String version,
+      RestSessionConfig sessionConfig) {
+    String scheme = sslEnabled ? "https://" : "http://";
+    this.baseUrl = scheme + nfvoIp + ":" + nfvoPort + "/api/v" + version;
+    this.provider = scheme + nfvoIp + ":" + nfvoPort + "/oauth/token";
+    this.serviceTokenUrl = this.baseUrl + propertyReader.getRestUrl("Service") + "/register";
+    this.sessionConfig = sessionConfig;
+    this.metrics = sessionConfig.getMetrics();
+    this.tracer = sessionConfig.getTracer();
+    this.config = createRequestConfig(sessionConfig);
+    this.sslEnabled = sslEnabled;
+    this.circuitBreaker = createCircuitBreaker(sessionConfig);
+    this.bulkhead = createBulkhead(sessionConfig);
+    this.entityCache = createEntityCache(sessionConfig);
+    this.requestCoalescer = sessionConfig.isRequestCoalescing() ? new RequestCoalescer() : null;
+    this.mapper = createMapperBuilder().create();
+    this.displayMapper = createMapperBuilder().setPrettyPrinting().create();
+    this.tokenManager =
+        TokenManager.forUser(
+            this::getHttpClient,
+            metrics,
+            displayMapper,
+            provider,
+            username,
+            password,
+            sessionConfig.getTokenRefreshMargin());
+  }
+
+  /**
+   * RestSession constructor for services.
+   *
+   * @param serviceName the name of the service used for sending requests
+   * @param sslEnabled true if the NFVO uses SSL
+   * @param nfvoIp the IP address of the NFVO to which the requests are sent
+   * @param nfvoPort the port on which the NFVO runs
+   * @param version the API version
+   * @param serviceKey the key for authenticating the service
+   * @throws IllegalArgumentException if the service key is null
+   */
+  public RestSession(
+      String serviceName,
+      boolean sslEnabled,
+      String nfvoIp,
+      String nfvoPort,
+      String version,
+      String serviceKey) {
+    this(serviceName, sslEnabled, nfvoIp, nfvoPort, version, serviceKey, new RestSessionConfig());
+  }
+
+  /**
+   * RestSession constructor for services with a custom HttpClient configuration.
+   *
+   * @param serviceName the name of the service used for sending requests
+   * @param sslEnabled true if the NFVO uses SSL
+   * @param nfvoIp the IP address of the NFVO to which the requests are sent
+   * @param nfvoPort the port on which the NFVO runs
+   * @param version the API version
+   * @param serviceKey the key for authenticating the service
+   * @param sessionConfig the connection pool and timeout options
+   * @throws IllegalArgumentException if the service key is null
+   */
+  public RestSession(
+      String serviceName,
+      boolean sslEnabled,
+      String nfvoIp,
+      String nfvoPort,
+      String version,
+      String serviceKey,
+      RestSessionConfig sessionConfig) {
+    if (serviceKey == null) throw new IllegalArgumentException("The service key must not be null");
+    String scheme = sslEnabled ? "https://" : "http://";
+    this.baseUrl = scheme + nfvoIp + ":" + nfvoPort + "/api/v" + version;
+    this.provider = scheme + nfvoIp + ":" + nfvoPort + "/oauth/token";
+    this.serviceTokenUrl = this.baseUrl + propertyReader.getRestUrl("Service") + "/register";
+    this.sessionConfig = sessionConfig;
+    this.metrics = sessionConfig.getMetrics();
+    this.tracer = sessionConfig.getTracer();
+    this.config = createRequestConfig(sessionConfig);
+    this.sslEnabled = sslEnabled;
+    this.circuitBreaker = createCircuitBreaker(sessionConfig);
+    this.bulkhead = createBulkhead(sessionConfig);
+    this.entityCache = createEntityCache(sessionConfig);
+    this.requestCoalescer = sessionConfig.isRequestCoalescing() ? new RequestCoalescer() : null;
+    this.mapper = createMapperBuilder().create();
+    this.displayMapper = createMapperBuilder().setPrettyPrinting().create();
+    this.tokenManager =
+        TokenManager.forService(
+            this::getHttpClient,
+            metrics,
+            displayMapper,
+            serviceTokenUrl,
+            serviceName,
+            serviceKey.trim(),
+            sessionConfig.getTokenRefreshMargin());
+  }
+
+  /** @return the base url of the NFVO API, e.g. http://localhost:8080/api/v1 */
+  public String getBaseUrl() {
+    return baseUrl;
+  }
+
+  /** @return the connection pool and timeout options of this session */
+  public RestSessionConfig getSessionConfig() {
+    return sessionConfig;
+  }
+
+  /**
+   * Returns the HttpClient of this session, which is created on first use. Until then, e.g. for a
+   * command line interface that only prints its usage, no SSL context and no connection pool are
+   * built.
+   *
+   * @return the HttpClient shared by all the agents using this session
+   * @throws IllegalStateException if the session was closed
+   */
+  public CloseableHttpClient getHttpClient() {
+    CloseableHttpClient client = httpClient;
+    if (client == null) {
+      synchronized (this) {
+        if (closed) {
+          throw new IllegalStateException("The RestSession is closed");
+        }
+        client = httpClient;
+        if (client == null) {
+          long start = System.nanoTime();
+          client = sslEnabled ? getHttpClientForSsl() : getHttpClient(null);
+          log.debug(
+              "Created the HttpClient for "
+                  + baseUrl
+                  + " in "
+                  + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+                  + " ms");
+          httpClient = client;
+        }
+      }
+    }
+    return client;
+  }
+
+  /**
+   * Returns the non-blocking HttpClient of this session, which is created and started on first use.
+   * It uses the same pool limits, timeouts and SSL settings as the blocking one.
+   *
+   * @return the HttpAsyncClient shared by all the async agents using this session
+   * @throws IllegalStateException if the session was closed
+   */
+  public synchronized CloseableHttpAsyncClient getAsyncHttpClient() {
+    if (closed) {
+      throw new IllegalStateException("The RestSession is closed");
+    }
+    if (asyncHttpClient == null) {
+      HttpAsyncClientBuilder builder =
+          HttpAsyncClients.custom()
+              .setDefaultRequestConfig(config)
+              .setMaxConnTotal(sessionConfig.getMaxConnectionsTotal())
+              .setMaxConnPerRoute(sessionConfig.getMaxConnectionsPerRoute())
+              .setKeepAliveStrategy(createKeepAliveStrategy());
+      if (metrics != NoopSdkMetrics.INSTANCE) {
+        MetricsInterceptor interceptor = new MetricsInterceptor(metrics);
+        builder.addInterceptorLast((HttpRequestInterceptor) interceptor);
+        builder.addInterceptorFirst((HttpResponseInterceptor) interceptor);
+      }
+      if (sslEnabled) {
+        builder.setSSLStrategy(
+            new SSLIOSessionStrategy(
+                getSslContext(), new String[] {"TLSv1"}, null, new NoopHostnameVerifier()));
+      }
+      asyncHttpClient = builder.build();
+      asyncHttpClient.start();
+    }
+    return asyncHttpClient;
+  }
+
+  /**
+   * Returns the executor of this session on which the async agents do the work that must neither
+   * block the caller nor an I/O dispatcher thread of the HttpAsyncClient. It is owned by the
+   * session, so a busy NFVO cannot starve the common ForkJoinPool of the application, and it is
+   * shut down together with the session.
+   *
+   * @return the executor shared by all the async agents using this session
+   * @throws IllegalStateException if the session was closed
+   */
+  synchronized ScheduledExecutorService getAsyncExecutor() {
+    if (closed) {
+      throw new IllegalStateException("The RestSession is closed");
+    }
+    if (asyncExecutor == null) {
+      asyncExecutor =
+          new ScheduledThreadPoolExecutor(
+              Math.max(1, sessionConfig.getAsyncThreads()),
+              runnable -> {
+                Thread thread =
+                    new Thread(runnable, "openbaton-async-" + asyncThreadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+              });
+      asyncExecutor.setRemoveOnCancelPolicy(true);
+      asyncExecutor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+    return asyncExecutor;
+  }
+
+  /**
+   * Gzip compresses the entity of a request, if request compression is enabled and the entity is
+   * not smaller than the configured threshold. The compressed content is kept in memory, like the
+   * json bodies it is meant for, so that the entity can be sent by the blocking and the
+   * non-blocking HttpClient and that its length is known in advance.
+   *
+   * @param entity the request entity
+   * @return the entity which shall be sent
+   * @throws IOException if the content of the entity cannot be read
+   */
+  HttpEntity compressRequestEntity(HttpEntity entity) throws IOException {
+    if (!sessionConfig.isRequestCompression()
+        || entity.getContentLength() < sessionConfig.getRequestCompressionThreshold()) {
+      return entity;
+    }
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+      entity.writeTo(gzip);
+    }
+    ByteArrayEntity compressedEntity = new ByteArrayEntity(compressed.toByteArray());
+    compressedEntity.setContentType(entity.getContentType());
+    compressedEntity.setContentEncoding("gzip");
+    return compressedEntity;
+  }
+
+  /**
+   * Returns the Gson mapper used by all the agents of this session for the request and response
+   * bodies. It does not pretty print, so that no bytes are wasted on indentation.
+   *
+   * @return the Gson mapper shared by all the agents using this session
+   */
+  public Gson getMapper() {
+    return mapper;
+  }
+
+  /**
+   * @return a Gson mapper with the same type adapters as the one returned by getMapper, but which
+   *     pretty prints its output, e.g. for the sign-in error messages the TokenManager logs or for
+   *     the command line interface
+   */
+  public Gson getDisplayMapper() {
+    return displayMapper;
+  }
+
+  /** @return the default configuration of the requests of this session */
+  public RequestConfig getRequestConfig() {
+    return config;
+  }
+
+  /** @return the TokenManager which provides the access token for the requests of this session */
+  public TokenManager getTokenManager() {
+    return tokenManager;
+  }
+
+  /** @return the receiver of the measurements of the requests of this session */
+  public SdkMetrics getMetrics() {
+    return metrics;
+  }
+
+  /** @return the tracer creating the spans of the requests of this session */
+  public SdkTracer getTracer() {
+    return tracer;
+  }
+
+  /** @return how often the requests of this session had to be sent again */
+  public RetryStatistics getRetryStatistics() {
+    return retryStatistics;
+  }
+
+  /** @return the CircuitBreaker guarding the requests of this session, null if it is disabled */
+  public CircuitBreaker getCircuitBreaker() {
+    return circuitBreaker;
+  }
+
+  /** @return the Bulkhead limiting the concurrent requests of this session, null if unlimited */
+  public Bulkhead getBulkhead() {
+    return bulkhead;
+  }
+
+  /**
+   * @return the cache for the responses of the descriptor, VIM instance and configuration agents,
+   *     null if it is disabled
+   */
+  public EntityCache getEntityCache() {
+    return entityCache;
+  }
+
+  /**
+   * @return the RequestCoalescer which merges concurrent identical GET requests, null if it is
+   *     disabled
+   */
+  public RequestCoalescer getRequestCoalescer() {
+    return requestCoalescer;
+  }
+
+  public String getToken() {
+    return tokenManager.getToken();
+  }
+
+  public String getBearerToken() {
+    String token = tokenManager.getToken();
+    return token != null ? "Bearer " + token : null;
+  }
+
+  /**
+   * Fetch a new access token from the NFVO if there is none yet or if the current one is about to
+   * expire.
+   *
+   * @throws SDKException if the token cannot be obtained
+   */
+  public void checkToken() throws SDKException {
+    tokenManager.getAuthorizationHeader();
+  }
+
+  /** Discard the current access token, so that the next request fetches a new one. */
+  public void resetToken() {
+    tokenManager.invalidate();
+  }
+
+  /**
+   * Close the HttpClient and release all the pooled connections. Agents using this session cannot
+   * send requests afterwards.
+   *
+   * @throws IOException if the HttpClient cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    synchronized (this) {
+      closed = true;
+      // getHttpClient() reads the field without locking, so it must not find the closed client
+      CloseableHttpClient client = httpClient;
+      httpClient = null;
+      if (client != null) {
+        client.close();
+      }
+      if (asyncHttpClient != null) {
+        asyncHttpClient.close();
+        asyncHttpClient = null;
+      }
+      if (bulkhead != null) {
+        bulkhead.cancelWaiters(new IllegalStateException("The RestSession is closed"));
+      }
+      if (asyncExecutor != null) {
+        // lets the tasks already submitted complete the futures of their requests
+        asyncExecutor.shutdown();
+        asyncExecutor = null;
+      }
+    }
+  }
+
+  private GsonBuilder createMapperBuilder() {
+    GsonBuilder builder = new GsonBuilder();
+    builder.registerTypeAdapter(BaseVimInstance.class, new NfvoGsonDeserializerVimInstance());
+    builder.registerTypeAdapter(BaseVimInstance.class, new NfvoGsonSerializerVimInstance());
+    return builder;
+  }
+
+  private CircuitBreaker createCircuitBreaker(RestSessionConfig sessionConfig) {
+    if (!sessionConfig.isCircuitBreakerEnabled()) {
+      return null;
+    }
+    return new CircuitBreaker(
+        baseUrl,
+        sessionConfig.getFailureRateThreshold(),
+        sessionConfig.getSlidingWindowSize(),
+        sessionConfig.getMinimumNumberOfCalls(),
+        sessionConfig.getOpenStateDuration(),
+        sessionConfig.getPermittedCallsInHalfOpenState());
+  }
+
+  private Bulkhead createBulkhead(RestSessionConfig sessionConfig) {
+    if (sessionConfig.getMaxConcurrentRequests() <= 0) {
+      return null;
+    }
+    return new Bulkhead(
+        sessionConfig.getMaxConcurrentRequests(), sessionConfig.getMaxConcurrentRequestsWait());
+  }
+
+  private EntityCache createEntityCache(RestSessionConfig sessionConfig) {
+    if (sessionConfig.getEntityCacheSize() <= 0) {
+      return null;
+    }
+    return new EntityCache(sessionConfig.getEntityCacheSize(), sessionConfig.getEntityCacheTtl());
+  }
+
+  private RequestConfig createRequestConfig(RestSessionConfig sessionConfig) {
+    return RequestConfig.custom()
+        .setConnectionRequestTimeout(sessionConfig.getConnectionRequestTimeout())
+        .setConnectTimeout(sessionConfig.getConnectTimeout())
+        .setSocketTimeout(sessionConfig.getSocketTimeout())
+        .build();
+  }
+
+  private CloseableHttpClient getHttpClient(SSLConnectionSocketFactory sslConnectionSocketFactory) {
+    PoolingHttpClientConnectionManager connectionManager;
+    HttpClientBuilder builder = HttpClientBuilder.create().setDefaultRequestConfig(config);
+    Registry<ConnectionSocketFactory> socketFactoryRegistry;
+    if (sslConnectionSocketFactory == null) {
+      // the same as HttpClient's default registry, but measuring the connect and TLS phases
+      socketFactoryRegistry =
+          RegistryBuilder.<ConnectionSocketFactory>create()
+              .register("http", new TimedPlainSocketFactory())
+              .register(
+                  "https",
+                  new TimedSslSocketFactory(
+                      SSLContexts.createDefault(),
+                      SSLConnectionSocketFactory.getDefaultHostnameVerifier()))
+              .build();
+    } else {
+      socketFactoryRegistry =
+          RegistryBuilder.<ConnectionSocketFactory>create()
+              .register("https", sslConnectionSocketFactory)
+              .build();
+      builder.setSSLSocketFactory(sslConnectionSocketFactory);
+    }
+    connectionManager = new InstrumentedConnectionManager(socketFactoryRegistry, metrics);
+    connectionManager.setMaxTotal(sessionConfig.getMaxConnectionsTotal());
+    connectionManager.setDefaultMaxPerRoute(sessionConfig.getMaxConnectionsPerRoute());
+    connectionManager.setValidateAfterInactivity(sessionConfig.getValidateAfterInactivity());
+    builder.setConnectionManager(connectionManager);
+    builder.setKeepAliveStrategy(createKeepAliveStrategy());
+    builder.setRequestExecutor(new TimedRequestExecutor());
+    if (metrics != NoopSdkMetrics.INSTANCE) {
+      MetricsInterceptor interceptor = new MetricsInterceptor(metrics);
+      builder.addInterceptorLast((HttpRequestInterceptor) interceptor);
+      builder.addInterceptorFirst((HttpResponseInterceptor) interceptor);
+    }
+    // failed requests are retried by RestRequest according to the session's RetryPolicy
+    builder.disableAutomaticRetries();
+    if (!sessionConfig.isResponseCompression()) {
+      // otherwise HttpClient sends Accept-Encoding and decompresses the responses on the fly
+      builder.disableContentCompression();
+    }
+    if (sessionConfig.getIdleConnectionTimeout() > 0) {
+      // starts a background thread which closes expired and idle connections until the client is
+      // closed
+      builder
+          .evictExpiredConnections()
+          .evictIdleConnections(sessionConfig.getIdleConnectionTimeout(), TimeUnit.MILLISECONDS);
+    }
+    return builder.build();
+  }
+
+  private ConnectionKeepAliveStrategy createKeepAliveStrategy() {
+    return (response, context) -> {
+      // use the duration sent by the NFVO, but never more than the configured one
+      long duration =
+          DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+      long maxDuration = sessionConfig.getKeepAliveDuration();
+      if (maxDuration > 0 && (duration <= 0 || duration > maxDuration)) {
+        duration = maxDuration;
+      }
+      return duration;
+    };
+  }
+
+  private synchronized SSLContext getSslContext() {
+    if (sslContext != null) {
+      return sslContext;
+    }
+    try {
+      sslContext =
+          SSLContexts.custom().loadTrustMaterial(null, new TrustSelfSignedStrategy()).build();
+    } catch (NoSuchAlgorithmException e) {
+      log.error("Could not initialize the HttpClient for SSL connections");
+      log.error(e.getMessage(), e);
+    } catch (KeyManagementException e) {
+      log.error("Could not initialize the HttpClient for SSL connections");
+      log.error(e.getMessage(), e);
+    } catch (KeyStoreException e) {
+      log.error("Could not initialize the HttpClient for SSL connections");
+      log.error(e.getMessage(), e);
+    }
+    return sslContext;
+  }
+
+  private CloseableHttpClient getHttpClientForSsl() {
+    // necessary to trust self signed certificates
+    SSLConnectionSocketFactory sslConnectionSocketFactory =
+        new TimedSslSocketFactory(
+            getSslContext(), new String[] {"TLSv1"}, null, new NoopHostnameVerifier());
+
+    return getHttpClient(sslConnectionSocketFactory);
+  }
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+import org.openbaton.sdk.api.metrics.NoopSdkMetrics;
+import org.openbaton.sdk.api.metrics.SdkMetrics;
+import org.openbaton.sdk.api.tracing.NoopSdkTracer;
+import org.openbaton.sdk.api.tracing.SdkTracer;
+
+/**
+ * Tuning options of a RestSession's HttpClient. All the durations are in milliseconds. The defaults
+ * keep the timeouts the SDK always used, but allow up to 20 concurrent connections to the NFVO
+ * instead of the two per route HttpClient grants by default.
+ */
+public class RestSessionConfig {
+
+  // maximum number of pooled connections
+  private int maxConnectionsTotal = 20;
+  // maximum number of pooled connections to the NFVO, there is usually only one route
+  private int maxConnectionsPerRoute = 20;
+  // time to wait for a connection from the pool
+  private int connectionRequestTimeout = 10000;
+  private int connectTimeout = 60000;
+  // time to wait for data on an open connection, 0 or less means no timeout
+  private int socketTimeout = -1;
+  // pooled connections idle for longer than this are closed by a background thread
+  private int idleConnectionTimeout = 60000;
+  // pooled connections idle for longer than this are checked before they are reused
+  private int validateAfterInactivity = 2000;
+  // maximum time a connection is kept alive, 0 or less means as long as the NFVO allows
+  private int keepAliveDuration = 60000;
+  // advertise gzip and deflate and decompress the responses while they are read
+  private boolean responseCompression = true;
+  // gzip the request bodies, the NFVO or a proxy in front of it has to support this
+  private boolean requestCompression = false;
+  // request bodies smaller than this number of bytes are never compressed
+  private int requestCompressionThreshold = 2048;
+  // tokens with a known lifetime are renewed this long before they expire
+  private int tokenRefreshMargin = 30000;
+  // how often a request rejected with 401 is sent again with a new token
+  private int maxUnauthorizedRetries = 1;
+  // which failed requests are sent again, see RetryPolicy
+  private RetryPolicy retryPolicy = new RetryPolicy();
+  // stop sending requests for a while if too many of them fail, see CircuitBreaker
+  private boolean circuitBreakerEnabled = false;
+  // percentage of failed requests at which the circuit breaker opens
+  private int failureRateThreshold = 50;
+  // number of recent requests from which the failure rate is computed
+  private int slidingWindowSize = 20;
+  // the circuit breaker never opens before this many requests were sent
+  private int minimumNumberOfCalls = 10;
+  // time during which an open circuit breaker rejects all requests
+  private int openStateDuration = 30000;
+  // trial requests which decide whether the circuit breaker closes again
+  private int permittedCallsInHalfOpenState = 3;
+  // maximum number of requests waiting for the NFVO at the same time, 0 or less means no limit
+  private int maxConcurrentRequests = 0;
+  // time a request waits if maxConcurrentRequests is reached, before it is rejected
+  private int maxConcurrentRequestsWait = 0;
+  // maximum number of GET responses kept in the EntityCache, 0 or less disables the cache
+  private int entityCacheSize = 0;
+  // time a cached response is used without revalidating it
+  private int entityCacheTtl = 60000;
+  // let concurrent identical GET requests share one request and its decoded result
+  private boolean requestCoalescing = false;
+  // receives the measurements of all the requests, see SdkMetrics
+  private SdkMetrics metrics = NoopSdkMetrics.INSTANCE;
+  // creates the spans of the requests and the traceparent header, see SdkTracer
+  private SdkTracer tracer = NoopSdkTracer.INSTANCE;
+  // threads doing the work of the async agents which must not run on the I/O dispatcher threads
+  private int asyncThreads = Runtime.getRuntime().availableProcessors();
+
+  public int getMaxConnectionsTotal() {
+    return maxConnectionsTotal;
+  }
+
+  public void setMaxConnectionsTotal(int maxConnectionsTotal) {
+    this.maxConnectionsTotal = maxConnectionsTotal;
+  }
+
+  public int getMaxConnectionsPerRoute() {
+    return maxConnectionsPerRoute;
+  }
+
+  public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+    this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+  }
+
+  public int getConnectionRequestTimeout() {
+    return connectionRequestTimeout;
+  }
+
+  public void setConnectionRequestTimeout(int connectionRequestTimeout) {
+    this.connectionRequestTimeout = connectionRequestTimeout;
+  }
+
+  public int getConnectTimeout() {
+    return connectTimeout;
+  }
+
+  public void setConnectTimeout(int connectTimeout) {
+    this.connectTimeout = connectTimeout;
+  }
+
+  public int getSocketTimeout() {
+    return socketTimeout;
+  }
+
+  public void setSocketTimeout(int socketTimeout) {
+    this.socketTimeout = socketTimeout;
+  }
+
+  public int getIdleConnectionTimeout() {
+    return idleConnectionTimeout;
+  }
+
+  public void setIdleConnectionTimeout(int idleConnectionTimeout) {
+    this.idleConnectionTimeout = idleConnectionTimeout;
+  }
+
+  public int getValidateAfterInactivity() {
+    return validateAfterInactivity;
+  }
+
+  public void setValidateAfterInactivity(int validateAfterInactivity) {
+    this.validateAfterInactivity = validateAfterInactivity;
+  }
+
+  public int getKeepAliveDuration() {
+    return keepAliveDuration;
+  }
+
+  public void setKeepAliveDuration(int keepAliveDuration) {
+    this.keepAliveDuration = keepAliveDuration;
+  }
+
+  public boolean isResponseCompression() {
+    return responseCompression;
+  }
+
+  public void setResponseCompression(boolean responseCompression) {
+    this.responseCompression = responseCompression;
+  }
+
+  public boolean isRequestCompression() {
+    return requestCompression;
+  }
+
+  public void setRequestCompression(boolean requestCompression) {
+    this.requestCompression = requestCompression;
+  }
+
+  public int getRequestCompressionThreshold() {
+    return requestCompressionThreshold;
+  }
+
+  public void setRequestCompressionThreshold(int requestCompressionThreshold) {
+    this.requestCompressionThreshold = requestCompressionThreshold;
+  }
+
+  public int getTokenRefreshMargin() {
+    return tokenRefreshMargin;
+  }
+
+  public void setTokenRefreshMargin(int tokenRefreshMargin) {
+    this.tokenRefreshMargin = tokenRefreshMargin;
+  }
+
+  public int getMaxUnauthorizedRetries() {
+    return maxUnauthorizedRetries;
+  }
+
+  public void setMaxUnauthorizedRetries(int maxUnauthorizedRetries) {
+    this.maxUnauthorizedRetries = maxUnauthorizedRetries;
+  }
+
+  public RetryPolicy getRetryPolicy() {
+    return retryPolicy;
+  }
+
+  public void setRetryPolicy(RetryPolicy retryPolicy) {
+    this.retryPolicy = retryPolicy;
+  }
+
+  public boolean isCircuitBreakerEnabled() {
+    return circuitBreakerEnabled;
+  }
+
+  public void setCircuitBreakerEnabled(boolean circuitBreakerEnabled) {
+    this.circuitBreakerEnabled = circuitBreakerEnabled;
+  }
+
+  public int getFailureRateThreshold() {
+    return failureRateThreshold;
+  }
+
+  public void setFailureRateThreshold(int failureRateThreshold) {
+    this.failureRateThreshold = failureRateThreshold;
+  }
+
+  public int getSlidingWindowSize() {
+    return slidingWindowSize;
+  }
+
+  public void setSlidingWindowSize(int slidingWindowSize) {
+    this.slidingWindowSize = slidingWindowSize;
+  }
+
+  public int getMinimumNumberOfCalls() {
+    return minimumNumberOfCalls;
+  }
+
+  public void setMinimumNumberOfCalls(int minimumNumberOfCalls) {
+    this.minimumNumberOfCalls = minimumNumberOfCalls;
+  }
+
+  public int getOpenStateDuration() {
+    return openStateDuration;
+  }
+
+  public void setOpenStateDuration(int openStateDuration) {
+    this.openStateDuration = openStateDuration;
+  }
+
+  public int getPermittedCallsInHalfOpenState() {
+    return permittedCallsInHalfOpenState;
+  }
+
+  public void setPermittedCallsInHalfOpenState(int permittedCallsInHalfOpenState) {
+    this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+  }
+
+  public int getMaxConcurrentRequests() {
+    return maxConcurrentRequests;
+  }
+
+  public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+    this.maxConcurrentRequests = maxConcurrentRequests;
+  }
+
+  public int getMaxConcurrentRequestsWait() {
+    return maxConcurrentRequestsWait;
+  }
+
+  public void setMaxConcurrentRequestsWait(int maxConcurrentRequestsWait) {
+    this.maxConcurrentRequestsWait = maxConcurrentRequestsWait;
+  }
+
+  public int getEntityCacheSize() {
+    return entityCacheSize;
+  }
+
+  public void setEntityCacheSize(int entityCacheSize) {
+    this.entityCacheSize = entityCacheSize;
+  }
+
+  public int getEntityCacheTtl() {
+    return entityCacheTtl;
+  }
+
+  public void setEntityCacheTtl(int entityCacheTtl) {
+    this.entityCacheTtl = entityCacheTtl;
+  }
+
+  public boolean isRequestCoalescing() {
+    return requestCoalescing;
+  }
+
+  public void setRequestCoalescing(boolean requestCoalescing) {
+    this.requestCoalescing = requestCoalescing;
+  }
+
+  public SdkMetrics getMetrics() {
+    return metrics;
+  }
+
+  public void setMetrics(SdkMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  public SdkTracer getTracer() {
+    return tracer;
+  }
+
+  public void setTracer(SdkTracer tracer) {
+    this.tracer = tracer;
+  }
+
+  public int getAsyncThreads() {
+    return asyncThreads;
+  }
+
+  public void setAsyncThreads(int asyncThreads) {
+    this.asyncThreads = asyncThreads;
+  }
+}
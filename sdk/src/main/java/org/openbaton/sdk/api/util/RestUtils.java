@@ -1,8 +1,10 @@
 package org.openbaton.sdk.api.util;
 
 import java.io.IOException;
+import java.net.HttpURLConnection;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.util.EntityUtils;
+import org.openbaton.sdk.api.exception.NotFoundException;
 import org.openbaton.sdk.api.exception.SDKException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,16 +33,27 @@ public class RestUtils {
         body = EntityUtils.toString(httpResponse.getEntity());
       } catch (IOException e) {
         e.printStackTrace();
-        throw new SDKException(
-            "Status is " + httpResponse.getStatusLine().getStatusCode(),
-            new StackTraceElement[0],
+        throw statusException(
+            httpResponse.getStatusLine().getStatusCode(),
             "could not provide reason because: " + e.getMessage());
       }
       log.error("Body: " + body);
-      throw new SDKException(
-          "Status is " + httpResponse.getStatusLine().getStatusCode(),
-          new StackTraceElement[0],
-          body);
+      throw statusException(httpResponse.getStatusLine().getStatusCode(), body);
     }
   }
+
+  /**
+   * Create the exception for a response with an unexpected http status, a NotFoundException if the
+   * NFVO answered 404.
+   *
+   * @param statusCode the http status of the response
+   * @param reason the body of the response
+   * @return the exception to throw
+   */
+  static SDKException statusException(int statusCode, String reason) {
+    if (statusCode == HttpURLConnection.HTTP_NOT_FOUND) {
+      return new NotFoundException(reason);
+    }
+    return new SDKException("Status is " + statusCode, new StackTraceElement[0], reason);
+  }
 }
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.net.ssl.SSLException;
+import org.apache.http.Header;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.conn.ConnectTimeoutException;
+
+/**
+ * Decides which failed requests to the NFVO are sent again and how long to wait before. By default
+ * a request is tried at most three times, with an exponentially growing, randomized delay between
+ * the attempts.
+ *
+ * <p>A request is retried if the connection to the NFVO could not be established, or, for
+ * idempotent methods only, if the connection broke or the NFVO answered with one of the retryable
+ * status codes (502, 503 and 504 by default). POST requests are only retried on these errors if
+ * retryNonIdempotent is set, because the NFVO may already have executed them. Subclasses can
+ * override the isRetryable and getDelay methods to change these rules.
+ */
+public class RetryPolicy {
+
+  private static final Set<String> IDEMPOTENT_METHODS =
+      new HashSet<>(Arrays.asList("GET", "HEAD", "OPTIONS", "PUT", "DELETE"));
+
+  // including the first one, 1 means no retries
+  private int maxAttempts = 3;
+  // delay before the first retry, doubled for every further one
+  private long initialBackoff = 200;
+  private long maxBackoff = 5000;
+  private double backoffMultiplier = 2;
+  // the share of the delay which is randomized, so that clients do not retry all at once
+  private double jitter = 0.5;
+  private Set<Integer> retryableStatusCodes = new HashSet<>(Arrays.asList(502, 503, 504));
+  private boolean retryNonIdempotent = false;
+
+  /** @return a RetryPolicy which never retries a request */
+  public static RetryPolicy noRetries() {
+    RetryPolicy retryPolicy = new RetryPolicy();
+    retryPolicy.setMaxAttempts(1);
+    return retryPolicy;
+  }
+
+  /**
+   * Decide whether a request which could not be sent or whose response could not be received is
+   * tried again.
+   *
+   * @param request the failed request
+   * @param exception the cause of the failure
+   * @param attempt the number of the failed attempt, starting with 1
+   * @return true if the request shall be sent again
+   */
+  public boolean isRetryable(HttpRequestBase request, IOException exception, int attempt) {
+    if (attempt >= maxAttempts || !isRepeatable(request)) {
+      return false;
+    }
+    if (exception instanceof ConnectException || exception instanceof ConnectTimeoutException) {
+      // the request did not reach the NFVO
+      return true;
+    }
+    if (exception instanceof UnknownHostException || exception instanceof SSLException) {
+      return false;
+    }
+    if (exception instanceof InterruptedIOException
+        && !(exception instanceof SocketTimeoutException)) {
+      return false;
+    }
+    return isIdempotent(request) || retryNonIdempotent;
+  }
+
+  /**
+   * Decide whether a request for which the NFVO returned an error is tried again.
+   *
+   * @param request the request
+   * @param response the response of the NFVO
+   * @param attempt the number of the attempt, starting with 1
+   * @return true if the request shall be sent again
+   */
+  public boolean isRetryable(HttpRequestBase request, HttpResponse response, int attempt) {
+    return attempt < maxAttempts
+        && retryableStatusCodes.contains(response.getStatusLine().getStatusCode())
+        && isRepeatable(request)
+        && (isIdempotent(request) || retryNonIdempotent);
+  }
+
+  /**
+   * Returns how long to wait before the next attempt. If the NFVO sent a Retry-After header with a
+   * number of seconds, it is respected as long as it does not exceed maxBackoff.
+   *
+   * @param attempt the number of the failed attempt, starting with 1
+   * @param response the response of the failed attempt, or null if there is none
+   * @return the delay in milliseconds
+   */
+  public long getDelay(int attempt, HttpResponse response) {
+    double backoff = initialBackoff * Math.pow(backoffMultiplier, attempt - 1);
+    long delay = (long) (Math.min(backoff, maxBackoff) * (1 - jitter * randomDouble()));
+    if (response != null) {
+      Header retryAfter = response.getFirstHeader("Retry-After");
+      if (retryAfter != null) {
+        try {
+          long requested = Long.parseLong(retryAfter.getValue().trim()) * 1000;
+          delay = Math.max(delay, Math.min(requested, maxBackoff));
+        } catch (NumberFormatException e) {
+          // an http date, not worth parsing for the short delays used here
+        }
+      }
+    }
+    return delay;
+  }
+
+  protected boolean isIdempotent(HttpRequestBase request) {
+    return IDEMPOTENT_METHODS.contains(request.getMethod());
+  }
+
+  protected double randomDouble() {
+    return ThreadLocalRandom.current().nextDouble();
+  }
+
+  private boolean isRepeatable(HttpRequestBase request) {
+    if (request instanceof HttpEntityEnclosingRequest) {
+      HttpEntityEnclosingRequest entityRequest = (HttpEntityEnclosingRequest) request;
+      return entityRequest.getEntity() == null || entityRequest.getEntity().isRepeatable();
+    }
+    return true;
+  }
+
+  public int getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  public void setMaxAttempts(int maxAttempts) {
+    this.maxAttempts = maxAttempts;
+  }
+
+  public long getInitialBackoff() {
+    return initialBackoff;
+  }
+
+  public void setInitialBackoff(long initialBackoff) {
+    this.initialBackoff = initialBackoff;
+  }
+
+  public long getMaxBackoff() {
+    return maxBackoff;
+  }
+
+  public void setMaxBackoff(long maxBackoff) {
+    this.maxBackoff = maxBackoff;
+  }
+
+  public double getBackoffMultiplier() {
+    return backoffMultiplier;
+  }
+
+  public void setBackoffMultiplier(double backoffMultiplier) {
+    this.backoffMultiplier = backoffMultiplier;
+  }
+
+  public double getJitter() {
+    return jitter;
+  }
+
+  public void setJitter(double jitter) {
+    this.jitter = jitter;
+  }
+
+  public Set<Integer> getRetryableStatusCodes() {
+    return retryableStatusCodes;
+  }
+
+  public void setRetryableStatusCodes(Set<Integer> retryableStatusCodes) {
+    this.retryableStatusCodes = retryableStatusCodes;
+  }
+
+  public boolean isRetryNonIdempotent() {
+    return retryNonIdempotent;
+  }
+
+  public void setRetryNonIdempotent(boolean retryNonIdempotent) {
+    this.retryNonIdempotent = retryNonIdempotent;
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the attempts made by the requests of a RestSession, so that it can be seen how often the
+ * NFVO had to be asked again. The counters only grow and are updated without locking.
+ */
+public class RetryStatistics {
+
+  private final AtomicLong attempts = new AtomicLong();
+  private final AtomicLong retriesOnStatus = new AtomicLong();
+  private final AtomicLong retriesOnException = new AtomicLong();
+  private final AtomicLong retriesOnUnauthorized = new AtomicLong();
+  private final AtomicLong exhausted = new AtomicLong();
+  private final AtomicLong backoffMillis = new AtomicLong();
+
+  void attempt() {
+    attempts.incrementAndGet();
+  }
+
+  void retryOnStatus(long delay) {
+    retriesOnStatus.incrementAndGet();
+    backoffMillis.addAndGet(delay);
+  }
+
+  void retryOnException(long delay) {
+    retriesOnException.incrementAndGet();
+    backoffMillis.addAndGet(delay);
+  }
+
+  void retryOnUnauthorized() {
+    retriesOnUnauthorized.incrementAndGet();
+  }
+
+  void exhausted() {
+    exhausted.incrementAndGet();
+  }
+
+  /** @return the number of requests sent, including the retries */
+  public long getAttempts() {
+    return attempts.get();
+  }
+
+  /**
+   * @return the number of retries of the RetryPolicy, for whatever reason, without the requests
+   *     sent again with a new access token
+   */
+  public long getRetries() {
+    return retriesOnStatus.get() + retriesOnException.get();
+  }
+
+  /** @return the number of retries because of a retryable status code */
+  public long getRetriesOnStatus() {
+    return retriesOnStatus.get();
+  }
+
+  /** @return the number of retries because the request could not be sent or answered */
+  public long getRetriesOnException() {
+    return retriesOnException.get();
+  }
+
+  /**
+   * @return the number of requests sent again with a new access token because the NFVO rejected the
+   *     previous one, which are not counted as retries of the RetryPolicy
+   */
+  public long getRetriesOnUnauthorized() {
+    return retriesOnUnauthorized.get();
+  }
+
+  /** @return the number of requests which failed although the RetryPolicy retried them */
+  public long getExhausted() {
+    return exhausted.get();
+  }
+
+  /** @return the total time waited between attempts, in milliseconds */
+  public long getBackoffMillis() {
+    return backoffMillis.get();
+  }
+
+  @Override
+  public String toString() {
+    return "RetryStatistics{"
+        + "attempts="
+        + attempts
+        + ", retriesOnStatus="
+        + retriesOnStatus
+        + ", retriesOnException="
+        + retriesOnException
+        + ", retriesOnUnauthorized="
+        + retriesOnUnauthorized
+        + ", exhausted="
+        + exhausted
+        + ", backoffMillis="
+        + backoffMillis
+        + '}';
+  }
+}
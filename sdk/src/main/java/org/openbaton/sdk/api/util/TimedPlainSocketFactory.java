@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.protocol.HttpContext;
+import org.openbaton.sdk.api.tracing.Phase;
+
+/** Measures the CONNECT phase of the new http connections of the blocking HttpClient. */
+class TimedPlainSocketFactory extends PlainConnectionSocketFactory {
+
+  @Override
+  public Socket connectSocket(
+      int connectTimeout,
+      Socket socket,
+      HttpHost host,
+      InetSocketAddress remoteAddress,
+      InetSocketAddress localAddress,
+      HttpContext context)
+      throws IOException {
+    long start = System.nanoTime();
+    try {
+      return super.connectSocket(
+          connectTimeout, socket, host, remoteAddress, localAddress, context);
+    } finally {
+      PhaseTimer.record(Phase.CONNECT, System.nanoTime() - start);
+    }
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+import java.io.IOException;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+import org.openbaton.sdk.api.tracing.Phase;
+
+/** Measures the SEND and FIRST_BYTE phases of the requests of the blocking HttpClient. */
+class TimedRequestExecutor extends HttpRequestExecutor {
+
+  @Override
+  protected HttpResponse doSendRequest(
+      HttpRequest request, HttpClientConnection conn, HttpContext context)
+      throws IOException, HttpException {
+    long start = System.nanoTime();
+    try {
+      return super.doSendRequest(request, conn, context);
+    } finally {
+      PhaseTimer.record(Phase.SEND, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  protected HttpResponse doReceiveResponse(
+      HttpRequest request, HttpClientConnection conn, HttpContext context)
+      throws HttpException, IOException {
+    long start = System.nanoTime();
+    try {
+      return super.doReceiveResponse(request, conn, context);
+    } finally {
+      PhaseTimer.record(Phase.FIRST_BYTE, System.nanoTime() - start);
+    }
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.protocol.HttpContext;
+import org.openbaton.sdk.api.tracing.Phase;
+
+/**
+ * Measures the CONNECT and TLS phases of the new https connections of the blocking HttpClient.
+ * connectSocket opens the TCP connection and then calls createLayeredSocket for the handshake, so
+ * the CONNECT phase is the duration of connectSocket without the handshake.
+ */
+class TimedSslSocketFactory extends SSLConnectionSocketFactory {
+
+  TimedSslSocketFactory(SSLContext sslContext, HostnameVerifier hostnameVerifier) {
+    super(sslContext, hostnameVerifier);
+  }
+
+  TimedSslSocketFactory(
+      SSLContext sslContext,
+      String[] supportedProtocols,
+      String[] supportedCipherSuites,
+      HostnameVerifier hostnameVerifier) {
+    super(sslContext, supportedProtocols, supportedCipherSuites, hostnameVerifier);
+  }
+
+  @Override
+  public Socket connectSocket(
+      int connectTimeout,
+      Socket socket,
+      HttpHost host,
+      InetSocketAddress remoteAddress,
+      InetSocketAddress localAddress,
+      HttpContext context)
+      throws IOException {
+    PhaseTimer timer = PhaseTimer.current();
+    if (timer == null) {
+      return super.connectSocket(
+          connectTimeout, socket, host, remoteAddress, localAddress, context);
+    }
+    long start = System.nanoTime();
+    long tlsBefore = timer.get(Phase.TLS);
+    try {
+      return super.connectSocket(
+          connectTimeout, socket, host, remoteAddress, localAddress, context);
+    } finally {
+      long tls = timer.get(Phase.TLS) - tlsBefore;
+      timer.add(Phase.CONNECT, System.nanoTime() - start - tls);
+    }
+  }
+
+  @Override
+  public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context)
+      throws IOException {
+    long start = System.nanoTime();
+    try {
+      return super.createLayeredSocket(socket, target, port, context);
+    } finally {
+      PhaseTimer.record(Phase.TLS, System.nanoTime() - start);
+    }
+  }
+}
@@ -0,0 +1,524 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.conn.HttpHostConnectException;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+import org.openbaton.exceptions.NotFoundException;
+import org.openbaton.nfvo.common.utils.key.KeyHelper;
+import org.openbaton.sdk.api.exception.SDKException;
+import org.openbaton.sdk.api.metrics.SdkMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Obtains and caches the access token of a RestSession.
+ *
+ * <p>Only one thread at a time fetches a new token, the others wait for it and then use the same
+ * token instead of logging in themselves. If the NFVO tells how long a token is valid, a new one is
+ * fetched shortly before it expires, while the other threads keep using the old one. The value of
+ * the authorization header is computed once per token. The TokenManager class is thread safe.
+ */
+public class TokenManager {
+
+  private Logger log = LoggerFactory.getLogger(this.getClass());
+
+  private final Supplier<CloseableHttpClient> httpClient;
+  private final SdkMetrics metrics;
+  // the session's display mapper, which pretty prints the responses in the log messages
+  private final Gson gson;
+  private final long refreshMarginNanos;
+
+  private final String provider;
+  private final String serviceTokenUrl;
+  private final String username;
+  private final String password;
+  private final boolean isService;
+  private final String serviceName;
+  private final String serviceKey;
+  private final String encoding =
+      Base64.encodeBase64String(("openbatonOSClient" + ":" + "secret").getBytes());
+
+  private final ReentrantLock refreshLock = new ReentrantLock();
+  private final AtomicLong refreshCount = new AtomicLong();
+  private volatile Token token = null;
+  // the login started for the async agents, null while none is running, guarded by this
+  private CompletableFuture<String> asyncLogin;
+
+  private TokenManager(
+      Supplier<CloseableHttpClient> httpClient,
+      SdkMetrics metrics,
+      Gson displayMapper,
+      long refreshMargin,
+      String provider,
+      String username,
+      String password,
+      String serviceTokenUrl,
+      String serviceName,
+      String serviceKey,
+      boolean isService) {
+    this.httpClient = httpClient;
+    this.metrics = metrics;
+    this.gson = displayMapper;
+    this.refreshMarginNanos = TimeUnit.MILLISECONDS.toNanos(refreshMargin);
+    this.provider = provider;
+    this.username = username;
+    this.password = password;
+    this.serviceTokenUrl = serviceTokenUrl;
+    this.serviceName = serviceName;
+    this.serviceKey = serviceKey;
+    this.isService = isService;
+  }
+
+  /**
+   * TokenManager for normal users, which log in with the OAuth password grant.
+   *
+   * @param httpClient supplies the HttpClient used for fetching the tokens
+   * @param metrics the receiver of the token refresh measurements
+   * @param displayMapper the pretty printing Gson of the session, see RestSession#getDisplayMapper
+   * @param provider the url of the NFVO's token endpoint
+   * @param username the username
+   * @param password the password
+   * @param refreshMargin how many milliseconds before its expiration a token is renewed
+   * @return the TokenManager
+   */
+  static TokenManager forUser(
+      Supplier<CloseableHttpClient> httpClient,
+      SdkMetrics metrics,
+      Gson displayMapper,
+      String provider,
+      String username,
+      String password,
+      long refreshMargin) {
+    return new TokenManager(
+        httpClient,
+        metrics,
+        displayMapper,
+        refreshMargin,
+        provider,
+        username,
+        password,
+        null,
+        null,
+        null,
+        false);
+  }
+
+  /**
+   * TokenManager for services, which register themselves with their service key.
+   *
+   * @param httpClient supplies the HttpClient used for fetching the tokens
+   * @param metrics the receiver of the token refresh measurements
+   * @param displayMapper the pretty printing Gson of the session, see RestSession#getDisplayMapper
+   * @param serviceTokenUrl the url at which services register
+   * @param serviceName the name of the service
+   * @param serviceKey the key of the service
+   * @param refreshMargin how many milliseconds before its expiration a token is renewed
+   * @return the TokenManager
+   */
+  static TokenManager forService(
+      Supplier<CloseableHttpClient> httpClient,
+      SdkMetrics metrics,
+      Gson displayMapper,
+      String serviceTokenUrl,
+      String serviceName,
+      String serviceKey,
+      long refreshMargin) {
+    return new TokenManager(
+        httpClient,
+        metrics,
+        displayMapper,
+        refreshMargin,
+        null,
+        null,
+        null,
+        serviceTokenUrl,
+        serviceName,
+        serviceKey,
+        true);
+  }
+
+  /**
+   * Returns the value of the authorization header for the next request, fetching a new token first
+   * if there is none or if the current one expired. Returns null if there are no credentials to log
+   * in with, in which case the requests are sent without authorization header.
+   *
+   * @return the authorization header, e.g. "Bearer 1234", or null
+   * @throws SDKException if a new token is needed and cannot be obtained
+   */
+  public String getAuthorizationHeader() throws SDKException {
+    if (!hasCredentials()) {
+      return null;
+    }
+    Token current = token;
+    long now = System.nanoTime();
+    if (current != null && !current.isExpired(now)) {
+      if (current.shouldRefresh(now) && refreshLock.tryLock()) {
+        // renew the token in advance, the other threads go on with the current one meanwhile
+        try {
+          if (token == current) {
+            refresh();
+          }
+        } catch (SDKException e) {
+          log.warn("Could not renew the token before its expiration: " + e.getMessage());
+        } finally {
+          refreshLock.unlock();
+        }
+      }
+      Token renewed = token;
+      return renewed != null ? renewed.authorizationHeader : current.authorizationHeader;
+    }
+    refreshLock.lock();
+    try {
+      // another thread may have fetched a token while this one was waiting
+      current = token;
+      if (current == null || current.isExpired(System.nanoTime())) {
+        current = refresh();
+      }
+      return current.authorizationHeader;
+    } finally {
+      refreshLock.unlock();
+    }
+  }
+
+  /**
+   * The non-blocking variant of getAuthorizationHeader, used by the async agents. If the current
+   * token can be used, the returned future is complete already. Otherwise a login runs on the given
+   * executor, and all the requests arriving while it runs share its result instead of occupying a
+   * thread each. A token which is only due for renewal is still returned right away, while it is
+   * renewed in the background.
+   *
+   * @param executor runs the blocking login
+   * @return a future holding the authorization header, or null if there are no credentials
+   */
+  CompletableFuture<String> getAuthorizationHeaderAsync(Executor executor) {
+    if (!hasCredentials()) {
+      return CompletableFuture.completedFuture(null);
+    }
+    Token current = token;
+    long now = System.nanoTime();
+    if (current != null && !current.isExpired(now)) {
+      if (current.shouldRefresh(now)) {
+        login(executor);
+      }
+      return CompletableFuture.completedFuture(current.authorizationHeader);
+    }
+    return login(executor);
+  }
+
+  private synchronized CompletableFuture<String> login(Executor executor) {
+    if (asyncLogin == null) {
+      CompletableFuture<String> login = new CompletableFuture<>();
+      asyncLogin = login;
+      try {
+        executor.execute(
+            () -> {
+              try {
+                login.complete(getAuthorizationHeader());
+              } catch (SDKException | RuntimeException e) {
+                login.completeExceptionally(e);
+              } finally {
+                synchronized (this) {
+                  asyncLogin = null;
+                }
+              }
+            });
+      } catch (RejectedExecutionException e) {
+        asyncLogin = null;
+        login.completeExceptionally(e);
+      }
+      return login;
+    }
+    return asyncLogin;
+  }
+
+  /**
+   * Discard the token which was used for a request rejected by the NFVO. If a new token was fetched
+   * in the meantime, e.g. because another request was rejected as well, it is kept, so that
+   * concurrent rejections cause only one new login.
+   *
+   * @param authorizationHeader the authorization header of the rejected request
+   */
+  public void invalidate(String authorizationHeader) {
+    Token current = token;
+    if (current != null && current.authorizationHeader.equals(authorizationHeader)) {
+      refreshLock.lock();
+      try {
+        if (token == current) {
+          token = null;
+        }
+      } finally {
+        refreshLock.unlock();
+      }
+    }
+  }
+
+  /** Discard the current token, so that the next request fetches a new one. */
+  public void invalidate() {
+    refreshLock.lock();
+    try {
+      token = null;
+    } finally {
+      refreshLock.unlock();
+    }
+  }
+
+  /** @return the current access token, or null if there is none */
+  public String getToken() {
+    Token current = token;
+    return current != null ? current.value : null;
+  }
+
+  /** @return how many tokens were fetched from the NFVO so far */
+  public long getRefreshCount() {
+    return refreshCount.get();
+  }
+
+  private boolean hasCredentials() {
+    if (isService) {
+      return serviceName != null && !serviceName.equals("");
+    }
+    return username != null && password != null && !password.equals("");
+  }
+
+  /** Must be called while holding the refresh lock. */
+  private Token refresh() throws SDKException {
+    try {
+      Token newToken = isService ? fetchServiceToken() : fetchUserToken();
+      refreshCount.incrementAndGet();
+      metrics.recordTokenRefresh(true);
+      token = newToken;
+      return newToken;
+    } catch (Exception e) {
+      metrics.recordTokenRefresh(false);
+      log.error(e.getMessage(), e);
+      throw new SDKException(
+          (isService ? "Could not get service token" : "Could not get user token"),
+          e.getStackTrace(),
+          e.getMessage());
+    }
+  }
+
+  private Token fetchServiceToken() throws SDKException {
+    try {
+      log.debug("Registering Service " + serviceName);
+
+      String encryptedMessage =
+          KeyHelper.encryptNew(
+              "{\"name\":\"" + serviceName + "\",\"action\":\"register\"}", serviceKey);
+
+      HttpPost httpPost = new HttpPost(this.serviceTokenUrl);
+      httpPost.setHeader(new BasicHeader("accept", "application/json"));
+      httpPost.setHeader(new BasicHeader("Content-Type", "text/plain"));
+      httpPost.setEntity(new StringEntity(encryptedMessage));
+
+      log.debug("Post: " + httpPost.getURI());
+      JsonObject responseJson;
+      try (CloseableHttpResponse response = httpClient.get().execute(httpPost)) {
+        RestUtils.checkStatus(response, HttpURLConnection.HTTP_CREATED);
+        if (response.getEntity() == null) {
+          log.error("The response entity is null when trying to get the access token.");
+          throw new NullPointerException(
+              "The response entity is null when trying to get the access token.");
+        }
+        String responseString = EntityUtils.toString(response.getEntity());
+        try {
+          responseJson = gson.fromJson(responseString, JsonObject.class);
+        } catch (Exception e) {
+          log.error("The response does not seem to be valid Json: " + responseString);
+          throw e;
+        }
+      } finally {
+        httpPost.releaseConnection();
+      }
+      if (!responseJson.has("token"))
+        throw new NotFoundException(
+            "Did not find the 'token' field in the NFVO's response: " + gson.toJson(responseJson));
+      String encryptedToken;
+      try {
+        encryptedToken = responseJson.getAsJsonPrimitive("token").getAsString();
+      } catch (Exception e) {
+        log.error(
+            "The 'token' field in the NFVO's response does not seem to be of type String: "
+                + gson.toJson(responseJson));
+        throw e;
+      }
+
+      String decryptedToken = KeyHelper.decryptNew(encryptedToken, serviceKey);
+      log.trace("Token is: " + decryptedToken);
+      // the service registration does not tell when the token expires
+      return new Token(decryptedToken, -1);
+    } catch (HttpHostConnectException httpHostConnectException) {
+      throw new SDKException("Host unreachable: " + httpHostConnectException.getMessage());
+    } catch (Exception e) {
+      throw new SDKException(e);
+    }
+  }
+
+  private Token fetchUserToken() throws IOException, SDKException {
+    HttpPost httpPost = new HttpPost(provider);
+    httpPost.setHeader("Authorization", "Basic " + encoding);
+    List<BasicNameValuePair> parametersBody = new ArrayList<>();
+    parametersBody.add(new BasicNameValuePair("grant_type", "password"));
+    parametersBody.add(new BasicNameValuePair("username", this.username));
+    parametersBody.add(new BasicNameValuePair("password", this.password));
+
+    log.debug("Username is: " + username);
+
+    httpPost.setEntity(new UrlEncodedFormEntity(parametersBody, StandardCharsets.UTF_8));
+
+    log.debug("httpPost is: " + httpPost.toString());
+    String responseString;
+    int statusCode;
+    try (CloseableHttpResponse response = httpClient.get().execute(httpPost)) {
+      responseString = EntityUtils.toString(response.getEntity());
+      statusCode = response.getStatusLine().getStatusCode();
+    } finally {
+      httpPost.releaseConnection();
+    }
+    log.trace(statusCode + ": " + responseString);
+
+    if (statusCode != 200) {
+      JsonObject error = gson.fromJson(responseString, JsonObject.class);
+
+      JsonElement detailMessage = error.get("detailMessage");
+      if (detailMessage == null) {
+        detailMessage = error.get("errorMessage");
+      }
+      if (detailMessage == null) {
+        detailMessage = error.get("message");
+      }
+      if (detailMessage == null) {
+        detailMessage = error.get("description");
+      }
+      if (detailMessage == null) {
+        detailMessage = error.get("errorDescription");
+      }
+
+      log.error(
+          "Status Code ["
+              + statusCode
+              + "]: Error signing-in ["
+              + (detailMessage != null ? detailMessage.getAsString() : "no error description")
+              + "]");
+
+      if (detailMessage == null) {
+        log.error("Got Error from server: \n" + gson.toJson(error));
+      }
+      throw new SDKException(
+          "Status Code ["
+              + statusCode
+              + "]: Error signing-in ["
+              + (detailMessage != null ? detailMessage.getAsString() : "no error description")
+              + "]",
+          new StackTraceElement[0],
+          (detailMessage != null ? detailMessage.getAsString() : "no error description"));
+    }
+    JsonObject jobj = gson.fromJson(responseString, JsonObject.class);
+    log.trace("JsonTokenAccess is: " + jobj.toString());
+    JsonElement value = jobj.get("value");
+    if (value == null) {
+      JsonElement error = jobj.get("error");
+      if (error != null && error.getAsString().equals("invalid_grant")) {
+        throw new SDKException(
+            "Error during authentication: " + jobj.get("error_description").getAsString(),
+            new StackTraceElement[0],
+            jobj.get("error_description").getAsString());
+      }
+      throw new SDKException(
+          "Did not find the token in the NFVO's response",
+          new StackTraceElement[0],
+          gson.toJson(jobj));
+    }
+    log.trace(value.getAsString());
+    return new Token(value.getAsString(), getExpiresIn(jobj));
+  }
+
+  /**
+   * @return the validity of the token in seconds, as sent by the NFVO in the expiresIn or
+   *     expires_in field, or -1 if the response does not contain it
+   */
+  private long getExpiresIn(JsonObject tokenJson) {
+    JsonElement expiresIn = tokenJson.get("expiresIn");
+    if (expiresIn == null) {
+      expiresIn = tokenJson.get("expires_in");
+    }
+    if (expiresIn == null || !expiresIn.isJsonPrimitive()) {
+      return -1;
+    }
+    try {
+      return expiresIn.getAsLong();
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  private final class Token {
+    private final String value;
+    private final String authorizationHeader;
+    // System.nanoTime values, Long.MAX_VALUE if the expiration is not known
+    private final long expiresAt;
+    private final long refreshAt;
+
+    private Token(String value, long expiresInSeconds) {
+      this.value = value;
+      this.authorizationHeader = ("Bearer " + value).replace("\"", "");
+      long now = System.nanoTime();
+      if (expiresInSeconds > 0) {
+        long lifetime = TimeUnit.SECONDS.toNanos(expiresInSeconds);
+        this.expiresAt = now + lifetime;
+        // never renew a short-lived token earlier than halfway through its lifetime
+        this.refreshAt = now + Math.max(lifetime - refreshMarginNanos, lifetime / 2);
+      } else {
+        this.expiresAt = Long.MAX_VALUE;
+        this.refreshAt = Long.MAX_VALUE;
+      }
+    }
+
+    private boolean isExpired(long now) {
+      return expiresAt != Long.MAX_VALUE && now - expiresAt >= 0;
+    }
+
+    private boolean shouldRefresh(long now) {
+      return refreshAt != Long.MAX_VALUE && now - refreshAt >= 0;
+    }
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package org.openbaton.sdk.api.watch;
+
+import org.openbaton.catalogue.nfvo.Action;
+
+/**
+ * Gets notified by an {@link EventReceiver} about the events the NFVO sends for a subscription.
+ *
+ * @param <T> the type of the event payload, the NetworkServiceRecord or VirtualNetworkFunctionRecord
+ *     concerned
+ */
+public interface EventListener<T> {
+
+  /**
+   * Called from a worker thread of the EventReceiver for every event. Events of the same
+   * subscription may be delivered concurrently and not necessarily in the order they were sent.
+   *
+   * @param action the action which caused the event, e.g. INSTANTIATE_FINISH
+   * @param payload the record concerned
+   */
+  void onEvent(Action action, T payload);
+}
@@ -0,0 +1,405 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.watch;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openbaton.catalogue.mano.record.NetworkServiceRecord;
+import org.openbaton.catalogue.mano.record.VirtualNetworkFunctionRecord;
+import org.openbaton.catalogue.nfvo.Action;
+import org.openbaton.catalogue.nfvo.EndpointType;
+import org.openbaton.catalogue.nfvo.EventEndpoint;
+import org.openbaton.sdk.api.exception.SDKException;
+import org.openbaton.sdk.api.rest.EventAgent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Receives the events the NFVO pushes to REST EventEndpoints, so that callers can react to status
+ * changes without polling.
+ *
+ * <p>The receiver runs an embedded HTTP server and registers one EventEndpoint per subscription at
+ * the NFVO through the EventAgent. Every subscription gets its own random path, from which the
+ * receiver knows the listener and the payload type of an event. The request threads of the server
+ * only read the events into a bounded queue, a pool of worker threads decodes them and calls the
+ * listeners. If the queue is full the NFVO gets a 503 response, so a slow listener cannot make the
+ * receiver run out of memory.
+ *
+ * <p>The receiver only accepts events which carry its random token, which it registers as query
+ * parameter of the EventEndpoint urls, and which are posted to a subscription path below its
+ * configured path. Others are answered with 403 or 404, so that a host which can reach the receiver
+ * but does not know the token cannot inject events. By default the receiver listens only on the
+ * address of its callback url.
+ *
+ * <p>The NFVO has to be able to reach the receiver's callback url. The receiver has to be closed,
+ * which also deletes its EventEndpoints at the NFVO. The EventReceiver class is thread safe.
+ */
+public class EventReceiver implements Closeable {
+
+  private static final AtomicInteger threadCount = new AtomicInteger();
+
+  private Logger log = LoggerFactory.getLogger(this.getClass());
+
+  private final EventAgent agent;
+  private final Gson mapper;
+  private final EventReceiverConfig config;
+  private final HttpServer server;
+  private final ExecutorService requestExecutor;
+  private final ThreadPoolExecutor workers;
+  private final String callbackUrl;
+  private final String contextPath;
+  // sent back by the NFVO with every event, as query parameter of the registered urls
+  private final String token = newToken();
+  private final Map<String, Registration<?>> registrations = new ConcurrentHashMap<>();
+  private volatile boolean closed = false;
+
+  private final AtomicLong received = new AtomicLong();
+  private final AtomicLong rejected = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+
+  /**
+   * Start the embedded HTTP server. No EventEndpoint is registered before the first subscription.
+   *
+   * @param agent the agent used to register the EventEndpoints
+   * @param mapper the Gson used to decode the event payloads
+   * @param config the options of the receiver
+   * @throws IOException if the server cannot listen on the configured address
+   */
+  public EventReceiver(EventAgent agent, Gson mapper, EventReceiverConfig config)
+      throws IOException {
+    this.agent = agent;
+    this.mapper = mapper;
+    this.config = config;
+    this.contextPath = stripSlash(config.getPath());
+    // look up the addresses before anything is bound or started, which would leak otherwise
+    InetAddress bindAddress = getBindAddress(config);
+    InetAddress host =
+        config.getCallbackUrl() == null && bindAddress.isAnyLocalAddress()
+            ? InetAddress.getLocalHost()
+            : bindAddress;
+    this.server = HttpServer.create(new InetSocketAddress(bindAddress, config.getPort()), 0);
+    if (config.getCallbackUrl() != null) {
+      this.callbackUrl = stripSlash(config.getCallbackUrl());
+    } else {
+      String hostAddress =
+          host instanceof Inet6Address ? "[" + host.getHostAddress() + "]" : host.getHostAddress();
+      this.callbackUrl =
+          "http://" + hostAddress + ":" + server.getAddress().getPort() + contextPath;
+    }
+    this.requestExecutor = Executors.newFixedThreadPool(2, threadFactory("openbaton-events-io-"));
+    this.workers =
+        new ThreadPoolExecutor(
+            config.getWorkerThreads(),
+            config.getWorkerThreads(),
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(config.getQueueCapacity()),
+            threadFactory("openbaton-events-"));
+    this.server.setExecutor(requestExecutor);
+    this.server.createContext(config.getPath(), this::handle);
+    this.server.start();
+    log.debug("Receiving events at " + callbackUrl);
+  }
+
+  /**
+   * Receive the events of NetworkServiceRecords.
+   *
+   * @param action the action to receive the events of, e.g. INSTANTIATE_FINISH
+   * @param nsrId the ID of the NetworkServiceRecord, or null for the events of all of them
+   * @param listener the listener notified about the events
+   * @return the subscription with which the EventEndpoint can be deleted
+   * @throws SDKException if the EventEndpoint cannot be registered
+   */
+  public Subscription subscribeNetworkServiceRecordEvents(
+      Action action, String nsrId, EventListener<NetworkServiceRecord> listener)
+      throws SDKException {
+    EventEndpoint endpoint = new EventEndpoint();
+    endpoint.setEvent(action);
+    endpoint.setNetworkServiceId(nsrId);
+    return subscribe(endpoint, NetworkServiceRecord.class, listener);
+  }
+
+  /**
+   * Receive the events of a VirtualNetworkFunctionRecord.
+   *
+   * @param action the action to receive the events of, e.g. START
+   * @param vnfrId the ID of the VirtualNetworkFunctionRecord
+   * @param listener the listener notified about the events
+   * @return the subscription with which the EventEndpoint can be deleted
+   * @throws SDKException if the EventEndpoint cannot be registered
+   */
+  public Subscription subscribeVirtualNetworkFunctionRecordEvents(
+      Action action, String vnfrId, EventListener<VirtualNetworkFunctionRecord> listener)
+      throws SDKException {
+    EventEndpoint endpoint = new EventEndpoint();
+    endpoint.setEvent(action);
+    endpoint.setVirtualNetworkFunctionId(vnfrId);
+    return subscribe(endpoint, VirtualNetworkFunctionRecord.class, listener);
+  }
+
+  /** @return the base url registered at the NFVO, without the subscription paths and the token */
+  public String getCallbackUrl() {
+    return callbackUrl;
+  }
+
+  /** @return the number of events accepted */
+  public long getReceivedCount() {
+    return received.get();
+  }
+
+  /** @return the number of events answered with 503 because the queue was full */
+  public long getRejectedCount() {
+    return rejected.get();
+  }
+
+  /** @return the number of events which could not be decoded or whose listener failed */
+  public long getFailedCount() {
+    return failed.get();
+  }
+
+  /** @return the number of events waiting for a worker */
+  public int getQueuedCount() {
+    return workers.getQueue().size();
+  }
+
+  /**
+   * Delete all the EventEndpoints of this receiver at the NFVO and stop the HTTP server. The events
+   * already queued are still delivered.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    for (String key : new ArrayList<>(registrations.keySet())) {
+      unsubscribe(key);
+    }
+    server.stop(0);
+    requestExecutor.shutdownNow();
+    workers.shutdown();
+  }
+
+  private <T> Subscription subscribe(
+      EventEndpoint endpoint, Class<T> payloadType, EventListener<T> listener) throws SDKException {
+    if (closed) {
+      throw new IllegalStateException("The EventReceiver is closed");
+    }
+    String key = UUID.randomUUID().toString();
+    endpoint.setName("sdk-event-receiver-" + key);
+    endpoint.setType(EndpointType.REST);
+    endpoint.setEndpoint(callbackUrl + "/" + key + "?token=" + token);
+    Registration<T> registration = new Registration<>(payloadType, listener);
+    // registered before the endpoint exists, so that no early event is lost
+    registrations.put(key, registration);
+    try {
+      registration.endpointId = agent.create(endpoint).getId();
+    } catch (SDKException | RuntimeException e) {
+      registrations.remove(key);
+      throw e;
+    }
+    return () -> unsubscribe(key);
+  }
+
+  private void unsubscribe(String key) {
+    Registration<?> registration = registrations.remove(key);
+    if (registration == null || registration.endpointId == null) {
+      return;
+    }
+    try {
+      agent.delete(registration.endpointId);
+    } catch (SDKException e) {
+      log.warn(
+          "Could not delete the EventEndpoint " + registration.endpointId + ": " + e.getMessage());
+    }
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try {
+      if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      if (!hasToken(exchange.getRequestURI().getRawQuery())) {
+        log.debug("Rejected an event without the token from " + exchange.getRemoteAddress());
+        exchange.sendResponseHeaders(403, -1);
+        return;
+      }
+      // the server also passes paths which only start with the context path, e.g. /path-other/x
+      String path = exchange.getRequestURI().getPath();
+      String prefix = contextPath + "/";
+      Registration<?> registration =
+          path.startsWith(prefix) ? registrations.get(path.substring(prefix.length())) : null;
+      if (registration == null) {
+        exchange.sendResponseHeaders(404, -1);
+        return;
+      }
+      byte[] body = readBody(exchange.getRequestBody());
+      if (body == null) {
+        exchange.sendResponseHeaders(413, -1);
+        return;
+      }
+      try {
+        workers.execute(() -> dispatch(registration, body));
+      } catch (RejectedExecutionException e) {
+        rejected.incrementAndGet();
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        exchange.sendResponseHeaders(503, -1);
+        return;
+      }
+      received.incrementAndGet();
+      exchange.sendResponseHeaders(200, -1);
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private <T> void dispatch(Registration<T> registration, byte[] body) {
+    Action action;
+    T payload;
+    try {
+      JsonObject event =
+          new JsonParser().parse(new String(body, StandardCharsets.UTF_8)).getAsJsonObject();
+      if (!event.has("action") || !event.has("payload")) {
+        throw new JsonParseException("The event has no action or payload");
+      }
+      action = Action.valueOf(event.get("action").getAsString());
+      payload = mapper.fromJson(event.get("payload"), registration.payloadType);
+    } catch (JsonParseException | IllegalStateException | IllegalArgumentException e) {
+      failed.incrementAndGet();
+      log.warn("Could not decode an event: " + e.getMessage());
+      return;
+    }
+    try {
+      registration.listener.onEvent(action, payload);
+    } catch (RuntimeException e) {
+      failed.incrementAndGet();
+      log.error("Event listener failed", e);
+    }
+  }
+
+  /** @return the body, or null if it is larger than the maximum event size */
+  private byte[] readBody(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    int n;
+    while ((n = in.read(buffer)) != -1) {
+      if (out.size() + n > config.getMaxEventSize()) {
+        return null;
+      }
+      out.write(buffer, 0, n);
+    }
+    return out.toByteArray();
+  }
+
+  private boolean hasToken(String query) {
+    if (query == null) {
+      return false;
+    }
+    for (String parameter : query.split("&")) {
+      if (parameter.startsWith("token=")) {
+        byte[] received = parameter.substring(6).getBytes(StandardCharsets.UTF_8);
+        // compared in constant time, so that the token cannot be guessed from the response time
+        return MessageDigest.isEqual(received, token.getBytes(StandardCharsets.UTF_8));
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the configured bind address, or else the host of the callback url if it is a local
+   *     address, or else this host's address
+   */
+  private static InetAddress getBindAddress(EventReceiverConfig config) throws IOException {
+    if (config.getBindAddress() != null) {
+      return InetAddress.getByName(config.getBindAddress());
+    }
+    if (config.getCallbackUrl() != null) {
+      String host = URI.create(config.getCallbackUrl()).getHost();
+      try {
+        InetAddress address = host != null ? InetAddress.getByName(host) : null;
+        if (address != null && NetworkInterface.getByInetAddress(address) != null) {
+          return address;
+        }
+      } catch (UnknownHostException e) {
+        // e.g. a name which only resolves on the NFVO's side of a NAT, so not a local one
+      }
+    }
+    return InetAddress.getLocalHost();
+  }
+
+  private static String newToken() {
+    byte[] bytes = new byte[16];
+    new SecureRandom().nextBytes(bytes);
+    StringBuilder token = new StringBuilder();
+    for (byte b : bytes) {
+      token.append(String.format("%02x", b));
+    }
+    return token.toString();
+  }
+
+  private static String stripSlash(String url) {
+    return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+  }
+
+  private static ThreadFactory threadFactory(String prefix) {
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  private static final class Registration<T> {
+    private final Class<T> payloadType;
+    private final EventListener<T> listener;
+    private volatile String endpointId;
+
+    private Registration(Class<T> payloadType, EventListener<T> listener) {
+      this.payloadType = payloadType;
+      this.listener = listener;
+    }
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.watch;
+
+/**
+ * Options of an {@link EventReceiver}. The defaults let the receiver listen on an ephemeral port of
+ * this host's address and register itself with that address.
+ */
+public class EventReceiverConfig {
+
+  // local address the receiver listens on, null means the host of the callback url if it is a
+  // local address, this host's address otherwise; "0.0.0.0" listens on all interfaces
+  private String bindAddress = null;
+  // 0 means an ephemeral port
+  private int port = 0;
+  // every subscription gets its own path below this one
+  private String path = "/openbaton-events";
+  // base url registered at the NFVO, e.g. if the receiver is behind a NAT, null means the local
+  // host address, the port and the path
+  private String callbackUrl = null;
+  // threads decoding the events and calling the listeners
+  private int workerThreads = 4;
+  // events waiting for a worker, further events are answered with 503
+  private int queueCapacity = 1000;
+  // larger events are answered with 413
+  private int maxEventSize = 16 * 1024 * 1024;
+
+  public String getBindAddress() {
+    return bindAddress;
+  }
+
+  public void setBindAddress(String bindAddress) {
+    this.bindAddress = bindAddress;
+  }
+
+  public int getPort() {
+    return port;
+  }
+
+  public void setPort(int port) {
+    this.port = port;
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public void setPath(String path) {
+    this.path = path;
+  }
+
+  public String getCallbackUrl() {
+    return callbackUrl;
+  }
+
+  public void setCallbackUrl(String callbackUrl) {
+    this.callbackUrl = callbackUrl;
+  }
+
+  public int getWorkerThreads() {
+    return workerThreads;
+  }
+
+  public void setWorkerThreads(int workerThreads) {
+    this.workerThreads = workerThreads;
+  }
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public void setQueueCapacity(int queueCapacity) {
+    this.queueCapacity = queueCapacity;
+  }
+
+  public int getMaxEventSize() {
+    return maxEventSize;
+  }
+
+  public void setMaxEventSize(int maxEventSize) {
+    this.maxEventSize = maxEventSize;
+  }
+}
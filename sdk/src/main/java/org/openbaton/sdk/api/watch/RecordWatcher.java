@@ -0,0 +1,494 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.watch;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.openbaton.catalogue.mano.record.NetworkServiceRecord;
+import org.openbaton.catalogue.mano.record.Status;
+import org.openbaton.catalogue.mano.record.VirtualNetworkFunctionRecord;
+import org.openbaton.sdk.api.exception.SDKException;
+import org.openbaton.sdk.api.rest.NetworkServiceRecordAgent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches the status of NetworkServiceRecords and VirtualNetworkFunctionRecords by polling the NFVO
+ * on behalf of any number of listeners, so that callers do not need their own polling loops.
+ *
+ * <p>Every record is polled once per interval, no matter how many listeners watch it. The interval
+ * adapts to the record: it starts with minInterval and is reset to it whenever the status changes.
+ * While the status stays the same the interval grows by backoffMultiplier up to maxInterval, but
+ * only up to nearCompletionInterval once the record is close to a final status, i.e. a
+ * VirtualNetworkFunctionRecord is INACTIVE, SCALING or RESUMING, or a NetworkServiceRecord which is
+ * still INITIALIZED has VirtualNetworkFunctionRecords which are not anymore. A record is not polled
+ * anymore once it has no listeners.
+ *
+ * <p>The listeners are called from the RecordWatcher's threads and should return quickly. The
+ * RecordWatcher class is thread safe.
+ */
+public class RecordWatcher implements Closeable {
+
+  private static final AtomicInteger threadCount = new AtomicInteger();
+
+  private Logger log = LoggerFactory.getLogger(this.getClass());
+
+  private final NetworkServiceRecordAgent agent;
+  private final ScheduledExecutorService scheduler;
+  // guarded by this
+  private final Map<String, Watch<?>> watches = new HashMap<>();
+  // the futures returned by awaitStatus which are not complete yet, guarded by this
+  private final Set<CompletableFuture<?>> awaits = new HashSet<>();
+  private boolean closed = false;
+
+  private final AtomicLong polls = new AtomicLong();
+
+  private volatile long minInterval = 1000;
+  private volatile long maxInterval = 15000;
+  private volatile long nearCompletionInterval = 2000;
+  private volatile double backoffMultiplier = 1.5;
+  private volatile int maxConsecutiveFailures = 3;
+
+  /**
+   * @param agent the agent used to poll the records
+   * @param pollerThreads the number of threads polling the records and calling the listeners
+   */
+  public RecordWatcher(NetworkServiceRecordAgent agent, int pollerThreads) {
+    this.agent = agent;
+    ScheduledThreadPoolExecutor executor =
+        new ScheduledThreadPoolExecutor(
+            pollerThreads,
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "openbaton-watcher-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    executor.setRemoveOnCancelPolicy(true);
+    this.scheduler = executor;
+  }
+
+  /**
+   * Watch the status of a NetworkServiceRecord.
+   *
+   * @param nsrId the ID of the NetworkServiceRecord
+   * @param listener the listener notified about the status changes
+   * @return the subscription with which the listener can be removed
+   */
+  public Subscription watchNetworkServiceRecord(
+      final String nsrId, StatusListener<NetworkServiceRecord> listener) {
+    return subscribe(
+        "NetworkServiceRecord " + nsrId,
+        () -> agent.findById(nsrId),
+        NetworkServiceRecord::getStatus,
+        RecordWatcher::isNearCompletion,
+        listener);
+  }
+
+  /**
+   * Watch the status of a VirtualNetworkFunctionRecord.
+   *
+   * @param nsrId the ID of the NetworkServiceRecord containing the VirtualNetworkFunctionRecord
+   * @param vnfrId the ID of the VirtualNetworkFunctionRecord
+   * @param listener the listener notified about the status changes
+   * @return the subscription with which the listener can be removed
+   */
+  public Subscription watchVirtualNetworkFunctionRecord(
+      final String nsrId,
+      final String vnfrId,
+      StatusListener<VirtualNetworkFunctionRecord> listener) {
+    return subscribe(
+        "VirtualNetworkFunctionRecord " + vnfrId + " of NetworkServiceRecord " + nsrId,
+        () -> agent.getVirtualNetworkFunctionRecord(nsrId, vnfrId),
+        VirtualNetworkFunctionRecord::getStatus,
+        vnfr -> isTransitional(vnfr.getStatus()),
+        listener);
+  }
+
+  /**
+   * Wait until a NetworkServiceRecord reaches a status. The returned future completes exceptionally
+   * with an SDKException if the record goes into status ERROR instead, if it could not be polled or
+   * if the timeout elapsed. Cancelling the future stops watching the record.
+   *
+   * @param nsrId the ID of the NetworkServiceRecord
+   * @param status the status to wait for, e.g. ACTIVE
+   * @param timeout the maximum time to wait
+   * @param unit the time unit of the timeout
+   * @return a future holding the NetworkServiceRecord once it reached the status
+   */
+  public CompletableFuture<NetworkServiceRecord> awaitStatus(
+      final String nsrId, final Status status, long timeout, TimeUnit unit) {
+    return await(
+        "NetworkServiceRecord " + nsrId,
+        NetworkServiceRecord::getStatus,
+        status,
+        timeout,
+        unit,
+        listener -> watchNetworkServiceRecord(nsrId, listener));
+  }
+
+  /**
+   * Wait until a VirtualNetworkFunctionRecord reaches a status. See {@link #awaitStatus(String,
+   * Status, long, TimeUnit)}.
+   *
+   * @param nsrId the ID of the NetworkServiceRecord containing the VirtualNetworkFunctionRecord
+   * @param vnfrId the ID of the VirtualNetworkFunctionRecord
+   * @param status the status to wait for, e.g. ACTIVE
+   * @param timeout the maximum time to wait
+   * @param unit the time unit of the timeout
+   * @return a future holding the VirtualNetworkFunctionRecord once it reached the status
+   */
+  public CompletableFuture<VirtualNetworkFunctionRecord> awaitStatus(
+      final String nsrId, final String vnfrId, final Status status, long timeout, TimeUnit unit) {
+    return await(
+        "VirtualNetworkFunctionRecord " + vnfrId,
+        VirtualNetworkFunctionRecord::getStatus,
+        status,
+        timeout,
+        unit,
+        listener -> watchVirtualNetworkFunctionRecord(nsrId, vnfrId, listener));
+  }
+
+  /**
+   * Stop watching all the records. The listeners are not notified, but the futures returned by
+   * awaitStatus which are not complete yet complete exceptionally with an SDKException.
+   */
+  @Override
+  public void close() {
+    List<CompletableFuture<?>> pending;
+    synchronized (this) {
+      closed = true;
+      watches.clear();
+      pending = new ArrayList<>(awaits);
+      awaits.clear();
+    }
+    for (CompletableFuture<?> future : pending) {
+      future.completeExceptionally(closedException());
+    }
+    scheduler.shutdownNow();
+  }
+
+  /** @return the number of records watched right now */
+  public synchronized int getWatchedRecordCount() {
+    return watches.size();
+  }
+
+  /** @return the number of requests sent to the NFVO so far */
+  public long getPollCount() {
+    return polls.get();
+  }
+
+  private <T> CompletableFuture<T> await(
+      String name,
+      Function<T, Status> statusOf,
+      Status status,
+      long timeout,
+      TimeUnit unit,
+      Function<StatusListener<T>, Subscription> subscribe) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    Subscription subscription =
+        subscribe.apply(
+            new StatusListener<T>() {
+              @Override
+              public void statusChanged(T record, Status previousStatus) {
+                Status current = statusOf.apply(record);
+                if (current == status) {
+                  future.complete(record);
+                } else if (current == Status.ERROR) {
+                  future.completeExceptionally(
+                      new SDKException(
+                          name + " is in status ERROR",
+                          new StackTraceElement[0],
+                          "Waited for status " + status));
+                }
+              }
+
+              @Override
+              public void watchFailed(SDKException error) {
+                future.completeExceptionally(error);
+              }
+            });
+    synchronized (this) {
+      if (closed) {
+        subscription.cancel();
+        future.completeExceptionally(closedException());
+        return future;
+      }
+      awaits.add(future);
+    }
+    ScheduledFuture<?> timer;
+    try {
+      timer =
+          scheduler.schedule(
+              () ->
+                  future.completeExceptionally(
+                      new SDKException(
+                          "Timeout while waiting for " + name,
+                          new StackTraceElement[0],
+                          "Status " + status + " not reached after " + timeout + " " + unit)),
+              timeout,
+              unit);
+    } catch (RejectedExecutionException e) {
+      // closed in the meantime, close() completed the future already
+      timer = null;
+    }
+    ScheduledFuture<?> scheduled = timer;
+    future.whenComplete(
+        (record, error) -> {
+          if (scheduled != null) {
+            scheduled.cancel(false);
+          }
+          subscription.cancel();
+          synchronized (this) {
+            awaits.remove(future);
+          }
+        });
+    return future;
+  }
+
+  private static SDKException closedException() {
+    return new SDKException(
+        "The RecordWatcher was closed",
+        new StackTraceElement[0],
+        "Stopped waiting for the status of the record");
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> Subscription subscribe(
+      String key,
+      Loader<T> loader,
+      Function<T, Status> statusOf,
+      Predicate<T> nearCompletion,
+      StatusListener<T> listener) {
+    Watch<T> watch;
+    synchronized (this) {
+      if (closed) {
+        throw new IllegalStateException("The RecordWatcher is closed");
+      }
+      watch = (Watch<T>) watches.get(key);
+      if (watch == null) {
+        watch = new Watch<>(key, loader, statusOf, nearCompletion);
+        watches.put(key, watch);
+        watch.listeners.add(listener);
+        schedule(watch, 0);
+      } else {
+        watch.listeners.add(listener);
+        if (watch.record != null) {
+          // tell the new listener the current status without waiting for the next poll
+          T record = watch.record;
+          scheduler.execute(() -> notify(listener, record, null));
+        }
+      }
+    }
+    Watch<T> subscribed = watch;
+    return () -> unsubscribe(subscribed, listener);
+  }
+
+  private synchronized void unsubscribe(Watch<?> watch, StatusListener<?> listener) {
+    watch.listeners.remove(listener);
+    if (watch.listeners.isEmpty() && watches.get(watch.key) == watch) {
+      watches.remove(watch.key);
+      if (watch.next != null) {
+        watch.next.cancel(false);
+      }
+    }
+  }
+
+  private <T> void poll(Watch<T> watch) {
+    T record = null;
+    SDKException error = null;
+    polls.incrementAndGet();
+    try {
+      record = watch.loader.load();
+    } catch (SDKException e) {
+      error = e;
+    } catch (RuntimeException e) {
+      error = new SDKException(e);
+    }
+
+    List<StatusListener<T>> listeners;
+    Status previous;
+    boolean changed = false;
+    boolean failed = false;
+    synchronized (this) {
+      if (closed || watches.get(watch.key) != watch) {
+        return;
+      }
+      listeners = new ArrayList<>(watch.listeners);
+      previous = watch.status;
+      if (error != null) {
+        watch.failures++;
+        log.debug("Could not poll " + watch.key + ": " + error.getMessage());
+        if (watch.failures >= maxConsecutiveFailures) {
+          watches.remove(watch.key);
+          failed = true;
+        } else {
+          watch.interval = Math.min(maxInterval, (long) (watch.interval * backoffMultiplier));
+          schedule(watch, watch.interval);
+        }
+      } else {
+        Status status = watch.statusOf.apply(record);
+        changed = watch.record == null || status != watch.status;
+        watch.failures = 0;
+        watch.record = record;
+        watch.status = status;
+        watch.interval = nextInterval(watch, record, changed);
+        schedule(watch, watch.interval);
+      }
+    }
+
+    if (failed) {
+      log.warn("Stop watching " + watch.key + ": " + error.getMessage());
+      for (StatusListener<T> listener : listeners) {
+        try {
+          listener.watchFailed(error);
+        } catch (RuntimeException e) {
+          log.error("Status listener failed", e);
+        }
+      }
+    } else if (changed) {
+      log.debug(watch.key + " changed from " + previous + " to " + watch.statusOf.apply(record));
+      for (StatusListener<T> listener : listeners) {
+        notify(listener, record, previous);
+      }
+    }
+  }
+
+  private <T> void notify(StatusListener<T> listener, T record, Status previous) {
+    try {
+      listener.statusChanged(record, previous);
+    } catch (RuntimeException e) {
+      log.error("Status listener failed", e);
+    }
+  }
+
+  private <T> long nextInterval(Watch<T> watch, T record, boolean changed) {
+    if (changed) {
+      return minInterval;
+    }
+    long next = (long) (watch.interval * backoffMultiplier);
+    if (watch.nearCompletion.test(record)) {
+      return Math.max(minInterval, Math.min(next, nearCompletionInterval));
+    }
+    return Math.min(next, maxInterval);
+  }
+
+  // must hold the lock
+  private <T> void schedule(Watch<T> watch, long delay) {
+    watch.next = scheduler.schedule(() -> poll(watch), delay, TimeUnit.MILLISECONDS);
+  }
+
+  private static boolean isNearCompletion(NetworkServiceRecord nsr) {
+    if (isTransitional(nsr.getStatus())) {
+      return true;
+    }
+    if (nsr.getStatus() != Status.INITIALIZED || nsr.getVnfr() == null) {
+      return false;
+    }
+    return nsr.getVnfr()
+        .stream()
+        .anyMatch(vnfr -> vnfr.getStatus() != null && vnfr.getStatus() != Status.INITIALIZED);
+  }
+
+  private static boolean isTransitional(Status status) {
+    return status == Status.INACTIVE || status == Status.SCALING || status == Status.RESUMING;
+  }
+
+  public long getMinInterval() {
+    return minInterval;
+  }
+
+  public void setMinInterval(long minInterval) {
+    this.minInterval = minInterval;
+  }
+
+  public long getMaxInterval() {
+    return maxInterval;
+  }
+
+  public void setMaxInterval(long maxInterval) {
+    this.maxInterval = maxInterval;
+  }
+
+  public long getNearCompletionInterval() {
+    return nearCompletionInterval;
+  }
+
+  public void setNearCompletionInterval(long nearCompletionInterval) {
+    this.nearCompletionInterval = nearCompletionInterval;
+  }
+
+  public double getBackoffMultiplier() {
+    return backoffMultiplier;
+  }
+
+  public void setBackoffMultiplier(double backoffMultiplier) {
+    this.backoffMultiplier = backoffMultiplier;
+  }
+
+  public int getMaxConsecutiveFailures() {
+    return maxConsecutiveFailures;
+  }
+
+  public void setMaxConsecutiveFailures(int maxConsecutiveFailures) {
+    this.maxConsecutiveFailures = maxConsecutiveFailures;
+  }
+
+  /** Fetches a watched record from the NFVO. */
+  private interface Loader<T> {
+    T load() throws SDKException;
+  }
+
+  /** The state of a watched record, guarded by the RecordWatcher. */
+  private final class Watch<T> {
+    private final String key;
+    private final Loader<T> loader;
+    private final Function<T, Status> statusOf;
+    private final Predicate<T> nearCompletion;
+    private final List<StatusListener<T>> listeners = new ArrayList<>();
+
+    private T record;
+    private Status status;
+    private long interval = minInterval;
+    private int failures = 0;
+    private ScheduledFuture<?> next;
+
+    private Watch(
+        String key, Loader<T> loader, Function<T, Status> statusOf, Predicate<T> nearCompletion) {
+      this.key = key;
+      this.loader = loader;
+      this.statusOf = statusOf;
+      this.nearCompletion = nearCompletion;
+    }
+  }
+}
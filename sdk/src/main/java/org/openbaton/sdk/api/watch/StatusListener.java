@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.watch;
+
+import org.openbaton.catalogue.mano.record.Status;
+import org.openbaton.sdk.api.exception.SDKException;
+
+/**
+ * Gets notified by a {@link RecordWatcher} when the status of a watched NetworkServiceRecord or
+ * VirtualNetworkFunctionRecord changes.
+ *
+ * @param <T> the type of the watched record
+ */
+public interface StatusListener<T> {
+
+  /**
+   * Called from a thread of the RecordWatcher after the first poll of the record and after every
+   * poll in which its status differs from the previous one.
+   *
+   * @param record the record as returned by the NFVO
+   * @param previousStatus the status before the change, or null on the first notification
+   */
+  void statusChanged(T record, Status previousStatus);
+
+  /**
+   * Called if the record could not be polled maxConsecutiveFailures times in a row. The record is
+   * not watched for this listener anymore afterwards.
+   *
+   * @param error the exception of the last poll
+   */
+  default void watchFailed(SDKException error) {}
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class EndpointNormalizerTest {
+
+  @Test
+  public void replacesUuidSegments() {
+    assertEquals(
+        "/api/v1/ns-records/{id}/vnfrecords/{id}",
+        EndpointNormalizer.normalize(
+            "/api/v1/ns-records/8f3b0c2e-5d4a-4b6f-9e1d-2a7c3b8d9e0f"
+                + "/vnfrecords/1A2C3D4E-5F60-4718-A9B0-C1D2E3F4A5B6"));
+  }
+
+  @Test
+  public void replacesNumericSegments() {
+    assertEquals("/api/v1/events/{id}", EndpointNormalizer.normalize("/api/v1/events/42"));
+  }
+
+  @Test
+  public void replacesLongHexadecimalSegments() {
+    assertEquals(
+        "/api/v1/keys/{id}", EndpointNormalizer.normalize("/api/v1/keys/0123456789abcdef"));
+  }
+
+  @Test
+  public void keepsShortHexadecimalWords() {
+    assertEquals(
+        "/api/v1/vnf-packages/add/face",
+        EndpointNormalizer.normalize("/api/v1/vnf-packages/add/face"));
+  }
+
+  @Test
+  public void keepsSegmentsWhichOnlyLookLikeUuids() {
+    String notUuid = "/api/v1/ns-records/8f3b0c2e_5d4a_4b6f_9e1d_2a7c3b8d9e0f";
+    assertEquals(notUuid, EndpointNormalizer.normalize(notUuid));
+  }
+
+  @Test
+  public void removesTheQueryString() {
+    assertEquals(
+        "/api/v1/ns-descriptors/{id}",
+        EndpointNormalizer.normalize("/api/v1/ns-descriptors/7?token=abc&page=2"));
+  }
+
+  @Test
+  public void keepsEmptySegmentsAndTrailingSlashes() {
+    assertEquals("/api//v1/{id}/", EndpointNormalizer.normalize("/api//v1/7/"));
+  }
+
+  @Test
+  public void normalizesAMissingPathToTheRoot() {
+    assertEquals("/", EndpointNormalizer.normalize(null));
+    assertEquals("/", EndpointNormalizer.normalize(""));
+    assertEquals("/", EndpointNormalizer.normalize("/"));
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+
+public class BulkheadTest {
+
+  private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+
+  @After
+  public void shutdownTimer() {
+    timer.shutdownNow();
+  }
+
+  @Test
+  public void rejectsWhenAllPermitsAreTakenAndNoneIsReleasedInTime() throws Exception {
+    Bulkhead bulkhead = new Bulkhead(2, 10);
+    assertTrue(bulkhead.tryAcquire());
+    assertTrue(bulkhead.tryAcquire());
+    assertEquals(0, bulkhead.getAvailablePermits());
+
+    assertFalse(bulkhead.tryAcquire());
+
+    bulkhead.release();
+    assertTrue(bulkhead.tryAcquire());
+  }
+
+  @Test
+  public void asyncAcquireCompletesAtOnceIfAPermitIsFree() {
+    Bulkhead bulkhead = new Bulkhead(1, 1000);
+    CompletableFuture<Boolean> permit = bulkhead.acquireAsync(timer);
+    assertTrue(permit.isDone());
+    assertTrue(permit.join());
+  }
+
+  @Test
+  public void asyncAcquireIsRejectedAtOnceWithoutMaxWait() {
+    Bulkhead bulkhead = new Bulkhead(1, 0);
+    bulkhead.acquireAsync(timer);
+    CompletableFuture<Boolean> permit = bulkhead.acquireAsync(timer);
+    assertTrue(permit.isDone());
+    assertFalse(permit.join());
+    assertEquals(0, bulkhead.getQueuedRequests());
+  }
+
+  @Test
+  public void releaseHandsThePermitToTheFirstQueuedRequest() {
+    Bulkhead bulkhead = new Bulkhead(1, 60000);
+    assertTrue(bulkhead.acquireAsync(timer).join());
+    CompletableFuture<Boolean> first = bulkhead.acquireAsync(timer);
+    CompletableFuture<Boolean> second = bulkhead.acquireAsync(timer);
+    assertFalse(first.isDone());
+    assertEquals(2, bulkhead.getQueuedRequests());
+
+    bulkhead.release();
+    assertTrue(first.join());
+    assertFalse(second.isDone());
+    assertEquals(0, bulkhead.getAvailablePermits());
+
+    bulkhead.release();
+    assertTrue(second.join());
+  }
+
+  @Test
+  public void queuedRequestIsRejectedAfterMaxWait() throws Exception {
+    Bulkhead bulkhead = new Bulkhead(1, 50);
+    bulkhead.acquireAsync(timer);
+    CompletableFuture<Boolean> permit = bulkhead.acquireAsync(timer);
+
+    assertFalse(permit.get(5, TimeUnit.SECONDS));
+    assertEquals(0, bulkhead.getQueuedRequests());
+
+    // the permit released afterwards is not lost to the timed out request
+    bulkhead.release();
+    assertEquals(1, bulkhead.getAvailablePermits());
+  }
+
+  @Test
+  public void cancelledRequestDoesNotTakeThePermit() {
+    Bulkhead bulkhead = new Bulkhead(1, 60000);
+    bulkhead.acquireAsync(timer);
+    CompletableFuture<Boolean> cancelled = bulkhead.acquireAsync(timer);
+    CompletableFuture<Boolean> waiting = bulkhead.acquireAsync(timer);
+    cancelled.cancel(false);
+
+    bulkhead.release();
+    assertTrue(waiting.join());
+  }
+
+  @Test
+  public void cancelWaitersFailsTheQueuedRequests() throws Exception {
+    Bulkhead bulkhead = new Bulkhead(1, 60000);
+    bulkhead.acquireAsync(timer);
+    CompletableFuture<Boolean> permit = bulkhead.acquireAsync(timer);
+    IllegalStateException reason = new IllegalStateException("closed");
+
+    bulkhead.cancelWaiters(reason);
+    try {
+      permit.get();
+      fail("The queued request got a permit");
+    } catch (ExecutionException e) {
+      assertEquals(reason, e.getCause());
+    }
+    assertEquals(0, bulkhead.getQueuedRequests());
+  }
+}
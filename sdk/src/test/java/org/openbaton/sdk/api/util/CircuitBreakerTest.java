@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.openbaton.sdk.api.util.CircuitBreaker.State;
+
+public class CircuitBreakerTest {
+
+  private static final long LONG_OPEN = 60000;
+
+  @Test
+  public void staysClosedUntilTheMinimumNumberOfCalls() {
+    CircuitBreaker circuitBreaker = new CircuitBreaker("test", 50, 10, 4, LONG_OPEN, 1);
+    for (int i = 0; i < 3; i++) {
+      assertTrue(circuitBreaker.tryAcquirePermission());
+      circuitBreaker.onFailure();
+    }
+    assertEquals(State.CLOSED, circuitBreaker.getState());
+    assertEquals(-1, circuitBreaker.getFailureRate(), 0);
+
+    circuitBreaker.onFailure();
+    assertEquals(State.OPEN, circuitBreaker.getState());
+  }
+
+  @Test
+  public void opensAtTheFailureRateThresholdAndRejectsRequests() {
+    CircuitBreaker circuitBreaker = new CircuitBreaker("test", 50, 4, 4, LONG_OPEN, 1);
+    circuitBreaker.onSuccess();
+    circuitBreaker.onSuccess();
+    circuitBreaker.onFailure();
+    assertEquals(State.CLOSED, circuitBreaker.getState());
+
+    circuitBreaker.onFailure();
+    assertEquals(State.OPEN, circuitBreaker.getState());
+    assertFalse(circuitBreaker.tryAcquirePermission());
+    assertTrue(circuitBreaker.getRemainingOpenTime() > 0);
+  }
+
+  @Test
+  public void slidingWindowForgetsTheOldestOutcomes() {
+    CircuitBreaker circuitBreaker = new CircuitBreaker("test", 50, 4, 4, LONG_OPEN, 1);
+    circuitBreaker.onFailure();
+    circuitBreaker.onSuccess();
+    circuitBreaker.onSuccess();
+    circuitBreaker.onSuccess();
+    assertEquals(25, circuitBreaker.getFailureRate(), 0);
+
+    // replaces the failure
+    circuitBreaker.onSuccess();
+    assertEquals(0, circuitBreaker.getFailureRate(), 0);
+
+    circuitBreaker.onFailure();
+    assertEquals(State.CLOSED, circuitBreaker.getState());
+  }
+
+  @Test
+  public void halfOpenClosesWhenAllProbesSucceed() {
+    CircuitBreaker circuitBreaker = new CircuitBreaker("test", 50, 2, 2, 0, 2);
+    circuitBreaker.onFailure();
+    circuitBreaker.onFailure();
+    assertEquals(State.OPEN, circuitBreaker.getState());
+
+    // the open state duration is over at once
+    assertTrue(circuitBreaker.tryAcquirePermission());
+    assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+    assertTrue(circuitBreaker.tryAcquirePermission());
+    assertFalse(circuitBreaker.tryAcquirePermission());
+
+    circuitBreaker.onSuccess();
+    assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+    circuitBreaker.onSuccess();
+    assertEquals(State.CLOSED, circuitBreaker.getState());
+    assertEquals(-1, circuitBreaker.getFailureRate(), 0);
+  }
+
+  @Test
+  public void halfOpenReopensWhenAProbeFails() {
+    CircuitBreaker circuitBreaker = new CircuitBreaker("test", 50, 2, 2, 0, 2);
+    circuitBreaker.onFailure();
+    circuitBreaker.onFailure();
+    assertTrue(circuitBreaker.tryAcquirePermission());
+    assertTrue(circuitBreaker.tryAcquirePermission());
+
+    circuitBreaker.onSuccess();
+    circuitBreaker.onFailure();
+    assertEquals(State.OPEN, circuitBreaker.getState());
+  }
+
+  @Test
+  public void releasedProbeCanBeUsedAgain() {
+    CircuitBreaker circuitBreaker = new CircuitBreaker("test", 50, 1, 1, 0, 1);
+    circuitBreaker.onFailure();
+    assertTrue(circuitBreaker.tryAcquirePermission());
+    assertFalse(circuitBreaker.tryAcquirePermission());
+
+    circuitBreaker.releasePermission();
+    assertTrue(circuitBreaker.tryAcquirePermission());
+    assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsAnEmptySlidingWindow() {
+    new CircuitBreaker("test", 50, 0, 1, LONG_OPEN, 1);
+  }
+}
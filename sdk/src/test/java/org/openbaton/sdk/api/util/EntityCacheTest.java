@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.http.client.methods.HttpGet;
+import org.junit.Test;
+
+public class EntityCacheTest {
+
+  private static final String NSD = "http://localhost:8080/api/v1/ns-descriptors";
+  private static final String VNFD = "http://localhost:8080/api/v1/vnf-descriptors";
+
+  @Test
+  public void storedResponseIsFreshUntilTheTtlElapsed() throws Exception {
+    EntityCache cache = new EntityCache(10, 50);
+    cache.put("p", NSD + "/1", "{}", null, null, cache.getGeneration());
+    EntityCache.Entry entry = cache.get("p", NSD + "/1");
+    assertEquals("{}", entry.getBody());
+    assertTrue(entry.isFresh());
+
+    Thread.sleep(60);
+    assertFalse(entry.isFresh());
+    // stale entries are kept for the conditional request
+    assertNotNull(cache.get("p", NSD + "/1"));
+  }
+
+  @Test
+  public void revalidationMakesAStaleResponseFreshAgain() throws Exception {
+    EntityCache cache = new EntityCache(10, 50);
+    cache.put("p", NSD, "[]", "\"v1\"", "Mon, 01 Jan 2018 00:00:00 GMT", cache.getGeneration());
+    Thread.sleep(60);
+    EntityCache.Entry stale = cache.get("p", NSD);
+    assertFalse(stale.isFresh());
+
+    HttpGet conditional = new HttpGet(NSD);
+    stale.addConditionalHeaders(conditional);
+    assertEquals("\"v1\"", conditional.getFirstHeader("If-None-Match").getValue());
+    assertEquals(
+        "Mon, 01 Jan 2018 00:00:00 GMT",
+        conditional.getFirstHeader("If-Modified-Since").getValue());
+
+    cache.revalidated("p", NSD, stale, cache.getGeneration());
+    assertTrue(cache.get("p", NSD).isFresh());
+    assertEquals("[]", cache.get("p", NSD).getBody());
+    assertEquals(1, cache.getRevalidationCount());
+  }
+
+  @Test
+  public void leastRecentlyUsedResponseIsEvicted() {
+    EntityCache cache = new EntityCache(2, 60000);
+    cache.put("p", NSD + "/1", "1", null, null, cache.getGeneration());
+    cache.put("p", NSD + "/2", "2", null, null, cache.getGeneration());
+    // makes the second one the least recently used
+    cache.get("p", NSD + "/1");
+    cache.put("p", NSD + "/3", "3", null, null, cache.getGeneration());
+
+    assertEquals(2, cache.size());
+    assertNotNull(cache.get("p", NSD + "/1"));
+    assertNull(cache.get("p", NSD + "/2"));
+    assertNotNull(cache.get("p", NSD + "/3"));
+    assertEquals(1, cache.getEvictionCount());
+  }
+
+  @Test
+  public void responsesAreSeparatedByProject() {
+    EntityCache cache = new EntityCache(10, 60000);
+    cache.put("a", NSD, "of a", null, null, cache.getGeneration());
+    assertNull(cache.get("b", NSD));
+    assertEquals("of a", cache.get("a", NSD).getBody());
+  }
+
+  @Test
+  public void invalidateRemovesThePrefixInAllProjects() {
+    EntityCache cache = new EntityCache(10, 60000);
+    cache.put("a", NSD + "/1", "", null, null, cache.getGeneration());
+    cache.put("b", NSD, "", null, null, cache.getGeneration());
+    cache.put("a", VNFD, "", null, null, cache.getGeneration());
+
+    cache.invalidate(NSD);
+    assertNull(cache.get("a", NSD + "/1"));
+    assertNull(cache.get("b", NSD));
+    assertNotNull(cache.get("a", VNFD));
+    assertEquals(2, cache.getInvalidationCount());
+
+    cache.clear();
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void responseRequestedBeforeAnInvalidationOfItsUrlIsNotStored() {
+    EntityCache cache = new EntityCache(10, 60000);
+    long generation = cache.getGeneration();
+    cache.invalidate(NSD);
+
+    cache.put("p", NSD + "/1", "outdated", null, null, generation);
+    assertNull(cache.get("p", NSD + "/1"));
+
+    cache.put("p", NSD + "/1", "current", null, null, cache.getGeneration());
+    assertEquals("current", cache.get("p", NSD + "/1").getBody());
+  }
+
+  @Test
+  public void invalidationOfOtherUrlsDoesNotPreventStoring() {
+    EntityCache cache = new EntityCache(10, 60000);
+    long generation = cache.getGeneration();
+    cache.invalidate(VNFD);
+
+    cache.put("p", NSD, "[]", null, null, generation);
+    assertNotNull(cache.get("p", NSD));
+  }
+
+  @Test
+  public void invalidationBeforeTheRequestDoesNotPreventStoring() {
+    EntityCache cache = new EntityCache(10, 60000);
+    cache.invalidate(NSD);
+    long generation = cache.getGeneration();
+
+    cache.put("p", NSD, "[]", null, null, generation);
+    assertNotNull(cache.get("p", NSD));
+  }
+
+  @Test
+  public void revalidationIsSkippedAfterAnInvalidation() throws Exception {
+    EntityCache cache = new EntityCache(10, 50);
+    cache.put("p", NSD, "[]", "\"v1\"", null, cache.getGeneration());
+    Thread.sleep(60);
+    EntityCache.Entry stale = cache.get("p", NSD);
+    long generation = cache.getGeneration();
+    cache.invalidate(NSD);
+
+    cache.revalidated("p", NSD, stale, generation);
+    assertNull(cache.get("p", NSD));
+    assertEquals(0, cache.getRevalidationCount());
+  }
+
+  @Test
+  public void clearPreventsStoringAllTheResponsesInFlight() {
+    EntityCache cache = new EntityCache(10, 60000);
+    long generation = cache.getGeneration();
+    cache.clear();
+
+    cache.put("p", VNFD, "[]", null, null, generation);
+    assertNull(cache.get("p", VNFD));
+  }
+
+  @Test
+  public void manyInvalidatedPrefixesCountAsOneInvalidationOfEverything() {
+    EntityCache cache = new EntityCache(10, 60000);
+    long generation = cache.getGeneration();
+    for (int i = 0; i < 300; i++) {
+      cache.invalidate(VNFD + "/" + i);
+    }
+
+    cache.put("p", NSD, "[]", null, null, generation);
+    assertNull(cache.get("p", NSD));
+
+    cache.put("p", NSD, "[]", null, null, cache.getGeneration());
+    assertNotNull(cache.get("p", NSD));
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+import org.openbaton.sdk.api.exception.SDKException;
+
+public class RequestCoalescerTest {
+
+  private static final int WAITERS = 3;
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+  private final RequestCoalescer coalescer = new RequestCoalescer();
+  private final CountDownLatch loading = new CountDownLatch(1);
+  private final CountDownLatch answer = new CountDownLatch(1);
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @After
+  public void shutdownExecutor() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void concurrentCallsForTheSameKeyShareOneLoad() throws Exception {
+    Object result = new Object();
+    List<Future<Object>> calls = callWhileLoading("key", () -> result);
+
+    assertEquals(1, loads.get());
+    assertEquals(1, coalescer.getRequestCount());
+    assertEquals(WAITERS, coalescer.getCoalescedCount());
+    for (Future<Object> call : calls) {
+      assertSame(result, call.get(5, TimeUnit.SECONDS));
+    }
+    assertEquals(0, coalescer.getInFlightCount());
+  }
+
+  @Test
+  public void callsForOtherKeysAreNotCoalesced() throws Exception {
+    Future<Object> leader = executor.submit(() -> coalescer.execute("a", blockingLoader("a")));
+    assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+    Object other = coalescer.execute("b", () -> "b");
+
+    assertEquals("b", other);
+    assertEquals(2, coalescer.getRequestCount());
+    assertEquals(0, coalescer.getCoalescedCount());
+    answer.countDown();
+    assertEquals("a", leader.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void theKeyIsFreeAgainOnceTheLoadIsAnswered() throws Exception {
+    assertEquals("first", coalescer.execute("key", () -> "first"));
+    assertEquals("second", coalescer.execute("key", () -> "second"));
+
+    assertEquals(2, coalescer.getRequestCount());
+    assertEquals(0, coalescer.getCoalescedCount());
+    assertEquals(0, coalescer.getInFlightCount());
+  }
+
+  @Test
+  public void ioExceptionIsPassedToTheWaiters() throws Exception {
+    IOException failure = new IOException("Connection refused");
+    assertWaitersFailWith(
+        failure,
+        () -> {
+          throw failure;
+        });
+  }
+
+  @Test
+  public void sdkExceptionIsPassedToTheWaiters() throws Exception {
+    SDKException failure = new SDKException("Status is 500", new StackTraceElement[0], "Error");
+    assertWaitersFailWith(
+        failure,
+        () -> {
+          throw failure;
+        });
+  }
+
+  @Test
+  public void runtimeExceptionIsPassedToTheWaiters() throws Exception {
+    IllegalStateException failure = new IllegalStateException("Malformed response");
+    assertWaitersFailWith(
+        failure,
+        () -> {
+          throw failure;
+        });
+  }
+
+  @Test
+  public void theKeyIsFreeAgainAfterAFailure() throws Exception {
+    try {
+      coalescer.execute(
+          "key",
+          () -> {
+            throw new IOException("Connection refused");
+          });
+      fail("The load did not fail");
+    } catch (IOException expected) {
+    }
+
+    assertEquals("retried", coalescer.execute("key", () -> "retried"));
+    assertEquals(0, coalescer.getInFlightCount());
+  }
+
+  /**
+   * Start a load for the key and make {@link #WAITERS} more calls for it while it is blocked, then
+   * answer it with the given loader and wait for all the calls to finish.
+   */
+  private List<Future<Object>> callWhileLoading(
+      String key, RequestCoalescer.Loader<Object> answerLoader) throws Exception {
+    List<Future<Object>> calls = new ArrayList<>();
+    calls.add(executor.submit(() -> coalescer.execute(key, blockingLoader(answerLoader))));
+    assertTrue(loading.await(5, TimeUnit.SECONDS));
+    for (int i = 0; i < WAITERS; i++) {
+      calls.add(executor.submit(() -> coalescer.execute(key, blockingLoader(answerLoader))));
+    }
+    long deadline = System.currentTimeMillis() + 5000;
+    while (coalescer.getCoalescedCount() < WAITERS && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+    answer.countDown();
+    for (Future<Object> call : calls) {
+      try {
+        call.get(5, TimeUnit.SECONDS);
+      } catch (ExecutionException ignored) {
+      }
+    }
+    return calls;
+  }
+
+  private void assertWaitersFailWith(Exception failure, RequestCoalescer.Loader<Object> loader)
+      throws Exception {
+    List<Future<Object>> calls = callWhileLoading("key", loader);
+
+    assertEquals(1, loads.get());
+    assertEquals(WAITERS, coalescer.getCoalescedCount());
+    for (Future<Object> call : calls) {
+      try {
+        call.get(5, TimeUnit.SECONDS);
+        fail("The call did not fail");
+      } catch (ExecutionException e) {
+        assertSame(failure, e.getCause());
+      }
+    }
+    assertEquals(0, coalescer.getInFlightCount());
+  }
+
+  private RequestCoalescer.Loader<Object> blockingLoader(Object result) {
+    return blockingLoader(() -> result);
+  }
+
+  private RequestCoalescer.Loader<Object> blockingLoader(RequestCoalescer.Loader<Object> loader) {
+    return () -> {
+      loads.incrementAndGet();
+      loading.countDown();
+      try {
+        if (!answer.await(5, TimeUnit.SECONDS)) {
+          throw new IllegalStateException("The test did not answer the load");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      }
+      return loader.load();
+    };
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2016 Open Baton (http://www.openbaton.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.openbaton.sdk.api.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import javax.net.ssl.SSLException;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.Test;
+
+public class RetryPolicyTest {
+
+  private static final String URL = "http://localhost:8080/api/v1/ns-records";
+
+  @Test
+  public void backoffGrowsExponentiallyUpToTheMaximum() {
+    RetryPolicy retryPolicy = withRandom(0);
+    assertEquals(200, retryPolicy.getDelay(1, null));
+    assertEquals(400, retryPolicy.getDelay(2, null));
+    assertEquals(800, retryPolicy.getDelay(3, null));
+    assertEquals(5000, retryPolicy.getDelay(10, null));
+  }
+
+  @Test
+  public void jitterShortensTheDelayByAtMostItsShare() {
+    assertEquals(100, withRandom(1).getDelay(1, null));
+    RetryPolicy retryPolicy = new RetryPolicy();
+    for (int i = 0; i < 1000; i++) {
+      long delay = retryPolicy.getDelay(2, null);
+      assertTrue("delay " + delay, delay >= 200 && delay <= 400);
+    }
+  }
+
+  @Test
+  public void retryAfterIsRespectedUpToTheMaximumBackoff() {
+    RetryPolicy retryPolicy = withRandom(0);
+    assertEquals(2000, retryPolicy.getDelay(1, response(503, "2")));
+    assertEquals(5000, retryPolicy.getDelay(1, response(503, "60")));
+    // shorter than the backoff
+    assertEquals(800, retryPolicy.getDelay(3, response(503, "0")));
+    // http dates are ignored
+    assertEquals(200, retryPolicy.getDelay(1, response(503, "Wed, 21 Oct 2015 07:28:00 GMT")));
+  }
+
+  @Test
+  public void stopsAfterMaxAttempts() {
+    RetryPolicy retryPolicy = new RetryPolicy();
+    HttpGet get = new HttpGet(URL);
+    assertTrue(retryPolicy.isRetryable(get, response(503, null), 2));
+    assertFalse(retryPolicy.isRetryable(get, response(503, null), 3));
+    assertTrue(retryPolicy.isRetryable(get, new ConnectException(), 2));
+    assertFalse(retryPolicy.isRetryable(get, new ConnectException(), 3));
+    assertFalse(RetryPolicy.noRetries().isRetryable(get, new ConnectException(), 1));
+  }
+
+  @Test
+  public void onlyRetryableStatusCodesAreRetried() {
+    RetryPolicy retryPolicy = new RetryPolicy();
+    HttpGet get = new HttpGet(URL);
+    assertTrue(retryPolicy.isRetryable(get, response(502, null), 1));
+    assertTrue(retryPolicy.isRetryable(get, response(504, null), 1));
+    assertFalse(retryPolicy.isRetryable(get, response(500, null), 1));
+    assertFalse(retryPolicy.isRetryable(get, response(404, null), 1));
+  }
+
+  @Test
+  public void postIsOnlyRetriedIfItDidNotReachTheNfvo() throws Exception {
+    RetryPolicy retryPolicy = new RetryPolicy();
+    HttpPost post = new HttpPost(URL);
+    post.setEntity(new StringEntity("{}"));
+    assertTrue(retryPolicy.isRetryable(post, new ConnectException(), 1));
+    assertFalse(retryPolicy.isRetryable(post, new SocketTimeoutException(), 1));
+    assertFalse(retryPolicy.isRetryable(post, new IOException("connection reset"), 1));
+    assertFalse(retryPolicy.isRetryable(post, response(503, null), 1));
+
+    retryPolicy.setRetryNonIdempotent(true);
+    assertTrue(retryPolicy.isRetryable(post, new SocketTimeoutException(), 1));
+    assertTrue(retryPolicy.isRetryable(post, response(503, null), 1));
+  }
+
+  @Test
+  public void idempotentRequestsAreRetriedWhenTheConnectionBreaks() {
+    RetryPolicy retryPolicy = new RetryPolicy();
+    assertTrue(retryPolicy.isRetryable(new HttpGet(URL), new SocketTimeoutException(), 1));
+    assertTrue(retryPolicy.isRetryable(new HttpDelete(URL), new IOException("reset"), 1));
+  }
+
+  @Test
+  public void permanentErrorsAreNotRetried() {
+    RetryPolicy retryPolicy = new RetryPolicy();
+    HttpGet get = new HttpGet(URL);
+    assertFalse(retryPolicy.isRetryable(get, new UnknownHostException(), 1));
+    assertFalse(retryPolicy.isRetryable(get, new SSLException("handshake"), 1));
+    assertFalse(retryPolicy.isRetryable(get, new InterruptedIOException(), 1));
+  }
+
+  @Test
+  public void requestsWithANonRepeatableEntityAreNeverRetried() throws Exception {
+    RetryPolicy retryPolicy = new RetryPolicy();
+    HttpPut streamed = new HttpPut(URL);
+    streamed.setEntity(new InputStreamEntity(new ByteArrayInputStream(new byte[] {1})));
+    assertFalse(retryPolicy.isRetryable(streamed, new ConnectException(), 1));
+    assertFalse(retryPolicy.isRetryable(streamed, response(503, null), 1));
+
+    HttpPut buffered = new HttpPut(URL);
+    buffered.setEntity(new StringEntity("{}"));
+    assertTrue(retryPolicy.isRetryable(buffered, new ConnectException(), 1));
+    assertTrue(retryPolicy.isRetryable(buffered, response(503, null), 1));
+  }
+
+  private static RetryPolicy withRandom(double random) {
+    return new RetryPolicy() {
+      @Override
+      protected double randomDouble() {
+        return random;
+      }
+    };
+  }
+
+  private static HttpResponse response(int status, String retryAfter) {
+    HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, status, null);
+    if (retryAfter != null) {
+      response.setHeader("Retry-After", retryAfter);
+    }
+    return response;
+  }
+}